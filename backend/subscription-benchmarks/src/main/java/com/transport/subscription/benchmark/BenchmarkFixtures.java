@@ -0,0 +1,96 @@
+package com.transport.subscription.benchmark;
+
+import com.transport.subscription.model.PaymentMethod;
+import com.transport.subscription.model.PaymentStatus;
+import com.transport.subscription.model.PaymentType;
+import com.transport.subscription.model.Plan;
+import com.transport.subscription.model.Subscription;
+import com.transport.subscription.model.SubscriptionPayment;
+import com.transport.subscription.model.SubscriptionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Jeux de données des benchmarks : entités complètes, telles que chargées par les repositories
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Plan plan() {
+        OffsetDateTime now = OffsetDateTime.now();
+        return Plan.builder()
+                .planId(UUID.randomUUID())
+                .planCode("MONTHLY_STANDARD")
+                .description("Abonnement mensuel standard")
+                .durationDays(30)
+                .price(new BigDecimal("29.99"))
+                .currency("MAD")
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    public static Subscription subscription(Plan plan) {
+        LocalDate startDate = LocalDate.now();
+        OffsetDateTime now = OffsetDateTime.now();
+        UUID subscriptionId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        return Subscription.builder()
+                .subscriptionId(subscriptionId)
+                .userId(userId)
+                .plan(plan)
+                .status(SubscriptionStatus.ACTIVE)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(plan.getDurationDays()))
+                .nextBillingDate(startDate.plusDays(plan.getDurationDays()))
+                .amountPaid(plan.getPrice())
+                .cardToken("tok_visa_4242424242424242")
+                .cardExpMonth(12)
+                .cardExpYear(2030)
+                .qrCodeData(subscriptionId + "|" + userId + "|" + plan.getPlanCode())
+                .createdAt(now)
+                .updatedAt(now)
+                .version(1L)
+                .build();
+    }
+
+    public static SubscriptionPayment payment(Subscription subscription) {
+        OffsetDateTime now = OffsetDateTime.now();
+        return SubscriptionPayment.builder()
+                .paymentId(UUID.randomUUID())
+                .subscription(subscription)
+                .amount(subscription.getAmountPaid())
+                .currency("MAD")
+                .paymentStatus(PaymentStatus.SUCCEEDED)
+                .paymentMethod(PaymentMethod.CARD)
+                .paymentType(PaymentType.INITIAL)
+                .paymentDate(now)
+                .externalTxnId("txn_" + UUID.randomUUID())
+                .idempotencyKey(UUID.randomUUID().toString())
+                .createdAt(now)
+                .build();
+    }
+
+    public static List<Subscription> subscriptions(Plan plan, int size) {
+        List<Subscription> subscriptions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            subscriptions.add(subscription(plan));
+        }
+        return subscriptions;
+    }
+
+    public static List<SubscriptionPayment> payments(Subscription subscription, int size) {
+        List<SubscriptionPayment> payments = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            payments.add(payment(subscription));
+        }
+        return payments;
+    }
+}
@@ -0,0 +1,46 @@
+package com.transport.subscription.benchmark;
+
+import com.transport.subscription.util.DateCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de DateCalculator.calculateEndDate, appelé à chaque création, renouvellement et changement de plan
+ * Journalisation au niveau INFO (logback.xml du module) : les log.debug ne coûtent que le test de niveau.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DateCalculatorBenchmark {
+
+    private DateCalculator dateCalculator;
+    private LocalDate startDate;
+    private Integer durationDays;
+
+    @Setup
+    public void setUp() {
+        dateCalculator = new DateCalculator(Clock.systemDefaultZone());
+        startDate = LocalDate.of(2025, 1, 31);
+        durationDays = 30;
+    }
+
+    @Benchmark
+    public LocalDate calculateEndDate() {
+        return dateCalculator.calculateEndDate(startDate, durationDays);
+    }
+}
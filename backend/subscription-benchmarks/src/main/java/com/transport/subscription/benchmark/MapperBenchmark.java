@@ -0,0 +1,81 @@
+package com.transport.subscription.benchmark;
+
+import com.transport.subscription.dto.mapper.PaymentMapper;
+import com.transport.subscription.dto.mapper.SubscriptionMapper;
+import com.transport.subscription.dto.response.PaymentResponse;
+import com.transport.subscription.dto.response.SubscriptionResponse;
+import com.transport.subscription.model.Plan;
+import com.transport.subscription.model.Subscription;
+import com.transport.subscription.model.SubscriptionPayment;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût des conversions entité → DTO faites à chaque réponse des endpoints d'abonnement et de paiement
+ * Les implémentations générées par MapStruct sont instanciées sans contexte Spring.
+ * listSize couvre une réponse unitaire et l'historique d'un utilisateur (GET /users/{id}, /history).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MapperBenchmark {
+
+    @Param({"1", "20"})
+    int listSize;
+
+    private SubscriptionMapper subscriptionMapper;
+    private PaymentMapper paymentMapper;
+
+    private Subscription subscription;
+    private SubscriptionPayment payment;
+    private List<Subscription> subscriptions;
+    private List<SubscriptionPayment> payments;
+
+    @Setup
+    public void setUp() {
+        subscriptionMapper = Mappers.getMapper(SubscriptionMapper.class);
+        paymentMapper = Mappers.getMapper(PaymentMapper.class);
+
+        Plan plan = BenchmarkFixtures.plan();
+        subscription = BenchmarkFixtures.subscription(plan);
+        payment = BenchmarkFixtures.payment(subscription);
+        subscriptions = BenchmarkFixtures.subscriptions(plan, listSize);
+        payments = BenchmarkFixtures.payments(subscription, listSize);
+    }
+
+    @Benchmark
+    public SubscriptionResponse subscriptionToResponse() {
+        return subscriptionMapper.toResponse(subscription);
+    }
+
+    @Benchmark
+    public List<SubscriptionResponse> subscriptionToResponseList() {
+        return subscriptionMapper.toResponseList(subscriptions);
+    }
+
+    @Benchmark
+    public PaymentResponse paymentToResponse() {
+        return paymentMapper.toResponse(payment);
+    }
+
+    @Benchmark
+    public List<PaymentResponse> paymentToResponseList() {
+        return paymentMapper.toResponseList(payments);
+    }
+}
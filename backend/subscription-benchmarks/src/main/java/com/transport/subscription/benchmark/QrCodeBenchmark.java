@@ -0,0 +1,50 @@
+package com.transport.subscription.benchmark;
+
+import com.transport.subscription.util.QrCodeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de QrCodeGenerator.generate (String.format), appelé à chaque création d'abonnement
+ * concatenation sert de référence : même chaîne, sans analyse du format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class QrCodeBenchmark {
+
+    private UUID subscriptionId;
+    private UUID userId;
+    private String planCode;
+
+    @Setup
+    public void setUp() {
+        subscriptionId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        planCode = "MONTHLY_STANDARD";
+    }
+
+    @Benchmark
+    public String generateQrCode() {
+        return QrCodeGenerator.generate(subscriptionId, userId, planCode);
+    }
+
+    @Benchmark
+    public String concatenation() {
+        return subscriptionId + "|" + userId + "|" + planCode;
+    }
+}
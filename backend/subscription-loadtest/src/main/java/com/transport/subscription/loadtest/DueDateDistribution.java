@@ -0,0 +1,56 @@
+package com.transport.subscription.loadtest;
+
+/**
+ * Répartition des échéances des abonnements non expirés, relative au jour du chargement (jour J)
+ * Exprimée en jours écoulés depuis le début de la période courante : l'échéance tombe à
+ * J + durée du plan - ancienneté.
+ */
+public enum DueDateDistribution {
+
+    /**
+     * Souscriptions de la dernière semaine : aucune échéance avant J+1 (test de charge)
+     */
+    RECENT {
+        @Override
+        long elapsedDays(long subscription, int durationDays) {
+            return subscription % 7;
+        }
+    },
+
+    /**
+     * Échéances étalées sur toute la durée du plan (régime permanent) : chaque jour simulé en traite une fraction
+     */
+    UNIFORM {
+        @Override
+        long elapsedDays(long subscription, int durationDays) {
+            return subscription % durationDays;
+        }
+    },
+
+    /**
+     * Toutes les échéances à J (pic de début de mois)
+     */
+    SPIKE {
+        @Override
+        long elapsedDays(long subscription, int durationDays) {
+            return durationDays;
+        }
+    },
+
+    /**
+     * Échéances de J-6 à J (reprise après une semaine sans traitement)
+     */
+    BACKLOG {
+        @Override
+        long elapsedDays(long subscription, int durationDays) {
+            return durationDays + subscription % 7;
+        }
+    };
+
+    /**
+     * @param subscription Indice de l'abonnement
+     * @param durationDays Durée du plan
+     * @return Jours écoulés entre le début de la période courante et le jour du chargement
+     */
+    abstract long elapsedDays(long subscription, int durationDays);
+}
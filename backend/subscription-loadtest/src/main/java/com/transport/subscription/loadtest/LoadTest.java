@@ -0,0 +1,67 @@
+package com.transport.subscription.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test de charge de bout en bout de subscription-service
+ * 1. PostgreSQL et service démarrés par {@link LoadTestEnvironment}
+ * 2. Passerelle de paiement simulée dans le scénario demandé
+ * 3. Chargement du jeu de données synthétique par COPY, sauf s'il est déjà présent
+ * 4. Rejeu du trafic (création, consultation, liste, paiement, renouvellement) et rapport par endpoint
+ * <p>
+ * Lancement : {@code mvn -pl backend/subscription-loadtest -am compile exec:java [-Dloadtest.users=500000]
+ * [-Dloadtest.subscriptions-per-user=2] [-Dloadtest.payments-per-subscription=3]
+ * [-Dloadtest.history-per-subscription=2] [-Dloadtest.plans=40] [-Dloadtest.clients=200]
+ * [-Dloadtest.warmup-seconds=30] [-Dloadtest.duration-seconds=120]
+ * [-Dloadtest.mix=create=5,get=50,list=25,pay=15,renew=5] [-Dloadtest.skew=3]
+ * [-Dloadtest.gateway-scenario=realistic]}
+ */
+@Slf4j
+public final class LoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 200);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 30));
+    private static final Duration MEASURE = Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 120));
+    private static final String MIX = System.getProperty("loadtest.mix", "create=5,get=50,list=25,pay=15,renew=5");
+    private static final double SKEW = Double.parseDouble(System.getProperty("loadtest.skew", "3"));
+    private static final String GATEWAY_SCENARIO = System.getProperty("loadtest.gateway-scenario", "realistic");
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        SyntheticData data = new SyntheticData(
+                Integer.getInteger("loadtest.plans", 40),
+                Long.getLong("loadtest.users", 500_000L),
+                Integer.getInteger("loadtest.subscriptions-per-user", 2),
+                Integer.getInteger("loadtest.payments-per-subscription", 3),
+                Integer.getInteger("loadtest.history-per-subscription", 2));
+
+        try (LoadTestEnvironment environment = LoadTestEnvironment.start(
+                "payment.gateway.simulator.scenario=" + GATEWAY_SCENARIO)) {
+            SyntheticDataGenerator generator = new SyntheticDataGenerator(environment.dataSource(), data);
+            if (generator.isSeeded()) {
+                log.info("Jeu de données déjà présent, chargement ignoré");
+            } else {
+                generator.generate();
+            }
+
+            TrafficMix mix = new TrafficMix(environment.baseUrl(), data, MIX, SKEW);
+            log.info("Charge: {} client(s), {} s d'échauffement, {} s mesurées, répartition {}",
+                    CLIENTS, WARMUP.toSeconds(), MEASURE.toSeconds(), MIX);
+            Map<TrafficMix.Operation, LoadTestDriver.Result> results =
+                    LoadTestDriver.run(mix, CLIENTS, WARMUP, MEASURE);
+
+            List<String> report = new ArrayList<>();
+            report.add(LoadTestDriver.HEADER);
+            results.forEach((operation, result) -> report.add(result.format(operation.endpoint())));
+            log.info("Test de charge ({} abonnement(s), passerelle '{}'):\n{}",
+                    data.subscriptions(), GATEWAY_SCENARIO, String.join("\n", report));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.transport.subscription.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Pilote de charge en boucle fermée : N clients simultanés (threads virtuels) enchaînent les requêtes tirées
+ * par le {@link TrafficMix} ; les latences sont enregistrées par opération après l'échauffement.
+ */
+public final class LoadTestDriver {
+
+    public static final String HEADER = String.format("%-44s %10s %9s %9s %9s %9s %9s %7s %7s",
+            "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "4xx", "5xx");
+
+    private LoadTestDriver() {
+    }
+
+    /**
+     * Exécute la charge
+     * @param mix Tirage des requêtes
+     * @param clients Clients simultanés
+     * @param warmup Durée d'échauffement (non mesurée)
+     * @param measure Durée mesurée
+     * @return Résultats par opération
+     */
+    public static Map<TrafficMix.Operation, Result> run(TrafficMix mix, int clients, Duration warmup,
+                                                        Duration measure) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .build()) {
+            long measureStart = System.nanoTime() + warmup.toNanos();
+            long deadline = measureStart + measure.toNanos();
+            List<Future<Samples[]>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> drive(httpClient, mix, measureStart, deadline)));
+            }
+
+            Samples[] merged = newSamples();
+            for (Future<Samples[]> future : futures) {
+                Samples[] samples = future.get();
+                for (int i = 0; i < merged.length; i++) {
+                    merged[i].addAll(samples[i]);
+                }
+            }
+            Map<TrafficMix.Operation, Result> results = new EnumMap<>(TrafficMix.Operation.class);
+            for (TrafficMix.Operation operation : TrafficMix.Operation.values()) {
+                results.put(operation, merged[operation.ordinal()].toResult(measure));
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Boucle d'un client : requêtes enchaînées jusqu'à l'échéance
+     */
+    private static Samples[] drive(HttpClient httpClient, TrafficMix mix, long measureStart, long deadline) {
+        Samples[] samples = newSamples();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            TrafficMix.Call call = mix.next(random);
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = httpClient.send(call.request(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception e) {
+                status = 599;
+            }
+            if (start >= measureStart) {
+                samples[call.operation().ordinal()].add(System.nanoTime() - start, status);
+            }
+        }
+        return samples;
+    }
+
+    private static Samples[] newSamples() {
+        Samples[] samples = new Samples[TrafficMix.Operation.values().length];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = new Samples();
+        }
+        return samples;
+    }
+
+    /**
+     * Latences d'un client pour une opération (non thread-safe : un jeu par client)
+     */
+    private static final class Samples {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long clientErrors;
+        private long serverErrors;
+
+        void add(long latencyNanos, int status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (status >= 500) {
+                serverErrors++;
+            } else if (status >= 400) {
+                clientErrors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, size + other.size));
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            clientErrors += other.clientErrors;
+            serverErrors += other.serverErrors;
+        }
+
+        Result toResult(Duration measure) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return new Result(sorted, clientErrors, serverErrors, measure);
+        }
+    }
+
+    /**
+     * Résultat d'une opération sur la durée mesurée
+     */
+    public record Result(long[] sortedLatencies, long clientErrors, long serverErrors, Duration measure) {
+
+        public long count() {
+            return sortedLatencies.length;
+        }
+
+        public double throughput() {
+            return count() / (measure.toMillis() / 1000.0);
+        }
+
+        public double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(percentile * sortedLatencies.length) - 1);
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        /**
+         * Ligne du rapport, alignée sur {@link LoadTestDriver#HEADER}
+         */
+        public String format(String endpoint) {
+            return String.format("%-44s %10d %9.1f %9.1f %9.1f %9.1f %9.1f %7d %7d", endpoint, count(), throughput(),
+                    percentileMillis(0.50), percentileMillis(0.95), percentileMillis(0.99), percentileMillis(0.999),
+                    clientErrors, serverErrors);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.transport.subscription.loadtest;
+
+import com.transport.subscription.SubscriptionServiceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service démarré dans la JVM sur une base PostgreSQL, partagé par le test de charge et les benchmarks
+ * Base fournie ({@code -Dloadtest.db-url}, {@code -Dloadtest.db-username}, {@code -Dloadtest.db-password})
+ * ou instance embarquée sans conteneur (binaires zonky), supprimée à la fermeture.
+ * Les propriétés passées au démarrage priment sur application.yml (arguments de ligne de commande) ;
+ * une propriété système du même nom les remplace (ex. {@code -Dlogging.level.com.transport.subscription=WARN}).
+ */
+@Slf4j
+public final class LoadTestEnvironment implements AutoCloseable {
+
+    private final EmbeddedPostgres embeddedPostgres;
+    private final ConfigurableApplicationContext context;
+
+    private LoadTestEnvironment(EmbeddedPostgres embeddedPostgres, ConfigurableApplicationContext context) {
+        this.embeddedPostgres = embeddedPostgres;
+        this.context = context;
+    }
+
+    /**
+     * Démarre la base puis le service (migrations Flyway, passerelle de paiement simulée)
+     * @param properties Propriétés du service propres à l'exécution
+     * @return Environnement démarré
+     */
+    public static LoadTestEnvironment start(String... properties) throws IOException {
+        EmbeddedPostgres embeddedPostgres = null;
+        String dbUrl = System.getProperty("loadtest.db-url");
+        if (dbUrl == null) {
+            embeddedPostgres = EmbeddedPostgres.builder().start();
+            dbUrl = embeddedPostgres.getJdbcUrl("postgres", "postgres");
+            log.info("PostgreSQL embarqué démarré sur le port {}", embeddedPostgres.getPort());
+        }
+
+        List<String> defaults = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.main.keep-alive=false",
+                "spring.datasource.url=" + dbUrl,
+                "spring.datasource.username=" + System.getProperty("loadtest.db-username", "postgres"),
+                "spring.datasource.password=" + System.getProperty("loadtest.db-password", ""),
+                "spring.jpa.show-sql=false",
+                // On mesure le service, pas la limitation par client
+                "admission.enabled=false",
+                "logging.level.com.transport.subscription=INFO",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+        defaults.addAll(List.of(properties));
+
+        // Passées en arguments et non en propriétés par défaut, qui passeraient après application.yml
+        // (spring.datasource.url y vaut ${DB_URL:...localhost:5432...})
+        String[] args = defaults.stream()
+                .filter(property -> System.getProperty(property.substring(0, property.indexOf('='))) == null)
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+
+        try {
+            return new LoadTestEnvironment(embeddedPostgres,
+                    new SpringApplicationBuilder(SubscriptionServiceApplication.class)
+                            .run(args));
+        } catch (RuntimeException e) {
+            if (embeddedPostgres != null) {
+                embeddedPostgres.close();
+            }
+            throw e;
+        }
+    }
+
+    public ConfigurableApplicationContext context() {
+        return context;
+    }
+
+    public DataSource dataSource() {
+        return context.getBean(DataSource.class);
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            context.close();
+        } finally {
+            if (embeddedPostgres != null) {
+                embeddedPostgres.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.transport.subscription.loadtest;
+
+import com.transport.subscription.config.SimulatedClock;
+import com.transport.subscription.service.RenewalService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntSupplier;
+
+/**
+ * Benchmark des traitements de renouvellement automatique et d'expiration à grande échelle
+ * Charge N abonnements avec la répartition d'échéances demandée, puis exécute les deux traitements de
+ * {@link RenewalService} pour chaque jour simulé (J, J+1, ...) dans l'ordre des schedulers : renouvellements
+ * puis expirations. Le service démarre avec le profil simulation : son horloge est avancée au jour simulé
+ * (2h00) avant chaque traitement, de sorte que les nouvelles périodes et l'historique suivent ce jour.
+ * <p>
+ * Par traitement et par jour : lignes traitées, durée, lignes/s, pic de tas, requêtes préparées et
+ * transactions (statistiques Hibernate). Chaque mesure est ajoutée au fichier CSV de sortie pour comparer
+ * les exécutions entre elles. Les crons quotidiens sont désactivés par le profil et les schedulers à
+ * intervalle fixe espacés d'une heure pour ne pas fausser les compteurs.
+ * <p>
+ * Lancement : {@code mvn -pl backend/subscription-loadtest -am compile exec:java
+ * -Dexec.mainClass=com.transport.subscription.loadtest.RenewalBenchmark [-Drenewal-benchmark.users=500000]
+ * [-Drenewal-benchmark.subscriptions-per-user=2] [-Drenewal-benchmark.distribution=uniform|spike|backlog|recent]
+ * [-Drenewal-benchmark.days=1] [-Drenewal-benchmark.output=target/renewal-benchmark.csv]
+ * [-Drenewal-benchmark.reset=true]}
+ * <p>
+ * Les traitements modifient les abonnements : chaque exécution repart d'un jeu de données neuf. Sur une base
+ * fournie ({@code -Dloadtest.db-url}) déjà chargée, {@code -Drenewal-benchmark.reset=true} vide les tables.
+ */
+@Slf4j
+public final class RenewalBenchmark {
+
+    private static final long USERS = Long.getLong("renewal-benchmark.users", 500_000L);
+    private static final int SUBSCRIPTIONS_PER_USER = Integer.getInteger("renewal-benchmark.subscriptions-per-user", 2);
+    private static final int PLANS = Integer.getInteger("renewal-benchmark.plans", 40);
+    private static final DueDateDistribution DISTRIBUTION = DueDateDistribution.valueOf(
+            System.getProperty("renewal-benchmark.distribution", "uniform").toUpperCase(Locale.ROOT));
+    private static final int DAYS = Integer.getInteger("renewal-benchmark.days", 1);
+    private static final Path OUTPUT = Path.of(
+            System.getProperty("renewal-benchmark.output", "target/renewal-benchmark.csv"));
+    private static final boolean RESET = Boolean.getBoolean("renewal-benchmark.reset");
+
+    private static final String HEADER = String.format("%-12s %-10s %10s %10s %10s %10s %12s %12s",
+            "job", "day", "rows", "ms", "rows/s", "heap MB", "statements", "transactions");
+    private static final String CSV_HEADER = "run_at,subscriptions,distribution,job,day,rows,duration_ms,"
+            + "rows_per_second,peak_heap_mb,statements,transactions";
+
+    private RenewalBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Un seul paiement et une ligne d'historique par abonnement : seuls les abonnements sont lus
+        SyntheticData data = new SyntheticData(PLANS, USERS, SUBSCRIPTIONS_PER_USER, 1, 1);
+        LocalDate today = LocalDate.now();
+
+        try (LoadTestEnvironment environment = LoadTestEnvironment.start(
+                "spring.profiles.active=simulation",
+                "simulation.start-date=" + today,
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+                "refund.batch.interval-ms=3600000",
+                "payment.webhook.apply-interval-ms=3600000")) {
+            SyntheticDataGenerator generator =
+                    new SyntheticDataGenerator(environment.dataSource(), data, today, DISTRIBUTION);
+            if (generator.isSeeded()) {
+                if (!RESET) {
+                    throw new IllegalStateException("Jeu de données déjà présent (modifié par une exécution "
+                            + "précédente) : relancer avec -Drenewal-benchmark.reset=true");
+                }
+                generator.reset();
+            }
+            generator.generate();
+
+            RenewalService renewalService = environment.context().getBean(RenewalService.class);
+            SimulatedClock clock = environment.context().getBean(SimulatedClock.class);
+            Statistics statistics = environment.context().getBean(EntityManagerFactory.class)
+                    .unwrap(SessionFactory.class).getStatistics();
+
+            List<JobRun> runs = new ArrayList<>();
+            for (int day = 0; day < DAYS; day++) {
+                LocalDate simulatedDay = today.plusDays(day);
+                clock.advanceTo(simulatedDay.atTime(2, 0).atZone(clock.getZone()).toInstant());
+                runs.add(measure("renewals", day, statistics,
+                        () -> renewalService.processAutomaticRenewals(simulatedDay)));
+                runs.add(measure("expirations", day, statistics,
+                        () -> renewalService.expireSubscriptions(simulatedDay)));
+            }
+
+            List<String> report = new ArrayList<>();
+            report.add(HEADER);
+            runs.forEach(run -> report.add(run.format()));
+            log.info("Benchmark des renouvellements ({} abonnement(s), échéances {}):\n{}",
+                    data.subscriptions(), DISTRIBUTION, String.join("\n", report));
+
+            append(runs, data.subscriptions());
+        }
+    }
+
+    private static JobRun measure(String job, int day, Statistics statistics, IntSupplier action) {
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        statistics.clear();
+
+        long start = System.nanoTime();
+        int rows = action.getAsInt();
+        long durationNanos = System.nanoTime() - start;
+
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        return new JobRun(job, day, rows, durationNanos, peakHeap,
+                statistics.getPrepareStatementCount(), statistics.getTransactionCount());
+    }
+
+    private static void append(List<JobRun> runs, long subscriptions) throws IOException {
+        if (OUTPUT.getParent() != null) {
+            Files.createDirectories(OUTPUT.getParent());
+        }
+        List<String> lines = new ArrayList<>();
+        if (!Files.exists(OUTPUT)) {
+            lines.add(CSV_HEADER);
+        }
+        String runAt = OffsetDateTime.now().toString();
+        runs.forEach(run -> lines.add(runAt + "," + subscriptions + "," + DISTRIBUTION + "," + run.csv()));
+        Files.write(OUTPUT, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        log.info("Mesures ajoutées à {}", OUTPUT.toAbsolutePath());
+    }
+
+    /**
+     * Mesure d'un traitement pour un jour simulé
+     */
+    private record JobRun(String job, int day, int rows, long durationNanos, long peakHeapBytes,
+                          long statements, long transactions) {
+
+        double durationMillis() {
+            return durationNanos / 1_000_000.0;
+        }
+
+        double rowsPerSecond() {
+            return durationNanos == 0 ? 0 : rows / (durationNanos / 1_000_000_000.0);
+        }
+
+        double peakHeapMegabytes() {
+            return peakHeapBytes / (1024.0 * 1024.0);
+        }
+
+        String format() {
+            return String.format("%-12s %-10s %10d %10.0f %10.1f %10.1f %12d %12d", job, "J+" + day, rows,
+                    durationMillis(), rowsPerSecond(), peakHeapMegabytes(), statements, transactions);
+        }
+
+        String csv() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.1f,%.1f,%d,%d", job, day, rows, durationMillis(),
+                    rowsPerSecond(), peakHeapMegabytes(), statements, transactions);
+        }
+    }
+}
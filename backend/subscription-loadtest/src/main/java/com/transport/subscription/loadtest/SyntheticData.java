@@ -0,0 +1,130 @@
+package com.transport.subscription.loadtest;
+
+import com.transport.subscription.model.SubscriptionStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Forme du jeu de données synthétique, entièrement déterminée par les indices des lignes
+ * Les identifiants sont dérivés de l'indice ({@code new UUID(type, indice)}) : le pilote de charge tire des
+ * abonnements et des utilisateurs existants sans avoir à relire des millions d'identifiants.
+ * <p>
+ * L'abonnement {@code s} appartient à l'utilisateur {@code s / subscriptionsPerUser} ; les abonnements d'un
+ * même utilisateur portent sur des plans distincts (contrainte d'unicité de l'abonnement actif par plan).
+ *
+ * @param plans Nombre de plans
+ * @param users Nombre d'utilisateurs
+ * @param subscriptionsPerUser Abonnements par utilisateur (au plus {@code plans})
+ * @param paymentsPerSubscription Paiements par abonnement
+ * @param historyPerSubscription Lignes d'historique par abonnement
+ */
+public record SyntheticData(int plans, long users, int subscriptionsPerUser,
+                            int paymentsPerSubscription, int historyPerSubscription) {
+
+    public static final String PLAN_CODE_PREFIX = "LOAD_";
+    public static final String CURRENCY = "EUR";
+
+    private static final long PLAN = 0x4c4f414400000001L;
+    private static final long USER = 0x4c4f414400000002L;
+    private static final long SUBSCRIPTION = 0x4c4f414400000003L;
+    private static final long PAYMENT = 0x4c4f414400000004L;
+    private static final long HISTORY = 0x4c4f414400000005L;
+
+    private static final int[] DURATIONS = {7, 30, 90, 365};
+    private static final String[] PRICES = {"4.99", "19.99", "54.99", "199.99"};
+
+    public SyntheticData {
+        if (plans <= 0 || users <= 0 || subscriptionsPerUser <= 0) {
+            throw new IllegalArgumentException("Plans, utilisateurs et abonnements par utilisateur doivent être positifs");
+        }
+        if (subscriptionsPerUser > plans) {
+            throw new IllegalArgumentException("Au plus un abonnement par plan et par utilisateur: "
+                    + subscriptionsPerUser + " > " + plans + " plan(s)");
+        }
+        if (users * subscriptionsPerUser < 10) {
+            throw new IllegalArgumentException("Au moins 10 abonnements requis (un cycle de statuts)");
+        }
+        if (paymentsPerSubscription < 0 || historyPerSubscription < 0) {
+            throw new IllegalArgumentException("Paiements et historique par abonnement ne peuvent être négatifs");
+        }
+    }
+
+    public long subscriptions() {
+        return users * subscriptionsPerUser;
+    }
+
+    public long payments() {
+        return subscriptions() * paymentsPerSubscription;
+    }
+
+    public long historyRows() {
+        return subscriptions() * historyPerSubscription;
+    }
+
+    public static UUID planId(int plan) {
+        return new UUID(PLAN, plan);
+    }
+
+    public static UUID userId(long user) {
+        return new UUID(USER, user);
+    }
+
+    public static UUID subscriptionId(long subscription) {
+        return new UUID(SUBSCRIPTION, subscription);
+    }
+
+    public static UUID paymentId(long payment) {
+        return new UUID(PAYMENT, payment);
+    }
+
+    public static UUID historyId(long history) {
+        return new UUID(HISTORY, history);
+    }
+
+    public static String planCode(int plan) {
+        return String.format("%s%04d", PLAN_CODE_PREFIX, plan);
+    }
+
+    public static int durationDays(int plan) {
+        return DURATIONS[plan % DURATIONS.length];
+    }
+
+    public static BigDecimal price(int plan) {
+        return new BigDecimal(PRICES[plan % PRICES.length]);
+    }
+
+    public long userOf(long subscription) {
+        return subscription / subscriptionsPerUser;
+    }
+
+    public int planOf(long subscription) {
+        return (int) ((userOf(subscription) + subscription % subscriptionsPerUser) % plans);
+    }
+
+    /**
+     * 80 % d'abonnements actifs, 10 % annulés, 10 % expirés
+     */
+    public static SubscriptionStatus statusOf(long subscription) {
+        return switch ((int) (subscription % 10)) {
+            case 0 -> SubscriptionStatus.CANCELLED;
+            case 1 -> SubscriptionStatus.EXPIRED;
+            default -> SubscriptionStatus.ACTIVE;
+        };
+    }
+
+    /**
+     * Renouvellement automatique sur 7 abonnements actifs sur 8 : le reste arrive à expiration à l'échéance
+     */
+    public static boolean autoRenewEnabled(long subscription) {
+        return statusOf(subscription) == SubscriptionStatus.ACTIVE && subscription % 10 != 2;
+    }
+
+    /**
+     * Abonnement actif le plus proche de l'indice donné (cible des paiements et des renouvellements)
+     */
+    public long activeSubscription(long subscription) {
+        long active = subscription - subscription % 10 + Math.max(2, subscription % 10);
+        return active < subscriptions() ? active : active - 10;
+    }
+}
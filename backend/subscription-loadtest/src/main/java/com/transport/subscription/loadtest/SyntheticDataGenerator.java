@@ -0,0 +1,299 @@
+package com.transport.subscription.loadtest;
+
+import com.transport.subscription.model.PaymentMethod;
+import com.transport.subscription.model.PaymentStatus;
+import com.transport.subscription.model.PaymentType;
+import com.transport.subscription.model.SubscriptionStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Chargement du jeu de données synthétique par COPY FROM STDIN (format texte), une table après l'autre
+ * Les lignes sont produites à la volée et envoyées par blocs : la mémoire reste constante quel que soit le volume.
+ * Les dates sont calculées par rapport au jour du chargement selon une {@link DueDateDistribution} ;
+ * les abonnements expirés le sont depuis au moins un jour. Le grand livre des revenus est ensuite agrégé
+ * à partir des paiements chargés, pour que la réconciliation nocturne les trouve cohérents.
+ */
+@Slf4j
+public class SyntheticDataGenerator {
+
+    private static final int FLUSH_CHARS = 1 << 16;
+    private static final long PROGRESS_ROWS = 1_000_000;
+
+    private final DataSource dataSource;
+    private final SyntheticData data;
+    private final LocalDate today;
+    private final OffsetDateTime loadedAt;
+    private final DueDateDistribution dueDates;
+
+    public SyntheticDataGenerator(DataSource dataSource, SyntheticData data) {
+        this(dataSource, data, LocalDate.now(), DueDateDistribution.RECENT);
+    }
+
+    /**
+     * @param dataSource Base cible
+     * @param data Forme du jeu de données
+     * @param today Jour du chargement (jour J)
+     * @param dueDates Répartition des échéances autour de J
+     */
+    public SyntheticDataGenerator(DataSource dataSource, SyntheticData data, LocalDate today,
+                                  DueDateDistribution dueDates) {
+        this.dataSource = dataSource;
+        this.data = data;
+        this.today = today;
+        this.loadedAt = today.atStartOfDay().atOffset(ZoneOffset.UTC);
+        this.dueDates = dueDates;
+    }
+
+    /**
+     * Vérifie si le jeu de données est déjà chargé (même nombre de plans synthétiques)
+     * @return true si les plans synthétiques sont présents
+     */
+    public boolean isSeeded() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT count(*) FROM subscription_plan WHERE plan_code LIKE ?")) {
+            statement.setString(1, SyntheticData.PLAN_CODE_PREFIX + "%");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                long plans = resultSet.getLong(1);
+                if (plans != 0 && plans != data.plans()) {
+                    throw new IllegalStateException("Base déjà chargée avec " + plans + " plan(s) synthétique(s), "
+                            + data.plans() + " demandé(s) : repartir d'une base vide");
+                }
+                return plans != 0;
+            }
+        }
+    }
+
+    /**
+     * Vide les tables chargées et celles qui en dépendent (TRUNCATE ... CASCADE) : base dédiée uniquement
+     */
+    public void reset() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE subscription_plan CASCADE");
+        }
+        log.info("Tables du jeu de données vidées");
+    }
+
+    /**
+     * Charge plans, abonnements, paiements et historique, agrège le grand livre puis met à jour
+     * les statistiques du planificateur
+     */
+    public void generate() throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+
+            copy(connection, "subscription_plan",
+                    "plan_id, plan_code, description, duration_days, price, currency, is_active, created_at, updated_at",
+                    data.plans(), this::writePlan);
+            copy(connection, "subscription",
+                    "subscription_id, user_id, plan_id, status, start_date, end_date, next_billing_date, amount_paid, "
+                            + "auto_renew_enabled, card_token, card_exp_month, card_exp_year, qr_code_data, "
+                            + "created_at, updated_at",
+                    data.subscriptions(), this::writeSubscription);
+            copy(connection, "subscription_payment",
+                    "payment_id, subscription_id, amount, currency, payment_status, payment_method, payment_type, "
+                            + "payment_date, external_txn_id, idempotency_key, created_at",
+                    data.payments(), this::writePayment);
+            copy(connection, "subscription_history",
+                    "history_id, subscription_id, old_status, new_status, event_type, event_date, details",
+                    data.historyRows(), this::writeHistory);
+            seedRevenueLedger(connection);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE subscription_plan, subscription, subscription_payment, subscription_history, "
+                        + "subscription_revenue_ledger, plan_revenue_daily");
+            }
+        }
+        log.info("✅ Jeu de données chargé en {} s: {} plan(s), {} abonnement(s), {} paiement(s), {} ligne(s) d'historique",
+                (System.nanoTime() - start) / 1_000_000_000, data.plans(), data.subscriptions(), data.payments(),
+                data.historyRows());
+    }
+
+    /**
+     * Agrège les paiements réussis dans subscription_revenue_ledger et plan_revenue_daily (comme la reprise de V3)
+     * Les jours sont découpés dans le fuseau de l'horloge du service (ClockConfig : fuseau système),
+     * comme BillingServiceImpl et la réconciliation du grand livre.
+     */
+    private void seedRevenueLedger(Connection connection) throws SQLException {
+        long start = System.nanoTime();
+        String zone = ZoneId.systemDefault().getId();
+
+        int ledgerRows;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO subscription_revenue_ledger (subscription_id, currency, total_paid, payment_count, updated_at) "
+                        + "SELECT p.subscription_id, min(p.currency), sum(p.amount), count(*), ? "
+                        + "FROM subscription_payment p WHERE p.payment_status = 'SUCCEEDED' "
+                        + "GROUP BY p.subscription_id")) {
+            statement.setObject(1, loadedAt);
+            ledgerRows = statement.executeUpdate();
+        }
+
+        int dailyRows;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO plan_revenue_daily (plan_id, revenue_date, currency, total_amount, payment_count, updated_at) "
+                        + "SELECT s.plan_id, CAST(p.payment_date AT TIME ZONE ? AS date), p.currency, "
+                        + "sum(p.amount), count(*), ? "
+                        + "FROM subscription_payment p JOIN subscription s ON s.subscription_id = p.subscription_id "
+                        + "WHERE p.payment_status = 'SUCCEEDED' "
+                        + "GROUP BY 1, 2, 3")) {
+            statement.setString(1, zone);
+            statement.setObject(2, loadedAt);
+            dailyRows = statement.executeUpdate();
+        }
+
+        log.info("Grand livre agrégé en {} ms: {} abonnement(s), {} ligne(s) plan/jour ({})",
+                (System.nanoTime() - start) / 1_000_000, ledgerRows, dailyRows, zone);
+    }
+
+    /**
+     * Écriture d'une ligne COPY (colonnes séparées par des tabulations, sans fin de ligne)
+     */
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(long index, StringBuilder row);
+    }
+
+    private void copy(Connection connection, String table, String columns, long rows, RowWriter rowWriter)
+            throws SQLException {
+        long start = System.nanoTime();
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn("COPY " + table + " (" + columns + ") FROM STDIN");
+        try {
+            StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 1024);
+            for (long i = 0; i < rows; i++) {
+                rowWriter.write(i, buffer);
+                buffer.append('\n');
+                if (buffer.length() >= FLUSH_CHARS) {
+                    flush(copyIn, buffer);
+                }
+                if ((i + 1) % PROGRESS_ROWS == 0) {
+                    log.info("{}: {} / {} ligne(s)", table, i + 1, rows);
+                }
+            }
+            flush(copyIn, buffer);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+        log.info("{}: {} ligne(s) en {} ms", table, rows, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void flush(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private void writePlan(long index, StringBuilder row) {
+        int plan = (int) index;
+        columns(row, SyntheticData.planId(plan), SyntheticData.planCode(plan),
+                "Plan synthétique " + plan, SyntheticData.durationDays(plan), SyntheticData.price(plan),
+                SyntheticData.CURRENCY, true, loadedAt, loadedAt);
+    }
+
+    private void writeSubscription(long subscription, StringBuilder row) {
+        int plan = data.planOf(subscription);
+        int durationDays = SyntheticData.durationDays(plan);
+        SubscriptionStatus status = SyntheticData.statusOf(subscription);
+        LocalDate startDate = startDate(subscription, status, durationDays);
+        LocalDate endDate = startDate.plusDays(durationDays);
+        UUID subscriptionId = SyntheticData.subscriptionId(subscription);
+        UUID userId = SyntheticData.userId(data.userOf(subscription));
+
+        columns(row, subscriptionId, userId, SyntheticData.planId(plan), status, startDate, endDate,
+                status == SubscriptionStatus.ACTIVE ? endDate : null,
+                SyntheticData.price(plan).multiply(BigDecimal.valueOf(data.paymentsPerSubscription())),
+                SyntheticData.autoRenewEnabled(subscription), "tok_loadtest_" + subscription % 10_000,
+                (int) (subscription % 12) + 1, today.getYear() + 1 + (int) (subscription % 4),
+                subscriptionId + "|" + userId + "|" + SyntheticData.planCode(plan),
+                startDate.atStartOfDay().atOffset(ZoneOffset.UTC), loadedAt);
+    }
+
+    private void writePayment(long payment, StringBuilder row) {
+        long subscription = payment / data.paymentsPerSubscription();
+        int sequence = (int) (payment % data.paymentsPerSubscription());
+        int plan = data.planOf(subscription);
+        int durationDays = SyntheticData.durationDays(plan);
+        LocalDate startDate = startDate(subscription, SyntheticData.statusOf(subscription), durationDays);
+        OffsetDateTime paymentDate = startDate.minusDays((long) durationDays * sequence)
+                .atStartOfDay().atOffset(ZoneOffset.UTC);
+        UUID paymentId = SyntheticData.paymentId(payment);
+
+        columns(row, paymentId, SyntheticData.subscriptionId(subscription), SyntheticData.price(plan),
+                SyntheticData.CURRENCY, PaymentStatus.SUCCEEDED, PaymentMethod.CARD,
+                sequence == data.paymentsPerSubscription() - 1 ? PaymentType.INITIAL : PaymentType.RENEWAL,
+                paymentDate, "load-txn-" + paymentId, "load-" + paymentId, paymentDate);
+    }
+
+    private void writeHistory(long history, StringBuilder row) {
+        long subscription = history / data.historyPerSubscription();
+        int sequence = (int) (history % data.historyPerSubscription());
+        SubscriptionStatus status = SyntheticData.statusOf(subscription);
+        LocalDate startDate = startDate(subscription, status,
+                SyntheticData.durationDays(data.planOf(subscription)));
+        OffsetDateTime eventDate = startDate.atStartOfDay().atOffset(ZoneOffset.UTC).plusMinutes(sequence);
+
+        SubscriptionStatus oldStatus;
+        SubscriptionStatus newStatus;
+        String eventType;
+        if (sequence == 0) {
+            oldStatus = null;
+            newStatus = SubscriptionStatus.PENDING;
+            eventType = "SUBSCRIPTION_CREATED";
+        } else if (sequence == data.historyPerSubscription() - 1 && status != SubscriptionStatus.ACTIVE) {
+            oldStatus = SubscriptionStatus.ACTIVE;
+            newStatus = status;
+            eventType = status == SubscriptionStatus.CANCELLED ? "SUBSCRIPTION_CANCELLED" : "SUBSCRIPTION_EXPIRED";
+        } else {
+            oldStatus = sequence == 1 ? SubscriptionStatus.PENDING : SubscriptionStatus.ACTIVE;
+            newStatus = SubscriptionStatus.ACTIVE;
+            eventType = sequence == 1 ? "SUBSCRIPTION_ACTIVATED" : "SUBSCRIPTION_RENEWED";
+        }
+
+        columns(row, SyntheticData.historyId(history), SyntheticData.subscriptionId(subscription), oldStatus,
+                newStatus, eventType, eventDate, "Historique synthétique");
+    }
+
+    /**
+     * Début de la période courante selon la répartition des échéances ; échue depuis au moins un jour si expiré
+     */
+    private LocalDate startDate(long subscription, SubscriptionStatus status, int durationDays) {
+        if (status == SubscriptionStatus.EXPIRED) {
+            return today.minusDays(durationDays + 1L + subscription % 7);
+        }
+        return today.minusDays(dueDates.elapsedDays(subscription, durationDays));
+    }
+
+    /**
+     * Ajoute les valeurs d'une ligne ; null devient \N (aucune valeur générée ne contient de caractère à échapper)
+     */
+    private static void columns(StringBuilder row, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                row.append('\t');
+            }
+            row.append(values[i] == null ? "\\N" : values[i]);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.transport.subscription.loadtest;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Répartition du trafic rejoué par le pilote : création, consultation, liste, paiement et renouvellement
+ * Les abonnements et utilisateurs visés appartiennent au jeu de données synthétique ; le tirage est biaisé
+ * vers les premiers indices ({@code indice = n * u^skew}) pour reproduire des clients plus actifs que d'autres.
+ * Paiements et renouvellements ne visent que des abonnements actifs.
+ */
+public class TrafficMix {
+
+    /**
+     * Opérations rejouées, dans l'ordre du rapport
+     */
+    public enum Operation {
+        CREATE("POST /api/subscriptions"),
+        GET("GET /api/subscriptions/{id}"),
+        LIST("GET /api/subscriptions/users/{userId}"),
+        PAY("POST /api/subscriptions/billing/payments"),
+        RENEW("POST /api/subscriptions/{id}/renew");
+
+        private final String endpoint;
+
+        Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public String endpoint() {
+            return endpoint;
+        }
+    }
+
+    /**
+     * Requête à envoyer et opération à laquelle rattacher sa latence
+     */
+    public record Call(Operation operation, HttpRequest request) {
+    }
+
+    private final String baseUrl;
+    private final SyntheticData data;
+    private final double skew;
+    private final int[] cumulativeWeights;
+
+    /**
+     * @param baseUrl URL du service (ex. http://localhost:8080)
+     * @param data Jeu de données chargé
+     * @param weights Poids par opération, format "create=5,get=50,list=25,pay=15,renew=5"
+     * @param skew Biais du tirage (1 = uniforme)
+     */
+    public TrafficMix(String baseUrl, SyntheticData data, String weights, double skew) {
+        this.baseUrl = baseUrl;
+        this.data = data;
+        this.skew = skew;
+        this.cumulativeWeights = cumulativeWeights(weights);
+    }
+
+    /**
+     * Tire la prochaine requête d'un client
+     */
+    public Call next(ThreadLocalRandom random) {
+        Operation operation = operation(random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]));
+        return new Call(operation, switch (operation) {
+            case CREATE -> create(random);
+            case GET -> get(SyntheticData.subscriptionId(pick(random, data.subscriptions())));
+            case LIST -> get(SyntheticData.userId(pick(random, data.users())), "/api/subscriptions/users/");
+            case PAY -> pay(random, data.activeSubscription(pick(random, data.subscriptions())));
+            case RENEW -> post("/api/subscriptions/"
+                    + SyntheticData.subscriptionId(data.activeSubscription(pick(random, data.subscriptions())))
+                    + "/renew", "{}");
+        });
+    }
+
+    private Operation operation(int draw) {
+        for (Operation operation : Operation.values()) {
+            if (draw < cumulativeWeights[operation.ordinal()]) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Tirage hors des poids: " + draw);
+    }
+
+    private long pick(ThreadLocalRandom random, long size) {
+        return Math.min(size - 1, (long) (size * Math.pow(random.nextDouble(), skew)));
+    }
+
+    /**
+     * Nouvel utilisateur : pas de conflit avec l'abonnement actif unique par plan
+     */
+    private HttpRequest create(ThreadLocalRandom random) {
+        int plan = random.nextInt(data.plans());
+        return post("/api/subscriptions", String.format(
+                "{\"userId\":\"%s\",\"planId\":\"%s\",\"autoRenewEnabled\":true,\"cardToken\":\"tok_loadtest\"," +
+                        "\"cardExpMonth\":12,\"cardExpYear\":2035}",
+                UUID.randomUUID(), SyntheticData.planId(plan)));
+    }
+
+    private HttpRequest pay(ThreadLocalRandom random, long subscription) {
+        BigDecimal amount = SyntheticData.price(data.planOf(subscription));
+        return post("/api/subscriptions/billing/payments", String.format(
+                "{\"subscriptionId\":\"%s\",\"amount\":%s,\"currency\":\"%s\",\"paymentMethod\":\"CARD\"," +
+                        "\"cardToken\":\"tok_loadtest\",\"idempotencyKey\":\"%s\"}",
+                SyntheticData.subscriptionId(subscription), amount, SyntheticData.CURRENCY,
+                new UUID(random.nextLong(), random.nextLong())));
+    }
+
+    private HttpRequest get(UUID id) {
+        return get(id, "/api/subscriptions/");
+    }
+
+    private HttpRequest get(UUID id, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path + id)).GET().build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static int[] cumulativeWeights(String weights) {
+        int[] cumulative = new int[Operation.values().length];
+        for (String entry : weights.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Poids invalide '" + entry + "' (attendu operation=poids)");
+            }
+            Operation operation = Operation.valueOf(parts[0].trim().toUpperCase());
+            cumulative[operation.ordinal()] = Integer.parseInt(parts[1].trim());
+        }
+        for (int i = 1; i < cumulative.length; i++) {
+            cumulative[i] += cumulative[i - 1];
+        }
+        if (cumulative[cumulative.length - 1] <= 0) {
+            throw new IllegalArgumentException("Aucune opération pondérée: " + weights);
+        }
+        return cumulative;
+    }
+}
@@ -2,14 +2,17 @@ package com.transport.subscription;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Application principale du service d'abonnement
  * @EnableScheduling active les tâches planifiées (@Scheduled)
+ * @EnableRetry active les tentatives automatiques (@Retryable, @RetryOnVersionConflict), appliquées en dehors de la transaction
  */
 @SpringBootApplication
 @EnableScheduling
+@EnableRetry
 public class SubscriptionServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,238 @@
+package com.transport.subscription.config;
+
+import com.transport.subscription.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Contrôle d'admission des requêtes par utilisateur et par client d'API
+ * Chaque identité est soumise à deux limites : un débit (seau à jetons, sous forme GCRA : une seule date
+ * théorique d'arrivée par identité) et un nombre de requêtes simultanées.
+ * L'état est réparti sur un nombre fixe de bandes indexées par le hachage de l'identité, dans des tableaux
+ * atomiques mis à jour par CAS : ni verrou ni allocation par requête, et une mémoire bornée quel que soit
+ * le nombre d'identités. Deux identités d'une même bande partagent leur budget (prévoir assez de bandes).
+ * Les refus sont comptés dans {@value #REJECTED_COUNTER} (par dimension et motif).
+ */
+public class AdmissionControl {
+
+    static final String REJECTED_COUNTER = "admission.rejected";
+
+    /**
+     * Délai conseillé après un refus pour concurrence (une requête en cours devrait s'être terminée)
+     */
+    private static final long CONCURRENCY_RETRY_AFTER_SECONDS = 1;
+
+    /**
+     * Dimension à laquelle s'applique une limite
+     */
+    public enum Dimension {
+        USER,
+        CLIENT
+    }
+
+    /**
+     * Limites d'une dimension
+     * @param ratePerSecond Requêtes admises par seconde en régime établi
+     * @param burst Requêtes admises d'affilée après une période d'inactivité
+     * @param maxConcurrent Requêtes simultanées max
+     */
+    public record Limits(double ratePerSecond, int burst, int maxConcurrent) {
+    }
+
+    private final Stripes users;
+    private final Stripes clients;
+    private final LongSupplier nanoClock;
+    private final long origin;
+
+    public AdmissionControl(Limits userLimits, Limits clientLimits, int stripes, MeterRegistry meterRegistry) {
+        this(userLimits, clientLimits, stripes, meterRegistry, System::nanoTime);
+    }
+
+    AdmissionControl(Limits userLimits, Limits clientLimits, int stripes, MeterRegistry meterRegistry,
+                     LongSupplier nanoClock) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.users = new Stripes(Dimension.USER, userLimits, stripeCount, meterRegistry);
+        this.clients = new Stripes(Dimension.CLIENT, clientLimits, stripeCount, meterRegistry);
+        this.nanoClock = nanoClock;
+        // Dates relatives au démarrage : toujours positives, l'état initial (0) vaut « seau plein »
+        this.origin = nanoClock.getAsLong();
+    }
+
+    /**
+     * Admet une requête ou la refuse
+     * @param userId Identifiant de l'utilisateur (null si inconnu : seule la limite du client s'applique)
+     * @param clientId Identifiant du client d'API
+     * @return Autorisation à libérer en fin de requête
+     * @throws RateLimitExceededException si une limite est atteinte
+     */
+    public Permit acquire(String userId, String clientId) {
+        int userStripe = userId != null ? users.stripe(userId) : -1;
+        int clientStripe = clients.stripe(clientId);
+
+        if (userStripe >= 0 && !users.enter(userStripe)) {
+            throw users.rejectConcurrency();
+        }
+        if (!clients.enter(clientStripe)) {
+            users.exit(userStripe);
+            throw clients.rejectConcurrency();
+        }
+
+        long now = nanoClock.getAsLong() - origin;
+        long userWait = userStripe >= 0 ? users.consume(userStripe, now) : 0;
+        if (userWait > 0) {
+            release(userStripe, clientStripe);
+            throw users.rejectRate(userWait);
+        }
+        long clientWait = clients.consume(clientStripe, now);
+        if (clientWait > 0) {
+            users.refund(userStripe);
+            release(userStripe, clientStripe);
+            throw clients.rejectRate(clientWait);
+        }
+        return new Permit(this, userStripe, clientStripe);
+    }
+
+    private void release(int userStripe, int clientStripe) {
+        users.exit(userStripe);
+        clients.exit(clientStripe);
+    }
+
+    /**
+     * Requêtes en cours pour une identité (bande) donnée
+     */
+    int inFlight(Dimension dimension, String id) {
+        Stripes stripes = dimension == Dimension.USER ? users : clients;
+        return stripes.inFlight.get(stripes.stripe(id));
+    }
+
+    /**
+     * Autorisation d'une requête admise : occupe une place de concurrence jusqu'à {@link #release()}
+     */
+    public static final class Permit {
+
+        private final AdmissionControl owner;
+        private final int userStripe;
+        private final int clientStripe;
+        private boolean released;
+
+        private Permit(AdmissionControl owner, int userStripe, int clientStripe) {
+            this.owner = owner;
+            this.userStripe = userStripe;
+            this.clientStripe = clientStripe;
+        }
+
+        /**
+         * Libère les places de concurrence (sans effet si déjà libérées)
+         */
+        public void release() {
+            if (!released) {
+                released = true;
+                owner.release(userStripe, clientStripe);
+            }
+        }
+    }
+
+    /**
+     * État d'une dimension : date théorique d'arrivée (GCRA) et requêtes en cours, par bande
+     */
+    private static final class Stripes {
+
+        private final Dimension dimension;
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+        private final int maxConcurrent;
+        private final int mask;
+        private final AtomicLongArray theoreticalArrival;
+        private final AtomicIntegerArray inFlight;
+        private final Counter rateRejections;
+        private final Counter concurrencyRejections;
+
+        private Stripes(Dimension dimension, Limits limits, int stripeCount, MeterRegistry meterRegistry) {
+            if (limits.ratePerSecond() <= 0 || limits.burst() < 1 || limits.maxConcurrent() < 1) {
+                throw new IllegalArgumentException("Invalid admission limits for " + dimension + ": " + limits);
+            }
+            this.dimension = dimension;
+            this.emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / limits.ratePerSecond()));
+            this.burstToleranceNanos = emissionIntervalNanos * (limits.burst() - 1);
+            this.maxConcurrent = limits.maxConcurrent();
+            this.mask = stripeCount - 1;
+            this.theoreticalArrival = new AtomicLongArray(stripeCount);
+            this.inFlight = new AtomicIntegerArray(stripeCount);
+            this.rateRejections = rejectionCounter(meterRegistry, "rate");
+            this.concurrencyRejections = rejectionCounter(meterRegistry, "concurrency");
+        }
+
+        private Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+            return Counter.builder(REJECTED_COUNTER)
+                    .description("Requêtes refusées par le contrôle d'admission")
+                    .tag("dimension", dimension.name().toLowerCase())
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+
+        private int stripe(String id) {
+            int h = id.hashCode();
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private boolean enter(int stripe) {
+            if (inFlight.incrementAndGet(stripe) > maxConcurrent) {
+                inFlight.decrementAndGet(stripe);
+                return false;
+            }
+            return true;
+        }
+
+        private void exit(int stripe) {
+            if (stripe >= 0) {
+                inFlight.decrementAndGet(stripe);
+            }
+        }
+
+        /**
+         * Consomme un jeton
+         * @return 0 si la requête est admise, sinon le délai en nanosecondes avant le prochain jeton
+         */
+        private long consume(int stripe, long now) {
+            while (true) {
+                long arrival = theoreticalArrival.get(stripe);
+                long start = Math.max(arrival, now);
+                long ahead = start - now;
+                if (ahead > burstToleranceNanos) {
+                    return ahead - burstToleranceNanos;
+                }
+                if (theoreticalArrival.compareAndSet(stripe, arrival, start + emissionIntervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        /**
+         * Restitue un jeton consommé par une requête finalement refusée sur l'autre dimension
+         */
+        private void refund(int stripe) {
+            if (stripe >= 0) {
+                theoreticalArrival.addAndGet(stripe, -emissionIntervalNanos);
+            }
+        }
+
+        private RateLimitExceededException rejectRate(long waitNanos) {
+            rateRejections.increment();
+            long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            return new RateLimitExceededException(
+                    "Rate limit exceeded for " + dimension.name().toLowerCase(), retryAfter);
+        }
+
+        private RateLimitExceededException rejectConcurrency() {
+            concurrencyRejections.increment();
+            return new RateLimitExceededException(
+                    "Too many concurrent requests for " + dimension.name().toLowerCase(),
+                    CONCURRENCY_RETRY_AFTER_SECONDS);
+        }
+    }
+}
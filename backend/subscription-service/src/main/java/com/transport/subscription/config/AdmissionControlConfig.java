@@ -0,0 +1,51 @@
+package com.transport.subscription.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration du contrôle d'admission des endpoints d'écriture (limites définies dans application.yml, admission.*)
+ * Protège le pool de connexions : un client ou un utilisateur qui boucle sur un endpoint est refusé en 429
+ * au lieu d'accaparer les connexions à la base.
+ */
+@Configuration
+@ConditionalOnProperty(name = "admission.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final AdmissionControl admissionControl;
+
+    public AdmissionControlConfig(
+            @Value("${admission.stripes:4096}") int stripes,
+            @Value("${admission.user.rate-per-second:5}") double userRatePerSecond,
+            @Value("${admission.user.burst:10}") int userBurst,
+            @Value("${admission.user.max-concurrent:2}") int userMaxConcurrent,
+            @Value("${admission.client.rate-per-second:50}") double clientRatePerSecond,
+            @Value("${admission.client.burst:100}") int clientBurst,
+            @Value("${admission.client.max-concurrent:6}") int clientMaxConcurrent,
+            MeterRegistry meterRegistry) {
+        AdmissionControl.Limits userLimits =
+                new AdmissionControl.Limits(userRatePerSecond, userBurst, userMaxConcurrent);
+        AdmissionControl.Limits clientLimits =
+                new AdmissionControl.Limits(clientRatePerSecond, clientBurst, clientMaxConcurrent);
+        log.info("Contrôle d'admission: utilisateur {}, client {}, {} bande(s)", userLimits, clientLimits, stripes);
+        this.admissionControl = new AdmissionControl(userLimits, clientLimits, stripes, meterRegistry);
+    }
+
+    @Bean
+    public AdmissionControl admissionControl() {
+        return admissionControl;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AdmissionControlInterceptor(admissionControl))
+                .addPathPatterns("/api/**");
+    }
+}
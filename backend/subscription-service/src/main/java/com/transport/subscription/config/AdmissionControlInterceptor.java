@@ -0,0 +1,58 @@
+package com.transport.subscription.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applique le contrôle d'admission aux endpoints annotés {@link AdmissionControlled}
+ * L'utilisateur est identifié par l'en-tête {@value #USER_HEADER} et le client d'API par {@value #CLIENT_HEADER}
+ * (à défaut, par son adresse IP). Un refus lève une RateLimitExceededException (429 + Retry-After).
+ */
+@RequiredArgsConstructor
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    static final String USER_HEADER = "X-User-Id";
+    static final String CLIENT_HEADER = "X-Client-Id";
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+
+    private final AdmissionControl admissionControl;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !handlerMethod.hasMethodAnnotation(AdmissionControlled.class)) {
+            return true;
+        }
+        // Redispatch d'une requête asynchrone : déjà admise
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            return true;
+        }
+
+        String userId = headerValue(request, USER_HEADER);
+        String clientId = headerValue(request, CLIENT_HEADER);
+        if (clientId == null) {
+            clientId = "ip:" + request.getRemoteAddr();
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, admissionControl.acquire(userId, clientId));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit instanceof AdmissionControl.Permit admitted) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            admitted.release();
+        }
+    }
+
+    private static String headerValue(HttpServletRequest request, String name) {
+        String value = request.getHeader(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
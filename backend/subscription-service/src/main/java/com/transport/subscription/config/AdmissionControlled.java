@@ -0,0 +1,17 @@
+package com.transport.subscription.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Soumet un endpoint au contrôle d'admission par utilisateur et par client d'API (voir {@link AdmissionControl})
+ * Réservé aux endpoints d'écriture : au-delà des limites, la requête est refusée en 429 avant d'atteindre la base.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AdmissionControlled {
+}
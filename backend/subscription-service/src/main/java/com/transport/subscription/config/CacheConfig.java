@@ -0,0 +1,46 @@
+package com.transport.subscription.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Configuration du cache applicatif (Caffeine, en mémoire locale)
+ * Chaque cache a sa propre politique d'expiration, définie dans application.yml (cache.*)
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Cache des plans par ID (PlanResponse)
+     */
+    public static final String PLANS_CACHE = "plans";
+
+    /**
+     * Cache des abonnements par ID (SubscriptionResponse), invalidé à chaque mutation
+     */
+    public static final String SUBSCRIPTIONS_CACHE = "subscriptions";
+
+    @Value("${cache.plans.spec:maximumSize=1000,expireAfterWrite=5m}")
+    private String plansSpec;
+
+    @Value("${cache.subscriptions.spec:maximumSize=100000,expireAfterWrite=60s}")
+    private String subscriptionsSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Pas de création dynamique : un nom de cache inconnu est une erreur de configuration
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(PLANS_CACHE, Caffeine.from(plansSpec).build());
+        cacheManager.registerCustomCache(SUBSCRIPTIONS_CACHE, Caffeine.from(subscriptionsSpec).build());
+        return cacheManager;
+    }
+}
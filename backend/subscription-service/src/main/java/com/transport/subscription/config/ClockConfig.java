@@ -0,0 +1,61 @@
+package com.transport.subscription.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Horloge de l'application : les dates métier (échéances, paiements, historique, traitements planifiés)
+ * sont lues sur ce bean et jamais directement sur l'horloge système.
+ * Horloge système par défaut ; horloge simulée si simulation.enabled=true (profil simulation).
+ */
+@Configuration
+@Slf4j
+public class ClockConfig {
+
+    /**
+     * Placeholder Flyway du fuseau de l'horloge applicative
+     */
+    public static final String REVENUE_ZONE_PLACEHOLDER = "revenue_zone";
+
+    @Bean
+    @ConditionalOnProperty(name = "simulation.enabled", havingValue = "false", matchIfMissing = true)
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+
+    /**
+     * Horloge simulée, avancée par le {@link com.transport.subscription.scheduler.LifecycleSimulator}
+     * @param startDate Premier jour simulé (vide = aujourd'hui)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "simulation.enabled", havingValue = "true")
+    public SimulatedClock simulatedClock(@Value("${simulation.start-date:}") String startDate) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate firstDay = startDate.isBlank() ? LocalDate.now(zone) : LocalDate.parse(startDate);
+        log.warn("⚠️ Mode simulation: horloge simulée à partir du {}", firstDay);
+        return new SimulatedClock(firstDay.atStartOfDay(zone).toInstant(), zone);
+    }
+
+    /**
+     * Expose le fuseau de l'horloge aux migrations (${revenue_zone}) : la reprise du grand livre
+     * range les paiements existants dans les mêmes jours que BillingServiceImpl
+     */
+    @Bean
+    public FlywayConfigurationCustomizer revenueZoneFlywayCustomizer(Clock clock) {
+        return configuration -> {
+            Map<String, String> placeholders = new HashMap<>(configuration.getPlaceholders());
+            placeholders.put(REVENUE_ZONE_PLACEHOLDER, clock.getZone().getId());
+            configuration.placeholders(placeholders);
+        };
+    }
+}
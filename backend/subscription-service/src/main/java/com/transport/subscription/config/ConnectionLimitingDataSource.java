@@ -0,0 +1,134 @@
+package com.transport.subscription.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Source de données limitant le nombre de connexions empruntées simultanément
+ * Avec des threads virtuels, le nombre de requêtes simultanées n'est plus borné par le pool Tomcat :
+ * sans limite, des milliers de threads s'empileraient dans l'attente d'une connexion Hikari.
+ * Un sémaphore équitable dimensionné sur le pool les fait attendre dans l'ordre d'arrivée, et au-delà de
+ * {@code maxWaiting} threads en attente la demande est refusée immédiatement (SQLTransientConnectionException).
+ * Le permis est rendu à la fermeture de la connexion (retour au pool).
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+    static final String WAITING_GAUGE = "datasource.limiter.waiting";
+    static final String REJECTED_COUNTER = "datasource.limiter.rejected";
+
+    private final Semaphore permits;
+    private final int maxWaiting;
+    private final long acquireTimeoutNanos;
+    private final LongAdder rejections = new LongAdder();
+
+    public ConnectionLimitingDataSource(DataSource target, int maxConnections, int maxWaiting,
+                                        Duration acquireTimeout) {
+        super(target);
+        this.permits = new Semaphore(maxConnections, true);
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    /**
+     * Enregistre les métriques du limiteur (threads en attente, refus)
+     */
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder(WAITING_GAUGE, permits, Semaphore::getQueueLength)
+                .description("Threads en attente d'une connexion à la base")
+                .register(meterRegistry);
+        FunctionCounter.builder(REJECTED_COUNTER, rejections, LongAdder::sum)
+                .description("Demandes de connexion refusées (file d'attente pleine ou délai dépassé)")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Connexions actuellement disponibles
+     */
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.availablePermits() == 0 && permits.getQueueLength() >= maxWaiting) {
+            rejections.increment();
+            throw new SQLTransientConnectionException(
+                    "Connection limiter saturated: " + maxWaiting + " threads already waiting");
+        }
+        try {
+            // tryAcquire avec délai respecte l'équité (tryAcquire() sans délai passerait devant la file)
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejections.increment();
+                throw new SQLTransientConnectionException("Connection limiter timed out after "
+                        + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    /**
+     * Enveloppe la connexion pour rendre le permis à sa fermeture (une seule fois)
+     */
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    default -> {
+                        try {
+                            yield method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    }
+                });
+    }
+}
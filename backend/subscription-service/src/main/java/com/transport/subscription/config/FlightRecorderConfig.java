@@ -0,0 +1,67 @@
+package com.transport.subscription.config;
+
+import com.transport.subscription.jfr.GatewayCallEvent;
+import com.transport.subscription.jfr.HistoryWriteEvent;
+import com.transport.subscription.jfr.RenewalChunkEvent;
+import com.transport.subscription.jfr.RenewalEvent;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Capture JDK Flight Recorder continue (profil jfr)
+ * Démarre au lancement une capture sur disque à rotation (durée et taille bornées) avec les réglages JDK
+ * indiqués ("default" : surcoût de l'ordre de 1 %) et les événements métier du package
+ * {@code com.transport.subscription.jfr}, filtrés par seuil de durée.
+ * La capture est écrite dans jfr.recording.destination à l'arrêt du service ; à chaud :
+ * {@code jcmd <pid> JFR.dump name=subscription-service filename=capture.jfr}.
+ */
+@org.springframework.context.annotation.Configuration
+@Slf4j
+@ConditionalOnProperty(name = "jfr.recording.enabled", havingValue = "true")
+public class FlightRecorderConfig {
+
+    static final String RECORDING_NAME = "subscription-service";
+
+    @Bean(destroyMethod = "stop")
+    public Recording flightRecording(
+            @Value("${jfr.recording.settings:default}") String settings,
+            @Value("${jfr.recording.max-age:6h}") Duration maxAge,
+            @Value("${jfr.recording.max-size:250MB}") DataSize maxSize,
+            @Value("${jfr.recording.destination:target/subscription-service.jfr}") Path destination,
+            @Value("${jfr.recording.renewal-threshold:20ms}") Duration renewalThreshold,
+            @Value("${jfr.recording.gateway-threshold:0ms}") Duration gatewayThreshold,
+            @Value("${jfr.recording.history-threshold:10ms}") Duration historyThreshold)
+            throws IOException, ParseException {
+        Recording recording = new Recording(Configuration.getConfiguration(settings));
+        recording.setName(RECORDING_NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.setDumpOnExit(true);
+        if (destination.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(destination.toAbsolutePath().getParent());
+        }
+        recording.setDestination(destination);
+
+        recording.enable(RenewalChunkEvent.NAME);
+        recording.enable(RenewalEvent.NAME).withThreshold(renewalThreshold);
+        recording.enable(GatewayCallEvent.NAME).withThreshold(gatewayThreshold);
+        recording.enable(HistoryWriteEvent.NAME).withThreshold(historyThreshold);
+        recording.start();
+
+        log.info("✅ Capture JFR '{}' démarrée (réglages {}, {} / {} max) vers {}", RECORDING_NAME, settings, maxAge,
+                maxSize, destination.toAbsolutePath());
+        return recording;
+    }
+}
@@ -0,0 +1,205 @@
+package com.transport.subscription.config;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Simulateur du comportement d'une passerelle de paiement réelle (latence, erreurs, délais, limitation de débit)
+ * Utilisé par la passerelle simulée ; le scénario courant peut être changé à chaud pour les tests de charge.
+ */
+@Slf4j
+public class GatewaySimulator {
+
+    /**
+     * Scénarios prédéfinis, du plus favorable au plus dégradé
+     */
+    public static final Map<String, Scenario> PRESETS;
+
+    static {
+        Map<String, Scenario> presets = new LinkedHashMap<>();
+        presets.put("nominal", Scenario.builder()
+                .name("nominal").latency(LatencyDistribution.FIXED).build());
+        presets.put("realistic", Scenario.builder()
+                .name("realistic").latency(LatencyDistribution.LONG_TAIL)
+                .p50Ms(150).p99Ms(900).p999Ms(2500)
+                .errorRate(0.005).declineRate(0.02).build());
+        presets.put("slow", Scenario.builder()
+                .name("slow").latency(LatencyDistribution.NORMAL)
+                .meanMs(1500).stdDevMs(500).build());
+        presets.put("brownout", Scenario.builder()
+                .name("brownout").latency(LatencyDistribution.LONG_TAIL)
+                .p50Ms(800).p99Ms(4000).p999Ms(9000)
+                .errorRate(0.2).timeoutRate(0.05).hangMs(30_000)
+                .rateLimitPerSecond(50).build());
+        presets.put("outage", Scenario.builder()
+                .name("outage").latency(LatencyDistribution.FIXED).fixedMs(50)
+                .errorRate(1.0).build());
+        PRESETS = Collections.unmodifiableMap(presets);
+    }
+
+    private final AtomicReference<Scenario> scenario;
+    private final AtomicLong rateWindowSecond = new AtomicLong();
+    private final AtomicInteger rateWindowCount = new AtomicInteger();
+
+    public GatewaySimulator(Scenario initialScenario) {
+        this.scenario = new AtomicReference<>(initialScenario);
+    }
+
+    /**
+     * Crée un simulateur démarrant sur un scénario prédéfini
+     * @param presetName Nom du scénario
+     * @return Simulateur
+     */
+    public static GatewaySimulator fromPreset(String presetName) {
+        return new GatewaySimulator(preset(presetName));
+    }
+
+    /**
+     * Retourne un scénario prédéfini
+     * @param presetName Nom du scénario
+     * @return Scénario
+     * @throws IllegalArgumentException si le scénario n'existe pas
+     */
+    public static Scenario preset(String presetName) {
+        Scenario preset = PRESETS.get(presetName);
+        if (preset == null) {
+            throw new IllegalArgumentException("Unknown gateway scenario: " + presetName);
+        }
+        return preset;
+    }
+
+    public Scenario getScenario() {
+        return scenario.get();
+    }
+
+    public void setScenario(Scenario newScenario) {
+        Scenario previous = scenario.getAndSet(newScenario);
+        log.warn("Scénario de la passerelle simulée: {} → {}", previous.name(), newScenario.name());
+    }
+
+    /**
+     * Simule un appel réseau : attend la latence tirée puis lève une exception si le scénario l'impose
+     * @return true si la passerelle doit refuser le paiement (refus métier), false sinon
+     * @throws SimulatedGatewayException en cas d'erreur technique simulée (limitation, 5xx, délai)
+     */
+    public boolean simulateCall() {
+        Scenario current = scenario.get();
+        Random random = ThreadLocalRandom.current();
+
+        if (current.rateLimitPerSecond() > 0 && !acquireRatePermit(current.rateLimitPerSecond())) {
+            throw new SimulatedGatewayException("429 Too Many Requests");
+        }
+        if (current.timeoutRate() > 0 && random.nextDouble() < current.timeoutRate()) {
+            sleep(current.hangMs());
+            throw new SimulatedGatewayException("Read timed out");
+        }
+
+        sleep(sampleLatencyMs(current, random));
+
+        if (current.errorRate() > 0 && random.nextDouble() < current.errorRate()) {
+            throw new SimulatedGatewayException("502 Bad Gateway");
+        }
+        return current.declineRate() > 0 && random.nextDouble() < current.declineRate();
+    }
+
+    /**
+     * Tire une latence selon la distribution du scénario
+     */
+    static long sampleLatencyMs(Scenario scenario, Random random) {
+        return switch (scenario.latency()) {
+            case FIXED -> scenario.fixedMs();
+            case NORMAL -> Math.max(0, Math.round(scenario.meanMs() + random.nextGaussian() * scenario.stdDevMs()));
+            case LONG_TAIL -> longTail(scenario, random.nextDouble());
+        };
+    }
+
+    /**
+     * Interpolation linéaire entre les percentiles configurés (p0 = p50/2, p100 = p99.9 × 1.5)
+     */
+    private static long longTail(Scenario scenario, double quantile) {
+        double[] q = {0.0, 0.5, 0.99, 0.999, 1.0};
+        double[] ms = {scenario.p50Ms() / 2.0, scenario.p50Ms(), scenario.p99Ms(), scenario.p999Ms(),
+                scenario.p999Ms() * 1.5};
+        for (int i = 1; i < q.length; i++) {
+            if (quantile <= q[i]) {
+                double ratio = (quantile - q[i - 1]) / (q[i] - q[i - 1]);
+                return Math.round(ms[i - 1] + ratio * (ms[i] - ms[i - 1]));
+            }
+        }
+        return Math.round(ms[ms.length - 1]);
+    }
+
+    /**
+     * Fenêtre fixe d'une seconde : au plus {@code limit} appels par seconde
+     */
+    private boolean acquireRatePermit(int limit) {
+        long second = System.currentTimeMillis() / 1000;
+        long window = rateWindowSecond.get();
+        if (window != second && rateWindowSecond.compareAndSet(window, second)) {
+            rateWindowCount.set(0);
+        }
+        return rateWindowCount.incrementAndGet() <= limit;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            // Appel annulé par le délai de la couche de résilience
+            Thread.currentThread().interrupt();
+            throw new SimulatedGatewayException("Call interrupted");
+        }
+    }
+
+    /**
+     * Forme de la distribution de latence simulée
+     */
+    public enum LatencyDistribution {
+        FIXED,      // Latence constante (fixedMs)
+        NORMAL,     // Loi normale (meanMs, stdDevMs)
+        LONG_TAIL   // Percentiles p50 / p99 / p99.9 (queue longue)
+    }
+
+    /**
+     * Paramètres d'un scénario de simulation
+     * Les taux sont des probabilités entre 0 et 1 ; rateLimitPerSecond = 0 désactive la limitation.
+     */
+    @Builder(toBuilder = true)
+    public record Scenario(
+            String name,
+            LatencyDistribution latency,
+            long fixedMs,
+            long meanMs,
+            long stdDevMs,
+            long p50Ms,
+            long p99Ms,
+            long p999Ms,
+            double errorRate,
+            double declineRate,
+            double timeoutRate,
+            long hangMs,
+            int rateLimitPerSecond
+    ) { }
+
+    /**
+     * Erreur technique simulée (équivalent d'un 5xx, 429 ou d'un délai réseau)
+     */
+    public static class SimulatedGatewayException extends RuntimeException {
+
+        public SimulatedGatewayException(String message) {
+            super(message);
+        }
+    }
+}
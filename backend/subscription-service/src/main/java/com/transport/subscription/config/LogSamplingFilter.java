@@ -0,0 +1,91 @@
+package com.transport.subscription.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Échantillonnage des lignes de log à fort volume (déclaré dans logback-spring.xml)
+ * Les lignes marquées {@link #SAMPLED} (une ligne par abonnement dans les traitements par lot) et toutes celles
+ * des loggers listés sont limitées à maxPerSecond lignes par seconde et par logger ; le surplus est écarté
+ * avant la création de l'événement. WARN et ERROR ne sont jamais échantillonnés.
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+    /**
+     * Marqueur des lignes pouvant être échantillonnées
+     */
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final Set<String> loggers = ConcurrentHashMap.newKeySet();
+    private final LongSupplier currentMillis;
+    private volatile int maxPerSecond = 100;
+
+    public LogSamplingFilter() {
+        this(System::currentTimeMillis);
+    }
+
+    LogSamplingFilter(LongSupplier currentMillis) {
+        this.currentMillis = currentMillis;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    /**
+     * @param loggers Loggers échantillonnés en totalité, séparés par des virgules
+     */
+    public void setLoggers(String loggers) {
+        this.loggers.clear();
+        for (String name : loggers.split(",")) {
+            if (!name.isBlank()) {
+                this.loggers.add(name.trim());
+            }
+        }
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        // format null : simple test isXxxEnabled(), rien n'est écrit
+        if (!isStarted() || format == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        if ((marker == null || !marker.contains(SAMPLED)) && !loggers.contains(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(logger.getName(), name -> new Window());
+        return window.tryAcquire(currentMillis.getAsLong() / 1000, maxPerSecond)
+                ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    /**
+     * Compteur de lignes sur la seconde en cours (remise à zéro approximative au changement de seconde)
+     */
+    private static final class Window {
+
+        private final AtomicLong second = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger count = new AtomicInteger();
+
+        boolean tryAcquire(long now, int max) {
+            long current = second.get();
+            if (current != now && second.compareAndSet(current, now)) {
+                count.set(0);
+            }
+            return count.incrementAndGet() <= max;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.transport.subscription.config;
+
+import com.transport.subscription.service.CardExpiryNotifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Configuration des notifications envoyées aux abonnés.
+ * Fournit une implémentation par défaut (journalisation), retenue quand notification.card-expiry.provider
+ * vaut "log" (valeur par défaut). Le choix repose uniquement sur cette propriété : un canal réel se branche
+ * en déclarant son propre bean {@link CardExpiryNotifier}, conditionné sur une autre valeur du provider.
+ */
+@Configuration
+@Slf4j
+public class NotificationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "notification.card-expiry.provider", havingValue = "log", matchIfMissing = true)
+    public CardExpiryNotifier cardExpiryNotifier() {
+        // Pour l'instant, les avis sont seulement journalisés.
+        // Un envoi d'e-mails ou une publication sur le bus fournira son propre bean.
+        log.info("Initialisation du canal des avis d'expiration de carte 'log'");
+        return new LoggingCardExpiryNotifier();
+    }
+
+    /**
+     * Canal local : journalise chaque avis
+     */
+    static class LoggingCardExpiryNotifier implements CardExpiryNotifier {
+
+        @Override
+        public void notify(List<CardExpiryEvent> events) {
+            for (CardExpiryEvent event : events) {
+                log.info("Avis d'expiration de carte: abonnement {} (utilisateur {}), carte {}/{} avant la facturation du {}",
+                        event.subscriptionId(), event.userId(), event.cardExpMonth(), event.cardExpYear(),
+                        event.nextBillingDate());
+            }
+        }
+    }
+}
@@ -1,53 +1,161 @@
 package com.transport.subscription.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.transport.subscription.model.PaymentMethod;
 import com.transport.subscription.service.PaymentGateway;
+import com.transport.subscription.util.ThreadFactories;
+import com.transport.subscription.util.WebhookSignatures;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Configuration de la passerelle de paiement.
  * Fournit une implémentation par défaut (simulée) qui peut être substituée par une intégration réelle.
+ * L'implémentation est toujours exposée derrière {@link ResilientPaymentGateway} (instances Resilience4j
+ * "{@value #RESILIENCE_INSTANCE}" configurées dans application.yml).
  */
 @Configuration
 @Slf4j
 public class PaymentGatewayConfig {
 
+    static final String RESILIENCE_INSTANCE = "paymentGateway";
+
     @Value("${payment.gateway.provider:mock}")
     private String provider;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${payment.gateway.webhook-secret:}")
+    private String webhookSecret;
+
+    /**
+     * Simulateur de comportement réseau utilisé par la passerelle simulée
+     * Le scénario initial est configurable ; il peut être changé à chaud via l'API d'administration.
+     */
     @Bean
-    public PaymentGateway paymentGateway() {
+    public GatewaySimulator gatewaySimulator(
+            @Value("${payment.gateway.simulator.scenario:nominal}") String scenario) {
+        log.info("Scénario initial de la passerelle simulée: {}", scenario);
+        return GatewaySimulator.fromPreset(scenario);
+    }
+
+    @Bean
+    public PaymentGateway paymentGateway(GatewaySimulator gatewaySimulator,
+                                         CircuitBreakerRegistry circuitBreakerRegistry,
+                                         BulkheadRegistry bulkheadRegistry,
+                                         RetryRegistry retryRegistry,
+                                         TimeLimiterRegistry timeLimiterRegistry,
+                                         MeterRegistry meterRegistry) {
         // Pour l'instant, nous retournons une implémentation simulée.
         // Cette implémentation pourra être remplacée par StripePaymentGateway ou PayPalPaymentGateway.
         log.info("Initialisation de la passerelle de paiement '{}'", provider);
-        return new MockPaymentGateway();
+        if (webhookSecret == null || webhookSecret.isBlank()) {
+            log.warn("payment.gateway.webhook-secret non configuré : tous les webhooks de paiement seront rejetés");
+        }
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(RESILIENCE_INSTANCE);
+        return new ResilientPaymentGateway(
+                new MockPaymentGateway(gatewaySimulator, webhookSecret),
+                circuitBreakerRegistry.circuitBreaker(RESILIENCE_INSTANCE),
+                bulkhead,
+                retryRegistry.retry(RESILIENCE_INSTANCE),
+                timeLimiterRegistry.timeLimiter(RESILIENCE_INSTANCE),
+                paymentGatewayCallExecutor(virtualThreads, bulkhead.getBulkheadConfig().getMaxConcurrentCalls()),
+                meterRegistry);
+    }
+
+    /**
+     * Threads exécutant les appels à la passerelle, pour pouvoir les interrompre au délai imparti
+     * Borné à la taille du bulkhead (threads et file) : le bulkhead libère sa place au délai dépassé,
+     * mais un appel qui ignore l'interruption garde son thread. Sans borne, des appels bloqués
+     * accumuleraient des threads ; ici les nouveaux appels sont refusés une fois les threads et la file pleins.
+     * Threads virtuels ou de plateforme selon spring.threads.virtual.enabled, dans les deux cas bornés.
+     * Volontairement pas exposé comme bean (un bean Executor désactiverait l'exécuteur par défaut de Spring Boot).
+     * @param maxThreads Appels simultanés max (max-concurrent-calls du bulkhead)
+     */
+    static ExecutorService paymentGatewayCallExecutor(boolean virtualThreads, int maxThreads) {
+        ThreadFactory threadFactory = ThreadFactories.named("payment-gateway", virtualThreads);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxThreads), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     /**
      * Implémentation simulée d'une passerelle de paiement.
+     * Latence, erreurs et limitation de débit sont dictées par le {@link GatewaySimulator}.
+     * Comme une passerelle réelle, elle conserve 24 h le résultat de chaque clé d'idempotence :
+     * un paiement rejoué retourne le résultat initial sans nouveau débit, une transaction déjà remboursée
+     * retourne le remboursement initial.
+     * Les webhooks sont authentifiés comme ceux d'une passerelle réelle (voir {@link WebhookSignatures}).
      */
     static class MockPaymentGateway implements PaymentGateway {
 
+        private final GatewaySimulator simulator;
+        private final String webhookSecret;
+        private final Cache<String, PaymentResult> charges = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofHours(24))
+                .build();
+        private final Cache<String, RefundResult> refunds = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofHours(24))
+                .build();
+
+        MockPaymentGateway(GatewaySimulator simulator, String webhookSecret) {
+            this.simulator = simulator;
+            this.webhookSecret = webhookSecret;
+        }
+
         @Override
         public PaymentResult charge(PaymentRequest request) {
+            boolean declined = simulator.simulateCall();
+
+            String key = request.idempotencyKey();
+            PaymentResult known = key != null ? charges.getIfPresent(key) : null;
+            if (known != null) {
+                return known;
+            }
+
             // Simulation d'un paiement : les paiements par carte avec token sont acceptés, sinon échec.
-            boolean success = request.paymentMethod() == PaymentMethod.CARD
+            boolean success = !declined && (request.paymentMethod() == PaymentMethod.CARD
                     ? request.cardToken() != null && !request.cardToken().isBlank()
-                    : true;
+                    : true);
 
-            if (success) {
-                String externalTxnId = "mock-" + UUID.randomUUID();
-                return new PaymentResult(true, externalTxnId, null);
+            PaymentResult result = success
+                    ? new PaymentResult(true, "mock-" + UUID.randomUUID(), null)
+                    : new PaymentResult(false, null, "Payment declined by mock gateway");
+            if (key == null) {
+                return result;
             }
+            PaymentResult previous = charges.asMap().putIfAbsent(key, result);
+            return previous != null ? previous : result;
+        }
 
-            return new PaymentResult(false, null, "Payment declined by mock gateway");
+        @Override
+        public Optional<PaymentResult> findCharge(String idempotencyKey) {
+            simulator.simulateCall();
+            return Optional.ofNullable(charges.getIfPresent(idempotencyKey));
         }
 
         @Override
@@ -55,15 +163,29 @@ public class PaymentGatewayConfig {
             if (externalTransactionId == null || externalTransactionId.isBlank()) {
                 return new RefundResult(false, null, "Missing external transaction id");
             }
+            boolean declined = simulator.simulateCall();
+            RefundResult known = refunds.getIfPresent(externalTransactionId);
+            if (known != null) {
+                return known;
+            }
+            if (declined) {
+                return new RefundResult(false, null, "Refund declined by mock gateway");
+            }
             // Génère un identifiant de remboursement simulé
             String refundTxnId = externalTransactionId + "-refund-" + Instant.now().toEpochMilli();
-            return new RefundResult(true, refundTxnId, null);
+            return refunds.asMap().computeIfAbsent(externalTransactionId,
+                    txnId -> new RefundResult(true, refundTxnId, null));
+        }
+
+        @Override
+        public Optional<RefundResult> findRefund(String externalTransactionId) {
+            simulator.simulateCall();
+            return Optional.ofNullable(refunds.getIfPresent(externalTransactionId));
         }
 
         @Override
         public boolean verifyWebhookSignature(String payload, String signature) {
-            // Implémentation simulée : retourne toujours vrai
-            return true;
+            return WebhookSignatures.verify(payload, signature, webhookSecret);
         }
     }
 }
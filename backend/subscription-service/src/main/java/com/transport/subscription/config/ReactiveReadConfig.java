@@ -0,0 +1,52 @@
+package com.transport.subscription.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * Configuration du chemin de lecture réactif (profil reactive-read)
+ * Pool R2DBC dédié aux lectures non bloquantes, sur le même schéma que JPA ; les écritures restent sur JPA.
+ * L'auto-configuration R2DBC de Spring Boot est exclue (application.yml) : sans profil, aucune connexion R2DBC
+ * n'est ouverte, et aucun gestionnaire de transactions réactif ne concurrence celui de JPA.
+ */
+@Configuration
+@Profile("reactive-read")
+@Slf4j
+public class ReactiveReadConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool reactiveReadConnectionPool(
+            @Value("${reactive-read.r2dbc.url}") String url,
+            @Value("${reactive-read.r2dbc.username:${spring.datasource.username}}") String username,
+            @Value("${reactive-read.r2dbc.password:${spring.datasource.password}}") String password,
+            @Value("${reactive-read.r2dbc.pool.initial-size:2}") int initialSize,
+            @Value("${reactive-read.r2dbc.pool.max-size:4}") int maxSize,
+            @Value("${reactive-read.r2dbc.pool.max-idle-time:30m}") Duration maxIdleTime) {
+        log.info("Pool R2DBC des lectures réactives: {} ({} à {} connexion(s))", url, initialSize, maxSize);
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive-read")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(maxIdleTime)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient reactiveReadDatabaseClient(ConnectionPool reactiveReadConnectionPool) {
+        return DatabaseClient.create(reactiveReadConnectionPool);
+    }
+}
@@ -0,0 +1,24 @@
+package com.transport.subscription.config;
+
+import com.transport.subscription.service.RenewalProgress;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Endpoint actuator /actuator/renewals : avancement en direct des traitements de renouvellement et d'expiration
+ * (début, abonnements à traiter, traités, en échec, débit, fin estimée) et dernières exécutions terminées
+ */
+@Component
+@Endpoint(id = "renewals")
+@RequiredArgsConstructor
+public class RenewalProgressEndpoint {
+
+    private final RenewalProgress renewalProgress;
+
+    @ReadOperation
+    public RenewalProgress.Report renewals() {
+        return renewalProgress.report();
+    }
+}
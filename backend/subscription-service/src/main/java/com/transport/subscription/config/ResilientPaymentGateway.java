@@ -0,0 +1,146 @@
+package com.transport.subscription.config;
+
+import com.transport.subscription.exception.PaymentGatewayUnavailableException;
+import com.transport.subscription.jfr.GatewayCallEvent;
+import com.transport.subscription.service.PaymentGateway;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Décorateur de la passerelle de paiement isolant les appels réseau
+ * Ordre d'application : retry (appels idempotents uniquement) → circuit breaker → bulkhead → timeout.
+ * Chaque appel est mesuré dans le timer {@value #TIMER_NAME} (histogramme de latence par opération et issue)
+ * et émet un événement JFR {@link GatewayCallEvent}.
+ */
+@Slf4j
+public class ResilientPaymentGateway implements PaymentGateway, AutoCloseable {
+
+    static final String TIMER_NAME = "payment.gateway.calls";
+
+    private final PaymentGateway delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Retry retry;
+    private final TimeLimiter timeLimiter;
+    private final ExecutorService callExecutor;
+    private final MeterRegistry meterRegistry;
+
+    public ResilientPaymentGateway(PaymentGateway delegate,
+                                   CircuitBreaker circuitBreaker,
+                                   Bulkhead bulkhead,
+                                   Retry retry,
+                                   TimeLimiter timeLimiter,
+                                   ExecutorService callExecutor,
+                                   MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.retry = retry;
+        this.timeLimiter = timeLimiter;
+        this.callExecutor = callExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public PaymentResult charge(PaymentRequest request) {
+        // La passerelle déduplique sur la clé d'idempotence : un nouvel essai ne peut pas débiter deux fois
+        boolean idempotent = request.idempotencyKey() != null && !request.idempotencyKey().isBlank();
+        return execute("charge", request.subscriptionId(), () -> delegate.charge(request), idempotent,
+                PaymentResult::success);
+    }
+
+    @Override
+    public Optional<PaymentResult> findCharge(String idempotencyKey) {
+        // Lecture seule : toujours rejouable
+        return execute("find-charge", null, () -> delegate.findCharge(idempotencyKey), true,
+                Optional::isPresent);
+    }
+
+    @Override
+    public RefundResult refund(String externalTransactionId, BigDecimal amount) {
+        return execute("refund", null, () -> delegate.refund(externalTransactionId, amount), false,
+                RefundResult::success);
+    }
+
+    @Override
+    public Optional<RefundResult> findRefund(String externalTransactionId) {
+        return execute("find-refund", null, () -> delegate.findRefund(externalTransactionId), true,
+                Optional::isPresent);
+    }
+
+    @Override
+    public boolean verifyWebhookSignature(String payload, String signature) {
+        // Vérification locale (HMAC) : aucun appel réseau à protéger
+        return delegate.verifyWebhookSignature(payload, signature);
+    }
+
+    /**
+     * Arrête les threads d'appel (invoqué par Spring à la fermeture du contexte)
+     */
+    @Override
+    public void close() {
+        callExecutor.shutdownNow();
+    }
+
+    private <T> T execute(String operation, UUID subscriptionId, Callable<T> call, boolean retryable,
+                          Predicate<T> accepted) {
+        Callable<T> timed = () -> timeLimiter.executeFutureSupplier(() -> callExecutor.submit(call));
+        Callable<T> guarded = CircuitBreaker.decorateCallable(circuitBreaker,
+                Bulkhead.decorateCallable(bulkhead, timed));
+        if (retryable) {
+            guarded = Retry.decorateCallable(retry, guarded);
+        }
+
+        GatewayCallEvent event = GatewayCallEvent.start(operation);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = guarded.call();
+            outcome = accepted.test(result) ? "success" : "declined";
+            return result;
+        } catch (CallNotPermittedException e) {
+            outcome = "rejected";
+            log.warn("Appel passerelle '{}' refusé: circuit ouvert", operation);
+            throw new PaymentGatewayUnavailableException("Payment gateway circuit is open", false, e);
+        } catch (BulkheadFullException e) {
+            outcome = "rejected";
+            log.warn("Appel passerelle '{}' refusé: limite de concurrence atteinte", operation);
+            throw new PaymentGatewayUnavailableException("Payment gateway concurrency limit reached", false, e);
+        } catch (RejectedExecutionException e) {
+            outcome = "rejected";
+            log.warn("Appel passerelle '{}' refusé: threads d'appel saturés par des appels bloqués", operation);
+            throw new PaymentGatewayUnavailableException("Payment gateway call threads exhausted", false, e);
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            log.error("Appel passerelle '{}' interrompu: délai dépassé", operation);
+            throw new PaymentGatewayUnavailableException("Payment gateway call timed out", true, e);
+        } catch (Exception e) {
+            log.error("Appel passerelle '{}' en erreur: {}", operation, e.getMessage());
+            throw new PaymentGatewayUnavailableException("Payment gateway call failed", true, e);
+        } finally {
+            event.finish(subscriptionId, outcome);
+            sample.stop(Timer.builder(TIMER_NAME)
+                    .description("Latence des appels à la passerelle de paiement")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
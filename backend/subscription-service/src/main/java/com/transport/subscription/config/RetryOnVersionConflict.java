@@ -0,0 +1,40 @@
+package com.transport.subscription.config;
+
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Rejoue une méthode transactionnelle en cas de conflit de version (@Version)
+ * La transaction entière est rejouée (relecture de l'état courant), en dehors de la transaction échouée.
+ * Par défaut : subscription.concurrency.max-attempts tentatives, délai initial
+ * subscription.concurrency.backoff-delay-ms doublé à chaque essai, avec jitter aléatoire.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Retryable(retryFor = OptimisticLockingFailureException.class)
+public @interface RetryOnVersionConflict {
+
+    /**
+     * Nombre max de tentatives (expression évaluée au démarrage)
+     */
+    @AliasFor(annotation = Retryable.class, attribute = "maxAttemptsExpression")
+    String maxAttempts() default "${subscription.concurrency.max-attempts:3}";
+
+    /**
+     * Attente entre deux tentatives
+     */
+    @AliasFor(annotation = Retryable.class, attribute = "backoff")
+    Backoff backoff() default @Backoff(
+            delayExpression = "${subscription.concurrency.backoff-delay-ms:20}",
+            multiplier = 2,
+            random = true);
+}
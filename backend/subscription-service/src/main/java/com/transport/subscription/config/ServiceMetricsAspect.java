@@ -0,0 +1,77 @@
+package com.transport.subscription.config;
+
+import com.transport.subscription.service.BillingService;
+import com.transport.subscription.service.PaymentService;
+import com.transport.subscription.service.PlanService;
+import com.transport.subscription.service.RenewalService;
+import com.transport.subscription.service.SubscriptionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Chronomètre chaque méthode publique des services métier (timer {@code service.calls})
+ * Tags : service (interface), method, outcome (success / error) et exception (nom simple, "none" en cas de succès).
+ * Placé avant les autres aspects pour inclure le commit de la transaction et les tentatives de spring-retry.
+ * Les appels internes à un service (this.xxx()) ne passent pas par le proxy et ne sont pas mesurés ;
+ * les appels aux repositories sont mesurés par Spring Boot ({@code spring.data.repository.invocations}).
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "metrics.service-timers.enabled", havingValue = "true", matchIfMissing = true)
+public class ServiceMetricsAspect {
+
+    static final String TIMER_NAME = "service.calls";
+
+    private static final List<Class<?>> SERVICES = List.of(SubscriptionService.class, BillingService.class,
+            PaymentService.class, RenewalService.class, PlanService.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.transport.subscription.service.SubscriptionService+.*(..))"
+            + " || execution(public * com.transport.subscription.service.BillingService+.*(..))"
+            + " || execution(public * com.transport.subscription.service.PaymentService+.*(..))"
+            + " || execution(public * com.transport.subscription.service.RenewalService+.*(..))"
+            + " || execution(public * com.transport.subscription.service.PlanService+.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER_NAME)
+                    .description("Latence des méthodes publiques des services métier")
+                    .tag("service", serviceName(joinPoint.getTarget()))
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", "none".equals(exception) ? "success" : "error")
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String serviceName(Object target) {
+        for (Class<?> service : SERVICES) {
+            if (service.isInstance(target)) {
+                return service.getSimpleName();
+            }
+        }
+        return target.getClass().getSimpleName();
+    }
+}
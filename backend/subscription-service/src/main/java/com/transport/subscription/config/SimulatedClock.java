@@ -0,0 +1,73 @@
+package com.transport.subscription.config;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Horloge simulée : le temps s'écoule au rythme réel à partir d'un instant simulé, que l'on peut avancer
+ * d'un coup (jour suivant, heure d'un traitement planifié). Le temps ne recule jamais.
+ * Les vues obtenues par {@link #withZone(ZoneId)} partagent le même instant simulé.
+ */
+public class SimulatedClock extends Clock {
+
+    /**
+     * Instant simulé et valeur de l'horloge monotone au moment où il a été fixé
+     */
+    private record Anchor(Instant simulated, long nanos) {
+    }
+
+    private final AtomicReference<Anchor> anchor;
+    private final ZoneId zone;
+    private final LongSupplier nanoClock;
+
+    public SimulatedClock(Instant start, ZoneId zone) {
+        this(start, zone, System::nanoTime);
+    }
+
+    SimulatedClock(Instant start, ZoneId zone, LongSupplier nanoClock) {
+        this(new AtomicReference<>(new Anchor(start, nanoClock.getAsLong())), zone, nanoClock);
+    }
+
+    private SimulatedClock(AtomicReference<Anchor> anchor, ZoneId zone, LongSupplier nanoClock) {
+        this.anchor = anchor;
+        this.zone = zone;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new SimulatedClock(anchor, zone, nanoClock);
+    }
+
+    @Override
+    public Instant instant() {
+        Anchor current = anchor.get();
+        return current.simulated().plusNanos(nanoClock.getAsLong() - current.nanos());
+    }
+
+    /**
+     * Avance l'horloge jusqu'à l'instant donné ; sans effet s'il est déjà dépassé
+     * @param target Instant simulé visé
+     * @return Instant simulé courant après l'avance
+     */
+    public Instant advanceTo(Instant target) {
+        long nanos = nanoClock.getAsLong();
+        Anchor next = new Anchor(target, nanos);
+        Anchor current = anchor.get();
+        while (current.simulated().plusNanos(nanos - current.nanos()).isBefore(target)) {
+            if (anchor.compareAndSet(current, next)) {
+                return target;
+            }
+            current = anchor.get();
+        }
+        return instant();
+    }
+}
@@ -0,0 +1,20 @@
+package com.transport.subscription.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Réglages de la simulation accélérée (profil simulation), validés au démarrage
+ * @param dunningIntervalHours Relances traitées toutes les N heures simulées (1 à 24)
+ */
+@ConfigurationProperties(prefix = "simulation")
+@Validated
+public record SimulationProperties(
+        @DefaultValue("1")
+        @Min(value = 1, message = "simulation.dunning-interval-hours must be between 1 and 24")
+        @Max(value = 24, message = "simulation.dunning-interval-hours must be between 1 and 24")
+        int dunningIntervalHours) {
+}
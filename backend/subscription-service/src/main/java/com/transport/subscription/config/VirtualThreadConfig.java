@@ -0,0 +1,59 @@
+package com.transport.subscription.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Configuration du mode threads virtuels (profil virtual-threads, spring.threads.virtual.enabled=true)
+ * Spring Boot exécute alors les requêtes Tomcat, les tâches @Scheduled et l'exécuteur par défaut sur des
+ * threads virtuels ; les pools internes basculent via {@link com.transport.subscription.util.ThreadFactories}.
+ * La source de données est bornée par un {@link ConnectionLimitingDataSource} dimensionné sur le pool Hikari.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+
+    /**
+     * Enveloppe la source de données dans le limiteur de connexions
+     * Statique : un BeanPostProcessor est instancié avant les beans qu'il traite.
+     */
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxConnections,
+            @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeoutMs,
+            @Value("${datasource.limiter.max-waiting:500}") int maxWaiting) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    log.info("Limiteur de connexions sur '{}': {} connexion(s), {} thread(s) en attente max",
+                            beanName, maxConnections, maxWaiting);
+                    return new ConnectionLimitingDataSource(dataSource, maxConnections, maxWaiting,
+                            Duration.ofMillis(connectionTimeoutMs));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Métriques du limiteur (threads en attente, refus)
+     */
+    @Bean
+    public MeterBinder connectionLimiterMetrics(DataSource dataSource) {
+        return meterRegistry -> {
+            if (dataSource instanceof ConnectionLimitingDataSource limiter) {
+                limiter.bindTo(meterRegistry);
+            }
+        };
+    }
+}
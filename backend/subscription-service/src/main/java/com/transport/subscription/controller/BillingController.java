@@ -1,9 +1,17 @@
 package com.transport.subscription.controller;
 
+import com.transport.subscription.config.AdmissionControlled;
 import com.transport.subscription.dto.request.ProcessPaymentRequest;
+import com.transport.subscription.dto.request.RefundBatchRequest;
 import com.transport.subscription.dto.response.PaymentResponse;
+import com.transport.subscription.dto.response.PlanRevenueResponse;
+import com.transport.subscription.dto.response.RefundBatchResponse;
+import com.transport.subscription.exception.InvalidSubscriptionException;
+import com.transport.subscription.service.BillingExportService;
 import com.transport.subscription.service.BillingService;
 import com.transport.subscription.service.PaymentService;
+import com.transport.subscription.service.RefundBatchService;
+import com.transport.subscription.service.SettlementReconciliationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,11 +22,19 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -34,8 +50,12 @@ public class BillingController {
 
     private final BillingService billingService;
     private final PaymentService paymentService;
+    private final BillingExportService billingExportService;
+    private final RefundBatchService refundBatchService;
+    private final SettlementReconciliationService settlementReconciliationService;
 
     @PostMapping("/payments")
+    @AdmissionControlled
     @Operation(
             summary = "Traiter un paiement",
             description = "Traite un paiement pour un abonnement donné"
@@ -53,6 +73,10 @@ public class BillingController {
             @ApiResponse(
                     responseCode = "404",
                     description = "Abonnement non trouvé"
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Trop de requêtes pour cet utilisateur ou ce client (voir Retry-After)"
             )
     })
     public ResponseEntity<PaymentResponse> processPayment(
@@ -62,6 +86,43 @@ public class BillingController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/payments/async")
+    @AdmissionControlled
+    @Operation(
+            summary = "Soumettre un paiement en asynchrone",
+            description = "Enregistre le paiement au statut PENDING et retourne immédiatement ; " +
+                    "le statut se consulte via l'URL fournie dans l'en-tête Location"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Paiement accepté pour traitement",
+                    content = @Content(schema = @Schema(implementation = PaymentResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Abonnement non trouvé"
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "File de traitement des paiements saturée"
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Trop de requêtes pour cet utilisateur ou ce client (voir Retry-After)"
+            )
+    })
+    public ResponseEntity<PaymentResponse> submitPayment(
+            @Valid @RequestBody ProcessPaymentRequest request) {
+        log.info("Requête POST /api/subscriptions/billing/payments/async - Soumission d'un paiement");
+        PaymentResponse response = paymentService.submitPayment(request);
+        URI statusUri = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/subscriptions/billing/payments/{paymentId}")
+                .buildAndExpand(response.getPaymentId())
+                .toUri();
+        return ResponseEntity.accepted().location(statusUri).body(response);
+    }
+
     @GetMapping("/subscriptions/{subscriptionId}")
     @Operation(
             summary = "Récupérer l'historique de facturation d'un abonnement",
@@ -86,6 +147,42 @@ public class BillingController {
         return ResponseEntity.ok(history);
     }
 
+    @GetMapping("/payments/export")
+    @Operation(
+            summary = "Exporter les paiements d'une période",
+            description = "Diffuse les paiements en NDJSON ou CSV au fil de la lecture (mémoire constante)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Export en cours de diffusion"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Période ou format invalide"
+            )
+    })
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @Parameter(description = "Premier jour (inclus)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Dernier jour (inclus)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Format de sortie (NDJSON ou CSV)")
+            @RequestParam(defaultValue = "ndjson") String format) {
+        log.info("Requête GET /api/subscriptions/billing/payments/export - Export {} du {} au {}", format, from, to);
+        BillingExportService.ExportFormat exportFormat = BillingExportService.ExportFormat.fromName(format);
+        if (from.isAfter(to)) {
+            throw new InvalidSubscriptionException("Start date must be before end date");
+        }
+
+        StreamingResponseBody body = out -> billingExportService.exportPayments(from, to, exportFormat, out);
+        String filename = "payments-" + from + "-" + to + "." + exportFormat.extension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
     @GetMapping("/payments/{paymentId}")
     @Operation(
             summary = "Récupérer un paiement par ID",
@@ -134,7 +231,35 @@ public class BillingController {
         return ResponseEntity.ok(total);
     }
 
+    @GetMapping("/plans/{planId}/revenue")
+    @Operation(
+            summary = "Récupérer le revenu journalier d'un plan",
+            description = "Retourne le revenu par jour et par devise d'un plan sur une période (agrégats pré-calculés)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Revenus récupérés avec succès"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Période invalide"
+            )
+    })
+    public ResponseEntity<List<PlanRevenueResponse>> getPlanRevenue(
+            @Parameter(description = "ID du plan", required = true)
+            @PathVariable UUID planId,
+            @Parameter(description = "Premier jour (inclus)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Dernier jour (inclus)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Requête GET /api/subscriptions/billing/plans/{}/revenue - Revenu du {} au {}", planId, from, to);
+        List<PlanRevenueResponse> revenue = billingService.getPlanRevenue(planId, from, to);
+        return ResponseEntity.ok(revenue);
+    }
+
     @PostMapping("/payments/{paymentId}/refund")
+    @AdmissionControlled
     @Operation(
             summary = "Demander un remboursement",
             description = "Demande un remboursement pour un paiement spécifique"
@@ -146,8 +271,20 @@ public class BillingController {
                     content = @Content(schema = @Schema(implementation = PaymentResponse.class))
             ),
             @ApiResponse(
-                    responseCode = "501",
-                    description = "Fonctionnalité non implémentée"
+                    responseCode = "400",
+                    description = "Paiement non remboursable ou déjà remboursé"
+            ),
+            @ApiResponse(
+                    responseCode = "402",
+                    description = "Remboursement refusé par la passerelle"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Paiement non trouvé"
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Trop de requêtes pour cet utilisateur ou ce client (voir Retry-After)"
             )
     })
     public ResponseEntity<PaymentResponse> refundPayment(
@@ -157,5 +294,123 @@ public class BillingController {
         PaymentResponse response = paymentService.refundPayment(paymentId);
         return ResponseEntity.ok(response);
     }
-}
 
+    @PostMapping("/refund-batches")
+    @AdmissionControlled
+    @Operation(
+            summary = "Soumettre un lot de remboursements",
+            description = "Rembourse en arrière-plan tous les paiements réussis correspondant au filtre " +
+                    "(plan, période, abonnements) ; l'avancement se consulte via l'URL de l'en-tête Location"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Lot créé, remboursements planifiés",
+                    content = @Content(schema = @Schema(implementation = RefundBatchResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Filtre invalide"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Plan non trouvé"
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Trop de requêtes pour cet utilisateur ou ce client (voir Retry-After)"
+            )
+    })
+    public ResponseEntity<RefundBatchResponse> submitRefundBatch(
+            @Valid @RequestBody RefundBatchRequest request) {
+        log.info("Requête POST /api/subscriptions/billing/refund-batches - Soumission d'un lot de remboursements");
+        RefundBatchResponse response = refundBatchService.submitBatch(request);
+        URI statusUri = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/subscriptions/billing/refund-batches/{batchId}")
+                .buildAndExpand(response.getBatchId())
+                .toUri();
+        return ResponseEntity.accepted().location(statusUri).body(response);
+    }
+
+    @GetMapping("/refund-batches/{batchId}")
+    @Operation(
+            summary = "Consulter l'avancement d'un lot de remboursements",
+            description = "Retourne le statut du lot et le nombre de paiements par issue"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lot trouvé",
+                    content = @Content(schema = @Schema(implementation = RefundBatchResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Lot non trouvé"
+            )
+    })
+    public ResponseEntity<RefundBatchResponse> getRefundBatch(
+            @Parameter(description = "ID du lot", required = true)
+            @PathVariable UUID batchId) {
+        log.info("Requête GET /api/subscriptions/billing/refund-batches/{} - Avancement du lot", batchId);
+        return ResponseEntity.ok(refundBatchService.getBatch(batchId));
+    }
+
+    @PostMapping("/refund-batches/{batchId}/cancel")
+    @AdmissionControlled
+    @Operation(
+            summary = "Annuler un lot de remboursements",
+            description = "Arrête le lot ; les paiements déjà remboursés le restent"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lot annulé"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lot déjà terminé ou annulé"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Lot non trouvé"
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Trop de requêtes pour cet utilisateur ou ce client (voir Retry-After)"
+            )
+    })
+    public ResponseEntity<RefundBatchResponse> cancelRefundBatch(
+            @Parameter(description = "ID du lot", required = true)
+            @PathVariable UUID batchId) {
+        log.info("Requête POST /api/subscriptions/billing/refund-batches/{}/cancel - Annulation du lot", batchId);
+        return ResponseEntity.ok(refundBatchService.cancelBatch(batchId));
+    }
+
+    @PostMapping("/settlements/{date}/reconcile")
+    @AdmissionControlled
+    @Operation(
+            summary = "Réconcilier un fichier de règlement",
+            description = "Rapproche le fichier de règlement de l'acquéreur pour la journée des paiements enregistrés " +
+                    "et écrit les rapports (rapprochés, absents, écarts) dans le répertoire de sortie"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Synthèse de la réconciliation"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Aucun fichier de règlement pour cette journée"
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Trop de requêtes pour cet utilisateur ou ce client (voir Retry-After)"
+            )
+    })
+    public ResponseEntity<SettlementReconciliationService.SettlementReport> reconcileSettlement(
+            @Parameter(description = "Journée réglée (yyyy-MM-dd)", required = true)
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) throws IOException {
+        log.info("Requête POST /api/subscriptions/billing/settlements/{}/reconcile - Réconciliation du règlement", date);
+        return ResponseEntity.ok(settlementReconciliationService.reconcile(date));
+    }
+}
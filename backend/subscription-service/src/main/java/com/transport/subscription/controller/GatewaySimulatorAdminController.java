@@ -0,0 +1,104 @@
+package com.transport.subscription.controller;
+
+import com.transport.subscription.config.GatewaySimulator;
+import com.transport.subscription.dto.request.GatewayScenarioRequest;
+import com.transport.subscription.exception.InvalidSubscriptionException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Controller REST d'administration de la passerelle simulée (tests de charge)
+ * Activé uniquement si payment.gateway.simulator.admin-enabled=true
+ */
+@RestController
+@RequestMapping("/api/admin/gateway-simulator")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "payment.gateway.simulator.admin-enabled", havingValue = "true")
+@Tag(name = "Gateway Simulator", description = "API d'administration de la passerelle de paiement simulée")
+public class GatewaySimulatorAdminController {
+
+    private final GatewaySimulator gatewaySimulator;
+
+    @GetMapping
+    @Operation(
+            summary = "Récupérer le scénario courant",
+            description = "Retourne les paramètres de latence, d'erreurs et de limitation actuellement simulés"
+    )
+    public ResponseEntity<GatewaySimulator.Scenario> getScenario() {
+        log.info("Requête GET /api/admin/gateway-simulator - Récupération du scénario courant");
+        return ResponseEntity.ok(gatewaySimulator.getScenario());
+    }
+
+    @GetMapping("/presets")
+    @Operation(
+            summary = "Lister les scénarios prédéfinis",
+            description = "Retourne les scénarios disponibles, du plus favorable au plus dégradé"
+    )
+    public ResponseEntity<Map<String, GatewaySimulator.Scenario>> getPresets() {
+        log.info("Requête GET /api/admin/gateway-simulator/presets - Liste des scénarios prédéfinis");
+        return ResponseEntity.ok(GatewaySimulator.PRESETS);
+    }
+
+    @PutMapping("/presets/{name}")
+    @Operation(
+            summary = "Activer un scénario prédéfini",
+            description = "Remplace immédiatement le scénario simulé (ex: brownout, outage)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Scénario activé"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Scénario inconnu"
+            )
+    })
+    public ResponseEntity<GatewaySimulator.Scenario> activatePreset(
+            @Parameter(description = "Nom du scénario", required = true)
+            @PathVariable String name) {
+        log.info("Requête PUT /api/admin/gateway-simulator/presets/{} - Activation d'un scénario", name);
+        GatewaySimulator.Scenario preset = GatewaySimulator.PRESETS.get(name);
+        if (preset == null) {
+            throw new InvalidSubscriptionException("Unknown gateway scenario: " + name);
+        }
+        gatewaySimulator.setScenario(preset);
+        return ResponseEntity.ok(preset);
+    }
+
+    @PutMapping
+    @Operation(
+            summary = "Activer un scénario personnalisé",
+            description = "Remplace immédiatement le scénario simulé par les paramètres fournis"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Scénario activé"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Paramètres invalides"
+            )
+    })
+    public ResponseEntity<GatewaySimulator.Scenario> activateCustomScenario(
+            @Valid @RequestBody GatewayScenarioRequest request) {
+        log.info("Requête PUT /api/admin/gateway-simulator - Activation du scénario personnalisé '{}'",
+                request.getName());
+        GatewaySimulator.Scenario scenario = request.toScenario();
+        gatewaySimulator.setScenario(scenario);
+        return ResponseEntity.ok(scenario);
+    }
+}
@@ -0,0 +1,56 @@
+package com.transport.subscription.controller;
+
+import com.transport.subscription.service.PaymentWebhookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Contrôleur REST recevant les webhooks de la passerelle de paiement
+ * Les événements sont mis en file et appliqués en différé : la réponse est immédiate
+ */
+@RestController
+@RequestMapping("/api/subscriptions/billing/webhooks")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Payment Webhooks", description = "Réception des notifications de la passerelle de paiement")
+public class PaymentWebhookController {
+
+    static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+
+    private final PaymentWebhookService paymentWebhookService;
+
+    @PostMapping("/payments")
+    @Operation(
+            summary = "Recevoir un webhook de paiement",
+            description = "Vérifie la signature, déduplique sur l'identifiant d'événement et met l'événement en file"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Événement reçu (nouveau ou déjà connu)"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Payload invalide"
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Signature invalide"
+            )
+    })
+    public ResponseEntity<Void> receivePaymentWebhook(
+            @Parameter(description = "HMAC-SHA256 hexadécimal du payload, calculé avec payment.gateway.webhook-secret")
+            @RequestHeader(value = SIGNATURE_HEADER, required = false) String signature,
+            @RequestBody String payload) {
+        log.debug("Requête POST /api/subscriptions/billing/webhooks/payments - Réception d'un webhook");
+        paymentWebhookService.receive(payload, signature);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.transport.subscription.controller;
+
+import com.transport.subscription.dto.response.PlanResponse;
+import com.transport.subscription.dto.response.SubscriptionResponse;
+import com.transport.subscription.service.ReactiveReadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Controller REST des lectures non bloquantes (profil reactive-read)
+ * Mêmes réponses que les endpoints de lecture classiques ; le thread de requête est libéré pendant l'accès
+ * à la base (traitement asynchrone de Spring MVC), qui passe par le pool R2DBC.
+ */
+@RestController
+@RequestMapping("/api/reactive/subscriptions")
+@Profile("reactive-read")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Reactive reads", description = "Lectures non bloquantes des abonnements et du catalogue (R2DBC)")
+public class ReactiveReadController {
+
+    private final ReactiveReadService reactiveReadService;
+
+    @GetMapping("/{subscriptionId}")
+    @Operation(
+            summary = "Récupérer un abonnement par ID (non bloquant)",
+            description = "Équivalent non bloquant de GET /api/subscriptions/{subscriptionId}"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Abonnement trouvé",
+                    content = @Content(schema = @Schema(implementation = SubscriptionResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Abonnement non trouvé"
+            )
+    })
+    public Mono<SubscriptionResponse> getSubscriptionById(
+            @Parameter(description = "ID de l'abonnement", required = true)
+            @PathVariable UUID subscriptionId) {
+        log.info("Requête GET /api/reactive/subscriptions/{} - Récupération de l'abonnement", subscriptionId);
+        return reactiveReadService.getSubscriptionById(subscriptionId);
+    }
+
+    @GetMapping("/users/{userId}/active")
+    @Operation(
+            summary = "Récupérer les abonnements actifs d'un utilisateur (non bloquant)",
+            description = "Équivalent non bloquant de GET /api/subscriptions/users/{userId}/active"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Liste des abonnements actifs"
+            )
+    })
+    public Mono<List<SubscriptionResponse>> getActiveUserSubscriptions(
+            @Parameter(description = "ID de l'utilisateur", required = true)
+            @PathVariable UUID userId) {
+        log.info("Requête GET /api/reactive/subscriptions/users/{}/active - Récupération des abonnements actifs", userId);
+        return reactiveReadService.getActiveUserSubscriptions(userId).collectList();
+    }
+
+    @GetMapping("/plans")
+    @Operation(
+            summary = "Récupérer le catalogue des plans actifs (non bloquant)",
+            description = "Équivalent non bloquant de GET /api/subscriptions/plans"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Liste des plans actifs",
+                    content = @Content(schema = @Schema(implementation = PlanResponse.class))
+            )
+    })
+    public Mono<List<PlanResponse>> getAllActivePlans() {
+        log.info("Requête GET /api/reactive/subscriptions/plans - Récupération des plans actifs");
+        return reactiveReadService.getAllActivePlans().collectList();
+    }
+}
@@ -0,0 +1,71 @@
+package com.transport.subscription.controller;
+
+import com.transport.subscription.config.SimulatedClock;
+import com.transport.subscription.exception.InvalidSubscriptionException;
+import com.transport.subscription.scheduler.LifecycleSimulator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Controller REST d'administration de la simulation du temps (tests de cycle de vie)
+ * Activé uniquement si simulation.enabled=true (profil simulation)
+ */
+@RestController
+@RequestMapping("/api/admin/simulation")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "simulation.enabled", havingValue = "true")
+@Tag(name = "Simulation", description = "API d'administration de l'horloge simulée")
+public class SimulationAdminController {
+
+    private static final int MAX_DAYS = 3660;
+
+    private final SimulatedClock clock;
+    private final LifecycleSimulator lifecycleSimulator;
+
+    @GetMapping
+    @Operation(
+            summary = "Récupérer l'heure simulée",
+            description = "Retourne l'instant courant de l'horloge simulée"
+    )
+    public ResponseEntity<ZonedDateTime> getSimulatedTime() {
+        log.info("Requête GET /api/admin/simulation - Récupération de l'heure simulée");
+        return ResponseEntity.ok(ZonedDateTime.now(clock));
+    }
+
+    @PostMapping("/advance")
+    @Operation(
+            summary = "Avancer l'horloge simulée",
+            description = "Simule les jours suivants heure par heure en exécutant les traitements planifiés " +
+                    "(cartes expirées, renouvellements, expirations, grand livre, relances)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Simulation terminée"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Nombre de jours invalide"
+            )
+    })
+    public ResponseEntity<LifecycleSimulator.Report> advance(
+            @Parameter(description = "Nombre de jours à simuler", required = true)
+            @RequestParam int days) {
+        log.info("Requête POST /api/admin/simulation/advance - Simulation de {} jour(s)", days);
+        if (days <= 0 || days > MAX_DAYS) {
+            throw new InvalidSubscriptionException("Simulated days must be between 1 and " + MAX_DAYS + ": " + days);
+        }
+        return ResponseEntity.ok(lifecycleSimulator.advanceDays(days));
+    }
+}
@@ -1,9 +1,13 @@
 package com.transport.subscription.controller;
 
+import com.transport.subscription.config.AdmissionControlled;
+import com.transport.subscription.dto.request.BatchLookupRequest;
+import com.transport.subscription.dto.request.BulkCreateSubscriptionRequest;
 import com.transport.subscription.dto.request.CancelSubscriptionRequest;
 import com.transport.subscription.dto.request.CreateSubscriptionRequest;
 import com.transport.subscription.dto.request.RenewSubscriptionRequest;
 import com.transport.subscription.dto.request.UpdateSubscriptionRequest;
+import com.transport.subscription.dto.response.BulkSubscriptionResponse;
 import com.transport.subscription.dto.response.SubscriptionResponse;
 import com.transport.subscription.service.SubscriptionService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -21,6 +25,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -36,6 +41,7 @@ public class SubscriptionController {
     private final SubscriptionService subscriptionService;
 
     @PostMapping
+    @AdmissionControlled
     @Operation(
             summary = "Créer un nouvel abonnement",
             description = "Crée un nouvel abonnement pour un utilisateur avec un plan spécifique"
@@ -53,6 +59,10 @@ public class SubscriptionController {
             @ApiResponse(
                     responseCode = "404",
                     description = "Plan non trouvé"
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Trop de requêtes pour cet utilisateur ou ce client (voir Retry-After)"
             )
     })
     public ResponseEntity<SubscriptionResponse> createSubscription(
@@ -63,6 +73,58 @@ public class SubscriptionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(subscription);
     }
 
+    @PostMapping("/bulk")
+    @AdmissionControlled
+    @Operation(
+            summary = "Créer des abonnements en masse",
+            description = "Importe un lot d'abonnements (ex: CSV employeur ou université) et retourne un rapport par ligne"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lot traité (voir le statut de chaque ligne)",
+                    content = @Content(schema = @Schema(implementation = BulkSubscriptionResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lot vide ou trop volumineux"
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Trop de requêtes pour cet utilisateur ou ce client (voir Retry-After)"
+            )
+    })
+    public ResponseEntity<BulkSubscriptionResponse> createSubscriptionsBulk(
+            @Valid @RequestBody BulkCreateSubscriptionRequest request) {
+        log.info("Requête POST /api/subscriptions/bulk - Import de {} abonnement(s)",
+                request.getSubscriptions().size());
+        BulkSubscriptionResponse response = subscriptionService.createSubscriptionsBulk(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/lookup")
+    @Operation(
+            summary = "Récupérer plusieurs abonnements par ID",
+            description = "Retourne en un seul appel les abonnements demandés, indexés par ID "
+                    + "(les IDs inconnus sont absents). POST car la liste d'IDs dépasse la taille d'une URL."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Abonnements trouvés"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Liste d'IDs vide ou trop longue"
+            )
+    })
+    public ResponseEntity<Map<UUID, SubscriptionResponse>> getSubscriptionsByIds(
+            @Valid @RequestBody BatchLookupRequest request) {
+        log.info("Requête POST /api/subscriptions/lookup - Récupération de {} abonnement(s)", request.getIds().size());
+        Map<UUID, SubscriptionResponse> subscriptions = subscriptionService.getSubscriptionsByIds(request.getIds());
+        return ResponseEntity.ok(subscriptions);
+    }
+
     @GetMapping("/{subscriptionId}")
     @Operation(
             summary = "Récupérer un abonnement par ID",
@@ -126,6 +188,7 @@ public class SubscriptionController {
     }
 
     @PutMapping("/{subscriptionId}")
+    @AdmissionControlled
     @Operation(
             summary = "Mettre à jour un abonnement",
             description = "Met à jour les informations d'un abonnement (carte, renouvellement automatique, etc.)"
@@ -139,6 +202,10 @@ public class SubscriptionController {
             @ApiResponse(
                     responseCode = "404",
                     description = "Abonnement non trouvé"
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Trop de requêtes pour cet utilisateur ou ce client (voir Retry-After)"
             )
     })
     public ResponseEntity<SubscriptionResponse> updateSubscription(
@@ -151,6 +218,7 @@ public class SubscriptionController {
     }
 
     @PostMapping("/{subscriptionId}/cancel")
+    @AdmissionControlled
     @Operation(
             summary = "Annuler un abonnement",
             description = "Annule un abonnement (immédiatement ou à la fin de la période)"
@@ -168,6 +236,10 @@ public class SubscriptionController {
             @ApiResponse(
                     responseCode = "404",
                     description = "Abonnement non trouvé"
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Trop de requêtes pour cet utilisateur ou ce client (voir Retry-After)"
             )
     })
     public ResponseEntity<SubscriptionResponse> cancelSubscription(
@@ -188,6 +260,7 @@ public class SubscriptionController {
     }
 
     @PostMapping("/{subscriptionId}/renew")
+    @AdmissionControlled
     @Operation(
             summary = "Renouveler un abonnement",
             description = "Renouvelle un abonnement (avec option de changement de plan)"
@@ -205,6 +278,10 @@ public class SubscriptionController {
             @ApiResponse(
                     responseCode = "404",
                     description = "Abonnement ou plan non trouvé"
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Trop de requêtes pour cet utilisateur ou ce client (voir Retry-After)"
             )
     })
     public ResponseEntity<SubscriptionResponse> renewSubscription(
@@ -223,6 +300,7 @@ public class SubscriptionController {
     }
 
     @PostMapping("/{subscriptionId}/activate")
+    @AdmissionControlled
     @Operation(
             summary = "Activer un abonnement",
             description = "Active un abonnement après un paiement réussi (appelé par le service de paiement)"
@@ -240,6 +318,10 @@ public class SubscriptionController {
             @ApiResponse(
                     responseCode = "404",
                     description = "Abonnement non trouvé"
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Trop de requêtes pour cet utilisateur ou ce client (voir Retry-After)"
             )
     })
     public ResponseEntity<SubscriptionResponse> activateSubscription(
@@ -0,0 +1,32 @@
+package com.transport.subscription.dto.mapper;
+
+import com.transport.subscription.dto.response.PlanRevenueResponse;
+import com.transport.subscription.model.PlanRevenueDaily;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+/**
+ * Mapper MapStruct pour convertir entre PlanRevenueDaily (Entity) et PlanRevenueResponse (DTO)
+ */
+@Mapper(componentModel = "spring")
+public interface PlanRevenueMapper {
+
+    /**
+     * Convertit une entité PlanRevenueDaily en PlanRevenueResponse
+     * @param revenue Entité PlanRevenueDaily
+     * @return PlanRevenueResponse
+     */
+    @Mapping(source = "id.planId", target = "planId")
+    @Mapping(source = "id.revenueDate", target = "revenueDate")
+    @Mapping(source = "id.currency", target = "currency")
+    PlanRevenueResponse toResponse(PlanRevenueDaily revenue);
+
+    /**
+     * Convertit une liste de PlanRevenueDaily en liste de PlanRevenueResponses
+     * @param revenues Liste d'entités PlanRevenueDaily
+     * @return Liste de PlanRevenueResponses
+     */
+    List<PlanRevenueResponse> toResponseList(List<PlanRevenueDaily> revenues);
+}
@@ -8,6 +8,7 @@ import com.transport.subscription.model.Subscription;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
+import org.mapstruct.Named;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
 import java.util.List;
@@ -79,6 +80,7 @@ public interface SubscriptionMapper {
     @Mapping(target = "createdAt", ignore = true) // Sera généré par @PrePersist
     @Mapping(target = "updatedAt", ignore = true) // Sera généré par @PrePersist
     @Mapping(target = "deletedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "payments", ignore = true)
     @Mapping(target = "history", ignore = true)
     Subscription toEntity(CreateSubscriptionRequest request, Plan plan);
@@ -100,6 +102,7 @@ public interface SubscriptionMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true) // Sera mis à jour par @PreUpdate
     @Mapping(target = "deletedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "payments", ignore = true)
     @Mapping(target = "history", ignore = true)
     void updateFromRequest(UpdateSubscriptionRequest request, @MappingTarget Subscription subscription);
@@ -107,7 +110,9 @@ public interface SubscriptionMapper {
     /**
      * Méthode helper pour extraire les 4 derniers chiffres d'un token de carte
      * Cette méthode sera implémentée manuellement dans l'implémentation générée
+     * Nommée : sans qualificatif, MapStruct l'appliquerait à toutes les propriétés String → String (planCode…)
      */
+    @Named("cardLastFour")
     default String extractCardLastFour(String cardToken) {
         if (cardToken == null || cardToken.length() < 4) {
             return null;
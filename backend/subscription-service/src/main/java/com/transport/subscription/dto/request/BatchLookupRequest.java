@@ -0,0 +1,28 @@
+package com.transport.subscription.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO pour récupérer plusieurs abonnements en une seule requête
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLookupRequest {
+
+    public static final int MAX_IDS = 5000;
+
+    @NotEmpty(message = "At least one subscription ID is required")
+    @Size(max = MAX_IDS, message = "At most " + MAX_IDS + " subscription IDs per request")
+    private List<@NotNull(message = "Subscription ID must not be null") UUID> ids;
+}
@@ -0,0 +1,24 @@
+package com.transport.subscription.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO pour créer des abonnements en masse (import employeur / université)
+ * Les lignes ne sont pas validées avec @Valid : chaque ligne invalide est rejetée
+ * individuellement dans le rapport au lieu de faire échouer tout le lot.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateSubscriptionRequest {
+
+    @NotEmpty(message = "At least one subscription is required")
+    private List<CreateSubscriptionRequest> subscriptions;
+}
@@ -0,0 +1,85 @@
+package com.transport.subscription.dto.request;
+
+import com.transport.subscription.config.GatewaySimulator;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO pour définir un scénario personnalisé de la passerelle simulée
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GatewayScenarioRequest {
+
+    @NotBlank(message = "Scenario name is required")
+    private String name;
+
+    @NotNull(message = "Latency distribution is required")
+    private GatewaySimulator.LatencyDistribution latency;
+
+    @PositiveOrZero
+    private long fixedMs;
+
+    @PositiveOrZero
+    private long meanMs;
+
+    @PositiveOrZero
+    private long stdDevMs;
+
+    @PositiveOrZero
+    private long p50Ms;
+
+    @PositiveOrZero
+    private long p99Ms;
+
+    @PositiveOrZero
+    private long p999Ms;
+
+    @DecimalMin("0.0") @DecimalMax("1.0")
+    private double errorRate;
+
+    @DecimalMin("0.0") @DecimalMax("1.0")
+    private double declineRate;
+
+    @DecimalMin("0.0") @DecimalMax("1.0")
+    private double timeoutRate;
+
+    /**
+     * Durée pendant laquelle un appel "en délai dépassé" reste bloqué avant d'échouer.
+     */
+    @PositiveOrZero
+    private long hangMs;
+
+    /**
+     * Nombre max d'appels par seconde (0 = illimité).
+     */
+    @PositiveOrZero
+    private int rateLimitPerSecond;
+
+    public GatewaySimulator.Scenario toScenario() {
+        return GatewaySimulator.Scenario.builder()
+                .name(name)
+                .latency(latency)
+                .fixedMs(fixedMs)
+                .meanMs(meanMs)
+                .stdDevMs(stdDevMs)
+                .p50Ms(p50Ms)
+                .p99Ms(p99Ms)
+                .p999Ms(p999Ms)
+                .errorRate(errorRate)
+                .declineRate(declineRate)
+                .timeoutRate(timeoutRate)
+                .hangMs(hangMs)
+                .rateLimitPerSecond(rateLimitPerSecond)
+                .build();
+    }
+}
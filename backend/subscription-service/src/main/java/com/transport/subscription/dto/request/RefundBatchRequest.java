@@ -0,0 +1,42 @@
+package com.transport.subscription.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO pour soumettre un lot de remboursements
+ * Tous les paiements réussis correspondant au filtre sont remboursés intégralement
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefundBatchRequest {
+
+    /**
+     * Plan ciblé (facultatif : tous les plans si absent).
+     */
+    private UUID planId;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate from;
+
+    @NotNull(message = "End date is required")
+    private LocalDate to;
+
+    /**
+     * Abonnements ciblés (facultatif : tous les abonnements de la période si absent).
+     */
+    @Size(max = BatchLookupRequest.MAX_IDS, message = "At most " + BatchLookupRequest.MAX_IDS + " subscription IDs per batch")
+    private List<UUID> subscriptionIds;
+
+    private String reason;
+}
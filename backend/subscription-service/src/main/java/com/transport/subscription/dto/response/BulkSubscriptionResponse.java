@@ -0,0 +1,51 @@
+package com.transport.subscription.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO de réponse pour un import d'abonnements en masse
+ * Contient un résultat par ligne, dans l'ordre de la requête
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSubscriptionResponse {
+
+    private int total;
+    private int created;
+    private int rejected;
+    private int failed;
+    private List<RowResult> results;
+
+    /**
+     * Statut d'une ligne importée
+     */
+    public enum RowStatus {
+        CREATED,    // Abonnement créé
+        REJECTED,   // Ligne invalide (plan inconnu, doublon, ...)
+        FAILED      // Erreur technique lors de l'insertion du lot
+    }
+
+    /**
+     * Résultat d'une ligne
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        private int index;
+        private UUID userId;
+        private UUID planId;
+        private RowStatus status;
+        private UUID subscriptionId;
+        private String error;
+    }
+}
@@ -0,0 +1,26 @@
+package com.transport.subscription.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * DTO de réponse pour le revenu journalier d'un plan
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanRevenueResponse {
+
+    private UUID planId;
+    private LocalDate revenueDate;
+    private String currency;
+    private BigDecimal totalAmount;
+    private Long paymentCount;
+}
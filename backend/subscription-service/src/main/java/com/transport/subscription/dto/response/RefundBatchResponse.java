@@ -0,0 +1,35 @@
+package com.transport.subscription.dto.response;
+
+import com.transport.subscription.model.RefundBatchStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * DTO de réponse décrivant un lot de remboursements et son avancement
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefundBatchResponse {
+
+    private UUID batchId;
+    private RefundBatchStatus status;
+    private UUID planId;
+    private LocalDate from;
+    private LocalDate to;
+    private String reason;
+    private int total;
+    private long pending;
+    private long refunded;
+    private long failed;
+    private long skipped;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime completedAt;
+}
@@ -0,0 +1,11 @@
+package com.transport.subscription.exception;
+
+/**
+ * Exception levée lorsqu'un webhook reçu ne porte pas une signature valide de la passerelle.
+ */
+public class InvalidWebhookSignatureException extends RuntimeException {
+
+    public InvalidWebhookSignatureException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.transport.subscription.exception;
+
+/**
+ * Exception levée lorsque la passerelle de paiement n'a pas pu traiter l'appel
+ * (circuit ouvert, limite de concurrence atteinte, délai dépassé ou erreur technique).
+ */
+public class PaymentGatewayUnavailableException extends RuntimeException {
+
+    /**
+     * Vrai si l'appel a pu atteindre la passerelle (délai dépassé, erreur réseau) :
+     * le paiement a peut-être été effectué et ne doit pas être considéré comme refusé.
+     */
+    private final boolean outcomeUnknown;
+
+    public PaymentGatewayUnavailableException(String message, boolean outcomeUnknown, Throwable cause) {
+        super(message, cause);
+        this.outcomeUnknown = outcomeUnknown;
+    }
+
+    public boolean isOutcomeUnknown() {
+        return outcomeUnknown;
+    }
+}
@@ -0,0 +1,22 @@
+package com.transport.subscription.exception;
+
+/**
+ * Exception levée lorsqu'une requête dépasse la limite de débit ou de concurrence
+ * de son utilisateur ou de son client d'API.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    /**
+     * Délai conseillé avant de réessayer, en secondes (en-tête Retry-After)
+     */
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,15 @@
+package com.transport.subscription.exception;
+
+/**
+ * Exception levée lorsque le fichier de règlement d'une journée n'a pas été déposé
+ */
+public class SettlementFileNotFoundException extends RuntimeException {
+    
+    public SettlementFileNotFoundException(String message) {
+        super(message);
+    }
+    
+    public SettlementFileNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
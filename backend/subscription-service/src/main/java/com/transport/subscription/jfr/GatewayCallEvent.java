@@ -0,0 +1,57 @@
+package com.transport.subscription.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * Événement JFR : appel à la passerelle de paiement, tentatives et attentes du circuit breaker comprises
+ */
+@Name(GatewayCallEvent.NAME)
+@Label("Appel passerelle de paiement")
+@Description("Débit ou remboursement auprès de la passerelle de paiement")
+@Category({"Transport", "Paiements"})
+@StackTrace(false)
+public final class GatewayCallEvent extends Event {
+
+    public static final String NAME = "com.transport.subscription.GatewayCall";
+
+    @Label("Opération")
+    private String operation;
+
+    @Label("Abonnement")
+    private String subscriptionId;
+
+    @Label("Issue")
+    private String outcome;
+
+    /**
+     * Démarre la mesure d'un appel
+     * @param operation Opération (charge, refund)
+     */
+    public static GatewayCallEvent start(String operation) {
+        GatewayCallEvent event = new GatewayCallEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Termine la mesure et enregistre l'événement si nécessaire
+     * @param subscriptionId Abonnement concerné (null si inconnu, ex. remboursement)
+     * @param outcome Issue de l'appel (success, declined, rejected, timeout, error)
+     */
+    public void finish(UUID subscriptionId, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.subscriptionId = subscriptionId == null ? null : subscriptionId.toString();
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
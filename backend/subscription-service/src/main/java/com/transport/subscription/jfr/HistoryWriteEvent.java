@@ -0,0 +1,58 @@
+package com.transport.subscription.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * Événement JFR : écriture des lignes d'historique d'abonnement d'une transaction
+ * La durée couvre le flush + commit, où partent réellement les INSERT (batch JDBC)
+ */
+@Name(HistoryWriteEvent.NAME)
+@Label("Écriture d'historique")
+@Description("Flush et commit des changements de statut enregistrés dans l'historique des abonnements")
+@Category({"Transport", "Abonnements"})
+@StackTrace(false)
+public final class HistoryWriteEvent extends Event {
+
+    public static final String NAME = "com.transport.subscription.HistoryWrite";
+
+    @Label("Abonnement")
+    private String subscriptionId;
+
+    @Label("Type d'événement")
+    private String eventType;
+
+    @Label("Lignes")
+    private int rows;
+
+    /**
+     * Démarre la mesure d'une écriture
+     */
+    public static HistoryWriteEvent start() {
+        HistoryWriteEvent event = new HistoryWriteEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Termine la mesure et enregistre l'événement si nécessaire
+     * @param subscriptionId Premier abonnement concerné
+     * @param eventType Type du premier événement d'historique (ex. SUBSCRIPTION_RENEWED)
+     * @param rows Nombre de lignes d'historique écrites par la transaction
+     */
+    public void finish(UUID subscriptionId, String eventType, int rows) {
+        end();
+        if (shouldCommit()) {
+            this.subscriptionId = subscriptionId == null ? null : subscriptionId.toString();
+            this.eventType = eventType;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
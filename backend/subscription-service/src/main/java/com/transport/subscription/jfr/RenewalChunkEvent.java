@@ -0,0 +1,95 @@
+package com.transport.subscription.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.time.LocalDate;
+
+/**
+ * Événement JFR : tranche de N abonnements d'un traitement quotidien (renouvellements ou expirations)
+ * Un lot de plusieurs heures est découpé en tranches pour situer dans le temps les ralentissements.
+ * Utilisation : {@link #record(boolean)} après chaque abonnement, {@link #close()} en fin de lot.
+ */
+@Name(RenewalChunkEvent.NAME)
+@Label("Tranche de traitement quotidien")
+@Description("Tranche d'abonnements renouvelés ou expirés par le traitement quotidien")
+@Category({"Transport", "Abonnements"})
+@StackTrace(false)
+public final class RenewalChunkEvent extends Event implements AutoCloseable {
+
+    public static final String NAME = "com.transport.subscription.RenewalChunk";
+    public static final String RENEWAL = "renewal";
+    public static final String EXPIRATION = "expiration";
+
+    @Label("Traitement")
+    private String job;
+
+    @Label("Jour traité")
+    private String day;
+
+    @Label("Numéro de tranche")
+    private int chunk;
+
+    @Label("Abonnements traités")
+    private int processed;
+
+    @Label("Échecs")
+    private int failed;
+
+    private final transient LocalDate date;
+    private final transient int size;
+
+    private RenewalChunkEvent(String job, LocalDate date, int chunk, int size) {
+        this.job = job;
+        this.date = date;
+        this.day = date.toString();
+        this.chunk = chunk;
+        this.size = size;
+    }
+
+    /**
+     * Première tranche d'un lot
+     * @param job Traitement ({@link #RENEWAL} ou {@link #EXPIRATION})
+     * @param day Jour traité
+     * @param size Abonnements par tranche
+     */
+    public static RenewalChunkEvent first(String job, LocalDate day, int size) {
+        RenewalChunkEvent event = new RenewalChunkEvent(job, day, 0, Math.max(1, size));
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Compte un abonnement traité ; la tranche est enregistrée lorsqu'elle est pleine et la suivante démarre
+     * @param success true si l'abonnement a été traité sans erreur
+     * @return Tranche en cours après ce traitement
+     */
+    public RenewalChunkEvent record(boolean success) {
+        processed++;
+        if (!success) {
+            failed++;
+        }
+        if (processed < size) {
+            return this;
+        }
+        close();
+        RenewalChunkEvent next = new RenewalChunkEvent(job, date, chunk + 1, size);
+        next.begin();
+        return next;
+    }
+
+    /**
+     * Enregistre la tranche en cours si elle contient au moins un abonnement
+     */
+    @Override
+    public void close() {
+        end();
+        if (processed > 0 && shouldCommit()) {
+            commit();
+        }
+    }
+}
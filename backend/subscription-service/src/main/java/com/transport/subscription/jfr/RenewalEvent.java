@@ -0,0 +1,62 @@
+package com.transport.subscription.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * Événement JFR : renouvellement ou expiration d'un abonnement par un traitement quotidien
+ * Les champs ne sont renseignés que si l'événement est enregistré (seuil atteint, événement activé).
+ */
+@Name(RenewalEvent.NAME)
+@Label("Traitement d'un abonnement")
+@Description("Renouvellement ou expiration d'un abonnement par le traitement quotidien")
+@Category({"Transport", "Abonnements"})
+@StackTrace(false)
+public final class RenewalEvent extends Event {
+
+    public static final String NAME = "com.transport.subscription.Renewal";
+
+    @Label("Traitement")
+    private String job;
+
+    @Label("Abonnement")
+    private String subscriptionId;
+
+    @Label("Issue")
+    private String outcome;
+
+    @Label("Erreur")
+    private String failure;
+
+    /**
+     * Démarre la mesure d'un abonnement
+     * @param job Traitement ({@link RenewalChunkEvent#RENEWAL} ou {@link RenewalChunkEvent#EXPIRATION})
+     */
+    public static RenewalEvent start(String job) {
+        RenewalEvent event = new RenewalEvent();
+        event.job = job;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Termine la mesure et enregistre l'événement si nécessaire
+     * @param subscriptionId Abonnement traité
+     * @param failure Erreur du traitement (null en cas de succès)
+     */
+    public void finish(UUID subscriptionId, Exception failure) {
+        end();
+        if (shouldCommit()) {
+            this.subscriptionId = subscriptionId.toString();
+            this.outcome = failure == null ? "success" : "error";
+            this.failure = failure == null ? null : failure.getClass().getSimpleName();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.transport.subscription.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Entité représentant un avis d'expiration de carte envoyé pour une échéance de facturation
+ * Empêche de notifier plusieurs fois le même abonné pour le même renouvellement
+ */
+@Entity
+@Table(name = "card_expiry_notice")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardExpiryNotice {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "notified_at", nullable = false)
+    private OffsetDateTime notifiedAt;
+
+    /**
+     * Clé composite (abonnement, échéance de facturation)
+     */
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Column(name = "subscription_id", nullable = false)
+        private UUID subscriptionId;
+
+        @Column(name = "billing_date", nullable = false)
+        private LocalDate billingDate;
+    }
+}
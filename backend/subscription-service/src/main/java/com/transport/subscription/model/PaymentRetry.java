@@ -0,0 +1,90 @@
+package com.transport.subscription.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Entité représentant un cycle de relance d'un paiement échoué (file du dunning)
+ */
+@Entity
+@Table(name = "payment_retry")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentRetry {
+
+    @Id
+    @Column(name = "retry_id", updatable = false, nullable = false)
+    private UUID retryId;
+
+    @Column(name = "subscription_id", nullable = false, updatable = false)
+    private UUID subscriptionId;
+
+    /**
+     * Paiement dont l'échec a ouvert le cycle de relance
+     */
+    @Column(name = "payment_id", nullable = false, updatable = false)
+    private UUID paymentId;
+
+    @Column(name = "amount", precision = 10, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "currency", length = 3, nullable = false)
+    private String currency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false, length = 20)
+    private PaymentMethod paymentMethod;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private PaymentRetryStatus status = PaymentRetryStatus.SCHEDULED;
+
+    /**
+     * Nombre de nouvelles tentatives refusées (l'échec initial n'est pas compté)
+     */
+    @Column(name = "attempt_count", nullable = false)
+    @Builder.Default
+    private Integer attemptCount = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = "last_failure_reason", columnDefinition = "TEXT")
+    private String lastFailureReason;
+
+    /**
+     * Vrai si l'abonnement a été suspendu par ce cycle (réactivé en cas de recouvrement)
+     */
+    @Column(name = "subscription_paused", nullable = false)
+    @Builder.Default
+    private Boolean subscriptionPaused = false;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
+        updatedAt = OffsetDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = OffsetDateTime.now();
+    }
+}
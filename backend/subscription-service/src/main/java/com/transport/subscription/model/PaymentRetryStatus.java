@@ -0,0 +1,11 @@
+package com.transport.subscription.model;
+
+/**
+ * Statut d'un cycle de relance d'un paiement échoué
+ */
+public enum PaymentRetryStatus {
+    SCHEDULED,   // Prochaine tentative planifiée
+    RECOVERED,   // Paiement recouvré
+    EXHAUSTED,   // Nombre max de tentatives atteint
+    CANCELLED    // Abonnement annulé ou expiré entre-temps
+}
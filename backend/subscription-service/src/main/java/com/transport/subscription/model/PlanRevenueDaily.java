@@ -0,0 +1,59 @@
+package com.transport.subscription.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Entité représentant le revenu journalier d'un plan (par devise)
+ * Maintenue incrémentalement à chaque paiement (voir PlanRevenueDailyRepository)
+ */
+@Entity
+@Table(name = "plan_revenue_daily")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanRevenueDaily {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "total_amount", precision = 14, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "payment_count", nullable = false)
+    @Builder.Default
+    private Long paymentCount = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    /**
+     * Clé composite (plan, jour, devise)
+     */
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Column(name = "plan_id", nullable = false)
+        private UUID planId;
+
+        @Column(name = "revenue_date", nullable = false)
+        private LocalDate revenueDate;
+
+        @Column(name = "currency", length = 3, nullable = false)
+        private String currency;
+    }
+}
@@ -0,0 +1,68 @@
+package com.transport.subscription.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Entité représentant un lot de remboursements soumis à partir d'un filtre
+ */
+@Entity
+@Table(name = "refund_batch")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefundBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "batch_id", updatable = false, nullable = false)
+    private UUID batchId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    @Builder.Default
+    private RefundBatchStatus status = RefundBatchStatus.RUNNING;
+
+    @Column(name = "plan_id")
+    private UUID planId;
+
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @Column(name = "to_date", nullable = false)
+    private LocalDate toDate;
+
+    /**
+     * Abonnements ciblés, séparés par des virgules (null = tous les abonnements du filtre)
+     */
+    @Column(name = "subscription_ids", columnDefinition = "TEXT")
+    private String subscriptionIds;
+
+    @Column(name = "reason", columnDefinition = "TEXT")
+    private String reason;
+
+    @Column(name = "total_count", nullable = false)
+    @Builder.Default
+    private Integer totalCount = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private OffsetDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
+    }
+}
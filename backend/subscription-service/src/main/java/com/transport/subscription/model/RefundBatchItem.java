@@ -0,0 +1,54 @@
+package com.transport.subscription.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Entité représentant un paiement à rembourser au sein d'un lot
+ * Son statut sert de point de reprise du lot
+ */
+@Entity
+@Table(name = "refund_batch_item")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefundBatchItem {
+
+    @EmbeddedId
+    private Key id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    @Builder.Default
+    private RefundItemStatus status = RefundItemStatus.PENDING;
+
+    @Column(name = "failure_reason", columnDefinition = "TEXT")
+    private String failureReason;
+
+    @Column(name = "processed_at")
+    private OffsetDateTime processedAt;
+
+    /**
+     * Clé composite (lot, paiement)
+     */
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Column(name = "batch_id", nullable = false)
+        private UUID batchId;
+
+        @Column(name = "payment_id", nullable = false)
+        private UUID paymentId;
+    }
+}
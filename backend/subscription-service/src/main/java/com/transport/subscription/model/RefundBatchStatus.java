@@ -0,0 +1,10 @@
+package com.transport.subscription.model;
+
+/**
+ * Statut d'un lot de remboursements
+ */
+public enum RefundBatchStatus {
+    RUNNING,    // En cours de traitement
+    COMPLETED,  // Tous les éléments ont été traités
+    CANCELLED   // Annulé (les éléments restants ne seront pas remboursés)
+}
@@ -0,0 +1,11 @@
+package com.transport.subscription.model;
+
+/**
+ * Statut d'un paiement au sein d'un lot de remboursements
+ */
+public enum RefundItemStatus {
+    PENDING,    // À rembourser
+    REFUNDED,   // Remboursé
+    FAILED,     // Refusé par la passerelle ou issue inconnue
+    SKIPPED     // Non remboursable (déjà remboursé, annulé, etc.)
+}
@@ -51,7 +51,9 @@ public class Subscription {
     @Column(name = "next_billing_date")
     private LocalDate nextBillingDate;
 
-    @Column(name = "amount_paid", precision = 10, scale = 2, nullable = false)
+    // Jamais réécrit par un UPDATE d'entité : incrémenté atomiquement via
+    // SubscriptionRepository.incrementAmountPaid pour ne pas perdre de paiements concurrents
+    @Column(name = "amount_paid", precision = 10, scale = 2, nullable = false, updatable = false)
     @Builder.Default
     private BigDecimal amountPaid = BigDecimal.ZERO;
 
@@ -80,6 +82,11 @@ public class Subscription {
     @Column(name = "deleted_at")
     private OffsetDateTime deletedAt;
 
+    // Verrouillage optimiste : empêche deux mutations concurrentes de s'écraser
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Relation One-to-Many avec SubscriptionPayment
     @OneToMany(mappedBy = "subscription", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @ToString.Exclude
@@ -0,0 +1,42 @@
+package com.transport.subscription.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Entité représentant le cumul des paiements réussis d'un abonnement
+ * Maintenue incrémentalement à chaque paiement (voir SubscriptionRevenueLedgerRepository)
+ */
+@Entity
+@Table(name = "subscription_revenue_ledger")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriptionRevenueLedger {
+
+    @Id
+    @Column(name = "subscription_id", updatable = false, nullable = false)
+    private UUID subscriptionId;
+
+    @Column(name = "currency", length = 3, nullable = false)
+    private String currency;
+
+    @Column(name = "total_paid", precision = 14, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal totalPaid = BigDecimal.ZERO;
+
+    @Column(name = "payment_count", nullable = false)
+    @Builder.Default
+    private Long paymentCount = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+}
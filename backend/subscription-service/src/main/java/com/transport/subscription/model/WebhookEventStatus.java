@@ -0,0 +1,11 @@
+package com.transport.subscription.model;
+
+/**
+ * Statut de traitement d'un événement webhook de la passerelle
+ */
+public enum WebhookEventStatus {
+    RECEIVED,   // Reçu, en attente d'application (ou de nouvelle tentative)
+    APPLIED,    // Appliqué au paiement
+    IGNORED,    // Sans effet (type non géré, paiement inconnu)
+    FAILED      // Erreur lors de l'application, tentatives épuisées
+}
@@ -3,12 +3,15 @@ package com.transport.subscription.repository;
 import com.transport.subscription.model.SubscriptionPayment;
 import com.transport.subscription.model.PaymentStatus;
 import com.transport.subscription.model.PaymentType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,7 +28,7 @@ public interface BillingHistoryRepository extends JpaRepository<SubscriptionPaym
      * @param subscriptionId ID de l'abonnement
      * @return Liste des paiements, triés par date décroissante
      */
-    List<SubscriptionPayment> findBySubscriptionIdOrderByPaymentDateDesc(UUID subscriptionId);
+    List<SubscriptionPayment> findBySubscription_SubscriptionIdOrderByPaymentDateDesc(UUID subscriptionId);
 
     /**
      * Trouve les paiements d'un abonnement par statut
@@ -33,7 +36,7 @@ public interface BillingHistoryRepository extends JpaRepository<SubscriptionPaym
      * @param paymentStatus Statut du paiement
      * @return Liste des paiements
      */
-    List<SubscriptionPayment> findBySubscriptionIdAndPaymentStatus(
+    List<SubscriptionPayment> findBySubscription_SubscriptionIdAndPaymentStatus(
             UUID subscriptionId, 
             PaymentStatus paymentStatus
     );
@@ -104,5 +107,110 @@ public interface BillingHistoryRepository extends JpaRepository<SubscriptionPaym
      * @return Paiement trouvé ou Optional.empty()
      */
     Optional<SubscriptionPayment> findByExternalTxnId(String externalTxnId);
-}
 
+    /**
+     * Fait passer un paiement d'un statut attendu à un nouveau statut (transition conditionnelle)
+     * Ne modifie rien si le paiement n'est plus dans le statut attendu, ce qui rend la finalisation
+     * idempotente face aux traitements concurrents
+     * @param paymentId ID du paiement
+     * @param expectedStatus Statut attendu
+     * @param newStatus Nouveau statut
+     * @param externalTxnId ID de transaction externe (peut être null)
+     * @param failureReason Raison de l'échec (peut être null)
+     * @param paymentDate Date effective du paiement
+     * @return Nombre de lignes modifiées (0 ou 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SubscriptionPayment p SET p.paymentStatus = :newStatus, p.externalTxnId = :externalTxnId, " +
+           "p.failureReason = :failureReason, p.paymentDate = :paymentDate " +
+           "WHERE p.paymentId = :paymentId AND p.paymentStatus = :expectedStatus")
+    int transitionStatus(
+            @Param("paymentId") UUID paymentId,
+            @Param("expectedStatus") PaymentStatus expectedStatus,
+            @Param("newStatus") PaymentStatus newStatus,
+            @Param("externalTxnId") String externalTxnId,
+            @Param("failureReason") String failureReason,
+            @Param("paymentDate") OffsetDateTime paymentDate
+    );
+
+    /**
+     * Marque un paiement réussi comme remboursé (transition conditionnelle)
+     * @param paymentId ID du paiement
+     * @param expectedStatus Statut attendu (SUCCEEDED)
+     * @param refundedStatus Statut remboursé
+     * @return Nombre de lignes modifiées (0 si le paiement n'était plus dans le statut attendu)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SubscriptionPayment p SET p.paymentStatus = :refundedStatus " +
+           "WHERE p.paymentId = :paymentId AND p.paymentStatus = :expectedStatus")
+    int markRefunded(
+            @Param("paymentId") UUID paymentId,
+            @Param("expectedStatus") PaymentStatus expectedStatus,
+            @Param("refundedStatus") PaymentStatus refundedStatus
+    );
+
+    /**
+     * Trouve les paiements d'un statut dont la dernière transition précède une date, les plus anciens d'abord
+     * Sert au balayage des paiements restés PENDING sans issue connue (index partiel idx_payment_pending)
+     * @param status Statut recherché (PENDING)
+     * @param types Types de paiement retenus
+     * @param before Date limite (exclue)
+     * @param pageable Taille de page
+     * @return Paiements trouvés
+     */
+    @Query("SELECT p FROM SubscriptionPayment p " +
+           "WHERE p.paymentStatus = :status AND p.paymentType IN :types AND p.paymentDate < :before " +
+           "ORDER BY p.paymentDate")
+    List<SubscriptionPayment> findByStatusBefore(
+            @Param("status") PaymentStatus status,
+            @Param("types") Collection<PaymentType> types,
+            @Param("before") OffsetDateTime before,
+            Pageable pageable
+    );
+
+    /**
+     * Trouve, par pages ordonnées sur l'ID, les paiements remboursables d'une période (plan facultatif)
+     * @param status Statut des paiements à rembourser (SUCCEEDED)
+     * @param excludedType Type exclu (REFUND)
+     * @param fromTs Début de période (inclus)
+     * @param toTs Fin de période (exclue)
+     * @param planId ID du plan ou null pour tous les plans
+     * @param afterId Dernier ID de la page précédente (pagination par clé)
+     * @param pageable Taille de page
+     * @return IDs des paiements
+     */
+    @Query("SELECT p.paymentId FROM SubscriptionPayment p " +
+           "WHERE p.paymentStatus = :status AND p.paymentType <> :excludedType " +
+           "AND p.paymentDate >= :fromTs AND p.paymentDate < :toTs " +
+           "AND (:planId IS NULL OR p.subscription.plan.planId = :planId) " +
+           "AND p.paymentId > :afterId ORDER BY p.paymentId")
+    List<UUID> findRefundCandidates(
+            @Param("status") PaymentStatus status,
+            @Param("excludedType") PaymentType excludedType,
+            @Param("fromTs") OffsetDateTime fromTs,
+            @Param("toTs") OffsetDateTime toTs,
+            @Param("planId") UUID planId,
+            @Param("afterId") UUID afterId,
+            Pageable pageable
+    );
+
+    /**
+     * Variante de {@link #findRefundCandidates} restreinte à une liste d'abonnements
+     */
+    @Query("SELECT p.paymentId FROM SubscriptionPayment p " +
+           "WHERE p.paymentStatus = :status AND p.paymentType <> :excludedType " +
+           "AND p.paymentDate >= :fromTs AND p.paymentDate < :toTs " +
+           "AND (:planId IS NULL OR p.subscription.plan.planId = :planId) " +
+           "AND p.subscription.subscriptionId IN :subscriptionIds " +
+           "AND p.paymentId > :afterId ORDER BY p.paymentId")
+    List<UUID> findRefundCandidatesForSubscriptions(
+            @Param("status") PaymentStatus status,
+            @Param("excludedType") PaymentType excludedType,
+            @Param("fromTs") OffsetDateTime fromTs,
+            @Param("toTs") OffsetDateTime toTs,
+            @Param("planId") UUID planId,
+            @Param("subscriptionIds") Collection<UUID> subscriptionIds,
+            @Param("afterId") UUID afterId,
+            Pageable pageable
+    );
+}
@@ -0,0 +1,33 @@
+package com.transport.subscription.repository;
+
+import com.transport.subscription.model.CardExpiryNotice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Repository pour les avis d'expiration de carte envoyés
+ */
+@Repository
+public interface CardExpiryNoticeRepository extends JpaRepository<CardExpiryNotice, CardExpiryNotice.Key> {
+
+    /**
+     * Enregistre un avis s'il n'a pas déjà été envoyé (sûr si deux instances traitent le même abonnement)
+     * @return 1 si l'avis a été enregistré, 0 s'il existait déjà
+     */
+    @Modifying
+    @Query(value = "INSERT INTO card_expiry_notice (subscription_id, billing_date, notified_at) " +
+                   "VALUES (:subscriptionId, :billingDate, :notifiedAt) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(
+            @Param("subscriptionId") UUID subscriptionId,
+            @Param("billingDate") LocalDate billingDate,
+            @Param("notifiedAt") OffsetDateTime notifiedAt
+    );
+}
@@ -0,0 +1,104 @@
+package com.transport.subscription.repository;
+
+import com.transport.subscription.model.PaymentRetry;
+import com.transport.subscription.model.PaymentRetryStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository pour la file des relances de paiements échoués
+ * Le statut SCHEDULED est écrit en littéral : PostgreSQL peut alors utiliser les index partiels
+ * (un paramètre lié ne permet pas au planificateur de prouver le prédicat de l'index).
+ */
+@Repository
+public interface PaymentRetryRepository extends JpaRepository<PaymentRetry, UUID> {
+
+    /**
+     * Ouvre un cycle de relance si l'abonnement n'en a pas déjà un en cours
+     * (conflit sur l'index unique partiel uq_payment_retry_scheduled_subscription)
+     * @return 1 si le cycle a été créé, 0 s'il en existait déjà un
+     */
+    @Modifying
+    @Query(value = "INSERT INTO payment_retry " +
+                   "(retry_id, subscription_id, payment_id, amount, currency, payment_method, status, " +
+                   "attempt_count, next_attempt_at, last_failure_reason, subscription_paused, created_at, updated_at) " +
+                   "VALUES (:retryId, :subscriptionId, :paymentId, :amount, :currency, :paymentMethod, 'SCHEDULED', " +
+                   "0, :nextAttemptAt, :failureReason, false, :now, :now) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(
+            @Param("retryId") UUID retryId,
+            @Param("subscriptionId") UUID subscriptionId,
+            @Param("paymentId") UUID paymentId,
+            @Param("amount") BigDecimal amount,
+            @Param("currency") String currency,
+            @Param("paymentMethod") String paymentMethod,
+            @Param("nextAttemptAt") OffsetDateTime nextAttemptAt,
+            @Param("failureReason") String failureReason,
+            @Param("now") OffsetDateTime now
+    );
+
+    /**
+     * Trouve les relances échues, les plus anciennes d'abord (index idx_payment_retry_due)
+     * @param now Date de référence
+     * @param pageable Taille du lot
+     * @return Relances à tenter
+     */
+    @Query("SELECT r FROM PaymentRetry r " +
+           "WHERE r.status = com.transport.subscription.model.PaymentRetryStatus.SCHEDULED " +
+           "AND r.nextAttemptAt <= :now ORDER BY r.nextAttemptAt")
+    List<PaymentRetry> findDue(@Param("now") OffsetDateTime now, Pageable pageable);
+
+    /**
+     * Réserve une relance pour un traitement : l'échéance est repoussée à la fin du bail,
+     * ce qui la retire des lots suivants et la rend de nouveau éligible si le traitement est interrompu
+     * @param retryId ID de la relance
+     * @param expectedNextAttemptAt Échéance lue dans le lot
+     * @param leaseUntil Fin du bail
+     * @return 1 si la relance est réservée, 0 si une autre instance l'a déjà prise
+     */
+    @Modifying
+    @Query("UPDATE PaymentRetry r SET r.nextAttemptAt = :leaseUntil " +
+           "WHERE r.retryId = :retryId " +
+           "AND r.status = com.transport.subscription.model.PaymentRetryStatus.SCHEDULED " +
+           "AND r.nextAttemptAt = :expectedNextAttemptAt")
+    int claim(
+            @Param("retryId") UUID retryId,
+            @Param("expectedNextAttemptAt") OffsetDateTime expectedNextAttemptAt,
+            @Param("leaseUntil") OffsetDateTime leaseUntil
+    );
+
+    /**
+     * Enregistre l'issue d'une tentative si la relance est toujours réservée par ce traitement
+     * (échéance égale à la fin du bail posée par {@link #claim}) : un traitement dont le bail a expiré
+     * n'écrase pas l'état écrit par celui qui a repris la relance
+     * @param retryId ID de la relance
+     * @param leaseUntil Fin du bail posée lors de la réservation
+     * @return 1 si l'issue est enregistrée, 0 si le bail a été perdu
+     */
+    @Modifying
+    @Query("UPDATE PaymentRetry r SET r.status = :status, r.attemptCount = :attemptCount, " +
+           "r.nextAttemptAt = :nextAttemptAt, r.lastFailureReason = :lastFailureReason, " +
+           "r.subscriptionPaused = :subscriptionPaused, r.updatedAt = :now " +
+           "WHERE r.retryId = :retryId " +
+           "AND r.status = com.transport.subscription.model.PaymentRetryStatus.SCHEDULED " +
+           "AND r.nextAttemptAt = :leaseUntil")
+    int release(
+            @Param("retryId") UUID retryId,
+            @Param("leaseUntil") OffsetDateTime leaseUntil,
+            @Param("status") PaymentRetryStatus status,
+            @Param("attemptCount") int attemptCount,
+            @Param("nextAttemptAt") OffsetDateTime nextAttemptAt,
+            @Param("lastFailureReason") String lastFailureReason,
+            @Param("subscriptionPaused") boolean subscriptionPaused,
+            @Param("now") OffsetDateTime now
+    );
+}
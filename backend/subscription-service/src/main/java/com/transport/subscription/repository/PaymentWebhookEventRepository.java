@@ -0,0 +1,98 @@
+package com.transport.subscription.repository;
+
+import com.transport.subscription.model.PaymentWebhookEvent;
+import com.transport.subscription.model.WebhookEventStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository pour les événements webhook de la passerelle de paiement
+ */
+@Repository
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEvent, String> {
+
+    /**
+     * Enregistre un événement s'il n'a jamais été reçu (déduplication par la clé primaire)
+     * @return 1 si l'événement a été enregistré, 0 s'il était déjà connu
+     */
+    @Modifying
+    @Query(value = "INSERT INTO payment_webhook_event " +
+                   "(event_id, event_type, subscription_id, idempotency_key, external_txn_id, failure_reason, " +
+                   "payload, status, attempts, received_at) " +
+                   "VALUES (:eventId, :eventType, :subscriptionId, :idempotencyKey, :externalTxnId, :failureReason, " +
+                   ":payload, 'RECEIVED', 0, :receivedAt) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(
+            @Param("eventId") String eventId,
+            @Param("eventType") String eventType,
+            @Param("subscriptionId") UUID subscriptionId,
+            @Param("idempotencyKey") String idempotencyKey,
+            @Param("externalTxnId") String externalTxnId,
+            @Param("failureReason") String failureReason,
+            @Param("payload") String payload,
+            @Param("receivedAt") OffsetDateTime receivedAt
+    );
+
+    /**
+     * Trouve les événements à appliquer, dans l'ordre de réception
+     * @param status Statut recherché
+     * @param pageable Taille du lot
+     * @return Événements triés par date de réception
+     */
+    @Query("SELECT e FROM PaymentWebhookEvent e WHERE e.status = :status ORDER BY e.receivedAt, e.eventId")
+    List<PaymentWebhookEvent> findBatchByStatus(@Param("status") WebhookEventStatus status, Pageable pageable);
+
+    /**
+     * Met à jour le statut d'un lot d'événements
+     * @param eventIds IDs des événements
+     * @param status Nouveau statut
+     * @param note Note de traitement (peut être null)
+     * @param now Horodatage courant
+     * @return Nombre de lignes mises à jour
+     */
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.status = :status, e.processingNote = :note, e.processedAt = :now " +
+           "WHERE e.eventId IN :eventIds")
+    int markProcessed(
+            @Param("eventIds") Collection<String> eventIds,
+            @Param("status") WebhookEventStatus status,
+            @Param("note") String note,
+            @Param("now") OffsetDateTime now
+    );
+
+    /**
+     * Enregistre une tentative d'application en échec
+     * @param eventId ID de l'événement
+     * @param attempts Nombre de tentatives après celle-ci
+     * @param status RECEIVED pour une nouvelle tentative, FAILED si les tentatives sont épuisées
+     * @param note Cause de l'échec
+     * @param processedAt Horodatage de fin de traitement (null si l'événement reste en file)
+     * @return Nombre de lignes mises à jour
+     */
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.attempts = :attempts, e.status = :status, e.processingNote = :note, " +
+           "e.processedAt = :processedAt WHERE e.eventId = :eventId")
+    int recordFailedAttempt(
+            @Param("eventId") String eventId,
+            @Param("attempts") int attempts,
+            @Param("status") WebhookEventStatus status,
+            @Param("note") String note,
+            @Param("processedAt") OffsetDateTime processedAt
+    );
+
+    /**
+     * Compte les événements par statut
+     * @param status Statut recherché
+     * @return Nombre d'événements
+     */
+    long countByStatus(WebhookEventStatus status);
+}
@@ -0,0 +1,122 @@
+package com.transport.subscription.repository;
+
+import com.transport.subscription.model.PlanRevenueDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository pour le revenu journalier par plan
+ * Les cumuls sont modifiés uniquement par des UPDATE atomiques (jamais lus puis réécrits)
+ */
+@Repository
+public interface PlanRevenueDailyRepository extends JpaRepository<PlanRevenueDaily, PlanRevenueDaily.Key> {
+
+    /**
+     * Crée la ligne (plan, jour, devise) à zéro si elle n'existe pas encore
+     * @param planId ID du plan
+     * @param revenueDate Jour du revenu
+     * @param currency Devise
+     * @param now Horodatage courant
+     * @return 1 si la ligne a été créée, 0 sinon
+     */
+    @Modifying
+    @Query(value = "INSERT INTO plan_revenue_daily " +
+                   "(plan_id, revenue_date, currency, total_amount, payment_count, updated_at) " +
+                   "VALUES (:planId, :revenueDate, :currency, 0, 0, :now) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(
+            @Param("planId") UUID planId,
+            @Param("revenueDate") LocalDate revenueDate,
+            @Param("currency") String currency,
+            @Param("now") OffsetDateTime now
+    );
+
+    /**
+     * Ajoute un paiement au revenu journalier d'un plan
+     * @param planId ID du plan
+     * @param revenueDate Jour du revenu
+     * @param currency Devise
+     * @param amount Montant (négatif pour un remboursement)
+     * @param countDelta Variation du nombre de paiements
+     * @param now Horodatage courant
+     * @return Nombre de lignes mises à jour (0 si la ligne n'existe pas encore)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE PlanRevenueDaily r SET r.totalAmount = r.totalAmount + :amount, " +
+           "r.paymentCount = r.paymentCount + :countDelta, r.updatedAt = :now " +
+           "WHERE r.id.planId = :planId AND r.id.revenueDate = :revenueDate AND r.id.currency = :currency")
+    int addToTotal(
+            @Param("planId") UUID planId,
+            @Param("revenueDate") LocalDate revenueDate,
+            @Param("currency") String currency,
+            @Param("amount") BigDecimal amount,
+            @Param("countDelta") long countDelta,
+            @Param("now") OffsetDateTime now
+    );
+
+    /**
+     * Trouve le revenu journalier d'un plan sur une période
+     * @param planId ID du plan
+     * @param from Premier jour (inclus)
+     * @param to Dernier jour (inclus)
+     * @return Revenus journaliers triés par date croissante
+     */
+    @Query("SELECT r FROM PlanRevenueDaily r WHERE r.id.planId = :planId " +
+           "AND r.id.revenueDate BETWEEN :from AND :to ORDER BY r.id.revenueDate ASC")
+    List<PlanRevenueDaily> findByPlanBetweenDates(
+            @Param("planId") UUID planId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    /**
+     * Compare, jour par jour et par devise, la somme des revenus agrégés à celle des paiements réussis
+     * Les paiements sont rattachés à leur jour dans le fuseau donné (celui de l'horloge, comme à l'écriture
+     * des agrégats), indépendamment du fuseau de la session SQL
+     * @param from Premier jour (inclus)
+     * @param to Dernier jour (inclus)
+     * @param fromTs Début de la période en horodatage (utilise l'index sur payment_date)
+     * @param toTs Fin de la période en horodatage (exclue)
+     * @param zone Fuseau de rattachement des paiements (identifiant IANA)
+     * @return Jours pour lesquels les deux sommes diffèrent
+     */
+    @Query(value = "SELECT COALESCE(r.revenue_date, a.revenue_date) AS revenueDate, " +
+                   "COALESCE(r.currency, a.currency) AS currency, " +
+                   "COALESCE(r.total, 0) AS ledgerTotal, COALESCE(a.total, 0) AS actualTotal " +
+                   "FROM (SELECT revenue_date, currency, SUM(total_amount) AS total FROM plan_revenue_daily " +
+                   "      WHERE revenue_date BETWEEN :from AND :to GROUP BY revenue_date, currency) r " +
+                   "FULL OUTER JOIN (SELECT revenue_date, currency, SUM(amount) AS total " +
+                   "      FROM (SELECT CAST(payment_date AT TIME ZONE :zone AS date) AS revenue_date, currency, amount " +
+                   "            FROM subscription_payment WHERE payment_status = 'SUCCEEDED' " +
+                   "            AND payment_date >= :fromTs AND payment_date < :toTs) p " +
+                   "      GROUP BY revenue_date, currency) a " +
+                   "ON a.revenue_date = r.revenue_date AND a.currency = r.currency " +
+                   "WHERE COALESCE(r.total, 0) <> COALESCE(a.total, 0)",
+           nativeQuery = true)
+    List<DailyMismatch> findDailyMismatches(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("fromTs") OffsetDateTime fromTs,
+            @Param("toTs") OffsetDateTime toTs,
+            @Param("zone") String zone
+    );
+
+    /**
+     * Projection d'un écart journalier entre les agrégats et les paiements bruts
+     */
+    interface DailyMismatch {
+        LocalDate getRevenueDate();
+        String getCurrency();
+        BigDecimal getLedgerTotal();
+        BigDecimal getActualTotal();
+    }
+}
@@ -0,0 +1,68 @@
+package com.transport.subscription.repository;
+
+import com.transport.subscription.model.RefundBatchItem;
+import com.transport.subscription.model.RefundItemStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository pour les éléments des lots de remboursements
+ */
+@Repository
+public interface RefundBatchItemRepository extends JpaRepository<RefundBatchItem, RefundBatchItem.Key> {
+
+    /**
+     * Trouve les prochains paiements à traiter d'un lot
+     * @param batchId ID du lot
+     * @param status Statut recherché
+     * @param pageable Taille du lot de traitement
+     * @return IDs des paiements
+     */
+    @Query("SELECT i.id.paymentId FROM RefundBatchItem i " +
+           "WHERE i.id.batchId = :batchId AND i.status = :status ORDER BY i.id.paymentId")
+    List<UUID> findPaymentIdsByStatus(
+            @Param("batchId") UUID batchId,
+            @Param("status") RefundItemStatus status,
+            Pageable pageable
+    );
+
+    /**
+     * Enregistre l'issue du remboursement d'un paiement (point de reprise)
+     * @return Nombre de lignes mises à jour
+     */
+    @Modifying
+    @Query("UPDATE RefundBatchItem i SET i.status = :status, i.failureReason = :failureReason, " +
+           "i.processedAt = :now WHERE i.id.batchId = :batchId AND i.id.paymentId = :paymentId")
+    int updateStatus(
+            @Param("batchId") UUID batchId,
+            @Param("paymentId") UUID paymentId,
+            @Param("status") RefundItemStatus status,
+            @Param("failureReason") String failureReason,
+            @Param("now") OffsetDateTime now
+    );
+
+    /**
+     * Compte les éléments d'un lot par statut (avancement)
+     * @param batchId ID du lot
+     * @return Projections (statut, nombre)
+     */
+    @Query("SELECT i.status AS status, COUNT(i) AS count FROM RefundBatchItem i " +
+           "WHERE i.id.batchId = :batchId GROUP BY i.status")
+    List<StatusCount> countByStatus(@Param("batchId") UUID batchId);
+
+    /**
+     * Projection du nombre d'éléments par statut
+     */
+    interface StatusCount {
+        RefundItemStatus getStatus();
+        Long getCount();
+    }
+}
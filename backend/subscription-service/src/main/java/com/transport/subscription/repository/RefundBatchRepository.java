@@ -0,0 +1,23 @@
+package com.transport.subscription.repository;
+
+import com.transport.subscription.model.RefundBatch;
+import com.transport.subscription.model.RefundBatchStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository pour les lots de remboursements
+ */
+@Repository
+public interface RefundBatchRepository extends JpaRepository<RefundBatch, UUID> {
+
+    /**
+     * Trouve le plus ancien lot dans un statut donné (traitement des lots un par un, dans l'ordre de soumission)
+     * @param status Statut recherché
+     * @return Lot trouvé ou Optional.empty()
+     */
+    Optional<RefundBatch> findFirstByStatusOrderByCreatedAtAsc(RefundBatchStatus status);
+}
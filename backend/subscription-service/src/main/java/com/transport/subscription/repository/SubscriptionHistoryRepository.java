@@ -22,7 +22,7 @@ public interface SubscriptionHistoryRepository extends JpaRepository<Subscriptio
      * @param subscriptionId ID de l'abonnement
      * @return Liste des événements historiques, triés par date décroissante
      */
-    List<SubscriptionHistory> findBySubscriptionIdOrderByEventDateDesc(UUID subscriptionId);
+    List<SubscriptionHistory> findBySubscription_SubscriptionIdOrderByEventDateDesc(UUID subscriptionId);
 
     /**
      * Trouve l'historique d'un abonnement par type d'événement
@@ -30,7 +30,7 @@ public interface SubscriptionHistoryRepository extends JpaRepository<Subscriptio
      * @param eventType Type d'événement
      * @return Liste des événements
      */
-    List<SubscriptionHistory> findBySubscriptionIdAndEventType(
+    List<SubscriptionHistory> findBySubscription_SubscriptionIdAndEventType(
             UUID subscriptionId, 
             String eventType
     );
@@ -62,6 +62,6 @@ public interface SubscriptionHistoryRepository extends JpaRepository<Subscriptio
      * @param subscriptionId ID de l'abonnement
      * @return Dernier événement ou null
      */
-    SubscriptionHistory findFirstBySubscriptionIdOrderByEventDateDesc(UUID subscriptionId);
+    SubscriptionHistory findFirstBySubscription_SubscriptionIdOrderByEventDateDesc(UUID subscriptionId);
 }
 
@@ -2,12 +2,16 @@ package com.transport.subscription.repository;
 
 import com.transport.subscription.model.Subscription;
 import com.transport.subscription.model.SubscriptionStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -41,7 +45,7 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, UUID
      * @param status Statut actif
      * @return Abonnement actif ou Optional.empty()
      */
-    Optional<Subscription> findByUserIdAndPlanIdAndStatus(
+    Optional<Subscription> findByUserIdAndPlan_PlanIdAndStatus(
             UUID userId, 
             UUID planId, 
             SubscriptionStatus status
@@ -54,7 +58,7 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, UUID
      * @param status Statut actif
      * @return true si un abonnement actif existe
      */
-    boolean existsByUserIdAndPlanIdAndStatus(
+    boolean existsByUserIdAndPlan_PlanIdAndStatus(
             UUID userId, 
             UUID planId, 
             SubscriptionStatus status
@@ -116,5 +120,93 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, UUID
      */
     @Query("SELECT s FROM Subscription s WHERE s.userId = :userId AND s.deletedAt IS NULL")
     List<Subscription> findActiveSubscriptionsByUserId(@Param("userId") UUID userId);
-}
 
+    /**
+     * Incrémente atomiquement le montant payé d'un abonnement (UPDATE ... SET amount_paid = amount_paid + ?)
+     * N'incrémente pas la version : un paiement ne doit pas entrer en conflit avec un renouvellement
+     * @param subscriptionId ID de l'abonnement
+     * @param amount Montant à ajouter
+     * @return Nombre de lignes mises à jour (0 si l'abonnement n'existe pas)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Subscription s SET s.amountPaid = s.amountPaid + :amount " +
+           "WHERE s.subscriptionId = :subscriptionId")
+    int incrementAmountPaid(
+            @Param("subscriptionId") UUID subscriptionId,
+            @Param("amount") BigDecimal amount
+    );
+
+    /**
+     * Trouve en une requête les couples (utilisateur, plan) ayant déjà un abonnement non supprimé au statut donné
+     * Même prédicat que l'index unique uq_active_subscription_per_user_plan (statut ACTIVE, deleted_at IS NULL)
+     * @param status Statut recherché
+     * @param userIds IDs des utilisateurs
+     * @return Couples (utilisateur, plan) existants
+     */
+    @Query("SELECT s.userId AS userId, s.plan.planId AS planId FROM Subscription s " +
+           "WHERE s.status = :status AND s.deletedAt IS NULL AND s.userId IN :userIds")
+    List<UserPlanPair> findUserPlanPairs(
+            @Param("status") SubscriptionStatus status,
+            @Param("userIds") Collection<UUID> userIds
+    );
+
+    /**
+     * Projection d'un couple (utilisateur, plan)
+     */
+    interface UserPlanPair {
+        UUID getUserId();
+        UUID getPlanId();
+    }
+
+    /**
+     * Charge plusieurs abonnements et leur plan en une seule requête (évite le N+1 sur le plan LAZY)
+     * @param subscriptionIds IDs des abonnements
+     * @return Abonnements trouvés (les IDs inconnus sont ignorés)
+     */
+    @Query("SELECT s FROM Subscription s JOIN FETCH s.plan WHERE s.subscriptionId IN :subscriptionIds")
+    List<Subscription> findAllWithPlanByIdIn(@Param("subscriptionIds") Collection<UUID> subscriptionIds);
+
+    /**
+     * Trouve une page d'abonnements renouvelés automatiquement dont la carte expire avant la prochaine facturation
+     * La comparaison (année, mois) < horizon parcourt l'index partiel idx_subscription_card_expiry ;
+     * les abonnements déjà notifiés pour cette échéance sont exclus. Pagination par clé sur l'ID.
+     * @param from Première date de facturation considérée
+     * @param horizon Dernière date de facturation considérée
+     * @param horizonYear Année de l'horizon
+     * @param horizonMonth Mois de l'horizon
+     * @param afterId Dernier ID de la page précédente
+     * @param pageable Taille de la page
+     * @return Cartes expirant avant l'échéance
+     */
+    @Query("SELECT s.subscriptionId AS subscriptionId, s.userId AS userId, s.nextBillingDate AS nextBillingDate, " +
+           "s.cardExpMonth AS cardExpMonth, s.cardExpYear AS cardExpYear FROM Subscription s " +
+           "WHERE s.status = com.transport.subscription.model.SubscriptionStatus.ACTIVE " +
+           "AND s.autoRenewEnabled = true AND s.cardToken IS NOT NULL AND s.deletedAt IS NULL " +
+           "AND (s.cardExpYear, s.cardExpMonth) < (:horizonYear, :horizonMonth) " +
+           "AND s.nextBillingDate >= :from AND s.nextBillingDate <= :horizon " +
+           "AND s.cardExpYear * 12 + s.cardExpMonth " +
+           "< extract(year from s.nextBillingDate) * 12 + extract(month from s.nextBillingDate) " +
+           "AND s.subscriptionId > :afterId " +
+           "AND NOT EXISTS (SELECT 1 FROM CardExpiryNotice n " +
+           "WHERE n.id.subscriptionId = s.subscriptionId AND n.id.billingDate = s.nextBillingDate) " +
+           "ORDER BY s.subscriptionId")
+    List<ExpiringCard> findCardsExpiringBeforeBilling(
+            @Param("from") LocalDate from,
+            @Param("horizon") LocalDate horizon,
+            @Param("horizonYear") int horizonYear,
+            @Param("horizonMonth") int horizonMonth,
+            @Param("afterId") UUID afterId,
+            Pageable pageable
+    );
+
+    /**
+     * Projection d'une carte expirant avant le renouvellement
+     */
+    interface ExpiringCard {
+        UUID getSubscriptionId();
+        UUID getUserId();
+        LocalDate getNextBillingDate();
+        Integer getCardExpMonth();
+        Integer getCardExpYear();
+    }
+}
@@ -0,0 +1,104 @@
+package com.transport.subscription.repository;
+
+import com.transport.subscription.model.SubscriptionRevenueLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository pour le grand livre des revenus par abonnement
+ * Les cumuls sont modifiés uniquement par des UPDATE atomiques (jamais lus puis réécrits)
+ */
+@Repository
+public interface SubscriptionRevenueLedgerRepository extends JpaRepository<SubscriptionRevenueLedger, UUID> {
+
+    /**
+     * Crée la ligne du grand livre à zéro si elle n'existe pas encore (sans erreur en cas de concurrence)
+     * @param subscriptionId ID de l'abonnement
+     * @param currency Devise
+     * @param now Horodatage courant
+     * @return 1 si la ligne a été créée, 0 sinon
+     */
+    @Modifying
+    @Query(value = "INSERT INTO subscription_revenue_ledger " +
+                   "(subscription_id, currency, total_paid, payment_count, updated_at) " +
+                   "VALUES (:subscriptionId, :currency, 0, 0, :now) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(
+            @Param("subscriptionId") UUID subscriptionId,
+            @Param("currency") String currency,
+            @Param("now") OffsetDateTime now
+    );
+
+    /**
+     * Ajoute un paiement au cumul de l'abonnement
+     * @param subscriptionId ID de l'abonnement
+     * @param amount Montant (négatif pour un remboursement)
+     * @param countDelta Variation du nombre de paiements
+     * @param now Horodatage courant
+     * @return Nombre de lignes mises à jour (0 si la ligne n'existe pas encore)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE SubscriptionRevenueLedger l SET l.totalPaid = l.totalPaid + :amount, " +
+           "l.paymentCount = l.paymentCount + :countDelta, l.updatedAt = :now " +
+           "WHERE l.subscriptionId = :subscriptionId")
+    int addToTotal(
+            @Param("subscriptionId") UUID subscriptionId,
+            @Param("amount") BigDecimal amount,
+            @Param("countDelta") long countDelta,
+            @Param("now") OffsetDateTime now
+    );
+
+    /**
+     * Remplace le cumul d'un abonnement (utilisé par la réconciliation)
+     * @param subscriptionId ID de l'abonnement
+     * @param totalPaid Cumul recalculé
+     * @param paymentCount Nombre de paiements recalculé
+     * @param now Horodatage courant
+     * @return Nombre de lignes mises à jour
+     */
+    @Modifying
+    @Query("UPDATE SubscriptionRevenueLedger l SET l.totalPaid = :totalPaid, " +
+           "l.paymentCount = :paymentCount, l.updatedAt = :now WHERE l.subscriptionId = :subscriptionId")
+    int overwriteTotal(
+            @Param("subscriptionId") UUID subscriptionId,
+            @Param("totalPaid") BigDecimal totalPaid,
+            @Param("paymentCount") long paymentCount,
+            @Param("now") OffsetDateTime now
+    );
+
+    /**
+     * Compare le grand livre aux paiements réussis pour les abonnements ayant payé depuis une date
+     * @param since Date à partir de laquelle les abonnements sont vérifiés
+     * @return Abonnements dont le cumul diffère de la somme des paiements
+     */
+    @Query(value = "SELECT p.subscription_id AS subscriptionId, " +
+                   "COALESCE(MAX(l.total_paid), 0) AS ledgerTotal, " +
+                   "SUM(p.amount) AS actualTotal, COUNT(*) AS actualCount, MIN(p.currency) AS currency " +
+                   "FROM subscription_payment p " +
+                   "LEFT JOIN subscription_revenue_ledger l ON l.subscription_id = p.subscription_id " +
+                   "WHERE p.payment_status = 'SUCCEEDED' AND p.subscription_id IN (" +
+                   "  SELECT DISTINCT r.subscription_id FROM subscription_payment r WHERE r.payment_date >= :since) " +
+                   "GROUP BY p.subscription_id " +
+                   "HAVING COALESCE(MAX(l.total_paid), 0) <> SUM(p.amount)",
+           nativeQuery = true)
+    List<LedgerMismatch> findMismatchesSince(@Param("since") OffsetDateTime since);
+
+    /**
+     * Projection d'un écart entre le grand livre et les paiements bruts
+     */
+    interface LedgerMismatch {
+        UUID getSubscriptionId();
+        BigDecimal getLedgerTotal();
+        BigDecimal getActualTotal();
+        Long getActualCount();
+        String getCurrency();
+    }
+}
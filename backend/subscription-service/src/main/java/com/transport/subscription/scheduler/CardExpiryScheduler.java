@@ -0,0 +1,42 @@
+package com.transport.subscription.scheduler;
+
+import com.transport.subscription.service.CardExpiryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Scheduler pour avertir les abonnés dont la carte expire avant le renouvellement
+ * S'exécute avant les renouvellements automatiques (2h00) pour réduire les débits voués à l'échec
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CardExpiryScheduler {
+
+    private final CardExpiryService cardExpiryService;
+    private final Clock clock;
+
+    /**
+     * Détecte les cartes expirant avant la prochaine facturation tous les jours à 1h00 du matin
+     * Cron: second minute hour day month weekday
+     * 0 0 1 * * * = Tous les jours à 1h00
+     */
+    @Scheduled(cron = "${card-expiry.cron:0 0 1 * * *}")
+    public void notifyExpiringCards() {
+        log.info("=== Démarrage de la détection des cartes expirées ===");
+
+        try {
+            int notified = cardExpiryService.notifyExpiringCards(LocalDate.now(clock));
+            log.info("✅ {} abonné(s) averti(s) de l'expiration de leur carte", notified);
+        } catch (Exception e) {
+            log.error("❌ Erreur lors de la détection des cartes expirées", e);
+        }
+
+        log.info("=== Fin de la détection des cartes expirées ===");
+    }
+}
@@ -0,0 +1,33 @@
+package com.transport.subscription.scheduler;
+
+import com.transport.subscription.service.DunningService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler pour relancer les paiements échoués dont l'échéance est atteinte
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DunningScheduler {
+
+    private final DunningService dunningService;
+
+    /**
+     * Traite les relances échues, une minute après la fin du passage précédent
+     */
+    @Scheduled(fixedDelayString = "${dunning.interval-ms:60000}")
+    public void processDueRetries() {
+        try {
+            int processed = dunningService.processDueRetries();
+            if (processed > 0) {
+                log.info("✅ {} relance(s) de paiement traitée(s)", processed);
+            }
+        } catch (Exception e) {
+            log.error("❌ Erreur lors du traitement des relances de paiement", e);
+        }
+    }
+}
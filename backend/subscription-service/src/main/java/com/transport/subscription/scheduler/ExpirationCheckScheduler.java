@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
 import java.time.LocalDate;
 
 /**
@@ -18,18 +19,19 @@ import java.time.LocalDate;
 public class ExpirationCheckScheduler {
 
     private final RenewalService renewalService;
+    private final Clock clock;
 
     /**
      * Vérifie et expire les abonnements tous les jours à 3h00 du matin
      * Cron: second minute hour day month weekday
      * 0 0 3 * * * = Tous les jours à 3h00
      */
-    @Scheduled(cron = "0 0 3 * * *")
+    @Scheduled(cron = "${subscription.expiration.cron:0 0 3 * * *}")
     public void expireSubscriptions() {
         log.info("=== Démarrage de la vérification des abonnements expirés ===");
         
         try {
-            LocalDate today = LocalDate.now();
+            LocalDate today = LocalDate.now(clock);
             int expiredCount = renewalService.expireSubscriptions(today);
             
             if (expiredCount > 0) {
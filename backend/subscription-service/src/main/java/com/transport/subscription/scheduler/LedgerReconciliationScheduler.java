@@ -0,0 +1,57 @@
+package com.transport.subscription.scheduler;
+
+import com.transport.subscription.service.LedgerReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Scheduler pour vérifier le grand livre des revenus contre les paiements bruts
+ * S'exécute après les renouvellements (2h00) et les expirations (3h00)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerReconciliationScheduler {
+
+    private final LedgerReconciliationService reconciliationService;
+    private final Clock clock;
+
+    @Value("${billing.ledger.reconciliation.lookback-days:7}")
+    private int lookbackDays;
+
+    @Value("${billing.ledger.reconciliation.repair:true}")
+    private boolean repair;
+
+    /**
+     * Réconcilie les derniers jours tous les jours à 4h00 du matin
+     * Cron: second minute hour day month weekday
+     * 0 0 4 * * * = Tous les jours à 4h00
+     */
+    @Scheduled(cron = "${billing.ledger.reconciliation.cron:0 0 4 * * *}")
+    public void reconcileLedger() {
+        log.info("=== Démarrage de la réconciliation du grand livre ===");
+
+        try {
+            LocalDate today = LocalDate.now(clock);
+            LedgerReconciliationService.ReconciliationReport report =
+                    reconciliationService.reconcile(today.minusDays(lookbackDays), today, repair);
+
+            if (report.isConsistent()) {
+                log.info("✅ Grand livre cohérent avec les paiements");
+            } else {
+                log.warn("⚠️ {} écart(s) abonnement et {} écart(s) journalier(s) détecté(s)",
+                        report.subscriptionMismatches(), report.dailyMismatches());
+            }
+        } catch (Exception e) {
+            log.error("❌ Erreur lors de la réconciliation du grand livre", e);
+        }
+
+        log.info("=== Fin de la réconciliation du grand livre ===");
+    }
+}
@@ -0,0 +1,112 @@
+package com.transport.subscription.scheduler;
+
+import com.transport.subscription.config.SimulatedClock;
+import com.transport.subscription.config.SimulationProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Simulation accélérée du cycle de vie des abonnements (profil simulation)
+ * Avance l'horloge simulée heure par heure et déclenche les traitements planifiés à leur heure habituelle :
+ * cartes expirées (1h00), renouvellements (2h00), expirations (3h00), rapprochement du grand livre (4h00)
+ * et relances de paiement toutes les simulation.dunning-interval-hours heures (validé entre 1 et 24, voir
+ * {@link SimulationProperties}).
+ * Le rapprochement des fichiers de l'acquéreur n'est pas simulé (il dépend de fichiers externes).
+ * Les crons correspondants sont désactivés dans le profil : seul le simulateur les exécute.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "simulation.enabled", havingValue = "true")
+@EnableConfigurationProperties(SimulationProperties.class)
+public class LifecycleSimulator {
+
+    private final SimulatedClock clock;
+    private final CardExpiryScheduler cardExpiryScheduler;
+    private final SubscriptionRenewalScheduler subscriptionRenewalScheduler;
+    private final ExpirationCheckScheduler expirationCheckScheduler;
+    private final LedgerReconciliationScheduler ledgerReconciliationScheduler;
+    private final DunningScheduler dunningScheduler;
+    private final SimulationProperties properties;
+
+    /**
+     * Durée cumulée d'un traitement sur la simulation
+     * @param runs Nombre d'exécutions
+     * @param totalMillis Durée totale en millisecondes
+     * @param maxMillis Exécution la plus longue en millisecondes
+     */
+    public record JobStats(int runs, long totalMillis, long maxMillis) {
+
+        JobStats add(long millis) {
+            return new JobStats(runs + 1, totalMillis + millis, Math.max(maxMillis, millis));
+        }
+    }
+
+    /**
+     * Bilan d'une simulation
+     * @param days Jours simulés
+     * @param from Instant simulé de départ
+     * @param to Instant simulé d'arrivée
+     * @param wallMillis Durée réelle de la simulation
+     * @param jobs Statistiques par traitement, dans l'ordre d'exécution
+     */
+    public record Report(int days, ZonedDateTime from, ZonedDateTime to, long wallMillis,
+                         Map<String, JobStats> jobs) {
+    }
+
+    /**
+     * Simule les jours suivants, heure par heure, à partir de l'heure simulée courante
+     * @param days Nombre de jours à simuler
+     * @return Bilan de la simulation
+     */
+    public synchronized Report advanceDays(int days) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("Le nombre de jours simulés doit être positif: " + days);
+        }
+        long start = System.nanoTime();
+        ZonedDateTime from = ZonedDateTime.now(clock);
+        LocalDateTime hour = from.toLocalDateTime().withMinute(0).withSecond(0).withNano(0).plusHours(1);
+        LocalDateTime end = hour.plusDays(days);
+        log.info("=== Démarrage de la simulation de {} jour(s) à partir du {} ===", days, from.toLocalDate());
+
+        Map<String, JobStats> jobs = new LinkedHashMap<>();
+        for (; hour.isBefore(end); hour = hour.plusHours(1)) {
+            clock.advanceTo(hour.atZone(clock.getZone()).toInstant());
+            switch (hour.getHour()) {
+                case 1 -> run(jobs, "card-expiry", cardExpiryScheduler::notifyExpiringCards);
+                case 2 -> run(jobs, "renewals", subscriptionRenewalScheduler::processAutomaticRenewals);
+                case 3 -> run(jobs, "expirations", expirationCheckScheduler::expireSubscriptions);
+                case 4 -> run(jobs, "ledger-reconciliation", ledgerReconciliationScheduler::reconcileLedger);
+                default -> {
+                }
+            }
+            if (hour.getHour() % properties.dunningIntervalHours() == 0) {
+                run(jobs, "dunning", dunningScheduler::processDueRetries);
+            }
+            if (hour.getHour() == 0) {
+                log.info("Jour simulé {} atteint", LocalDate.from(hour));
+            }
+        }
+
+        Report report = new Report(days, from, ZonedDateTime.now(clock), (System.nanoTime() - start) / 1_000_000,
+                jobs);
+        log.info("✅ Simulation terminée en {} ms, horloge au {}: {}", report.wallMillis(), report.to(), jobs);
+        return report;
+    }
+
+    private static void run(Map<String, JobStats> jobs, String job, Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        jobs.merge(job, new JobStats(1, millis, millis), (current, ignored) -> current.add(millis));
+    }
+}
@@ -0,0 +1,34 @@
+package com.transport.subscription.scheduler;
+
+import com.transport.subscription.service.PendingPaymentReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler pour solder les paiements et remboursements restés en attente au-delà de leur délai de grâce
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PendingPaymentScheduler {
+
+    private final PendingPaymentReconciliationService reconciliationService;
+
+    /**
+     * Réconcilie les paiements et remboursements en attente, cinq minutes après la fin du passage précédent
+     */
+    @Scheduled(fixedDelayString = "${payment.pending.interval-ms:300000}")
+    public void reconcilePendingPayments() {
+        try {
+            int payments = reconciliationService.reconcileStalePayments();
+            int refunds = reconciliationService.reconcileStaleRefunds();
+            if (payments + refunds > 0) {
+                log.info("✅ {} paiement(s) et {} remboursement(s) en attente soldé(s)", payments, refunds);
+            }
+        } catch (Exception e) {
+            log.error("❌ Erreur lors de la réconciliation des paiements en attente", e);
+        }
+    }
+}
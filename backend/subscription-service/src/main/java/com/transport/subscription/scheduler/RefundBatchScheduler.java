@@ -0,0 +1,31 @@
+package com.transport.subscription.scheduler;
+
+import com.transport.subscription.service.RefundBatchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler pour traiter les lots de remboursements en cours
+ * Une tranche par passage : un lot volumineux ne monopolise pas le pool de tâches planifiées
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RefundBatchScheduler {
+
+    private final RefundBatchService refundBatchService;
+
+    /**
+     * Traite la tranche suivante, une seconde après la fin du passage précédent
+     */
+    @Scheduled(fixedDelayString = "${refund.batch.interval-ms:1000}")
+    public void processRefundBatches() {
+        try {
+            refundBatchService.processNextChunk();
+        } catch (Exception e) {
+            log.error("❌ Erreur lors du traitement des lots de remboursements", e);
+        }
+    }
+}
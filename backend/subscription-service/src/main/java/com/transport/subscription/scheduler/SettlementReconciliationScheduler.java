@@ -0,0 +1,52 @@
+package com.transport.subscription.scheduler;
+
+import com.transport.subscription.exception.SettlementFileNotFoundException;
+import com.transport.subscription.service.SettlementReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Scheduler pour réconcilier le fichier de règlement de la veille déposé par l'acquéreur
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SettlementReconciliationScheduler {
+
+    private final SettlementReconciliationService settlementReconciliationService;
+    private final Clock clock;
+
+    /**
+     * Réconcilie le règlement de la veille tous les jours à 5h30 du matin
+     * Cron: second minute hour day month weekday
+     */
+    @Scheduled(cron = "${settlement.reconciliation.cron:0 30 5 * * *}")
+    public void reconcileSettlement() {
+        LocalDate settlementDate = LocalDate.now(clock).minusDays(1);
+        log.info("=== Démarrage de la réconciliation du règlement du {} ===", settlementDate);
+
+        try {
+            SettlementReconciliationService.SettlementReport report =
+                    settlementReconciliationService.reconcile(settlementDate);
+
+            if (report.isConsistent()) {
+                log.info("✅ Règlement cohérent: {} transaction(s) rapprochée(s)", report.matched());
+            } else {
+                log.warn("⚠️ Règlement du {}: {} écart(s) de montant, {} doublon(s), {} transaction(s) inconnue(s), " +
+                                "{} paiement(s) non réglé(s)", settlementDate, report.amountMismatches(),
+                        report.duplicates(), report.notInDatabase(), report.notInSettlement());
+            }
+        } catch (SettlementFileNotFoundException e) {
+            log.warn("⚠️ Aucun fichier de règlement reçu pour le {}", settlementDate);
+        } catch (Exception e) {
+            log.error("❌ Erreur lors de la réconciliation du règlement", e);
+        }
+
+        log.info("=== Fin de la réconciliation du règlement ===");
+    }
+}
@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
 import java.time.LocalDate;
 
 /**
@@ -18,18 +19,19 @@ import java.time.LocalDate;
 public class SubscriptionRenewalScheduler {
 
     private final RenewalService renewalService;
+    private final Clock clock;
 
     /**
      * Traite les renouvellements automatiques tous les jours à 2h00 du matin
      * Cron: second minute hour day month weekday
      * 0 0 2 * * * = Tous les jours à 2h00
      */
-    @Scheduled(cron = "0 0 2 * * *")
+    @Scheduled(cron = "${subscription.renewal.cron:0 0 2 * * *}")
     public void processAutomaticRenewals() {
         log.info("=== Démarrage du traitement des renouvellements automatiques ===");
         
         try {
-            LocalDate today = LocalDate.now();
+            LocalDate today = LocalDate.now(clock);
             int renewedCount = renewalService.processAutomaticRenewals(today);
             
             if (renewedCount > 0) {
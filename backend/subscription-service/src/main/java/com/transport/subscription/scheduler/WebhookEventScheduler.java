@@ -0,0 +1,48 @@
+package com.transport.subscription.scheduler;
+
+import com.transport.subscription.service.PaymentWebhookService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler pour appliquer les webhooks de paiement mis en file
+ * Vide la file par lots à chaque passage (les rafales de début de mois sont absorbées par la table)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookEventScheduler {
+
+    private final PaymentWebhookService paymentWebhookService;
+
+    @Value("${payment.webhook.batch-size:200}")
+    private int batchSize;
+
+    @Value("${payment.webhook.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    /**
+     * Applique les événements en attente, une seconde après la fin du passage précédent
+     */
+    @Scheduled(fixedDelayString = "${payment.webhook.apply-interval-ms:1000}")
+    public void applyWebhookEvents() {
+        try {
+            int total = 0;
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                int processed = paymentWebhookService.applyPendingEvents();
+                total += processed;
+                if (processed < batchSize) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("✅ {} webhook(s) de paiement traité(s)", total);
+            }
+        } catch (Exception e) {
+            log.error("❌ Erreur lors de l'application des webhooks de paiement", e);
+        }
+    }
+}
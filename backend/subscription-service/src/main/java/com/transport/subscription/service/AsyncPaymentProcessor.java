@@ -0,0 +1,161 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.exception.PaymentGatewayUnavailableException;
+import com.transport.subscription.util.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exécute les appels à la passerelle de paiement hors du thread HTTP
+ * Le pool est borné (threads + file d'attente) : au-delà, la soumission est refusée plutôt que
+ * de bloquer les threads Tomcat. Aucune connexion base n'est tenue pendant l'appel réseau ;
+ * le résultat est enregistré ensuite dans une transaction courte.
+ * Un paiement dont l'issue n'a pas pu être enregistrée reste PENDING jusqu'au balayage de
+ * {@link PendingPaymentReconciliationService} ; ceux encore en file à l'arrêt sont marqués FAILED.
+ */
+@Component
+@Slf4j
+public class AsyncPaymentProcessor {
+
+    private final PaymentGateway paymentGateway;
+    private final BillingService billingService;
+    private final ThreadPoolExecutor executor;
+    private final Duration shutdownTimeout;
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    public AsyncPaymentProcessor(PaymentGateway paymentGateway,
+                                 BillingService billingService,
+                                 @Value("${payment.async.pool-size:8}") int poolSize,
+                                 @Value("${payment.async.queue-capacity:500}") int queueCapacity,
+                                 @Value("${payment.async.shutdown-timeout:30s}") Duration shutdownTimeout,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.paymentGateway = paymentGateway;
+        this.billingService = billingService;
+        this.shutdownTimeout = shutdownTimeout;
+
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                ThreadFactories.named("payment-async", virtualThreads),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Planifie l'appel à la passerelle pour un paiement en attente
+     * @param paymentId ID du paiement PENDING déjà enregistré
+     * @param request Requête à transmettre à la passerelle
+     * @throws java.util.concurrent.RejectedExecutionException si le pool est saturé
+     */
+    public void submit(UUID paymentId, PaymentGateway.PaymentRequest request) {
+        inFlight.add(paymentId);
+        try {
+            executor.execute(new PaymentJob(paymentId, request));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(paymentId);
+            throw e;
+        }
+        log.debug("Paiement {} planifié ({} en file d'attente)", paymentId, executor.getQueue().size());
+    }
+
+    /**
+     * Indique si un paiement est en file ou en cours de traitement sur cette instance
+     * @param paymentId ID du paiement
+     * @return true si son issue va encore être enregistrée par ce pool
+     */
+    public boolean isInFlight(UUID paymentId) {
+        return inFlight.contains(paymentId);
+    }
+
+    private void process(UUID paymentId, PaymentGateway.PaymentRequest request) {
+        PaymentGateway.PaymentResult result;
+        try {
+            result = paymentGateway.charge(request);
+        } catch (PaymentGatewayUnavailableException e) {
+            if (e.isOutcomeUnknown()) {
+                // Le débit a peut-être eu lieu : le webhook ou le balayage des paiements en attente tranchera
+                log.warn("Issue inconnue pour le paiement {} ({}), maintenu PENDING", paymentId, e.getMessage());
+            } else {
+                billingService.failPendingPayment(paymentId, e.getMessage());
+            }
+            return;
+        } catch (RuntimeException e) {
+            log.error("Erreur de la passerelle pour le paiement {}: {}", paymentId, e.getMessage());
+            billingService.failPendingPayment(paymentId, "Gateway error: " + e.getMessage());
+            return;
+        }
+
+        if (result.success()) {
+            log.info("Paiement {} accepté par la passerelle. Transaction externe: {}",
+                    paymentId, result.externalTransactionId());
+            billingService.completePendingPayment(paymentId, result.externalTransactionId());
+        } else {
+            String failureReason = result.failureReason() != null
+                    ? result.failureReason()
+                    : "Payment declined by gateway";
+            billingService.failPendingPayment(paymentId, failureReason);
+        }
+    }
+
+    /**
+     * Laisse le pool finir pendant le délai imparti, puis marque FAILED les paiements encore en file :
+     * ils n'ont jamais atteint la passerelle et ne recevront donc aucun webhook
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            return;
+        }
+        List<Runnable> drained = executor.shutdownNow();
+        log.warn("Arrêt du pool de paiements asynchrones: {} paiement(s) non transmis à la passerelle",
+                drained.size());
+        for (Runnable job : drained) {
+            if (job instanceof PaymentJob paymentJob) {
+                try {
+                    billingService.failPendingPayment(paymentJob.paymentId, "Service shutdown before gateway call");
+                } catch (RuntimeException e) {
+                    log.error("Impossible de marquer le paiement {} en échec à l'arrêt: {}",
+                            paymentJob.paymentId, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Tâche du pool ; conserve l'ID du paiement pour pouvoir le solder s'il est retiré de la file à l'arrêt
+     */
+    private final class PaymentJob implements Runnable {
+
+        private final UUID paymentId;
+        private final PaymentGateway.PaymentRequest request;
+
+        private PaymentJob(UUID paymentId, PaymentGateway.PaymentRequest request) {
+            this.paymentId = paymentId;
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            try {
+                process(paymentId, request);
+            } catch (RuntimeException e) {
+                // Le paiement reste PENDING : le balayage des paiements en attente interrogera la passerelle
+                log.error("Impossible d'enregistrer le résultat du paiement {}: {}", paymentId, e.getMessage(), e);
+            } finally {
+                inFlight.remove(paymentId);
+            }
+        }
+    }
+}
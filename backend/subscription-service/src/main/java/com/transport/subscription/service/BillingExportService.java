@@ -0,0 +1,61 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.exception.InvalidSubscriptionException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Interface du service d'export des données de facturation
+ */
+public interface BillingExportService {
+
+    /**
+     * Écrit les paiements d'une période directement dans un flux, ligne par ligne
+     * La mémoire utilisée est constante quel que soit le nombre de paiements exportés
+     * @param from Premier jour (inclus)
+     * @param to Dernier jour (inclus)
+     * @param format Format de sortie
+     * @param out Flux de sortie (non fermé par cette méthode)
+     * @return Nombre de paiements exportés
+     * @throws IOException si l'écriture échoue
+     */
+    long exportPayments(LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws IOException;
+
+    /**
+     * Formats d'export supportés.
+     */
+    enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        /**
+         * Résout un format à partir de son nom, sans tenir compte de la casse
+         */
+        public static ExportFormat fromName(String name) {
+            for (ExportFormat format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new InvalidSubscriptionException("Unsupported export format: " + name);
+        }
+    }
+}
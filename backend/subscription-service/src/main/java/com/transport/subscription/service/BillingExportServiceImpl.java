@@ -0,0 +1,173 @@
+package com.transport.subscription.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.transport.subscription.exception.InvalidSubscriptionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Implémentation de l'export des paiements en flux continu
+ * Utilise un curseur JDBC en lecture seule (fetch size fixe, à l'intérieur d'une transaction pour que
+ * PostgreSQL ne matérialise pas tout le résultat) et écrit chaque ligne dès sa lecture.
+ */
+@Service
+@Slf4j
+public class BillingExportServiceImpl implements BillingExportService {
+
+    private static final String EXPORT_SQL =
+            "SELECT payment_id, subscription_id, amount, currency, payment_status, payment_method, " +
+            "payment_type, payment_date, failure_reason, external_txn_id, created_at " +
+            "FROM subscription_payment WHERE payment_date >= ? AND payment_date < ? ORDER BY payment_date";
+
+    private static final String[] COLUMNS = {
+            "paymentId", "subscriptionId", "amount", "currency", "paymentStatus", "paymentMethod",
+            "paymentType", "paymentDate", "failureReason", "externalTxnId", "createdAt"
+    };
+
+    private final JdbcTemplate exportJdbcTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Clock clock;
+
+    public BillingExportServiceImpl(DataSource dataSource,
+                                    @Value("${billing.export.fetch-size:1000}") int fetchSize,
+                                    Clock clock) {
+        this.exportJdbcTemplate = new JdbcTemplate(dataSource);
+        this.exportJdbcTemplate.setFetchSize(fetchSize);
+        this.clock = clock;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportPayments(LocalDate from, LocalDate to, ExportFormat format, OutputStream out)
+            throws IOException {
+        if (from.isAfter(to)) {
+            throw new InvalidSubscriptionException("Start date must be before end date");
+        }
+        log.info("Export {} des paiements du {} au {}", format, from, to);
+
+        ZoneId zone = clock.getZone();
+        Timestamp fromTs = Timestamp.from(from.atStartOfDay(zone).toInstant());
+        Timestamp toTs = Timestamp.from(to.plusDays(1).atStartOfDay(zone).toInstant());
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        JsonGenerator json = null;
+        if (format == ExportFormat.NDJSON) {
+            json = jsonFactory.createGenerator(writer);
+            json.setRootValueSeparator(null); // une ligne par objet, séparateur écrit explicitement
+        }
+        JsonGenerator ndjson = json;
+        long[] count = {0};
+
+        try {
+            if (format == ExportFormat.CSV) {
+                writer.write(String.join(",", COLUMNS));
+                writer.write('\n');
+            }
+            exportJdbcTemplate.query(EXPORT_SQL, (RowCallbackHandler) rs -> {
+                try {
+                    if (ndjson != null) {
+                        writeJsonRow(ndjson, rs);
+                    } else {
+                        writeCsvRow(writer, rs);
+                    }
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, fromTs, toTs);
+        } catch (UncheckedIOException e) {
+            // Le client a fermé la connexion : inutile de continuer à lire le curseur
+            throw e.getCause();
+        } finally {
+            if (json != null) {
+                json.flush();
+            }
+            writer.flush();
+        }
+
+        log.info("Export terminé: {} paiement(s)", count[0]);
+        return count[0];
+    }
+
+    private void writeJsonRow(JsonGenerator json, ResultSet rs) throws IOException, SQLException {
+        json.writeStartObject();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            String value = columnValue(rs, i + 1);
+            if (value == null) {
+                json.writeNullField(COLUMNS[i]);
+            } else if (i == 2) {
+                json.writeFieldName(COLUMNS[i]);
+                json.writeNumber(value);
+            } else {
+                json.writeStringField(COLUMNS[i], value);
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private void writeCsvRow(Writer writer, ResultSet rs) throws IOException, SQLException {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = columnValue(rs, i + 1);
+            if (value != null) {
+                writeCsvField(writer, value);
+            }
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Lit une colonne sous forme textuelle (horodatages en ISO-8601 UTC)
+     */
+    private String columnValue(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Timestamp timestamp) {
+            return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(timestamp.toInstant().atOffset(ZoneOffset.UTC));
+        }
+        if (value instanceof BigDecimal amount) {
+            return amount.toPlainString();
+        }
+        return value.toString().trim();
+    }
+
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
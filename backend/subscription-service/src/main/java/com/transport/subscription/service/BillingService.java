@@ -1,10 +1,14 @@
 package com.transport.subscription.service;
 
 import com.transport.subscription.dto.response.PaymentResponse;
+import com.transport.subscription.dto.response.PlanRevenueResponse;
 import com.transport.subscription.model.PaymentMethod;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -66,10 +70,97 @@ public interface BillingService {
     );
 
     /**
-     * Calcule le montant total payé pour un abonnement
+     * Recherche un paiement par sa clé d'idempotence
+     * @param idempotencyKey Clé d'idempotence
+     * @return Paiement trouvé ou Optional.empty()
+     */
+    Optional<PaymentResponse> findPaymentByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Enregistre un paiement en attente (avant l'appel à la passerelle)
+     * @param subscriptionId ID de l'abonnement
+     * @param amount Montant
+     * @param currency Devise
+     * @param idempotencyKey Clé d'idempotence
+     * @param paymentMethod Méthode de paiement utilisée
+     * @return Paiement enregistré au statut PENDING
+     */
+    PaymentResponse recordPendingPayment(
+            UUID subscriptionId,
+            BigDecimal amount,
+            String currency,
+            String idempotencyKey,
+            PaymentMethod paymentMethod
+    );
+
+    /**
+     * Finalise un paiement en attente accepté par la passerelle (montant payé et grand livre mis à jour)
+     * Sans effet si le paiement n'est plus en attente
+     * @param paymentId ID du paiement
+     * @param externalTxnId ID de transaction externe
+     * @return Paiement dans son état courant
+     */
+    PaymentResponse completePendingPayment(UUID paymentId, String externalTxnId);
+
+    /**
+     * Marque un paiement en attente comme échoué
+     * Sans effet si le paiement n'est plus en attente
+     * @param paymentId ID du paiement
+     * @param failureReason Raison de l'échec
+     * @return Paiement dans son état courant
+     */
+    PaymentResponse failPendingPayment(UUID paymentId, String failureReason);
+
+    /**
+     * Liste les paiements (hors remboursements) restés en attente depuis avant une date, les plus anciens d'abord
+     * @param before Date limite (exclue)
+     * @param limit Nombre max de paiements
+     * @return Paiements en attente
+     */
+    List<PaymentResponse> findStalePendingPayments(OffsetDateTime before, int limit);
+
+    /**
+     * Liste les remboursements restés en attente depuis avant une date, les plus anciens d'abord
+     * @param before Date limite (exclue)
+     * @param limit Nombre max de remboursements
+     * @return Lignes de remboursement en attente
+     */
+    List<PaymentResponse> findStalePendingRefunds(OffsetDateTime before, int limit);
+
+    /**
+     * Réserve le remboursement d'un paiement réussi en créant (ou en reprenant après échec) la ligne
+     * de remboursement au statut PENDING, avant l'appel à la passerelle
+     * @param paymentId ID du paiement à rembourser
+     * @return Ligne de remboursement (type REFUND, statut PENDING)
+     * @throws com.transport.subscription.exception.InvalidSubscriptionException si le paiement n'est pas
+     *         remboursable ou si un remboursement est déjà en cours ou effectué
+     */
+    PaymentResponse claimRefund(UUID paymentId);
+
+    /**
+     * Enregistre un remboursement accepté par la passerelle : le paiement d'origine passe REFUNDED,
+     * le montant payé de l'abonnement et le grand livre sont décrémentés
+     * Sans effet si le remboursement n'est plus en attente
+     * @param refundId ID de la ligne de remboursement
+     * @param refundTxnId ID de transaction externe du remboursement
+     * @return Ligne de remboursement dans son état courant
+     */
+    PaymentResponse completeRefund(UUID refundId, String refundTxnId);
+
+    /**
+     * Retourne le montant total payé pour un abonnement (lu dans le grand livre, O(1))
      * @param subscriptionId ID de l'abonnement
      * @return Montant total payé
      */
     BigDecimal getTotalPaidAmount(UUID subscriptionId);
+
+    /**
+     * Retourne le revenu journalier d'un plan sur une période (lu dans les agrégats)
+     * @param planId ID du plan
+     * @param from Premier jour (inclus)
+     * @param to Dernier jour (inclus)
+     * @return Revenus journaliers triés par date
+     */
+    List<PlanRevenueResponse> getPlanRevenue(UUID planId, LocalDate from, LocalDate to);
 }
 
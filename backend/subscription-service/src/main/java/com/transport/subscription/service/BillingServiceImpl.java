@@ -1,22 +1,39 @@
 package com.transport.subscription.service;
 
+import com.transport.subscription.config.CacheConfig;
 import com.transport.subscription.dto.mapper.PaymentMapper;
+import com.transport.subscription.dto.mapper.PlanRevenueMapper;
 import com.transport.subscription.dto.response.PaymentResponse;
+import com.transport.subscription.dto.response.PlanRevenueResponse;
+import com.transport.subscription.exception.InvalidSubscriptionException;
 import com.transport.subscription.exception.SubscriptionNotFoundException;
 import com.transport.subscription.model.PaymentMethod;
 import com.transport.subscription.model.PaymentStatus;
 import com.transport.subscription.model.PaymentType;
 import com.transport.subscription.model.Subscription;
 import com.transport.subscription.model.SubscriptionPayment;
+import com.transport.subscription.model.SubscriptionRevenueLedger;
+import com.transport.subscription.model.SubscriptionStatus;
 import com.transport.subscription.repository.BillingHistoryRepository;
+import com.transport.subscription.repository.PaymentRetryRepository;
+import com.transport.subscription.repository.PlanRevenueDailyRepository;
 import com.transport.subscription.repository.SubscriptionRepository;
+import com.transport.subscription.repository.SubscriptionRevenueLedgerRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -28,9 +45,25 @@ import java.util.UUID;
 @Transactional
 public class BillingServiceImpl implements BillingService {
 
+    /**
+     * Préfixe de la clé d'idempotence d'une ligne de remboursement (une seule par paiement d'origine)
+     */
+    static final String REFUND_KEY_PREFIX = "refund-";
+
+    /**
+     * Préfixe de la clé d'idempotence des nouvelles tentatives du dunning
+     */
+    static final String DUNNING_KEY_PREFIX = "dunning-";
+
     private final BillingHistoryRepository billingHistoryRepository;
     private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionRevenueLedgerRepository revenueLedgerRepository;
+    private final PlanRevenueDailyRepository planRevenueDailyRepository;
     private final PaymentMapper paymentMapper;
+    private final PlanRevenueMapper planRevenueMapper;
+    private final PaymentRetryRepository paymentRetryRepository;
+    private final DunningPolicy dunningPolicy;
+    private final Clock clock;
 
     @Override
     @Transactional(readOnly = true)
@@ -46,7 +79,7 @@ public class BillingServiceImpl implements BillingService {
                 });
 
         List<SubscriptionPayment> payments = billingHistoryRepository
-                .findBySubscriptionIdOrderByPaymentDateDesc(subscriptionId);
+                .findBySubscription_SubscriptionIdOrderByPaymentDateDesc(subscriptionId);
         log.info("{} paiement(s) trouvé(s) pour l'abonnement: {}", payments.size(), subscriptionId);
         return paymentMapper.toResponseList(payments);
     }
@@ -66,6 +99,7 @@ public class BillingServiceImpl implements BillingService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.SUBSCRIPTIONS_CACHE, key = "#subscriptionId")
     public PaymentResponse recordSuccessfulPayment(
             UUID subscriptionId,
             BigDecimal amount,
@@ -90,10 +124,12 @@ public class BillingServiceImpl implements BillingService {
                         "Subscription not found with id: " + subscriptionId));
 
         // Créer le paiement
+        OffsetDateTime paymentDate = OffsetDateTime.now(clock);
         SubscriptionPayment payment = SubscriptionPayment.builder()
                 .subscription(subscription)
                 .amount(amount)
                 .currency(currency)
+                .paymentDate(paymentDate)
                 .paymentStatus(PaymentStatus.SUCCEEDED)
                 .paymentMethod(paymentMethod)
                 .paymentType(PaymentType.INITIAL) // Peut être déterminé selon le contexte
@@ -105,12 +141,13 @@ public class BillingServiceImpl implements BillingService {
         log.debug("Paiement créé avec ID: {}, Montant: {} {}", 
                 payment.getPaymentId(), amount, currency);
 
-        // Mettre à jour le montant payé de l'abonnement
-        BigDecimal newAmountPaid = subscription.getAmountPaid().add(amount);
-        subscription.setAmountPaid(newAmountPaid);
-        subscriptionRepository.save(subscription);
-        log.debug("Montant total payé mis à jour pour l'abonnement {}: {}", 
-                subscriptionId, newAmountPaid);
+        // Incrémenter le montant payé de l'abonnement directement en base (pas de lecture-modification-écriture)
+        subscriptionRepository.incrementAmountPaid(subscriptionId, amount);
+        log.debug("Montant total payé incrémenté de {} pour l'abonnement {}", amount, subscriptionId);
+
+        // Alimenter le grand livre (la ligne abonnement est protégée par le verrou posé ci-dessus)
+        recordRevenue(subscriptionId, subscription.getPlan().getPlanId(), paymentDate,
+                currency, amount, 1);
 
         log.info("Paiement enregistré avec succès: {} pour l'abonnement: {}", 
                 payment.getPaymentId(), subscriptionId);
@@ -145,6 +182,7 @@ public class BillingServiceImpl implements BillingService {
                 .paymentStatus(PaymentStatus.FAILED)
                 .paymentMethod(paymentMethod)
                 .paymentType(PaymentType.INITIAL)
+                .paymentDate(OffsetDateTime.now(clock))
                 .failureReason(failureReason)
                 .idempotencyKey(idempotencyKey)
                 .build();
@@ -152,19 +190,262 @@ public class BillingServiceImpl implements BillingService {
         payment = billingHistoryRepository.save(payment);
         log.warn("Paiement échoué enregistré: {} pour l'abonnement: {}. Raison: {}", 
                 payment.getPaymentId(), subscriptionId, failureReason);
+
+        scheduleDunning(payment, failureReason);
+        return paymentMapper.toResponse(payment);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<PaymentResponse> findPaymentByIdempotencyKey(String idempotencyKey) {
+        return billingHistoryRepository.findByIdempotencyKey(idempotencyKey)
+                .map(paymentMapper::toResponse);
+    }
+
+    @Override
+    public PaymentResponse recordPendingPayment(
+            UUID subscriptionId,
+            BigDecimal amount,
+            String currency,
+            String idempotencyKey,
+            PaymentMethod paymentMethod) {
+
+        log.info("Enregistrement d'un paiement en attente pour l'abonnement: {}", subscriptionId);
+
+        Subscription subscription = subscriptionRepository.findById(subscriptionId)
+                .orElseThrow(() -> new SubscriptionNotFoundException(
+                        "Subscription not found with id: " + subscriptionId));
+
+        SubscriptionPayment payment = SubscriptionPayment.builder()
+                .subscription(subscription)
+                .amount(amount)
+                .currency(currency)
+                .paymentStatus(PaymentStatus.PENDING)
+                .paymentMethod(paymentMethod)
+                .paymentType(PaymentType.INITIAL)
+                .paymentDate(OffsetDateTime.now(clock))
+                .idempotencyKey(idempotencyKey)
+                .build();
+
+        // Insertion immédiate : une clé d'idempotence en double lève l'exception ici, pas à la validation
+        payment = billingHistoryRepository.saveAndFlush(payment);
+        log.debug("Paiement en attente créé avec ID: {}", payment.getPaymentId());
         return paymentMapper.toResponse(payment);
     }
 
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.SUBSCRIPTIONS_CACHE, key = "#result.subscriptionId")
+    public PaymentResponse completePendingPayment(UUID paymentId, String externalTxnId) {
+        log.info("Finalisation du paiement en attente: {}", paymentId);
+
+        OffsetDateTime paymentDate = OffsetDateTime.now(clock);
+        int updated = billingHistoryRepository.transitionStatus(paymentId, PaymentStatus.PENDING,
+                PaymentStatus.SUCCEEDED, externalTxnId, null, paymentDate);
+
+        SubscriptionPayment payment = findPayment(paymentId);
+        if (updated == 0) {
+            log.warn("Paiement {} déjà finalisé (statut: {}), aucune modification", paymentId,
+                    payment.getPaymentStatus());
+            return paymentMapper.toResponse(payment);
+        }
+
+        Subscription subscription = payment.getSubscription();
+        subscriptionRepository.incrementAmountPaid(subscription.getSubscriptionId(), payment.getAmount());
+        recordRevenue(subscription.getSubscriptionId(), subscription.getPlan().getPlanId(),
+                paymentDate, payment.getCurrency(), payment.getAmount(), 1);
+
+        log.info("Paiement {} finalisé avec succès pour l'abonnement: {}", paymentId,
+                subscription.getSubscriptionId());
+        return paymentMapper.toResponse(payment);
+    }
+
+    @Override
+    public PaymentResponse failPendingPayment(UUID paymentId, String failureReason) {
+        log.warn("Échec du paiement en attente: {}. Raison: {}", paymentId, failureReason);
+
+        int updated = billingHistoryRepository.transitionStatus(paymentId, PaymentStatus.PENDING,
+                PaymentStatus.FAILED, null, failureReason, OffsetDateTime.now(clock));
+
+        SubscriptionPayment payment = findPayment(paymentId);
+        if (updated == 0) {
+            log.warn("Paiement {} déjà finalisé (statut: {}), aucune modification", paymentId,
+                    payment.getPaymentStatus());
+        } else {
+            scheduleDunning(payment, failureReason);
+        }
+        return paymentMapper.toResponse(payment);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PaymentResponse> findStalePendingPayments(OffsetDateTime before, int limit) {
+        return paymentMapper.toResponseList(billingHistoryRepository.findByStatusBefore(PaymentStatus.PENDING,
+                EnumSet.complementOf(EnumSet.of(PaymentType.REFUND)), before, PageRequest.of(0, limit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PaymentResponse> findStalePendingRefunds(OffsetDateTime before, int limit) {
+        return paymentMapper.toResponseList(billingHistoryRepository.findByStatusBefore(PaymentStatus.PENDING,
+                EnumSet.of(PaymentType.REFUND), before, PageRequest.of(0, limit)));
+    }
+
+    @Override
+    public PaymentResponse claimRefund(UUID paymentId) {
+        log.info("Réservation du remboursement du paiement: {}", paymentId);
+
+        SubscriptionPayment original = findPayment(paymentId);
+        if (original.getPaymentType() == PaymentType.REFUND) {
+            throw new InvalidSubscriptionException("A refund cannot be refunded");
+        }
+        if (original.getPaymentStatus() != PaymentStatus.SUCCEEDED) {
+            throw new InvalidSubscriptionException(
+                    "Only succeeded payments can be refunded (status: " + original.getPaymentStatus() + ")");
+        }
+        if (original.getExternalTxnId() == null) {
+            throw new InvalidSubscriptionException("Payment has no external transaction to refund");
+        }
+
+        String refundKey = REFUND_KEY_PREFIX + paymentId;
+        Optional<SubscriptionPayment> existing = billingHistoryRepository.findByIdempotencyKey(refundKey);
+        if (existing.isPresent()) {
+            // Un remboursement refusé peut être retenté ; un remboursement en cours ou effectué, non
+            SubscriptionPayment refund = existing.get();
+            if (billingHistoryRepository.transitionStatus(refund.getPaymentId(), PaymentStatus.FAILED,
+                    PaymentStatus.PENDING, null, null, OffsetDateTime.now(clock)) == 0) {
+                throw new InvalidSubscriptionException(
+                        "Refund already " + (refund.getPaymentStatus() == PaymentStatus.PENDING
+                                ? "in progress" : "completed") + " for payment: " + paymentId);
+            }
+            return paymentMapper.toResponse(findPayment(refund.getPaymentId()));
+        }
+
+        SubscriptionPayment refund = SubscriptionPayment.builder()
+                .subscription(original.getSubscription())
+                .amount(original.getAmount())
+                .currency(original.getCurrency())
+                .paymentStatus(PaymentStatus.PENDING)
+                .paymentMethod(original.getPaymentMethod())
+                .paymentType(PaymentType.REFUND)
+                .paymentDate(OffsetDateTime.now(clock))
+                .idempotencyKey(refundKey)
+                .build();
+        try {
+            refund = billingHistoryRepository.saveAndFlush(refund);
+        } catch (DataIntegrityViolationException e) {
+            // Première réservation concurrente : l'autre requête a créé la ligne refund-{paymentId}
+            throw new InvalidSubscriptionException("Refund already in progress for payment: " + paymentId);
+        }
+        log.debug("Ligne de remboursement créée: {} pour le paiement {}", refund.getPaymentId(), paymentId);
+        return paymentMapper.toResponse(refund);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.SUBSCRIPTIONS_CACHE, key = "#result.subscriptionId")
+    public PaymentResponse completeRefund(UUID refundId, String refundTxnId) {
+        log.info("Enregistrement du remboursement: {}", refundId);
+
+        // La ligne de remboursement reste hors des cumuls (statut REFUNDED, jamais SUCCEEDED)
+        int updated = billingHistoryRepository.transitionStatus(refundId, PaymentStatus.PENDING,
+                PaymentStatus.REFUNDED, refundTxnId, null, OffsetDateTime.now(clock));
+        SubscriptionPayment refund = findPayment(refundId);
+        if (updated == 0) {
+            log.warn("Remboursement {} déjà finalisé (statut: {}), aucune modification", refundId,
+                    refund.getPaymentStatus());
+            return paymentMapper.toResponse(refund);
+        }
+
+        UUID originalId = UUID.fromString(refund.getIdempotencyKey().substring(REFUND_KEY_PREFIX.length()));
+        SubscriptionPayment original = findPayment(originalId);
+        // Lu avant la transition : le contexte de persistance est vidé par la requête de mise à jour
+        UUID subscriptionId = original.getSubscription().getSubscriptionId();
+        UUID planId = original.getSubscription().getPlan().getPlanId();
+        BigDecimal amount = original.getAmount().negate();
+        OffsetDateTime originalDate = original.getPaymentDate();
+
+        if (billingHistoryRepository.markRefunded(originalId, PaymentStatus.SUCCEEDED, PaymentStatus.REFUNDED) == 1) {
+            subscriptionRepository.incrementAmountPaid(subscriptionId, amount);
+            // Décrémenté au jour du paiement d'origine, comme la réconciliation qui somme les paiements SUCCEEDED
+            recordRevenue(subscriptionId, planId, originalDate, original.getCurrency(), amount, -1);
+        }
+
+        log.info("Paiement {} remboursé (remboursement {})", originalId, refundId);
+        return paymentMapper.toResponse(refund);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public BigDecimal getTotalPaidAmount(UUID subscriptionId) {
-        log.debug("Calcul du montant total payé pour l'abonnement: {}", subscriptionId);
-        
-        Double total = billingHistoryRepository.calculateTotalPaidAmount(
-                subscriptionId, PaymentStatus.SUCCEEDED);
-        BigDecimal totalAmount = BigDecimal.valueOf(total != null ? total : 0.0);
+        log.debug("Lecture du montant total payé pour l'abonnement: {}", subscriptionId);
+
+        BigDecimal totalAmount = revenueLedgerRepository.findById(subscriptionId)
+                .map(SubscriptionRevenueLedger::getTotalPaid)
+                .orElse(BigDecimal.ZERO);
         log.info("Montant total payé pour l'abonnement {}: {}", subscriptionId, totalAmount);
         return totalAmount;
     }
-}
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<PlanRevenueResponse> getPlanRevenue(UUID planId, LocalDate from, LocalDate to) {
+        log.debug("Récupération du revenu du plan {} du {} au {}", planId, from, to);
+
+        if (from.isAfter(to)) {
+            throw new InvalidSubscriptionException("Start date must be before end date");
+        }
+        return planRevenueMapper.toResponseList(
+                planRevenueDailyRepository.findByPlanBetweenDates(planId, from, to));
+    }
+
+    private SubscriptionPayment findPayment(UUID paymentId) {
+        return billingHistoryRepository.findById(paymentId)
+                .orElseThrow(() -> new SubscriptionNotFoundException(
+                        "Payment not found with id: " + paymentId));
+    }
+
+    /**
+     * Ouvre un cycle de relance pour un paiement échoué d'un abonnement actif
+     * Les échecs d'un premier paiement (abonnement PENDING), des remboursements et des relances elles-mêmes
+     * n'en ouvrent pas ; un abonnement ayant déjà un cycle en cours le conserve.
+     */
+    private void scheduleDunning(SubscriptionPayment payment, String failureReason) {
+        Subscription subscription = payment.getSubscription();
+        if (payment.getPaymentType() == PaymentType.REFUND
+                || subscription.getStatus() != SubscriptionStatus.ACTIVE
+                || (payment.getIdempotencyKey() != null && payment.getIdempotencyKey().startsWith(DUNNING_KEY_PREFIX))) {
+            return;
+        }
+
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        int created = paymentRetryRepository.insertIfAbsent(UUID.randomUUID(), subscription.getSubscriptionId(),
+                payment.getPaymentId(), payment.getAmount(), payment.getCurrency(), payment.getPaymentMethod().name(),
+                dunningPolicy.nextAttemptAt(0, now), failureReason, now);
+        if (created == 1) {
+            log.info("Relance planifiée pour l'abonnement {} (paiement échoué: {})",
+                    subscription.getSubscriptionId(), payment.getPaymentId());
+        }
+    }
+
+    /**
+     * Reporte un mouvement dans le grand livre (abonnement + plan/jour)
+     * Le jour est celui du paiement dans le fuseau de l'horloge, comme dans la réconciliation
+     * (l'offset d'une date relue en base dépend du fuseau de la JVM, pas de l'horloge).
+     * Chaque cumul est d'abord incrémenté ; si la ligne n'existe pas encore elle est créée à zéro
+     * (INSERT ... ON CONFLICT DO NOTHING, sûr en concurrence) puis incrémentée.
+     */
+    private void recordRevenue(UUID subscriptionId, UUID planId, OffsetDateTime paymentDate,
+                               String currency, BigDecimal amount, long countDelta) {
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        LocalDate revenueDate = paymentDate.atZoneSameInstant(clock.getZone()).toLocalDate();
+
+        if (revenueLedgerRepository.addToTotal(subscriptionId, amount, countDelta, now) == 0) {
+            revenueLedgerRepository.insertIfAbsent(subscriptionId, currency, now);
+            revenueLedgerRepository.addToTotal(subscriptionId, amount, countDelta, now);
+        }
+
+        if (planRevenueDailyRepository.addToTotal(planId, revenueDate, currency, amount, countDelta, now) == 0) {
+            planRevenueDailyRepository.insertIfAbsent(planId, revenueDate, currency, now);
+            planRevenueDailyRepository.addToTotal(planId, revenueDate, currency, amount, countDelta, now);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.transport.subscription.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Abstraction du canal d'envoi des avis "mettez à jour votre carte" (e-mail, push, bus d'événements, etc.)
+ */
+public interface CardExpiryNotifier {
+
+    /**
+     * Envoie un lot d'avis ; une exception interrompt le scan, le lot sera renvoyé au passage suivant
+     * @param events avis à envoyer
+     */
+    void notify(List<CardExpiryEvent> events);
+
+    /**
+     * Avis d'expiration de la carte d'un abonnement avant sa prochaine facturation.
+     */
+    record CardExpiryEvent(
+            UUID subscriptionId,
+            UUID userId,
+            LocalDate nextBillingDate,
+            int cardExpMonth,
+            int cardExpYear
+    ) { }
+}
@@ -0,0 +1,17 @@
+package com.transport.subscription.service;
+
+import java.time.LocalDate;
+
+/**
+ * Service de détection des cartes expirant avant le prochain renouvellement
+ */
+public interface CardExpiryService {
+
+    /**
+     * Notifie les abonnés dont la carte expire avant une facturation prévue dans l'horizon configuré
+     * Chaque abonné n'est notifié qu'une fois par échéance de facturation.
+     * @param today Date du jour
+     * @return Nombre d'avis envoyés
+     */
+    int notifyExpiringCards(LocalDate today);
+}
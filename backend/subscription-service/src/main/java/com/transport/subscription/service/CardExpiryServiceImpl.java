@@ -0,0 +1,91 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.repository.CardExpiryNoticeRepository;
+import com.transport.subscription.repository.SubscriptionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implémentation de la détection des cartes expirant avant renouvellement
+ * Les abonnements concernés sont lus par pages (pagination par clé, index partiel sur l'expiration)
+ * et notifiés par lots ; un lot n'est marqué comme notifié qu'après son envoi.
+ */
+@Service
+@Slf4j
+@Transactional
+public class CardExpiryServiceImpl implements CardExpiryService {
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final CardExpiryNoticeRepository cardExpiryNoticeRepository;
+    private final CardExpiryNotifier cardExpiryNotifier;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int lookaheadDays;
+    private final int batchSize;
+
+    public CardExpiryServiceImpl(SubscriptionRepository subscriptionRepository,
+                                 CardExpiryNoticeRepository cardExpiryNoticeRepository,
+                                 CardExpiryNotifier cardExpiryNotifier,
+                                 TransactionTemplate transactionTemplate,
+                                 Clock clock,
+                                 @Value("${card-expiry.lookahead-days:30}") int lookaheadDays,
+                                 @Value("${card-expiry.batch-size:500}") int batchSize) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.cardExpiryNoticeRepository = cardExpiryNoticeRepository;
+        this.cardExpiryNotifier = cardExpiryNotifier;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.lookaheadDays = lookaheadDays;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int notifyExpiringCards(LocalDate today) {
+        LocalDate horizon = today.plusDays(lookaheadDays);
+        log.info("Recherche des cartes expirant avant une facturation d'ici le {}", horizon);
+
+        int notified = 0;
+        UUID afterId = MIN_UUID;
+        List<SubscriptionRepository.ExpiringCard> page;
+        do {
+            page = subscriptionRepository.findCardsExpiringBeforeBilling(today, horizon, horizon.getYear(),
+                    horizon.getMonthValue(), afterId, PageRequest.of(0, batchSize));
+            if (page.isEmpty()) {
+                break;
+            }
+
+            List<CardExpiryNotifier.CardExpiryEvent> events = page.stream()
+                    .map(card -> new CardExpiryNotifier.CardExpiryEvent(card.getSubscriptionId(), card.getUserId(),
+                            card.getNextBillingDate(), card.getCardExpMonth(), card.getCardExpYear()))
+                    .toList();
+            cardExpiryNotifier.notify(events);
+            recordNotices(events);
+
+            notified += events.size();
+            afterId = page.get(page.size() - 1).getSubscriptionId();
+        } while (page.size() == batchSize);
+
+        log.info("{} avis d'expiration de carte envoyé(s)", notified);
+        return notified;
+    }
+
+    private void recordNotices(List<CardExpiryNotifier.CardExpiryEvent> events) {
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        transactionTemplate.executeWithoutResult(tx -> events.forEach(event ->
+                cardExpiryNoticeRepository.insertIfAbsent(event.subscriptionId(), event.nextBillingDate(), now)));
+    }
+}
@@ -0,0 +1,65 @@
+package com.transport.subscription.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Politique de relance des paiements échoués
+ * Délai exponentiel par abonnement (initialDelay × multiplier^tentatives, plafonné à maxDelay) avec un jitter
+ * de ±10 % pour étaler les relances des échecs survenus au même moment (renouvellements de minuit).
+ * L'abonnement est suspendu après graceAttempts tentatives refusées ; le cycle s'arrête à maxAttempts.
+ */
+@Component
+public class DunningPolicy {
+
+    private static final double JITTER = 0.1;
+
+    private final Duration initialDelay;
+    private final double multiplier;
+    private final Duration maxDelay;
+    private final int graceAttempts;
+    private final int maxAttempts;
+
+    public DunningPolicy(@Value("${dunning.initial-delay:1d}") Duration initialDelay,
+                         @Value("${dunning.multiplier:2}") double multiplier,
+                         @Value("${dunning.max-delay:7d}") Duration maxDelay,
+                         @Value("${dunning.grace-attempts:3}") int graceAttempts,
+                         @Value("${dunning.max-attempts:6}") int maxAttempts) {
+        this.initialDelay = initialDelay;
+        this.multiplier = multiplier;
+        this.maxDelay = maxDelay;
+        this.graceAttempts = graceAttempts;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Calcule l'échéance de la prochaine tentative
+     * @param failedAttempts Nombre de tentatives déjà refusées (0 pour l'échec initial)
+     * @param now Date de l'échec
+     * @return Date de la prochaine tentative
+     */
+    public OffsetDateTime nextAttemptAt(int failedAttempts, OffsetDateTime now) {
+        double delayMs = initialDelay.toMillis() * Math.pow(multiplier, failedAttempts);
+        delayMs = Math.min(delayMs, maxDelay.toMillis());
+        delayMs *= 1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+        return now.plus(Duration.ofMillis(Math.round(delayMs)));
+    }
+
+    /**
+     * @return true si l'abonnement doit être suspendu après ce nombre de tentatives refusées
+     */
+    public boolean shouldPause(int failedAttempts) {
+        return failedAttempts >= graceAttempts;
+    }
+
+    /**
+     * @return true si le cycle de relance est épuisé après ce nombre de tentatives refusées
+     */
+    public boolean isExhausted(int failedAttempts) {
+        return failedAttempts >= maxAttempts;
+    }
+}
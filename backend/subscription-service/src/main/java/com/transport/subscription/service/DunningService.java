@@ -0,0 +1,13 @@
+package com.transport.subscription.service;
+
+/**
+ * Service de relance des paiements échoués (dunning)
+ */
+public interface DunningService {
+
+    /**
+     * Tente à nouveau les paiements dont la relance est échue, par lots
+     * @return Nombre de relances traitées (recouvrées, refusées ou clôturées)
+     */
+    int processDueRetries();
+}
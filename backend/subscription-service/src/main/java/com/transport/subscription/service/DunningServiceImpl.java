@@ -0,0 +1,278 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.config.LogSamplingFilter;
+import com.transport.subscription.exception.InvalidSubscriptionException;
+import com.transport.subscription.exception.PaymentGatewayUnavailableException;
+import com.transport.subscription.model.PaymentMethod;
+import com.transport.subscription.model.PaymentRetry;
+import com.transport.subscription.model.PaymentRetryStatus;
+import com.transport.subscription.model.Subscription;
+import com.transport.subscription.model.SubscriptionStatus;
+import com.transport.subscription.repository.PaymentRetryRepository;
+import com.transport.subscription.repository.SubscriptionRepository;
+import com.transport.subscription.util.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Implémentation du service de relance des paiements échoués
+ * Les relances échues sont lues dans payment_retry (index partiel sur l'échéance), réservées une à une
+ * par un bail puis rejouées auprès de la passerelle par le pool de ce service, qui borne les appels simultanés.
+ * Une tentative interrompue par l'indisponibilité de la passerelle n'est pas comptée et réutilise sa clé
+ * d'idempotence au passage suivant : un débit ayant abouti malgré l'erreur n'est pas rejoué.
+ * L'issue d'une tentative est écrite par une mise à jour ciblée, conditionnée au bail : la relance lue
+ * dans le lot n'est jamais fusionnée telle quelle.
+ */
+@Service
+@Slf4j
+@Transactional
+public class DunningServiceImpl implements DunningService {
+
+    private final PaymentRetryRepository paymentRetryRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionService subscriptionService;
+    private final BillingService billingService;
+    private final PaymentGateway paymentGateway;
+    private final DunningPolicy dunningPolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final ExecutorService dunningExecutor;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration lease;
+    private final Duration unavailableDelay;
+
+    public DunningServiceImpl(PaymentRetryRepository paymentRetryRepository,
+                              SubscriptionRepository subscriptionRepository,
+                              SubscriptionService subscriptionService,
+                              BillingService billingService,
+                              PaymentGateway paymentGateway,
+                              DunningPolicy dunningPolicy,
+                              TransactionTemplate transactionTemplate,
+                              Clock clock,
+                              @Value("${dunning.concurrency:4}") int concurrency,
+                              @Value("${dunning.batch-size:100}") int batchSize,
+                              @Value("${dunning.max-batches-per-run:20}") int maxBatchesPerRun,
+                              @Value("${dunning.lease:10m}") Duration lease,
+                              @Value("${dunning.unavailable-delay:5m}") Duration unavailableDelay,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.paymentRetryRepository = paymentRetryRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.subscriptionService = subscriptionService;
+        this.billingService = billingService;
+        this.paymentGateway = paymentGateway;
+        this.dunningPolicy = dunningPolicy;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.lease = lease;
+        this.unavailableDelay = unavailableDelay;
+
+        this.dunningExecutor = Executors.newFixedThreadPool(concurrency, ThreadFactories.named("dunning", virtualThreads));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int processDueRetries() {
+        int processed = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            // Les relances réservées ou reportées ont une échéance future : elles sortent des lots suivants
+            List<PaymentRetry> due = paymentRetryRepository.findDue(OffsetDateTime.now(clock), PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                break;
+            }
+            processed += processBatch(due);
+            if (due.size() < batchSize) {
+                break;
+            }
+        }
+        return processed;
+    }
+
+    private int processBatch(List<PaymentRetry> due) {
+        List<Callable<Boolean>> tasks = new ArrayList<>(due.size());
+        for (PaymentRetry retry : due) {
+            tasks.add(() -> attempt(retry));
+        }
+
+        List<Future<Boolean>> futures;
+        try {
+            futures = dunningExecutor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Traitement des relances interrompu, reprise au prochain passage");
+            return 0;
+        }
+
+        int processed = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                if (futures.get(i).get()) {
+                    processed++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Traitement des relances interrompu, reprise au prochain passage");
+                break;
+            } catch (ExecutionException e) {
+                // La relance redevient éligible à l'expiration de son bail
+                log.error("Erreur inattendue lors de la relance {}", due.get(i).getRetryId(), e.getCause());
+            }
+        }
+        return processed;
+    }
+
+    /**
+     * Tente à nouveau un paiement échoué
+     * @return true si la relance a été traitée, false si elle a été prise par une autre instance ou reportée
+     */
+    private boolean attempt(PaymentRetry retry) {
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        // Précision de la base : la fin du bail est comparée telle quelle lors de l'enregistrement de l'issue
+        OffsetDateTime leaseUntil = now.plus(lease).truncatedTo(ChronoUnit.MICROS);
+        Integer claimed = transactionTemplate.execute(tx -> paymentRetryRepository.claim(
+                retry.getRetryId(), retry.getNextAttemptAt(), leaseUntil));
+        if (claimed == null || claimed == 0) {
+            return false;
+        }
+
+        Optional<Subscription> subscription = subscriptionRepository.findById(retry.getSubscriptionId());
+        if (subscription.isEmpty() || (subscription.get().getStatus() != SubscriptionStatus.ACTIVE
+                && subscription.get().getStatus() != SubscriptionStatus.PAUSED)) {
+            log.info("Relance {} clôturée: abonnement {} ni actif ni suspendu", retry.getRetryId(),
+                    retry.getSubscriptionId());
+            retry.setStatus(PaymentRetryStatus.CANCELLED);
+            release(retry, leaseUntil, now);
+            return true;
+        }
+
+        int attempt = retry.getAttemptCount() + 1;
+        String idempotencyKey = BillingServiceImpl.DUNNING_KEY_PREFIX + retry.getRetryId() + "-" + attempt;
+        String cardToken = subscription.get().getCardToken();
+
+        if (retry.getPaymentMethod() == PaymentMethod.CARD && (cardToken == null || cardToken.isBlank())) {
+            // Pas de carte enregistrée : la tentative est comptée, le client peut en ajouter une d'ici la suivante
+            recordDecline(retry, subscription.get(), attempt, idempotencyKey, "No card on file", now, leaseUntil);
+            return true;
+        }
+
+        PaymentGateway.PaymentResult result;
+        try {
+            result = paymentGateway.charge(new PaymentGateway.PaymentRequest(
+                    retry.getSubscriptionId(),
+                    subscription.get().getUserId(),
+                    retry.getAmount(),
+                    retry.getCurrency(),
+                    retry.getPaymentMethod(),
+                    cardToken,
+                    idempotencyKey
+            ));
+        } catch (PaymentGatewayUnavailableException e) {
+            log.debug("Relance {} reportée: {}", retry.getRetryId(), e.getMessage());
+            retry.setNextAttemptAt(now.plus(unavailableDelay));
+            release(retry, leaseUntil, now);
+            return false;
+        }
+
+        if (result.success()) {
+            recover(retry, result.externalTransactionId(), attempt, idempotencyKey, leaseUntil, now);
+        } else {
+            String failureReason = result.failureReason() != null
+                    ? result.failureReason()
+                    : "Payment declined by gateway";
+            recordDecline(retry, subscription.get(), attempt, idempotencyKey, failureReason, now, leaseUntil);
+        }
+        return true;
+    }
+
+    private void recover(PaymentRetry retry, String externalTxnId, int attempt, String idempotencyKey,
+                         OffsetDateTime leaseUntil, OffsetDateTime now) {
+        billingService.recordSuccessfulPayment(retry.getSubscriptionId(), retry.getAmount(), retry.getCurrency(),
+                externalTxnId, idempotencyKey, retry.getPaymentMethod());
+
+        retry.setAttemptCount(attempt);
+        retry.setStatus(PaymentRetryStatus.RECOVERED);
+        release(retry, leaseUntil, now);
+        log.info("✅ Paiement recouvré pour l'abonnement {} à la relance n°{}", retry.getSubscriptionId(), attempt);
+
+        if (retry.getSubscriptionPaused()) {
+            try {
+                subscriptionService.resumeSubscription(retry.getSubscriptionId());
+            } catch (InvalidSubscriptionException e) {
+                log.warn("Abonnement {} non réactivé après recouvrement: {}", retry.getSubscriptionId(), e.getMessage());
+            }
+        }
+    }
+
+    private void recordDecline(PaymentRetry retry, Subscription subscription, int attempt, String idempotencyKey,
+                               String failureReason, OffsetDateTime now, OffsetDateTime leaseUntil) {
+        // La clé peut déjà exister si le passage précédent a été interrompu après l'enregistrement de l'échec
+        if (billingService.findPaymentByIdempotencyKey(idempotencyKey).isEmpty()) {
+            billingService.recordFailedPayment(retry.getSubscriptionId(), retry.getAmount(), retry.getCurrency(),
+                    failureReason, idempotencyKey, retry.getPaymentMethod());
+        }
+
+        retry.setAttemptCount(attempt);
+        retry.setLastFailureReason(failureReason);
+        boolean exhausted = dunningPolicy.isExhausted(attempt);
+
+        if ((exhausted || dunningPolicy.shouldPause(attempt)) && !retry.getSubscriptionPaused()
+                && subscription.getStatus() == SubscriptionStatus.ACTIVE) {
+            try {
+                subscriptionService.pauseSubscription(retry.getSubscriptionId(),
+                        "Payment failed " + (attempt + 1) + " times: " + failureReason);
+                retry.setSubscriptionPaused(true);
+            } catch (InvalidSubscriptionException e) {
+                log.warn("Abonnement {} non suspendu: {}", retry.getSubscriptionId(), e.getMessage());
+            }
+        }
+
+        if (exhausted) {
+            retry.setStatus(PaymentRetryStatus.EXHAUSTED);
+            log.warn("❌ Relances épuisées pour l'abonnement {} après {} tentative(s)", retry.getSubscriptionId(), attempt);
+        } else {
+            retry.setNextAttemptAt(dunningPolicy.nextAttemptAt(attempt, now));
+            log.info(LogSamplingFilter.SAMPLED, "Relance n°{} refusée pour l'abonnement {}, prochaine tentative le {}",
+                    attempt, retry.getSubscriptionId(), retry.getNextAttemptAt());
+        }
+        release(retry, leaseUntil, now);
+    }
+
+    /**
+     * Enregistre l'issue portée par la relance lue dans le lot, si le bail est toujours détenu
+     */
+    private void release(PaymentRetry retry, OffsetDateTime leaseUntil, OffsetDateTime now) {
+        Integer released = transactionTemplate.execute(tx -> paymentRetryRepository.release(
+                retry.getRetryId(), leaseUntil, retry.getStatus(), retry.getAttemptCount(), retry.getNextAttemptAt(),
+                retry.getLastFailureReason(), retry.getSubscriptionPaused(), now));
+        if (released == null || released == 0) {
+            log.warn("⚠️ Issue de la relance {} non enregistrée: bail expiré, relance reprise par un autre passage",
+                    retry.getRetryId());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dunningExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,33 @@
+package com.transport.subscription.service;
+
+import java.time.LocalDate;
+
+/**
+ * Interface du service de réconciliation du grand livre des revenus
+ */
+public interface LedgerReconciliationService {
+
+    /**
+     * Vérifie les agrégats (abonnement et plan/jour) contre les paiements bruts sur une période
+     * @param from Premier jour vérifié (inclus)
+     * @param to Dernier jour vérifié (inclus)
+     * @param repair true pour corriger les cumuls par abonnement divergents
+     * @return Rapport de réconciliation
+     */
+    ReconciliationReport reconcile(LocalDate from, LocalDate to, boolean repair);
+
+    /**
+     * Résultat d'une réconciliation.
+     */
+    record ReconciliationReport(
+            LocalDate from,
+            LocalDate to,
+            int subscriptionMismatches,
+            int dailyMismatches,
+            int repaired
+    ) {
+        public boolean isConsistent() {
+            return subscriptionMismatches == 0 && dailyMismatches == 0;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.repository.PlanRevenueDailyRepository;
+import com.transport.subscription.repository.SubscriptionRevenueLedgerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Implémentation de la réconciliation du grand livre des revenus
+ * Les comparaisons sont faites en SQL ensembliste : seules les lignes divergentes remontent.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class LedgerReconciliationServiceImpl implements LedgerReconciliationService {
+
+    private final SubscriptionRevenueLedgerRepository revenueLedgerRepository;
+    private final PlanRevenueDailyRepository planRevenueDailyRepository;
+    private final Clock clock;
+
+    @Override
+    public ReconciliationReport reconcile(LocalDate from, LocalDate to, boolean repair) {
+        log.info("Réconciliation du grand livre du {} au {}", from, to);
+
+        ZoneId zone = clock.getZone();
+        OffsetDateTime fromTs = from.atStartOfDay(zone).toOffsetDateTime();
+        OffsetDateTime toTs = to.plusDays(1).atStartOfDay(zone).toOffsetDateTime();
+
+        List<SubscriptionRevenueLedgerRepository.LedgerMismatch> subscriptionMismatches =
+                revenueLedgerRepository.findMismatchesSince(fromTs);
+        int repaired = 0;
+        for (SubscriptionRevenueLedgerRepository.LedgerMismatch mismatch : subscriptionMismatches) {
+            log.warn("Écart grand livre pour l'abonnement {}: cumul={}, paiements={}",
+                    mismatch.getSubscriptionId(), mismatch.getLedgerTotal(), mismatch.getActualTotal());
+            if (repair) {
+                OffsetDateTime now = OffsetDateTime.now(clock);
+                revenueLedgerRepository.insertIfAbsent(mismatch.getSubscriptionId(), mismatch.getCurrency(), now);
+                repaired += revenueLedgerRepository.overwriteTotal(mismatch.getSubscriptionId(),
+                        mismatch.getActualTotal(), mismatch.getActualCount(), now);
+            }
+        }
+
+        List<PlanRevenueDailyRepository.DailyMismatch> dailyMismatches =
+                planRevenueDailyRepository.findDailyMismatches(from, to, fromTs, toTs, zone.getId());
+        for (PlanRevenueDailyRepository.DailyMismatch mismatch : dailyMismatches) {
+            log.warn("Écart de revenu journalier le {} ({}): agrégats={}, paiements={}",
+                    mismatch.getRevenueDate(), mismatch.getCurrency(),
+                    mismatch.getLedgerTotal(), mismatch.getActualTotal());
+        }
+
+        ReconciliationReport report = new ReconciliationReport(
+                from, to, subscriptionMismatches.size(), dailyMismatches.size(), repaired);
+        log.info("Réconciliation terminée: {} écart(s) abonnement, {} écart(s) journalier(s), {} corrigé(s)",
+                report.subscriptionMismatches(), report.dailyMismatches(), report.repaired());
+        return report;
+    }
+}
@@ -3,6 +3,7 @@ package com.transport.subscription.service;
 import com.transport.subscription.model.PaymentMethod;
 
 import java.math.BigDecimal;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -17,6 +18,13 @@ public interface PaymentGateway {
      */
     PaymentResult charge(PaymentRequest request);
 
+    /**
+     * Recherche le résultat d'un paiement déjà soumis, par sa clé d'idempotence.
+     * @param idempotencyKey clé d'idempotence du paiement
+     * @return résultat connu du fournisseur, ou Optional.empty() si aucun paiement n'a été reçu avec cette clé
+     */
+    Optional<PaymentResult> findCharge(String idempotencyKey);
+
     /**
      * Effectue un remboursement auprès du fournisseur externe.
      * @param externalTransactionId identifiant de transaction externe
@@ -25,6 +33,13 @@ public interface PaymentGateway {
      */
     RefundResult refund(String externalTransactionId, BigDecimal amount);
 
+    /**
+     * Recherche le remboursement accepté d'une transaction.
+     * @param externalTransactionId identifiant de transaction externe du paiement d'origine
+     * @return résultat du remboursement, ou Optional.empty() si la transaction n'a pas été remboursée
+     */
+    Optional<RefundResult> findRefund(String externalTransactionId);
+
     /**
      * Vérifie la signature d'un webhook provenant du fournisseur.
      * @param payload payload brut
@@ -19,9 +19,20 @@ public interface PaymentService {
     PaymentResponse processPayment(ProcessPaymentRequest request);
 
     /**
-     * Demande un remboursement pour un paiement.
+     * Soumet un paiement pour traitement asynchrone.
+     * Le paiement est enregistré au statut PENDING puis l'appel à la passerelle est effectué
+     * sur un pool dédié ; le statut se consulte ensuite via {@link #getPaymentById(UUID)}.
+     * Une requête rejouée avec la même clé d'idempotence retourne le paiement existant.
+     * @param request données de la requête de paiement
+     * @return paiement en attente (ou paiement existant pour la clé d'idempotence)
+     */
+    PaymentResponse submitPayment(ProcessPaymentRequest request);
+
+    /**
+     * Rembourse intégralement un paiement réussi auprès de la passerelle.
+     * Le paiement d'origine passe REFUNDED et une ligne de type REFUND trace l'opération.
      * @param paymentId identifiant du paiement
-     * @return paiement remboursé
+     * @return ligne de remboursement
      */
     PaymentResponse refundPayment(UUID paymentId);
 
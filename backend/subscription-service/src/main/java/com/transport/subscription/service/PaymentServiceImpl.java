@@ -4,17 +4,22 @@ import com.transport.subscription.dto.request.ProcessPaymentRequest;
 import com.transport.subscription.dto.response.PaymentResponse;
 import com.transport.subscription.exception.InvalidSubscriptionException;
 import com.transport.subscription.exception.PaymentFailedException;
+import com.transport.subscription.exception.PaymentGatewayUnavailableException;
 import com.transport.subscription.exception.SubscriptionNotFoundException;
 import com.transport.subscription.model.PaymentMethod;
 import com.transport.subscription.model.Subscription;
 import com.transport.subscription.repository.SubscriptionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Implémentation du service de paiement qui orchestre la passerelle et la facturation interne.
@@ -28,8 +33,10 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentGateway paymentGateway;
     private final BillingService billingService;
     private final SubscriptionRepository subscriptionRepository;
+    private final AsyncPaymentProcessor asyncPaymentProcessor;
 
     @Override
+    @Transactional(noRollbackFor = PaymentFailedException.class)
     public PaymentResponse processPayment(ProcessPaymentRequest request) {
         log.info("Traitement d'un paiement pour l'abonnement: {}", request.getSubscriptionId());
 
@@ -79,15 +86,99 @@ public class PaymentServiceImpl implements PaymentService {
                 request.getPaymentMethod()
         );
 
+        // Le paiement échoué (et sa relance planifiée) est validé malgré l'exception
         throw new PaymentFailedException(failureReason);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PaymentResponse submitPayment(ProcessPaymentRequest request) {
+        log.info("Soumission asynchrone d'un paiement pour l'abonnement: {}", request.getSubscriptionId());
+
+        Optional<PaymentResponse> existing = billingService.findPaymentByIdempotencyKey(request.getIdempotencyKey());
+        if (existing.isPresent()) {
+            log.warn("Paiement déjà soumis avec la clé d'idempotence: {}", request.getIdempotencyKey());
+            return existing.get();
+        }
+
+        Subscription subscription = subscriptionRepository.findById(request.getSubscriptionId())
+                .orElseThrow(() -> new SubscriptionNotFoundException(
+                        "Subscription not found with id: " + request.getSubscriptionId()));
+
+        if (request.getPaymentMethod() == PaymentMethod.CARD
+                && (request.getCardToken() == null || request.getCardToken().isBlank())) {
+            throw new InvalidSubscriptionException("Card token is required for card payments");
+        }
+
+        // Transaction courte : le paiement PENDING est visible avant l'appel à la passerelle
+        PaymentResponse pending;
+        try {
+            pending = billingService.recordPendingPayment(
+                    subscription.getSubscriptionId(),
+                    request.getAmount(),
+                    request.getCurrency(),
+                    request.getIdempotencyKey(),
+                    request.getPaymentMethod()
+            );
+        } catch (DataIntegrityViolationException e) {
+            // Soumission concurrente avec la même clé : la contrainte unique a tranché, l'autre requête l'a emporté
+            log.warn("Paiement soumis en parallèle avec la clé d'idempotence: {}", request.getIdempotencyKey());
+            return billingService.findPaymentByIdempotencyKey(request.getIdempotencyKey())
+                    .orElseThrow(() -> e);
+        }
+
+        PaymentGateway.PaymentRequest gatewayRequest = new PaymentGateway.PaymentRequest(
+                request.getSubscriptionId(),
+                subscription.getUserId(),
+                request.getAmount(),
+                request.getCurrency(),
+                request.getPaymentMethod(),
+                request.getCardToken(),
+                request.getIdempotencyKey()
+        );
+
+        try {
+            asyncPaymentProcessor.submit(pending.getPaymentId(), gatewayRequest);
+        } catch (RejectedExecutionException e) {
+            log.error("Pool de paiements saturé, paiement {} refusé", pending.getPaymentId());
+            billingService.failPendingPayment(pending.getPaymentId(), "Payment queue saturated");
+            throw e;
+        }
+
+        log.info("Paiement {} accepté pour traitement asynchrone", pending.getPaymentId());
+        return pending;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PaymentResponse refundPayment(UUID paymentId) {
-        log.warn("Demande de remboursement non implémentée pour le paiement: {}", paymentId);
-        // Vérifie que le paiement existe afin de retourner une erreur claire si nécessaire
-        billingService.getPaymentById(paymentId);
-        throw new UnsupportedOperationException("Refund processing is not implemented yet");
+        log.info("Remboursement du paiement: {}", paymentId);
+
+        PaymentResponse payment = billingService.getPaymentById(paymentId);
+        // Transaction courte : la ligne PENDING empêche un second remboursement concurrent du même paiement
+        PaymentResponse refund = billingService.claimRefund(paymentId);
+
+        PaymentGateway.RefundResult result;
+        try {
+            result = paymentGateway.refund(payment.getExternalTxnId(), payment.getAmount());
+        } catch (PaymentGatewayUnavailableException e) {
+            if (!e.isOutcomeUnknown()) {
+                billingService.failPendingPayment(refund.getPaymentId(), e.getMessage());
+            }
+            // Issue inconnue : le remboursement reste PENDING jusqu'à la réconciliation des remboursements en attente
+            throw e;
+        }
+
+        if (!result.success()) {
+            String failureReason = result.failureReason() != null
+                    ? result.failureReason()
+                    : "Refund declined by gateway";
+            billingService.failPendingPayment(refund.getPaymentId(), failureReason);
+            throw new PaymentFailedException(failureReason);
+        }
+
+        log.info("Remboursement accepté par la passerelle. Transaction externe: {}", result.externalTransactionId());
+        return billingService.completeRefund(refund.getPaymentId(), result.externalTransactionId());
     }
 
     @Override
@@ -0,0 +1,25 @@
+package com.transport.subscription.service;
+
+/**
+ * Interface du service de réception et d'application des webhooks de la passerelle de paiement
+ */
+public interface PaymentWebhookService {
+
+    /**
+     * Vérifie, déduplique et enregistre un webhook dans la file durable
+     * L'événement n'est pas appliqué ici : la réponse à la passerelle doit être immédiate
+     * @param payload Corps brut de la requête
+     * @param signature Signature fournie par la passerelle
+     * @return true si l'événement est nouveau, false s'il avait déjà été reçu
+     * @throws com.transport.subscription.exception.InvalidWebhookSignatureException si la signature est invalide
+     */
+    boolean receive(String payload, String signature);
+
+    /**
+     * Applique un lot d'événements en attente aux paiements
+     * Les événements sont regroupés par abonnement et appliqués dans l'ordre de réception,
+     * une transaction par abonnement
+     * @return Nombre d'événements traités (0 si la file est vide)
+     */
+    int applyPendingEvents();
+}
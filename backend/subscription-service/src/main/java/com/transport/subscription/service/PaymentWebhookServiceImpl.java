@@ -0,0 +1,255 @@
+package com.transport.subscription.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.transport.subscription.dto.response.PaymentResponse;
+import com.transport.subscription.exception.InvalidSubscriptionException;
+import com.transport.subscription.exception.InvalidWebhookSignatureException;
+import com.transport.subscription.model.PaymentWebhookEvent;
+import com.transport.subscription.model.WebhookEventStatus;
+import com.transport.subscription.repository.PaymentWebhookEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Implémentation du service des webhooks de paiement
+ * Déduplication à deux niveaux : un ensemble en mémoire borné (rafales de renvois) devant la clé
+ * primaire de payment_webhook_event (vérité durable, partagée entre instances).
+ * Un événement dont l'application échoue reste en file et est retenté jusqu'à payment.webhook.max-attempts.
+ */
+@Service
+@Slf4j
+@Transactional
+public class PaymentWebhookServiceImpl implements PaymentWebhookService {
+
+    static final String PAYMENT_SUCCEEDED = "payment.succeeded";
+    static final String PAYMENT_FAILED = "payment.failed";
+
+    private final PaymentGateway paymentGateway;
+    private final BillingService billingService;
+    private final PaymentWebhookEventRepository webhookEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Boolean> seenEventIds;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    public PaymentWebhookServiceImpl(PaymentGateway paymentGateway,
+                                     BillingService billingService,
+                                     PaymentWebhookEventRepository webhookEventRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     Clock clock,
+                                     ObjectMapper objectMapper,
+                                     @Value("${payment.webhook.seen-cache-spec:maximumSize=100000,expireAfterWrite=24h}")
+                                     String seenCacheSpec,
+                                     @Value("${payment.webhook.batch-size:200}") int batchSize,
+                                     @Value("${payment.webhook.max-attempts:5}") int maxAttempts) {
+        this.paymentGateway = paymentGateway;
+        this.billingService = billingService;
+        this.webhookEventRepository = webhookEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.objectMapper = objectMapper;
+        this.seenEventIds = Caffeine.from(seenCacheSpec).build();
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public boolean receive(String payload, String signature) {
+        if (signature == null || !paymentGateway.verifyWebhookSignature(payload, signature)) {
+            log.warn("Webhook rejeté: signature invalide");
+            throw new InvalidWebhookSignatureException("Invalid webhook signature");
+        }
+
+        JsonNode event = parse(payload);
+        String eventId = requiredText(event, "id");
+        if (seenEventIds.getIfPresent(eventId) != null) {
+            log.debug("Webhook {} déjà reçu (mémoire), ignoré", eventId);
+            return false;
+        }
+
+        JsonNode data = event.path("data");
+        String subscriptionId = optionalText(data, "subscriptionId");
+        int inserted = webhookEventRepository.insertIfAbsent(
+                eventId,
+                requiredText(event, "type"),
+                subscriptionId != null ? parseUuid(subscriptionId) : null,
+                optionalText(data, "idempotencyKey"),
+                optionalText(data, "externalTxnId"),
+                optionalText(data, "failureReason"),
+                payload,
+                OffsetDateTime.now(clock)
+        );
+
+        if (inserted == 0) {
+            log.debug("Webhook {} déjà reçu (base), ignoré", eventId);
+            seenEventIds.put(eventId, Boolean.TRUE);
+            return false;
+        }
+
+        // Mémorisé seulement une fois l'insertion validée, pour ne jamais écarter un renvoi non persisté
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    seenEventIds.put(eventId, Boolean.TRUE);
+                }
+            });
+        } else {
+            seenEventIds.put(eventId, Boolean.TRUE);
+        }
+        log.info("Webhook {} enregistré dans la file", eventId);
+        return true;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int applyPendingEvents() {
+        List<PaymentWebhookEvent> batch = webhookEventRepository.findBatchByStatus(
+                WebhookEventStatus.RECEIVED, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Regroupement par abonnement en conservant l'ordre de réception au sein de chaque groupe
+        Map<String, List<PaymentWebhookEvent>> bySubscription = new LinkedHashMap<>();
+        for (PaymentWebhookEvent event : batch) {
+            bySubscription.computeIfAbsent(groupKey(event), key -> new ArrayList<>()).add(event);
+        }
+
+        for (Map.Entry<String, List<PaymentWebhookEvent>> group : bySubscription.entrySet()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> group.getValue().forEach(this::apply));
+            } catch (RuntimeException e) {
+                log.warn("Erreur lors de l'application des webhooks du groupe {}, reprise événement par événement: {}",
+                        group.getKey(), e.getMessage());
+                applyOneByOne(group.getValue());
+            }
+        }
+
+        log.info("{} webhook(s) appliqué(s) pour {} groupe(s)", batch.size(), bySubscription.size());
+        return batch.size();
+    }
+
+    /**
+     * Rejoue un groupe en échec, un événement par transaction
+     * Seul l'événement en erreur est compté en échec ; les suivants restent en file sans tentative consommée,
+     * pour être appliqués après lui dans l'ordre de réception
+     */
+    private void applyOneByOne(List<PaymentWebhookEvent> events) {
+        for (PaymentWebhookEvent event : events) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(event));
+            } catch (RuntimeException e) {
+                recordFailedAttempt(event, e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remet l'événement en file, ou le marque FAILED une fois les tentatives épuisées
+     */
+    private void recordFailedAttempt(PaymentWebhookEvent event, RuntimeException e) {
+        int attempts = event.getAttempts() + 1;
+        boolean exhausted = attempts >= maxAttempts;
+        if (exhausted) {
+            log.error("Webhook {} en échec après {} tentative(s): {}", event.getEventId(), attempts, e.getMessage());
+        } else {
+            log.warn("Webhook {} en échec (tentative {}/{}), repris au prochain lot: {}",
+                    event.getEventId(), attempts, maxAttempts, e.getMessage());
+        }
+        WebhookEventStatus status = exhausted ? WebhookEventStatus.FAILED : WebhookEventStatus.RECEIVED;
+        OffsetDateTime processedAt = exhausted ? OffsetDateTime.now(clock) : null;
+        transactionTemplate.executeWithoutResult(tx -> webhookEventRepository.recordFailedAttempt(
+                event.getEventId(), attempts, status, e.getMessage(), processedAt));
+    }
+
+    /**
+     * Applique un événement dans la transaction courante (groupe ou événement seul)
+     */
+    private void apply(PaymentWebhookEvent event) {
+        WebhookEventStatus outcome = WebhookEventStatus.IGNORED;
+        String note = null;
+
+        if (!PAYMENT_SUCCEEDED.equals(event.getEventType()) && !PAYMENT_FAILED.equals(event.getEventType())) {
+            note = "Unsupported event type";
+        } else {
+            Optional<PaymentResponse> payment = event.getIdempotencyKey() != null
+                    ? billingService.findPaymentByIdempotencyKey(event.getIdempotencyKey())
+                    : Optional.empty();
+            if (payment.isEmpty()) {
+                note = "Unknown payment";
+            } else if (PAYMENT_SUCCEEDED.equals(event.getEventType())) {
+                billingService.completePendingPayment(payment.get().getPaymentId(), event.getExternalTxnId());
+                outcome = WebhookEventStatus.APPLIED;
+            } else {
+                String reason = event.getFailureReason() != null ? event.getFailureReason() : "Payment failed";
+                billingService.failPendingPayment(payment.get().getPaymentId(), reason);
+                outcome = WebhookEventStatus.APPLIED;
+            }
+        }
+
+        if (note != null) {
+            log.debug("Webhook {} ignoré: {}", event.getEventId(), note);
+        }
+        webhookEventRepository.markProcessed(List.of(event.getEventId()), outcome, note, OffsetDateTime.now(clock));
+    }
+
+    private String groupKey(PaymentWebhookEvent event) {
+        if (event.getSubscriptionId() != null) {
+            return event.getSubscriptionId().toString();
+        }
+        return event.getIdempotencyKey() != null ? event.getIdempotencyKey() : event.getEventId();
+    }
+
+    private JsonNode parse(String payload) {
+        try {
+            return objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            throw new InvalidSubscriptionException("Malformed webhook payload");
+        }
+    }
+
+    private String requiredText(JsonNode node, String field) {
+        String value = optionalText(node, field);
+        if (value == null) {
+            throw new InvalidSubscriptionException("Webhook field '" + field + "' is required");
+        }
+        return value;
+    }
+
+    private String optionalText(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() || value.asText().isBlank() ? null : value.asText();
+    }
+
+    private UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSubscriptionException("Invalid subscription id in webhook: " + value);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.transport.subscription.service;
+
+/**
+ * Interface du service de réconciliation des paiements et remboursements restés en attente
+ * Une ligne PENDING dont l'issue n'a jamais été enregistrée (erreur à l'enregistrement, arrêt brutal,
+ * issue inconnue, webhook perdu) est soldée d'après la passerelle une fois son délai de grâce écoulé.
+ */
+public interface PendingPaymentReconciliationService {
+
+    /**
+     * Solde les paiements en attente depuis plus que le délai configuré
+     * Le résultat connu de la passerelle (recherché par clé d'idempotence) est appliqué ; un paiement
+     * inconnu de la passerelle est marqué FAILED.
+     * @return Nombre de paiements soldés
+     */
+    int reconcileStalePayments();
+
+    /**
+     * Solde les remboursements en attente depuis plus que le délai configuré
+     * Un remboursement accepté par la passerelle est enregistré ; sinon la ligne passe FAILED,
+     * ce qui permet de retenter le remboursement.
+     * @return Nombre de remboursements soldés
+     */
+    int reconcileStaleRefunds();
+}
@@ -0,0 +1,132 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.dto.response.PaymentResponse;
+import com.transport.subscription.exception.PaymentGatewayUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Implémentation de la réconciliation des paiements restés en attente
+ * Aucune transaction n'est tenue pendant les appels à la passerelle ; chaque issue est enregistrée
+ * par une transition conditionnelle PENDING → SUCCEEDED/FAILED, sans effet si un webhook l'a précédée.
+ */
+@Service
+@Slf4j
+public class PendingPaymentReconciliationServiceImpl implements PendingPaymentReconciliationService {
+
+    static final String UNKNOWN_TO_GATEWAY = "Payment never reached the gateway";
+    static final String REFUND_UNKNOWN_TO_GATEWAY = "Refund not found at the gateway";
+
+    private final PaymentGateway paymentGateway;
+    private final BillingService billingService;
+    private final AsyncPaymentProcessor asyncPaymentProcessor;
+    private final Clock clock;
+    private final Duration pendingTtl;
+    private final int batchSize;
+
+    public PendingPaymentReconciliationServiceImpl(PaymentGateway paymentGateway,
+                                                   BillingService billingService,
+                                                   AsyncPaymentProcessor asyncPaymentProcessor,
+                                                   Clock clock,
+                                                   @Value("${payment.pending.ttl:30m}") Duration pendingTtl,
+                                                   @Value("${payment.pending.batch-size:100}") int batchSize) {
+        this.paymentGateway = paymentGateway;
+        this.billingService = billingService;
+        this.asyncPaymentProcessor = asyncPaymentProcessor;
+        this.clock = clock;
+        this.pendingTtl = pendingTtl;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public int reconcileStalePayments() {
+        OffsetDateTime before = OffsetDateTime.now(clock).minus(pendingTtl);
+        List<PaymentResponse> stale = billingService.findStalePendingPayments(before, batchSize);
+
+        int resolved = 0;
+        for (PaymentResponse payment : stale) {
+            if (asyncPaymentProcessor.isInFlight(payment.getPaymentId())) {
+                continue;
+            }
+            try {
+                reconcilePayment(payment);
+                resolved++;
+            } catch (PaymentGatewayUnavailableException e) {
+                log.warn("Passerelle indisponible, réconciliation des paiements en attente reportée: {}",
+                        e.getMessage());
+                break;
+            } catch (RuntimeException e) {
+                log.error("Erreur lors de la réconciliation du paiement {}: {}",
+                        payment.getPaymentId(), e.getMessage());
+            }
+        }
+        return resolved;
+    }
+
+    @Override
+    public int reconcileStaleRefunds() {
+        OffsetDateTime before = OffsetDateTime.now(clock).minus(pendingTtl);
+        List<PaymentResponse> stale = billingService.findStalePendingRefunds(before, batchSize);
+
+        int resolved = 0;
+        for (PaymentResponse refund : stale) {
+            try {
+                reconcileRefund(refund);
+                resolved++;
+            } catch (PaymentGatewayUnavailableException e) {
+                log.warn("Passerelle indisponible, réconciliation des remboursements en attente reportée: {}",
+                        e.getMessage());
+                break;
+            } catch (RuntimeException e) {
+                log.error("Erreur lors de la réconciliation du remboursement {}: {}",
+                        refund.getPaymentId(), e.getMessage());
+            }
+        }
+        return resolved;
+    }
+
+    private void reconcileRefund(PaymentResponse refund) {
+        UUID originalId = UUID.fromString(
+                refund.getIdempotencyKey().substring(BillingServiceImpl.REFUND_KEY_PREFIX.length()));
+        PaymentResponse original = billingService.getPaymentById(originalId);
+
+        Optional<PaymentGateway.RefundResult> result = paymentGateway.findRefund(original.getExternalTxnId());
+        if (result.isPresent() && result.get().success()) {
+            log.info("Remboursement {} accepté d'après la passerelle (transaction {})", refund.getPaymentId(),
+                    result.get().externalTransactionId());
+            billingService.completeRefund(refund.getPaymentId(), result.get().externalTransactionId());
+        } else {
+            log.warn("Remboursement {} inconnu de la passerelle, marqué en échec (nouvel essai possible)",
+                    refund.getPaymentId());
+            billingService.failPendingPayment(refund.getPaymentId(), REFUND_UNKNOWN_TO_GATEWAY);
+        }
+    }
+
+    private void reconcilePayment(PaymentResponse payment) {
+        Optional<PaymentGateway.PaymentResult> result = payment.getIdempotencyKey() != null
+                ? paymentGateway.findCharge(payment.getIdempotencyKey())
+                : Optional.empty();
+
+        if (result.isEmpty()) {
+            log.warn("Paiement {} inconnu de la passerelle, marqué en échec", payment.getPaymentId());
+            billingService.failPendingPayment(payment.getPaymentId(), UNKNOWN_TO_GATEWAY);
+        } else if (result.get().success()) {
+            log.info("Paiement {} accepté d'après la passerelle (transaction {})", payment.getPaymentId(),
+                    result.get().externalTransactionId());
+            billingService.completePendingPayment(payment.getPaymentId(), result.get().externalTransactionId());
+        } else {
+            String failureReason = result.get().failureReason() != null
+                    ? result.get().failureReason()
+                    : "Payment declined by gateway";
+            billingService.failPendingPayment(payment.getPaymentId(), failureReason);
+        }
+    }
+}
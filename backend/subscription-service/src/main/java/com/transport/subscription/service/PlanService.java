@@ -17,7 +17,7 @@ public interface PlanService {
     List<PlanResponse> getAllActivePlans();
 
     /**
-     * Récupère un plan par son ID
+     * Récupère un plan par son ID (mis en cache, voir CacheConfig.PLANS_CACHE)
      * @param planId ID du plan
      * @return Plan trouvé
      * @throws com.transport.subscription.exception.PlanNotFoundException si le plan n'existe pas
@@ -1,5 +1,6 @@
 package com.transport.subscription.service;
 
+import com.transport.subscription.config.CacheConfig;
 import com.transport.subscription.dto.mapper.PlanMapper;
 import com.transport.subscription.dto.response.PlanResponse;
 import com.transport.subscription.exception.PlanNotFoundException;
@@ -7,6 +8,7 @@ import com.transport.subscription.model.Plan;
 import com.transport.subscription.repository.PlanRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,6 +36,7 @@ public class PlanServiceImpl implements PlanService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.PLANS_CACHE)
     public PlanResponse getPlanById(UUID planId) {
         log.debug("Récupération du plan avec ID: {}", planId);
         Plan plan = planRepository.findById(planId)
@@ -0,0 +1,35 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.dto.response.PlanResponse;
+import com.transport.subscription.dto.response.SubscriptionResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Interface du service de lecture réactif (profil reactive-read)
+ * Lectures non bloquantes via R2DBC, aux réponses identiques à celles de SubscriptionService et PlanService.
+ */
+public interface ReactiveReadService {
+
+    /**
+     * Récupère un abonnement par son ID
+     * @param subscriptionId ID de l'abonnement
+     * @return L'abonnement, ou une erreur SubscriptionNotFoundException
+     */
+    Mono<SubscriptionResponse> getSubscriptionById(UUID subscriptionId);
+
+    /**
+     * Récupère les abonnements actifs d'un utilisateur
+     * @param userId ID de l'utilisateur
+     * @return Abonnements actifs
+     */
+    Flux<SubscriptionResponse> getActiveUserSubscriptions(UUID userId);
+
+    /**
+     * Récupère le catalogue des plans actifs
+     * @return Plans actifs
+     */
+    Flux<PlanResponse> getAllActivePlans();
+}
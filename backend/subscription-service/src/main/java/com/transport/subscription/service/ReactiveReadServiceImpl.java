@@ -0,0 +1,115 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.dto.mapper.SubscriptionMapper;
+import com.transport.subscription.dto.response.PlanResponse;
+import com.transport.subscription.dto.response.SubscriptionResponse;
+import com.transport.subscription.exception.SubscriptionNotFoundException;
+import com.transport.subscription.model.SubscriptionStatus;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Implémentation du service de lecture réactif
+ * Requêtes SQL directes (DatabaseClient) sur les tables de JPA : pas d'entités ni de contexte de persistance,
+ * le statut (type enum PostgreSQL) est lu en texte.
+ */
+@Service
+@Profile("reactive-read")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveReadServiceImpl implements ReactiveReadService {
+
+    private static final String SELECT_SUBSCRIPTION = """
+            SELECT s.subscription_id, s.user_id, s.plan_id, p.plan_code, CAST(s.status AS varchar(20)) AS status,
+                   s.start_date, s.end_date, s.next_billing_date, s.amount_paid, s.auto_renew_enabled,
+                   s.card_token, s.card_exp_month, s.card_exp_year, s.qr_code_data, s.created_at, s.updated_at
+            FROM subscription s
+            JOIN subscription_plan p ON p.plan_id = s.plan_id
+            """;
+
+    private static final String SELECT_ACTIVE_PLANS = """
+            SELECT plan_id, plan_code, description, duration_days, price, currency, is_active, created_at, updated_at
+            FROM subscription_plan
+            WHERE is_active = true
+            """;
+
+    private final DatabaseClient reactiveReadDatabaseClient;
+    private final SubscriptionMapper subscriptionMapper;
+
+    @Override
+    public Mono<SubscriptionResponse> getSubscriptionById(UUID subscriptionId) {
+        log.debug("Lecture réactive de l'abonnement avec ID: {}", subscriptionId);
+        return reactiveReadDatabaseClient.sql(SELECT_SUBSCRIPTION + "WHERE s.subscription_id = :subscriptionId")
+                .bind("subscriptionId", subscriptionId)
+                .map(this::toSubscriptionResponse)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new SubscriptionNotFoundException(
+                        "Subscription not found with id: " + subscriptionId)));
+    }
+
+    @Override
+    public Flux<SubscriptionResponse> getActiveUserSubscriptions(UUID userId) {
+        log.debug("Lecture réactive des abonnements actifs de l'utilisateur: {}", userId);
+        return reactiveReadDatabaseClient.sql(SELECT_SUBSCRIPTION + "WHERE s.user_id = :userId AND s.status = 'ACTIVE'")
+                .bind("userId", userId)
+                .map(this::toSubscriptionResponse)
+                .all();
+    }
+
+    @Override
+    public Flux<PlanResponse> getAllActivePlans() {
+        log.debug("Lecture réactive des plans actifs");
+        return reactiveReadDatabaseClient.sql(SELECT_ACTIVE_PLANS)
+                .map(ReactiveReadServiceImpl::toPlanResponse)
+                .all();
+    }
+
+    /**
+     * Construit la réponse d'un abonnement (mêmes règles que SubscriptionMapper, carte masquée)
+     */
+    SubscriptionResponse toSubscriptionResponse(Readable row) {
+        return SubscriptionResponse.builder()
+                .subscriptionId(row.get("subscription_id", UUID.class))
+                .userId(row.get("user_id", UUID.class))
+                .planId(row.get("plan_id", UUID.class))
+                .planCode(row.get("plan_code", String.class))
+                .status(SubscriptionStatus.valueOf(row.get("status", String.class)))
+                .startDate(row.get("start_date", LocalDate.class))
+                .endDate(row.get("end_date", LocalDate.class))
+                .nextBillingDate(row.get("next_billing_date", LocalDate.class))
+                .amountPaid(row.get("amount_paid", BigDecimal.class))
+                .autoRenewEnabled(row.get("auto_renew_enabled", Boolean.class))
+                .cardLastFour(subscriptionMapper.extractCardLastFour(row.get("card_token", String.class)))
+                .cardExpMonth(row.get("card_exp_month", Integer.class))
+                .cardExpYear(row.get("card_exp_year", Integer.class))
+                .qrCodeData(row.get("qr_code_data", String.class))
+                .createdAt(row.get("created_at", OffsetDateTime.class))
+                .updatedAt(row.get("updated_at", OffsetDateTime.class))
+                .build();
+    }
+
+    static PlanResponse toPlanResponse(Readable row) {
+        return PlanResponse.builder()
+                .planId(row.get("plan_id", UUID.class))
+                .planCode(row.get("plan_code", String.class))
+                .description(row.get("description", String.class))
+                .durationDays(row.get("duration_days", Integer.class))
+                .price(row.get("price", BigDecimal.class))
+                .currency(row.get("currency", String.class))
+                .isActive(row.get("is_active", Boolean.class))
+                .createdAt(row.get("created_at", OffsetDateTime.class))
+                .updatedAt(row.get("updated_at", OffsetDateTime.class))
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.dto.request.RefundBatchRequest;
+import com.transport.subscription.dto.response.RefundBatchResponse;
+
+import java.util.UUID;
+
+/**
+ * Interface du service de remboursement en masse
+ */
+public interface RefundBatchService {
+
+    /**
+     * Crée un lot de remboursements : les paiements réussis correspondant au filtre sont figés
+     * dans le lot, puis remboursés en arrière-plan par RefundBatchScheduler
+     * @param request Filtre (plan, période, abonnements)
+     * @return Lot créé
+     */
+    RefundBatchResponse submitBatch(RefundBatchRequest request);
+
+    /**
+     * Retourne un lot et son avancement
+     * @param batchId ID du lot
+     * @return Lot et compteurs par statut
+     */
+    RefundBatchResponse getBatch(UUID batchId);
+
+    /**
+     * Annule un lot en cours (les paiements déjà remboursés le restent)
+     * @param batchId ID du lot
+     * @return Lot annulé
+     */
+    RefundBatchResponse cancelBatch(UUID batchId);
+
+    /**
+     * Traite la tranche suivante du plus ancien lot en cours
+     * @return Nombre de paiements traités (0 si aucun lot en cours)
+     */
+    int processNextChunk();
+}
@@ -0,0 +1,304 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.dto.request.RefundBatchRequest;
+import com.transport.subscription.dto.response.RefundBatchResponse;
+import com.transport.subscription.exception.InvalidSubscriptionException;
+import com.transport.subscription.exception.PaymentFailedException;
+import com.transport.subscription.exception.PaymentGatewayUnavailableException;
+import com.transport.subscription.exception.SubscriptionNotFoundException;
+import com.transport.subscription.model.PaymentStatus;
+import com.transport.subscription.model.PaymentType;
+import com.transport.subscription.model.RefundBatch;
+import com.transport.subscription.model.RefundBatchItem;
+import com.transport.subscription.model.RefundBatchStatus;
+import com.transport.subscription.model.RefundItemStatus;
+import com.transport.subscription.repository.BillingHistoryRepository;
+import com.transport.subscription.repository.RefundBatchItemRepository;
+import com.transport.subscription.repository.RefundBatchRepository;
+import com.transport.subscription.util.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Implémentation du service de remboursement en masse
+ * Les paiements ciblés sont figés à la soumission (refund_batch_item) ; chaque remboursement met à jour
+ * immédiatement le statut de son élément, ce qui permet de reprendre un lot interrompu là où il s'était arrêté.
+ * Le nombre d'appels simultanés à la passerelle est borné par le pool de ce service.
+ */
+@Service
+@Slf4j
+@Transactional
+public class RefundBatchServiceImpl implements RefundBatchService {
+
+    private static final int MATERIALIZE_PAGE_SIZE = 1000;
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final RefundBatchRepository refundBatchRepository;
+    private final RefundBatchItemRepository refundBatchItemRepository;
+    private final BillingHistoryRepository billingHistoryRepository;
+    private final PlanService planService;
+    private final PaymentService paymentService;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final ExecutorService refundExecutor;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public RefundBatchServiceImpl(RefundBatchRepository refundBatchRepository,
+                                  RefundBatchItemRepository refundBatchItemRepository,
+                                  BillingHistoryRepository billingHistoryRepository,
+                                  PlanService planService,
+                                  PaymentService paymentService,
+                                  TransactionTemplate transactionTemplate,
+                                  Clock clock,
+                                  @Value("${refund.batch.concurrency:8}") int concurrency,
+                                  @Value("${refund.batch.chunk-size:200}") int chunkSize,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.refundBatchRepository = refundBatchRepository;
+        this.refundBatchItemRepository = refundBatchItemRepository;
+        this.billingHistoryRepository = billingHistoryRepository;
+        this.planService = planService;
+        this.paymentService = paymentService;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.chunkSize = chunkSize;
+
+        this.refundExecutor = Executors.newFixedThreadPool(concurrency, ThreadFactories.named("refund-batch", virtualThreads));
+    }
+
+    @Override
+    public RefundBatchResponse submitBatch(RefundBatchRequest request) {
+        log.info("Soumission d'un lot de remboursements du {} au {} (plan: {})",
+                request.getFrom(), request.getTo(), request.getPlanId());
+
+        if (request.getFrom().isAfter(request.getTo())) {
+            throw new InvalidSubscriptionException("Start date must be before end date");
+        }
+        if (request.getPlanId() != null) {
+            planService.getPlanById(request.getPlanId());
+        }
+        List<UUID> subscriptionIds = request.getSubscriptionIds() != null ? request.getSubscriptionIds() : List.of();
+
+        RefundBatch batch = refundBatchRepository.save(RefundBatch.builder()
+                .planId(request.getPlanId())
+                .fromDate(request.getFrom())
+                .toDate(request.getTo())
+                .subscriptionIds(subscriptionIds.isEmpty() ? null : subscriptionIds.stream()
+                        .map(UUID::toString)
+                        .collect(Collectors.joining(",")))
+                .reason(request.getReason())
+                .build());
+
+        int total = materializeItems(batch.getBatchId(), request, subscriptionIds);
+
+        batch.setTotalCount(total);
+        if (total == 0) {
+            batch.setStatus(RefundBatchStatus.COMPLETED);
+            batch.setCompletedAt(OffsetDateTime.now(clock));
+        }
+        batch = refundBatchRepository.save(batch);
+
+        log.info("Lot de remboursements {} créé: {} paiement(s) à rembourser", batch.getBatchId(), total);
+        return toResponse(batch, Map.of(RefundItemStatus.PENDING, (long) total));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RefundBatchResponse getBatch(UUID batchId) {
+        RefundBatch batch = findBatch(batchId);
+        return toResponse(batch, countItems(batchId));
+    }
+
+    @Override
+    public RefundBatchResponse cancelBatch(UUID batchId) {
+        log.info("Annulation du lot de remboursements: {}", batchId);
+
+        RefundBatch batch = findBatch(batchId);
+        if (batch.getStatus() != RefundBatchStatus.RUNNING) {
+            throw new InvalidSubscriptionException("Refund batch is not running (status: " + batch.getStatus() + ")");
+        }
+        batch.setStatus(RefundBatchStatus.CANCELLED);
+        batch.setCompletedAt(OffsetDateTime.now(clock));
+        batch = refundBatchRepository.save(batch);
+        return toResponse(batch, countItems(batchId));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int processNextChunk() {
+        Optional<RefundBatch> running = refundBatchRepository.findFirstByStatusOrderByCreatedAtAsc(RefundBatchStatus.RUNNING);
+        if (running.isEmpty()) {
+            return 0;
+        }
+        UUID batchId = running.get().getBatchId();
+
+        List<UUID> paymentIds = refundBatchItemRepository.findPaymentIdsByStatus(
+                batchId, RefundItemStatus.PENDING, PageRequest.of(0, chunkSize));
+        if (paymentIds.isEmpty()) {
+            completeBatch(batchId);
+            return 0;
+        }
+
+        List<Callable<Boolean>> tasks = new ArrayList<>(paymentIds.size());
+        for (UUID paymentId : paymentIds) {
+            tasks.add(() -> refundItem(batchId, paymentId));
+        }
+
+        int processed = 0;
+        try {
+            for (Future<Boolean> future : refundExecutor.invokeAll(tasks)) {
+                if (future.get()) {
+                    processed++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Traitement du lot {} interrompu, reprise au prochain passage", batchId);
+        } catch (ExecutionException e) {
+            log.error("Erreur inattendue lors du traitement du lot {}", batchId, e.getCause());
+        }
+
+        log.info("Lot {}: {} remboursement(s) traité(s) sur {} dans cette tranche", batchId, processed, paymentIds.size());
+        return processed;
+    }
+
+    /**
+     * Rembourse un paiement et enregistre immédiatement l'issue (point de reprise)
+     * @return true si l'élément a été traité, false s'il reste à retenter (passerelle indisponible)
+     */
+    private boolean refundItem(UUID batchId, UUID paymentId) {
+        try {
+            paymentService.refundPayment(paymentId);
+            recordItem(batchId, paymentId, RefundItemStatus.REFUNDED, null);
+        } catch (InvalidSubscriptionException e) {
+            recordItem(batchId, paymentId, RefundItemStatus.SKIPPED, e.getMessage());
+        } catch (PaymentGatewayUnavailableException e) {
+            if (!e.isOutcomeUnknown()) {
+                // Circuit ouvert ou passerelle saturée : l'élément reste PENDING et sera retenté
+                log.debug("Remboursement du paiement {} reporté: {}", paymentId, e.getMessage());
+                return false;
+            }
+            recordItem(batchId, paymentId, RefundItemStatus.FAILED, "Outcome unknown: " + e.getMessage());
+        } catch (PaymentFailedException | SubscriptionNotFoundException e) {
+            recordItem(batchId, paymentId, RefundItemStatus.FAILED, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Erreur lors du remboursement du paiement {} (lot {})", paymentId, batchId, e);
+            recordItem(batchId, paymentId, RefundItemStatus.FAILED, e.getMessage());
+        }
+        return true;
+    }
+
+    private void recordItem(UUID batchId, UUID paymentId, RefundItemStatus status, String failureReason) {
+        transactionTemplate.executeWithoutResult(tx -> refundBatchItemRepository.updateStatus(
+                batchId, paymentId, status, failureReason, OffsetDateTime.now(clock)));
+    }
+
+    private void completeBatch(UUID batchId) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            RefundBatch batch = findBatch(batchId);
+            if (batch.getStatus() == RefundBatchStatus.RUNNING) {
+                batch.setStatus(RefundBatchStatus.COMPLETED);
+                batch.setCompletedAt(OffsetDateTime.now(clock));
+                refundBatchRepository.save(batch);
+                log.info("✅ Lot de remboursements {} terminé", batchId);
+            }
+        });
+    }
+
+    /**
+     * Fige les paiements ciblés dans le lot, par pages ordonnées sur l'ID
+     * @return Nombre de paiements ajoutés au lot
+     */
+    private int materializeItems(UUID batchId, RefundBatchRequest request, List<UUID> subscriptionIds) {
+        ZoneId zone = clock.getZone();
+        OffsetDateTime fromTs = request.getFrom().atStartOfDay(zone).toOffsetDateTime();
+        OffsetDateTime toTs = request.getTo().plusDays(1).atStartOfDay(zone).toOffsetDateTime();
+
+        int total = 0;
+        UUID afterId = MIN_UUID;
+        List<UUID> page;
+        do {
+            PageRequest pageRequest = PageRequest.of(0, MATERIALIZE_PAGE_SIZE);
+            page = subscriptionIds.isEmpty()
+                    ? billingHistoryRepository.findRefundCandidates(PaymentStatus.SUCCEEDED, PaymentType.REFUND,
+                            fromTs, toTs, request.getPlanId(), afterId, pageRequest)
+                    : billingHistoryRepository.findRefundCandidatesForSubscriptions(PaymentStatus.SUCCEEDED,
+                            PaymentType.REFUND, fromTs, toTs, request.getPlanId(), subscriptionIds, afterId, pageRequest);
+
+            for (UUID paymentId : page) {
+                entityManager.persist(RefundBatchItem.builder()
+                        .id(new RefundBatchItem.Key(batchId, paymentId))
+                        .build());
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            total += page.size();
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1);
+            }
+        } while (page.size() == MATERIALIZE_PAGE_SIZE);
+        return total;
+    }
+
+    private Map<RefundItemStatus, Long> countItems(UUID batchId) {
+        Map<RefundItemStatus, Long> counts = new EnumMap<>(RefundItemStatus.class);
+        refundBatchItemRepository.countByStatus(batchId)
+                .forEach(count -> counts.put(count.getStatus(), count.getCount()));
+        return counts;
+    }
+
+    private RefundBatch findBatch(UUID batchId) {
+        return refundBatchRepository.findById(batchId)
+                .orElseThrow(() -> new SubscriptionNotFoundException("Refund batch not found with id: " + batchId));
+    }
+
+    private RefundBatchResponse toResponse(RefundBatch batch, Map<RefundItemStatus, Long> counts) {
+        return RefundBatchResponse.builder()
+                .batchId(batch.getBatchId())
+                .status(batch.getStatus())
+                .planId(batch.getPlanId())
+                .from(batch.getFromDate())
+                .to(batch.getToDate())
+                .reason(batch.getReason())
+                .total(batch.getTotalCount())
+                .pending(counts.getOrDefault(RefundItemStatus.PENDING, 0L))
+                .refunded(counts.getOrDefault(RefundItemStatus.REFUNDED, 0L))
+                .failed(counts.getOrDefault(RefundItemStatus.FAILED, 0L))
+                .skipped(counts.getOrDefault(RefundItemStatus.SKIPPED, 0L))
+                .createdAt(batch.getCreatedAt())
+                .completedAt(batch.getCompletedAt())
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refundExecutor.shutdownNow();
+    }
+}
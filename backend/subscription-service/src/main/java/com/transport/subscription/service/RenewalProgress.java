@@ -0,0 +1,172 @@
+package com.transport.subscription.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Avancement des traitements quotidiens de renouvellement et d'expiration (endpoint actuator "renewals")
+ * La boucle du traitement incrémente des compteurs atomiques ; les lectures calculent débit et fin estimée
+ * à la demande, sans verrou ni ralentissement du lot. Les dernières exécutions terminées sont conservées.
+ * Les horodatages sont ceux de l'horloge système (durée réelle), pas de l'horloge métier.
+ */
+@Component
+public class RenewalProgress {
+
+    /**
+     * Traitement suivi
+     */
+    public enum Job {
+        RENEWAL,
+        EXPIRATION
+    }
+
+    /**
+     * Photo d'une exécution
+     * @param job Traitement
+     * @param day Jour traité
+     * @param running true si l'exécution est en cours
+     * @param startedAt Début de l'exécution
+     * @param finishedAt Fin de l'exécution (null si en cours)
+     * @param due Abonnements à traiter
+     * @param processed Abonnements traités, échecs compris
+     * @param failed Abonnements en échec
+     * @param elapsedMillis Durée écoulée
+     * @param rowsPerSecond Débit moyen depuis le début
+     * @param etaSeconds Temps restant estimé au débit moyen (null si terminé ou aucun abonnement traité)
+     * @param estimatedCompletion Fin estimée (null si terminé ou aucun abonnement traité)
+     */
+    public record Snapshot(Job job, LocalDate day, boolean running, Instant startedAt, Instant finishedAt,
+                           int due, int processed, int failed, long elapsedMillis, double rowsPerSecond,
+                           Long etaSeconds, Instant estimatedCompletion) {
+    }
+
+    /**
+     * Exécutions en cours et dernières exécutions terminées (la plus récente en premier)
+     */
+    public record Report(List<Snapshot> running, List<Snapshot> history) {
+    }
+
+    private final Map<Job, AtomicReference<Run>> current = new EnumMap<>(Job.class);
+    private final ConcurrentLinkedDeque<Snapshot> history = new ConcurrentLinkedDeque<>();
+    private final int historySize;
+    private final Clock wallClock;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public RenewalProgress(@Value("${subscription.renewal.progress-history:20}") int historySize) {
+        this(historySize, Clock.systemUTC(), System::nanoTime);
+    }
+
+    RenewalProgress(int historySize, Clock wallClock, LongSupplier nanoClock) {
+        this.historySize = historySize;
+        this.wallClock = wallClock;
+        this.nanoClock = nanoClock;
+        for (Job job : Job.values()) {
+            current.put(job, new AtomicReference<>());
+        }
+    }
+
+    /**
+     * Démarre le suivi d'une exécution ; elle remplace l'exécution en cours du même traitement
+     * @param job Traitement
+     * @param day Jour traité
+     * @param due Abonnements à traiter
+     * @return Exécution dont la boucle incrémente les compteurs
+     */
+    public Run start(Job job, LocalDate day, int due) {
+        Run run = new Run(job, day, due, wallClock.instant(), nanoClock.getAsLong());
+        current.get(job).set(run);
+        return run;
+    }
+
+    /**
+     * Termine une exécution et l'ajoute à l'historique
+     */
+    public void finish(Run run) {
+        run.finishedNanos = nanoClock.getAsLong();
+        current.get(run.job).compareAndSet(run, null);
+        history.addFirst(snapshot(run));
+        while (history.size() > historySize) {
+            history.pollLast();
+        }
+    }
+
+    /**
+     * @return Exécutions en cours et historique
+     */
+    public Report report() {
+        List<Snapshot> running = new ArrayList<>();
+        for (AtomicReference<Run> reference : current.values()) {
+            Run run = reference.get();
+            if (run != null) {
+                running.add(snapshot(run));
+            }
+        }
+        return new Report(List.copyOf(running), List.copyOf(history));
+    }
+
+    private Snapshot snapshot(Run run) {
+        long finishedNanos = run.finishedNanos;
+        boolean running = finishedNanos == Run.RUNNING;
+        long elapsedNanos = (running ? nanoClock.getAsLong() : finishedNanos) - run.startNanos;
+        int processed = run.processed.get();
+        double rowsPerSecond = elapsedNanos <= 0 ? 0 : processed / (elapsedNanos / 1_000_000_000.0);
+
+        Long etaSeconds = null;
+        Instant estimatedCompletion = null;
+        if (running && rowsPerSecond > 0) {
+            etaSeconds = Math.round(Math.max(0, run.due - processed) / rowsPerSecond);
+            estimatedCompletion = wallClock.instant().plusSeconds(etaSeconds);
+        }
+        Instant finishedAt = running ? null : run.startedAt.plusNanos(elapsedNanos);
+        return new Snapshot(run.job, run.day, running, run.startedAt, finishedAt, run.due, processed,
+                run.failed.get(), elapsedNanos / 1_000_000, rowsPerSecond, etaSeconds, estimatedCompletion);
+    }
+
+    /**
+     * Exécution en cours : compteurs incrémentés par la boucle du traitement
+     */
+    public static final class Run {
+
+        private static final long RUNNING = Long.MIN_VALUE;
+
+        private final Job job;
+        private final LocalDate day;
+        private final int due;
+        private final Instant startedAt;
+        private final long startNanos;
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private volatile long finishedNanos = RUNNING;
+
+        private Run(Job job, LocalDate day, int due, Instant startedAt, long startNanos) {
+            this.job = job;
+            this.day = day;
+            this.due = due;
+            this.startedAt = startedAt;
+            this.startNanos = startNanos;
+        }
+
+        public void succeeded() {
+            processed.incrementAndGet();
+        }
+
+        public void failed() {
+            processed.incrementAndGet();
+            failed.incrementAndGet();
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.transport.subscription.service;
 
+import com.transport.subscription.config.LogSamplingFilter;
 import com.transport.subscription.dto.request.RenewSubscriptionRequest;
+import com.transport.subscription.jfr.RenewalChunkEvent;
+import com.transport.subscription.jfr.RenewalEvent;
 import com.transport.subscription.model.Subscription;
 import com.transport.subscription.model.SubscriptionStatus;
 import com.transport.subscription.repository.SubscriptionRepository;
 import com.transport.subscription.util.DateCalculator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -17,6 +22,12 @@ import java.util.stream.Collectors;
 
 /**
  * Implémentation du service pour la gestion du renouvellement automatique
+ * Les traitements par lot ne sont pas transactionnels : chaque abonnement est traité dans sa propre
+ * transaction (via SubscriptionService), ce qui permet de rejouer un conflit de version sans
+ * invalider le reste du lot.
+ * Chaque abonnement traité et chaque tranche de subscription.renewal.jfr-chunk-size abonnements émettent un événement JFR
+ * ({@link RenewalEvent}, {@link RenewalChunkEvent}), enregistré uniquement si une capture JFR est active.
+ * L'avancement de chaque exécution est suivi par {@link RenewalProgress} (endpoint actuator "renewals").
  */
 @Service
 @RequiredArgsConstructor
@@ -27,8 +38,13 @@ public class RenewalServiceImpl implements RenewalService {
     private final SubscriptionRepository subscriptionRepository;
     private final SubscriptionService subscriptionService;
     private final DateCalculator dateCalculator;
+    private final RenewalProgress renewalProgress;
+
+    @Value("${subscription.renewal.jfr-chunk-size:500}")
+    private int chunkSize;
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public int processAutomaticRenewals(LocalDate today) {
         log.info("Traitement des renouvellements automatiques pour la date: {}", today);
 
@@ -36,30 +52,45 @@ public class RenewalServiceImpl implements RenewalService {
         List<Subscription> subscriptionsToRenew = subscriptionRepository
                 .findByStatusAndAutoRenewEnabled(SubscriptionStatus.ACTIVE, true);
 
+        // Ne garder que ceux dont la date de facturation est atteinte ou dépassée
+        List<Subscription> dueSubscriptions = subscriptionsToRenew.stream()
+                .filter(subscription -> subscription.getNextBillingDate() != null &&
+                        !subscription.getNextBillingDate().isAfter(today))
+                .toList();
+
         int renewedCount = 0;
+        RenewalProgress.Run run = renewalProgress.start(RenewalProgress.Job.RENEWAL, today, dueSubscriptions.size());
+        RenewalChunkEvent chunk = RenewalChunkEvent.first(RenewalChunkEvent.RENEWAL, today, chunkSize);
 
-        for (Subscription subscription : subscriptionsToRenew) {
-            // Vérifier si la date de facturation est atteinte ou dépassée
-            if (subscription.getNextBillingDate() != null &&
-                !subscription.getNextBillingDate().isAfter(today)) {
-                
+        try {
+            for (Subscription subscription : dueSubscriptions) {
+                RenewalEvent event = RenewalEvent.start(RenewalChunkEvent.RENEWAL);
                 try {
-                    log.info("Renouvellement automatique de l'abonnement: {}", 
+                    log.info(LogSamplingFilter.SAMPLED, "Renouvellement automatique de l'abonnement: {}",
                             subscription.getSubscriptionId());
-                    
+
                     // Renouveler l'abonnement (sans changer de plan)
                     subscriptionService.renewSubscription(
                             subscription.getSubscriptionId(),
                             RenewSubscriptionRequest.builder()
                                     .build() // Pas de nouveau plan, utilise le plan actuel
                     );
-                    
+
                     renewedCount++;
+                    event.finish(subscription.getSubscriptionId(), null);
+                    chunk = chunk.record(true);
+                    run.succeeded();
                 } catch (Exception e) {
-                    log.error("Erreur lors du renouvellement automatique de l'abonnement: {}", 
+                    event.finish(subscription.getSubscriptionId(), e);
+                    chunk = chunk.record(false);
+                    run.failed();
+                    log.error("Erreur lors du renouvellement automatique de l'abonnement: {}",
                             subscription.getSubscriptionId(), e);
                 }
             }
+        } finally {
+            chunk.close();
+            renewalProgress.finish(run);
         }
 
         log.info("{} abonnements renouvelés automatiquement", renewedCount);
@@ -67,6 +98,7 @@ public class RenewalServiceImpl implements RenewalService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public int expireSubscriptions(LocalDate today) {
         log.info("Expiration des abonnements pour la date: {}", today);
 
@@ -75,16 +107,32 @@ public class RenewalServiceImpl implements RenewalService {
                 .findExpiredSubscriptions(SubscriptionStatus.ACTIVE, today);
 
         int expiredCount = 0;
+        RenewalProgress.Run run = renewalProgress.start(RenewalProgress.Job.EXPIRATION, today,
+                expiredSubscriptions.size());
+        RenewalChunkEvent chunk = RenewalChunkEvent.first(RenewalChunkEvent.EXPIRATION, today, chunkSize);
 
-        for (Subscription subscription : expiredSubscriptions) {
-            try {
-                log.info("Expiration de l'abonnement: {}", subscription.getSubscriptionId());
-                subscriptionService.expireSubscription(subscription.getSubscriptionId());
-                expiredCount++;
-            } catch (Exception e) {
-                log.error("Erreur lors de l'expiration de l'abonnement: {}", 
-                        subscription.getSubscriptionId(), e);
+        try {
+            for (Subscription subscription : expiredSubscriptions) {
+                RenewalEvent event = RenewalEvent.start(RenewalChunkEvent.EXPIRATION);
+                try {
+                    log.info(LogSamplingFilter.SAMPLED, "Expiration de l'abonnement: {}",
+                            subscription.getSubscriptionId());
+                    subscriptionService.expireSubscription(subscription.getSubscriptionId());
+                    expiredCount++;
+                    event.finish(subscription.getSubscriptionId(), null);
+                    chunk = chunk.record(true);
+                    run.succeeded();
+                } catch (Exception e) {
+                    event.finish(subscription.getSubscriptionId(), e);
+                    chunk = chunk.record(false);
+                    run.failed();
+                    log.error("Erreur lors de l'expiration de l'abonnement: {}",
+                            subscription.getSubscriptionId(), e);
+                }
             }
+        } finally {
+            chunk.close();
+            renewalProgress.finish(run);
         }
 
         log.info("{} abonnements expirés", expiredCount);
@@ -0,0 +1,62 @@
+package com.transport.subscription.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Interface du service de réconciliation des fichiers de règlement de l'acquéreur
+ * Format attendu (CSV UTF-8, une transaction par ligne, en-tête facultatif) :
+ * {@code external_txn_id,amount[,colonnes ignorées]} ; montant décimal à 2 décimales max, négatif pour un remboursement.
+ */
+public interface SettlementReconciliationService {
+
+    /**
+     * Réconcilie le fichier de règlement d'une journée déposé dans le répertoire d'entrée
+     * Les rapports sont écrits dans le répertoire de sortie configuré.
+     * @param settlementDate Journée réglée
+     * @return Synthèse de la réconciliation
+     * @throws com.transport.subscription.exception.InvalidSubscriptionException si le fichier est absent
+     * @throws IOException en cas d'erreur de lecture ou d'écriture
+     */
+    SettlementReport reconcile(LocalDate settlementDate) throws IOException;
+
+    /**
+     * Réconcilie un fichier de règlement avec les paiements de la journée
+     * Les rapports sont émis au fil de la lecture (CSV) :
+     * <ul>
+     *   <li>matched : {@code external_txn_id,payment_id,amount}</li>
+     *   <li>missing : {@code external_txn_id,payment_id,amount,side} (NOT_IN_SETTLEMENT ou NOT_IN_DATABASE)</li>
+     *   <li>mismatches : {@code external_txn_id,payment_id,expected_amount,settled_amount,reason} (AMOUNT ou DUPLICATE)</li>
+     * </ul>
+     * @param settlementFile Fichier de règlement
+     * @param settlementDate Journée réglée
+     * @param matched Flux du rapport des transactions rapprochées
+     * @param missing Flux du rapport des transactions absentes d'un côté
+     * @param mismatches Flux du rapport des écarts de montant et doublons
+     * @return Synthèse de la réconciliation
+     * @throws IOException en cas d'erreur de lecture ou d'écriture
+     */
+    SettlementReport reconcile(Path settlementFile, LocalDate settlementDate,
+                               OutputStream matched, OutputStream missing, OutputStream mismatches) throws IOException;
+
+    /**
+     * Synthèse d'une réconciliation de règlement.
+     */
+    record SettlementReport(
+            LocalDate settlementDate,
+            long settlementLines,
+            long matched,
+            long amountMismatches,
+            long duplicates,
+            long notInDatabase,
+            long notInSettlement,
+            long malformedLines
+    ) {
+        public boolean isConsistent() {
+            return amountMismatches == 0 && duplicates == 0 && notInDatabase == 0
+                    && notInSettlement == 0 && malformedLines == 0;
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.exception.SettlementFileNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * Implémentation de la réconciliation des fichiers de règlement
+ * Les paiements de la journée sont chargés une fois (curseur JDBC) dans un index haché par identifiant externe,
+ * puis le fichier est mappé en mémoire par fenêtres et parcouru octet par octet : aucune requête ni String
+ * n'est créée par ligne. Les rapports sont écrits au fil de l'eau dans des tampons d'octets.
+ */
+@Service
+@Slf4j
+public class SettlementReconciliationServiceImpl implements SettlementReconciliationService {
+
+    private static final String PAYMENTS_SQL =
+            "SELECT payment_id, external_txn_id, amount, payment_type FROM subscription_payment " +
+            "WHERE payment_date >= ? AND payment_date < ? AND external_txn_id IS NOT NULL " +
+            "AND payment_status IN ('SUCCEEDED', 'REFUNDED')";
+
+    private static final byte[] MATCHED_HEADER = ascii("external_txn_id,payment_id,amount");
+    private static final byte[] MISSING_HEADER = ascii("external_txn_id,payment_id,amount,side");
+    private static final byte[] MISMATCH_HEADER =
+            ascii("external_txn_id,payment_id,expected_amount,settled_amount,reason");
+    private static final byte[] NOT_IN_SETTLEMENT = ascii("NOT_IN_SETTLEMENT");
+    private static final byte[] NOT_IN_DATABASE = ascii("NOT_IN_DATABASE");
+    private static final byte[] AMOUNT = ascii("AMOUNT");
+    private static final byte[] DUPLICATE = ascii("DUPLICATE");
+
+    private static final long INVALID_AMOUNT = Long.MIN_VALUE;
+    private static final int INITIAL_INDEX_SIZE = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path inboxDir;
+    private final Path reportDir;
+    private final String filePattern;
+    private final long mappingSize;
+    private final Clock clock;
+
+    public SettlementReconciliationServiceImpl(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${settlement.reconciliation.fetch-size:5000}") int fetchSize,
+            @Value("${settlement.reconciliation.inbox-dir:settlements/inbox}") Path inboxDir,
+            @Value("${settlement.reconciliation.report-dir:settlements/reports}") Path reportDir,
+            @Value("${settlement.reconciliation.file-pattern:settlement-%s.csv}") String filePattern,
+            @Value("${settlement.reconciliation.mapping-size-bytes:268435456}") long mappingSize,
+            Clock clock) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.inboxDir = inboxDir;
+        this.reportDir = reportDir;
+        this.filePattern = filePattern;
+        this.mappingSize = mappingSize;
+        this.clock = clock;
+    }
+
+    @Override
+    public SettlementReport reconcile(LocalDate settlementDate) throws IOException {
+        Path settlementFile = inboxDir.resolve(String.format(filePattern, settlementDate));
+        if (!Files.isRegularFile(settlementFile)) {
+            throw new SettlementFileNotFoundException("Settlement file not found for date: " + settlementDate);
+        }
+
+        Path outputDir = Files.createDirectories(reportDir.resolve(settlementDate.toString()));
+        try (OutputStream matched = Files.newOutputStream(outputDir.resolve("matched.csv"));
+             OutputStream missing = Files.newOutputStream(outputDir.resolve("missing.csv"));
+             OutputStream mismatches = Files.newOutputStream(outputDir.resolve("mismatches.csv"))) {
+            return reconcile(settlementFile, settlementDate, matched, missing, mismatches);
+        }
+    }
+
+    @Override
+    public SettlementReport reconcile(Path settlementFile, LocalDate settlementDate,
+                                      OutputStream matched, OutputStream missing, OutputStream mismatches)
+            throws IOException {
+        log.info("Réconciliation du règlement du {} ({})", settlementDate, settlementFile.getFileName());
+
+        SettlementTxnIndex index = loadPayments(settlementDate);
+        log.debug("{} paiement(s) chargé(s) pour le {}", index.size(), settlementDate);
+
+        SettlementReport report = reconcile(settlementFile, settlementDate, index, matched, missing, mismatches);
+        log.info("Règlement du {}: {} ligne(s), {} rapprochée(s), {} écart(s) de montant, {} doublon(s), " +
+                        "{} inconnue(s), {} paiement(s) non réglé(s), {} ligne(s) invalide(s)",
+                settlementDate, report.settlementLines(), report.matched(), report.amountMismatches(),
+                report.duplicates(), report.notInDatabase(), report.notInSettlement(), report.malformedLines());
+        return report;
+    }
+
+    /**
+     * Parcourt le fichier mappé et rapproche chaque ligne de l'index
+     */
+    SettlementReport reconcile(Path settlementFile, LocalDate settlementDate, SettlementTxnIndex index,
+                               OutputStream matchedOut, OutputStream missingOut, OutputStream mismatchOut)
+            throws IOException {
+        Scan scan = new Scan(index, new ReportWriter(matchedOut), new ReportWriter(missingOut),
+                new ReportWriter(mismatchOut));
+        scan.matched.write(MATCHED_HEADER).newLine();
+        scan.missing.write(MISSING_HEADER).newLine();
+        scan.mismatches.write(MISMATCH_HEADER).newLine();
+
+        try (FileChannel channel = FileChannel.open(settlementFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                // Fenêtres bornées : un MappedByteBuffer est limité à 2 Go et la fenêtre suivante reprend
+                // au début de la dernière ligne incomplète
+                long length = Math.min(mappingSize, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int consumed = scan.lines(buffer, (int) length, position + length == size);
+                if (consumed == 0) {
+                    throw new IOException("Settlement line longer than " + mappingSize + " bytes at offset " + position);
+                }
+                position += consumed;
+            }
+        }
+
+        scan.reportUnsettled();
+        scan.matched.flush();
+        scan.missing.flush();
+        scan.mismatches.flush();
+        return new SettlementReport(settlementDate, scan.settlementLines, scan.matchedCount, scan.amountMismatches,
+                scan.duplicates, scan.notInDatabase, scan.notInSettlement, scan.malformedLines);
+    }
+
+    /**
+     * Charge les paiements réglables de la journée (montant négatif pour un remboursement)
+     * La journée est découpée dans le fuseau de l'horloge applicative, comme le grand livre des revenus
+     */
+    private SettlementTxnIndex loadPayments(LocalDate settlementDate) {
+        ZoneId zone = clock.getZone();
+        Timestamp fromTs = Timestamp.from(settlementDate.atStartOfDay(zone).toInstant());
+        Timestamp toTs = Timestamp.from(settlementDate.plusDays(1).atStartOfDay(zone).toInstant());
+
+        SettlementTxnIndex index = new SettlementTxnIndex(INITIAL_INDEX_SIZE);
+        // Transaction en lecture seule : PostgreSQL ne respecte la fetch size qu'à l'intérieur d'une transaction
+        readOnlyTransaction.executeWithoutResult(tx -> jdbcTemplate.query(PAYMENTS_SQL, (RowCallbackHandler) rs -> {
+            long cents = rs.getBigDecimal("amount").movePointRight(2).longValueExact();
+            if ("REFUND".equals(rs.getString("payment_type"))) {
+                cents = -cents;
+            }
+            index.put(rs.getString("external_txn_id").trim(), cents, rs.getObject("payment_id", UUID.class));
+        }, fromTs, toTs));
+        return index;
+    }
+
+    /**
+     * Convertit un montant décimal (ex. "-29.9") en centimes sans allocation
+     * @return Montant en centimes, ou INVALID_AMOUNT si le champ n'est pas un montant
+     */
+    static long parseCents(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long units = 0;
+        int digits = 0;
+        for (; i < end && buffer.get(i) != '.'; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9' || ++digits > 15) {
+                return INVALID_AMOUNT;
+            }
+            units = units * 10 + (b - '0');
+        }
+        long cents = 0;
+        int decimals = 0;
+        if (i < end) {
+            for (i++; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b < '0' || b > '9' || ++decimals > 2) {
+                    return INVALID_AMOUNT;
+                }
+                cents = cents * 10 + (b - '0');
+            }
+        }
+        if (digits == 0 && decimals == 0) {
+            return INVALID_AMOUNT;
+        }
+        cents = units * 100 + (decimals == 1 ? cents * 10 : cents);
+        return negative ? -cents : cents;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * État d'un parcours de fichier (compteurs et rapports)
+     */
+    private static final class Scan {
+
+        private final SettlementTxnIndex index;
+        private final ReportWriter matched;
+        private final ReportWriter missing;
+        private final ReportWriter mismatches;
+        private long lineNumber;
+        private long settlementLines;
+        private long matchedCount;
+        private long amountMismatches;
+        private long duplicates;
+        private long notInDatabase;
+        private long notInSettlement;
+        private long malformedLines;
+
+        private Scan(SettlementTxnIndex index, ReportWriter matched, ReportWriter missing, ReportWriter mismatches) {
+            this.index = index;
+            this.matched = matched;
+            this.missing = missing;
+            this.mismatches = mismatches;
+        }
+
+        /**
+         * Traite les lignes complètes de la fenêtre
+         * @return Nombre d'octets consommés (jusqu'à la fin de la dernière ligne complète)
+         */
+        private int lines(ByteBuffer buffer, int limit, boolean lastWindow) throws IOException {
+            int lineStart = 0;
+            for (int i = 0; i < limit; i++) {
+                if (buffer.get(i) == '\n') {
+                    line(buffer, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            if (lastWindow && lineStart < limit) {
+                line(buffer, lineStart, limit);
+                lineStart = limit;
+            }
+            return lineStart;
+        }
+
+        private void line(ByteBuffer buffer, int start, int end) throws IOException {
+            if (end > start && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            lineNumber++;
+            if (lineNumber == 1 && end - start >= 3 && buffer.get(start) == (byte) 0xEF
+                    && buffer.get(start + 1) == (byte) 0xBB && buffer.get(start + 2) == (byte) 0xBF) {
+                start += 3; // BOM UTF-8
+            }
+            if (end == start) {
+                return;
+            }
+
+            int comma = indexOf(buffer, start, end);
+            int amountEnd = comma < 0 ? -1 : indexOf(buffer, comma + 1, end);
+            long cents = comma <= start ? INVALID_AMOUNT : parseCents(buffer, comma + 1, amountEnd < 0 ? end : amountEnd);
+            if (cents == INVALID_AMOUNT) {
+                if (lineNumber > 1) {
+                    malformedLines++;
+                    log.debug("Ligne de règlement {} invalide", lineNumber);
+                }
+                return; // Première ligne non numérique : en-tête
+            }
+            settlementLines++;
+
+            int txnLength = comma - start;
+            int slot = index.find(buffer, start, txnLength);
+            if (slot == SettlementTxnIndex.NOT_FOUND) {
+                notInDatabase++;
+                missing.write(buffer, start, txnLength).comma().comma().cents(cents).comma()
+                        .write(NOT_IN_DATABASE).newLine();
+            } else if (!index.markSettled(slot)) {
+                duplicates++;
+                mismatch(buffer, start, txnLength, slot, cents, DUPLICATE);
+            } else if (index.amountCents(slot) != cents) {
+                amountMismatches++;
+                mismatch(buffer, start, txnLength, slot, cents, AMOUNT);
+            } else {
+                matchedCount++;
+                matched.write(buffer, start, txnLength).comma()
+                        .uuid(index.paymentIdMsb(slot), index.paymentIdLsb(slot)).comma()
+                        .cents(cents).newLine();
+            }
+        }
+
+        private void mismatch(ByteBuffer buffer, int start, int txnLength, int slot, long cents, byte[] reason)
+                throws IOException {
+            mismatches.write(buffer, start, txnLength).comma()
+                    .uuid(index.paymentIdMsb(slot), index.paymentIdLsb(slot)).comma()
+                    .cents(index.amountCents(slot)).comma()
+                    .cents(cents).comma()
+                    .write(reason).newLine();
+        }
+
+        /**
+         * Émet les paiements de la journée absents du fichier
+         */
+        private void reportUnsettled() throws IOException {
+            for (int slot = 0; slot < index.capacity(); slot++) {
+                if (index.isOccupied(slot) && !index.isSettled(slot)) {
+                    notInSettlement++;
+                    missing.write(index.key(slot)).comma()
+                            .uuid(index.paymentIdMsb(slot), index.paymentIdLsb(slot)).comma()
+                            .cents(index.amountCents(slot)).comma()
+                            .write(NOT_IN_SETTLEMENT).newLine();
+                }
+            }
+        }
+
+        private static int indexOf(ByteBuffer buffer, int from, int end) {
+            for (int i = from; i < end; i++) {
+                if (buffer.get(i) == ',') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Écriture CSV par octets dans un tampon local (pas de verrou ni d'encodage par champ)
+     */
+    private static final class ReportWriter {
+
+        private static final byte[] HEX = ascii("0123456789abcdef");
+
+        private final OutputStream out;
+        private final byte[] buffer = new byte[64 * 1024];
+        private int position;
+
+        private ReportWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        private ReportWriter write(byte[] bytes) throws IOException {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+            return this;
+        }
+
+        private ReportWriter write(ByteBuffer source, int offset, int length) throws IOException {
+            ensure(length);
+            source.get(offset, buffer, position, length);
+            position += length;
+            return this;
+        }
+
+        private ReportWriter comma() throws IOException {
+            ensure(1);
+            buffer[position++] = ',';
+            return this;
+        }
+
+        private ReportWriter newLine() throws IOException {
+            ensure(1);
+            buffer[position++] = '\n';
+            return this;
+        }
+
+        private ReportWriter cents(long cents) throws IOException {
+            ensure(24);
+            if (cents < 0) {
+                buffer[position++] = '-';
+                cents = -cents;
+            }
+            long units = cents / 100;
+            int length = 1;
+            for (long remaining = units; remaining >= 10; remaining /= 10) {
+                length++;
+            }
+            int end = position + length;
+            for (int i = end - 1; i >= position; i--) {
+                buffer[i] = (byte) ('0' + units % 10);
+                units /= 10;
+            }
+            position = end;
+            int fraction = (int) (cents % 100);
+            buffer[position++] = '.';
+            buffer[position++] = (byte) ('0' + fraction / 10);
+            buffer[position++] = (byte) ('0' + fraction % 10);
+            return this;
+        }
+
+        private ReportWriter uuid(long msb, long lsb) throws IOException {
+            ensure(36);
+            hex(msb >>> 32, 8);
+            buffer[position++] = '-';
+            hex(msb >>> 16, 4);
+            buffer[position++] = '-';
+            hex(msb, 4);
+            buffer[position++] = '-';
+            hex(lsb >>> 48, 4);
+            buffer[position++] = '-';
+            hex(lsb, 12);
+            return this;
+        }
+
+        private void hex(long value, int digits) {
+            for (int i = digits - 1; i >= 0; i--) {
+                buffer[position + i] = HEX[(int) (value & 0xF)];
+                value >>>= 4;
+            }
+            position += digits;
+        }
+
+        private void ensure(int length) throws IOException {
+            if (position + length > buffer.length) {
+                flush();
+                if (length > buffer.length) {
+                    throw new IOException("Report field too long: " + length + " bytes");
+                }
+            }
+        }
+
+        private void flush() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.transport.subscription.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Index en mémoire des paiements d'une journée, par identifiant de transaction externe
+ * Table à adressage ouvert dont les clés sont les octets de l'identifiant : la recherche se fait
+ * directement sur une tranche du fichier de règlement mappé, sans créer de String par ligne.
+ * Non thread-safe (une instance par réconciliation).
+ */
+final class SettlementTxnIndex {
+
+    static final int NOT_FOUND = -1;
+
+    private byte[][] keys;
+    private long[] amountCents;
+    private long[] paymentIdMsb;
+    private long[] paymentIdLsb;
+    private boolean[] settled;
+    private int size;
+    private int mask;
+
+    SettlementTxnIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Ajoute un paiement (un identifiant déjà présent est remplacé)
+     * @param externalTxnId Identifiant de transaction externe
+     * @param cents Montant attendu en centimes (négatif pour un remboursement)
+     * @param paymentId ID du paiement
+     */
+    void put(String externalTxnId, long cents, UUID paymentId) {
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        byte[] key = externalTxnId.getBytes(StandardCharsets.UTF_8);
+        int slot = hash(key, 0, key.length) & mask;
+        while (keys[slot] != null && !Arrays.equals(keys[slot], key)) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == null) {
+            size++;
+        }
+        keys[slot] = key;
+        amountCents[slot] = cents;
+        paymentIdMsb[slot] = paymentId.getMostSignificantBits();
+        paymentIdLsb[slot] = paymentId.getLeastSignificantBits();
+        settled[slot] = false;
+    }
+
+    /**
+     * Recherche un identifiant lu dans un tampon
+     * @param buffer Tampon (fichier mappé)
+     * @param offset Position du premier octet de l'identifiant
+     * @param length Longueur en octets
+     * @return Emplacement du paiement, ou {@link #NOT_FOUND}
+     */
+    int find(ByteBuffer buffer, int offset, int length) {
+        int slot = hash(buffer, offset, length) & mask;
+        while (keys[slot] != null) {
+            if (matches(keys[slot], buffer, offset, length)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Marque un paiement comme présent dans le règlement
+     * @return false s'il l'était déjà (ligne en double)
+     */
+    boolean markSettled(int slot) {
+        if (settled[slot]) {
+            return false;
+        }
+        settled[slot] = true;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    boolean isOccupied(int slot) {
+        return keys[slot] != null;
+    }
+
+    boolean isSettled(int slot) {
+        return settled[slot];
+    }
+
+    byte[] key(int slot) {
+        return keys[slot];
+    }
+
+    long amountCents(int slot) {
+        return amountCents[slot];
+    }
+
+    long paymentIdMsb(int slot) {
+        return paymentIdMsb[slot];
+    }
+
+    long paymentIdLsb(int slot) {
+        return paymentIdLsb[slot];
+    }
+
+    private void allocate(int capacity) {
+        keys = new byte[capacity][];
+        amountCents = new long[capacity];
+        paymentIdMsb = new long[capacity];
+        paymentIdLsb = new long[capacity];
+        settled = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private void resize() {
+        byte[][] oldKeys = keys;
+        long[] oldAmounts = amountCents;
+        long[] oldMsb = paymentIdMsb;
+        long[] oldLsb = paymentIdLsb;
+        boolean[] oldSettled = settled;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) {
+                continue;
+            }
+            int slot = hash(oldKeys[i], 0, oldKeys[i].length) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            amountCents[slot] = oldAmounts[i];
+            paymentIdMsb[slot] = oldMsb[i];
+            paymentIdLsb[slot] = oldLsb[i];
+            settled[slot] = oldSettled[i];
+        }
+    }
+
+    private static boolean matches(byte[] key, ByteBuffer buffer, int offset, int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != buffer.get(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a suivi d'un brassage final (les identifiants ne diffèrent souvent que par leurs derniers caractères)
+     */
+    private static int hash(byte[] bytes, int offset, int length) {
+        int h = 0x811C9DC5;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ bytes[i]) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static int hash(ByteBuffer buffer, int offset, int length) {
+        int h = 0x811C9DC5;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ buffer.get(i)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+}
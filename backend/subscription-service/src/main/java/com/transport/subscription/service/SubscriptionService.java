@@ -1,13 +1,17 @@
 package com.transport.subscription.service;
 
+import com.transport.subscription.dto.request.BulkCreateSubscriptionRequest;
 import com.transport.subscription.dto.request.CancelSubscriptionRequest;
 import com.transport.subscription.dto.request.CreateSubscriptionRequest;
 import com.transport.subscription.dto.request.RenewSubscriptionRequest;
 import com.transport.subscription.dto.request.UpdateSubscriptionRequest;
+import com.transport.subscription.dto.response.BulkSubscriptionResponse;
 import com.transport.subscription.dto.response.SubscriptionResponse;
 import com.transport.subscription.model.SubscriptionStatus;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -24,6 +28,16 @@ public interface SubscriptionService {
      */
     SubscriptionResponse createSubscription(CreateSubscriptionRequest request);
 
+    /**
+     * Crée des abonnements en masse (import CSV employeur / université)
+     * Le lot est validé en une passe (plans en cache, doublons détectés en une requête ensembliste),
+     * puis inséré par batchs JDBC, une transaction par batch.
+     * @param request Lignes à créer
+     * @return Rapport ligne par ligne (créée, rejetée ou en échec)
+     * @throws com.transport.subscription.exception.InvalidSubscriptionException si le lot dépasse la taille maximale
+     */
+    BulkSubscriptionResponse createSubscriptionsBulk(BulkCreateSubscriptionRequest request);
+
     /**
      * Récupère un abonnement par son ID
      * @param subscriptionId ID de l'abonnement
@@ -32,6 +46,14 @@ public interface SubscriptionService {
      */
     SubscriptionResponse getSubscriptionById(UUID subscriptionId);
 
+    /**
+     * Récupère plusieurs abonnements en un seul appel
+     * Les abonnements en cache sont servis directement, les autres sont chargés en une seule requête
+     * @param subscriptionIds IDs des abonnements
+     * @return Abonnements trouvés, indexés par ID (les IDs inconnus sont absents)
+     */
+    Map<UUID, SubscriptionResponse> getSubscriptionsByIds(Collection<UUID> subscriptionIds);
+
     /**
      * Récupère tous les abonnements d'un utilisateur
      * @param userId ID de l'utilisateur
@@ -90,5 +112,23 @@ public interface SubscriptionService {
      * @throws com.transport.subscription.exception.SubscriptionNotFoundException si l'abonnement n'existe pas
      */
     SubscriptionResponse expireSubscription(UUID subscriptionId);
-}
 
+    /**
+     * Suspend un abonnement actif (paiements en échec après la période de grâce)
+     * @param subscriptionId ID de l'abonnement
+     * @param reason Motif enregistré dans l'historique
+     * @return Abonnement suspendu
+     * @throws com.transport.subscription.exception.SubscriptionNotFoundException si l'abonnement n'existe pas
+     * @throws com.transport.subscription.exception.InvalidSubscriptionException si l'abonnement n'est pas actif
+     */
+    SubscriptionResponse pauseSubscription(UUID subscriptionId, String reason);
+
+    /**
+     * Réactive un abonnement suspendu (paiement recouvré)
+     * @param subscriptionId ID de l'abonnement
+     * @return Abonnement réactivé
+     * @throws com.transport.subscription.exception.SubscriptionNotFoundException si l'abonnement n'existe pas
+     * @throws com.transport.subscription.exception.InvalidSubscriptionException si l'abonnement n'est pas suspendu
+     */
+    SubscriptionResponse resumeSubscription(UUID subscriptionId);
+}
@@ -1,15 +1,22 @@
 package com.transport.subscription.service;
 
+import com.transport.subscription.config.CacheConfig;
+import com.transport.subscription.config.LogSamplingFilter;
+import com.transport.subscription.config.RetryOnVersionConflict;
 import com.transport.subscription.dto.mapper.SubscriptionMapper;
+import com.transport.subscription.dto.request.BulkCreateSubscriptionRequest;
 import com.transport.subscription.dto.request.CancelSubscriptionRequest;
 import com.transport.subscription.dto.request.CreateSubscriptionRequest;
 import com.transport.subscription.dto.request.RenewSubscriptionRequest;
 import com.transport.subscription.dto.request.UpdateSubscriptionRequest;
+import com.transport.subscription.dto.response.BulkSubscriptionResponse;
+import com.transport.subscription.dto.response.PlanResponse;
 import com.transport.subscription.dto.response.SubscriptionResponse;
 import com.transport.subscription.exception.InvalidSubscriptionException;
 import com.transport.subscription.exception.PlanNotFoundException;
 import com.transport.subscription.exception.SubscriptionExpiredException;
 import com.transport.subscription.exception.SubscriptionNotFoundException;
+import com.transport.subscription.jfr.HistoryWriteEvent;
 import com.transport.subscription.model.Plan;
 import com.transport.subscription.model.Subscription;
 import com.transport.subscription.model.SubscriptionHistory;
@@ -18,17 +25,44 @@ import com.transport.subscription.repository.PlanRepository;
 import com.transport.subscription.repository.SubscriptionHistoryRepository;
 import com.transport.subscription.repository.SubscriptionRepository;
 import com.transport.subscription.util.DateCalculator;
+import com.transport.subscription.util.QrCodeGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * Implémentation du service pour la gestion des abonnements
+ * Les mutations sont protégées par verrouillage optimiste (@Version) : en cas de conflit,
+ * la transaction est rejouée entièrement (relecture de l'état courant) un nombre borné de fois.
  */
 @Service
 @RequiredArgsConstructor
@@ -41,6 +75,24 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     private final SubscriptionHistoryRepository historyRepository;
     private final SubscriptionMapper subscriptionMapper;
     private final DateCalculator dateCalculator;
+    private final PlanService planService;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final Clock clock;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${subscription.bulk.max-rows:50000}")
+    private int bulkMaxRows;
+
+    @Value("${subscription.bulk.batch-size:500}")
+    private int bulkBatchSize;
+
+    /**
+     * Taille max d'une clause IN pour la détection des doublons
+     */
+    private static final int IN_CLAUSE_CHUNK = 1000;
 
     @Override
     public SubscriptionResponse createSubscription(CreateSubscriptionRequest request) {
@@ -56,14 +108,14 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         }
 
         // Vérifier qu'il n'y a pas déjà un abonnement actif pour ce plan
-        if (subscriptionRepository.existsByUserIdAndPlanIdAndStatus(
+        if (subscriptionRepository.existsByUserIdAndPlan_PlanIdAndStatus(
                 request.getUserId(), request.getPlanId(), SubscriptionStatus.ACTIVE)) {
             throw new InvalidSubscriptionException(
                     "User already has an active subscription for this plan");
         }
 
         // Créer l'abonnement
-        LocalDate startDate = LocalDate.now();
+        LocalDate startDate = LocalDate.now(clock);
         LocalDate endDate = dateCalculator.calculateEndDate(startDate, plan.getDurationDays());
         LocalDate nextBillingDate = endDate;
 
@@ -74,7 +126,8 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         subscription.setStatus(SubscriptionStatus.PENDING);
 
         // Générer le QR code (simplifié - à implémenter selon vos besoins)
-        subscription.setQrCodeData(generateQrCode(subscription));
+        subscription.setQrCodeData(QrCodeGenerator.generate(
+                subscription.getSubscriptionId(), subscription.getUserId(), plan.getPlanCode()));
 
         subscription = subscriptionRepository.save(subscription);
 
@@ -86,8 +139,71 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         return subscriptionMapper.toResponse(subscription);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkSubscriptionResponse createSubscriptionsBulk(BulkCreateSubscriptionRequest request) {
+        List<CreateSubscriptionRequest> rows = request.getSubscriptions();
+        log.info("Import en masse de {} abonnement(s)", rows.size());
+
+        if (rows.size() > bulkMaxRows) {
+            throw new InvalidSubscriptionException(
+                    "Bulk request exceeds the maximum of " + bulkMaxRows + " rows");
+        }
+
+        // 1. Validation du lot complet (plans en cache, doublons en une requête ensembliste)
+        Map<UUID, PlanResponse> plans = resolvePlans(rows);
+        Set<UserPlanKey> existingPairs = findExistingActivePairs(rows);
+        Set<UserPlanKey> seenPairs = new HashSet<>();
+
+        BulkSubscriptionResponse.RowResult[] results = new BulkSubscriptionResponse.RowResult[rows.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            String error = validateBulkRow(rows.get(i), plans, existingPairs, seenPairs);
+            if (error != null) {
+                results[i] = rowResult(i, rows.get(i), BulkSubscriptionResponse.RowStatus.REJECTED, null, error);
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        // 2. Insertion par batchs, une transaction par batch
+        LocalDate startDate = LocalDate.now(clock);
+        for (int from = 0; from < accepted.size(); from += bulkBatchSize) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + bulkBatchSize, accepted.size()));
+            try {
+                List<UUID> ids = transactionTemplate.execute(status -> insertBulkChunk(rows, chunk, plans, startDate));
+                for (int j = 0; j < chunk.size(); j++) {
+                    int index = chunk.get(j);
+                    results[index] = rowResult(index, rows.get(index),
+                            BulkSubscriptionResponse.RowStatus.CREATED, ids.get(j), null);
+                }
+            } catch (RuntimeException e) {
+                log.error("Échec de l'insertion du batch [{}..{}] de l'import en masse",
+                        chunk.get(0), chunk.get(chunk.size() - 1), e);
+                for (int index : chunk) {
+                    results[index] = rowResult(index, rows.get(index),
+                            BulkSubscriptionResponse.RowStatus.FAILED, null, "Batch insert failed: " + e.getMessage());
+                }
+            }
+        }
+
+        List<BulkSubscriptionResponse.RowResult> resultList = Arrays.asList(results);
+        BulkSubscriptionResponse response = BulkSubscriptionResponse.builder()
+                .total(rows.size())
+                .created(countByStatus(resultList, BulkSubscriptionResponse.RowStatus.CREATED))
+                .rejected(countByStatus(resultList, BulkSubscriptionResponse.RowStatus.REJECTED))
+                .failed(countByStatus(resultList, BulkSubscriptionResponse.RowStatus.FAILED))
+                .results(resultList)
+                .build();
+
+        log.info("Import en masse terminé: {} créé(s), {} rejeté(s), {} en échec",
+                response.getCreated(), response.getRejected(), response.getFailed());
+        return response;
+    }
+
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.SUBSCRIPTIONS_CACHE)
     public SubscriptionResponse getSubscriptionById(UUID subscriptionId) {
         log.debug("Récupération de l'abonnement avec ID: {}", subscriptionId);
         Subscription subscription = subscriptionRepository.findById(subscriptionId)
@@ -96,6 +212,42 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         return subscriptionMapper.toResponse(subscription);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, SubscriptionResponse> getSubscriptionsByIds(Collection<UUID> subscriptionIds) {
+        Set<UUID> ids = new LinkedHashSet<>(subscriptionIds);
+        log.debug("Récupération groupée de {} abonnement(s)", ids.size());
+
+        Map<UUID, SubscriptionResponse> result = new LinkedHashMap<>(ids.size() * 2);
+        Cache cache = cacheManager.getCache(CacheConfig.SUBSCRIPTIONS_CACHE);
+
+        // 1. Servir depuis le cache
+        List<UUID> misses = new ArrayList<>();
+        for (UUID id : ids) {
+            SubscriptionResponse cached = cache != null ? cache.get(id, SubscriptionResponse.class) : null;
+            if (cached != null) {
+                result.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+
+        // 2. Charger le reste en une seule requête (plan inclus), puis alimenter le cache
+        if (!misses.isEmpty()) {
+            for (Subscription subscription : subscriptionRepository.findAllWithPlanByIdIn(misses)) {
+                SubscriptionResponse response = subscriptionMapper.toResponse(subscription);
+                result.put(subscription.getSubscriptionId(), response);
+                if (cache != null) {
+                    cache.put(subscription.getSubscriptionId(), response);
+                }
+            }
+        }
+
+        log.debug("Récupération groupée: {} trouvé(s) dont {} depuis le cache",
+                result.size(), ids.size() - misses.size());
+        return result;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<SubscriptionResponse> getUserSubscriptions(UUID userId) {
@@ -115,6 +267,8 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     }
 
     @Override
+    @RetryOnVersionConflict
+    @CacheEvict(cacheNames = CacheConfig.SUBSCRIPTIONS_CACHE, key = "#subscriptionId")
     public SubscriptionResponse updateSubscription(UUID subscriptionId, UpdateSubscriptionRequest request) {
         log.info("Mise à jour de l'abonnement: {}", subscriptionId);
         
@@ -133,6 +287,8 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     }
 
     @Override
+    @RetryOnVersionConflict
+    @CacheEvict(cacheNames = CacheConfig.SUBSCRIPTIONS_CACHE, key = "#subscriptionId")
     public SubscriptionResponse cancelSubscription(UUID subscriptionId, CancelSubscriptionRequest request) {
         log.info("Annulation de l'abonnement: {}", subscriptionId);
         
@@ -148,7 +304,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         
         if (Boolean.TRUE.equals(request.getImmediate())) {
             subscription.setStatus(SubscriptionStatus.CANCELLED);
-            subscription.setEndDate(LocalDate.now());
+            subscription.setEndDate(LocalDate.now(clock));
         } else {
             // Annulation à la fin de la période
             subscription.setStatus(SubscriptionStatus.CANCELLED);
@@ -165,8 +321,10 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     }
 
     @Override
+    @RetryOnVersionConflict
+    @CacheEvict(cacheNames = CacheConfig.SUBSCRIPTIONS_CACHE, key = "#subscriptionId")
     public SubscriptionResponse renewSubscription(UUID subscriptionId, RenewSubscriptionRequest request) {
-        log.info("Renouvellement de l'abonnement: {}", subscriptionId);
+        log.info(LogSamplingFilter.SAMPLED, "Renouvellement de l'abonnement: {}", subscriptionId);
         
         Subscription subscription = subscriptionRepository.findById(subscriptionId)
                 .orElseThrow(() -> new SubscriptionNotFoundException(
@@ -184,7 +342,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         }
 
         // Mettre à jour les dates
-        LocalDate newStartDate = LocalDate.now();
+        LocalDate newStartDate = LocalDate.now(clock);
         LocalDate newEndDate = dateCalculator.calculateEndDate(
                 newStartDate, subscription.getPlan().getDurationDays());
         subscription.setStartDate(newStartDate);
@@ -202,11 +360,13 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         recordHistory(subscription, oldStatus, SubscriptionStatus.ACTIVE, "SUBSCRIPTION_RENEWED", 
                 "Subscription renewed");
 
-        log.info("Abonnement renouvelé: {}", subscriptionId);
+        log.info(LogSamplingFilter.SAMPLED, "Abonnement renouvelé: {}", subscriptionId);
         return subscriptionMapper.toResponse(subscription);
     }
 
     @Override
+    @RetryOnVersionConflict
+    @CacheEvict(cacheNames = CacheConfig.SUBSCRIPTIONS_CACHE, key = "#subscriptionId")
     public SubscriptionResponse activateSubscription(UUID subscriptionId) {
         log.info("Activation de l'abonnement: {}", subscriptionId);
         
@@ -231,8 +391,10 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     }
 
     @Override
+    @RetryOnVersionConflict
+    @CacheEvict(cacheNames = CacheConfig.SUBSCRIPTIONS_CACHE, key = "#subscriptionId")
     public SubscriptionResponse expireSubscription(UUID subscriptionId) {
-        log.info("Expiration de l'abonnement: {}", subscriptionId);
+        log.info(LogSamplingFilter.SAMPLED, "Expiration de l'abonnement: {}", subscriptionId);
         
         Subscription subscription = subscriptionRepository.findById(subscriptionId)
                 .orElseThrow(() -> new SubscriptionNotFoundException(
@@ -245,12 +407,63 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         recordHistory(subscription, oldStatus, SubscriptionStatus.EXPIRED, "SUBSCRIPTION_EXPIRED", 
                 "Subscription expired");
 
-        log.info("Abonnement expiré: {}", subscriptionId);
+        log.info(LogSamplingFilter.SAMPLED, "Abonnement expiré: {}", subscriptionId);
+        return subscriptionMapper.toResponse(subscription);
+    }
+
+    @Override
+    @RetryOnVersionConflict
+    @CacheEvict(cacheNames = CacheConfig.SUBSCRIPTIONS_CACHE, key = "#subscriptionId")
+    public SubscriptionResponse pauseSubscription(UUID subscriptionId, String reason) {
+        log.info("Suspension de l'abonnement: {}", subscriptionId);
+
+        Subscription subscription = subscriptionRepository.findById(subscriptionId)
+                .orElseThrow(() -> new SubscriptionNotFoundException(
+                        "Subscription not found with id: " + subscriptionId));
+
+        if (subscription.getStatus() != SubscriptionStatus.ACTIVE) {
+            throw new InvalidSubscriptionException(
+                    "Only ACTIVE subscriptions can be paused. Current status: " + subscription.getStatus());
+        }
+
+        SubscriptionStatus oldStatus = subscription.getStatus();
+        subscription.setStatus(SubscriptionStatus.PAUSED);
+        subscription = subscriptionRepository.save(subscription);
+
+        recordHistory(subscription, oldStatus, SubscriptionStatus.PAUSED, "SUBSCRIPTION_PAUSED", reason);
+
+        log.info("Abonnement suspendu: {}", subscriptionId);
+        return subscriptionMapper.toResponse(subscription);
+    }
+
+    @Override
+    @RetryOnVersionConflict
+    @CacheEvict(cacheNames = CacheConfig.SUBSCRIPTIONS_CACHE, key = "#subscriptionId")
+    public SubscriptionResponse resumeSubscription(UUID subscriptionId) {
+        log.info("Réactivation de l'abonnement: {}", subscriptionId);
+
+        Subscription subscription = subscriptionRepository.findById(subscriptionId)
+                .orElseThrow(() -> new SubscriptionNotFoundException(
+                        "Subscription not found with id: " + subscriptionId));
+
+        if (subscription.getStatus() != SubscriptionStatus.PAUSED) {
+            throw new InvalidSubscriptionException(
+                    "Only PAUSED subscriptions can be resumed. Current status: " + subscription.getStatus());
+        }
+
+        SubscriptionStatus oldStatus = subscription.getStatus();
+        subscription.setStatus(SubscriptionStatus.ACTIVE);
+        subscription = subscriptionRepository.save(subscription);
+
+        recordHistory(subscription, oldStatus, SubscriptionStatus.ACTIVE, "SUBSCRIPTION_RESUMED",
+                "Subscription resumed after payment recovery");
+
+        log.info("Abonnement réactivé: {}", subscriptionId);
         return subscriptionMapper.toResponse(subscription);
     }
 
     /**
-     * Enregistre un événement dans l'historique
+     * Enregistre un événement dans l'historique (événement JFR {@link HistoryWriteEvent})
      */
     private void recordHistory(Subscription subscription, SubscriptionStatus oldStatus, 
                               SubscriptionStatus newStatus, String eventType, String details) {
@@ -259,21 +472,196 @@ public class SubscriptionServiceImpl implements SubscriptionService {
                 .oldStatus(oldStatus)
                 .newStatus(newStatus)
                 .eventType(eventType)
+                .eventDate(OffsetDateTime.now(clock))
                 .details(details)
                 .build();
         historyRepository.save(history);
+        traceHistoryWrite(subscription.getSubscriptionId(), eventType);
+    }
+
+    /**
+     * Rattache l'écriture d'historique à l'événement JFR de la transaction courante
+     * save() ne fait que persister l'entité : l'INSERT part en batch JDBC au flush du commit,
+     * c'est donc le flush + commit qui est mesuré (un événement par transaction, avec le nombre de lignes)
+     */
+    private void traceHistoryWrite(UUID subscriptionId, String eventType) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        HistoryWriteSynchronization pending =
+                (HistoryWriteSynchronization) TransactionSynchronizationManager.getResource(HistoryWriteSynchronization.class);
+        if (pending == null) {
+            pending = new HistoryWriteSynchronization(subscriptionId, eventType);
+            TransactionSynchronizationManager.bindResource(HistoryWriteSynchronization.class, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.rows++;
+    }
+
+    /**
+     * Mesure du flush + commit des lignes d'historique d'une transaction
+     */
+    private static final class HistoryWriteSynchronization implements TransactionSynchronization {
+
+        private final UUID subscriptionId;
+        private final String eventType;
+        private int rows;
+        private HistoryWriteEvent event;
+
+        private HistoryWriteSynchronization(UUID subscriptionId, String eventType) {
+            this.subscriptionId = subscriptionId;
+            this.eventType = eventType;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            event = HistoryWriteEvent.start();
+        }
+
+        @Override
+        public void afterCommit() {
+            if (event != null) {
+                event.finish(subscriptionId, eventType, rows);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(HistoryWriteSynchronization.class);
+        }
+    }
+
+    /**
+     * Charge les plans référencés par le lot (via le cache des plans)
+     * Les plans introuvables et les lignes vides sont simplement absents de la map
+     * (rejetés ensuite par validateBulkRow)
+     */
+    private Map<UUID, PlanResponse> resolvePlans(List<CreateSubscriptionRequest> rows) {
+        Map<UUID, PlanResponse> plans = new HashMap<>();
+        rows.stream()
+                .filter(Objects::nonNull)
+                .map(CreateSubscriptionRequest::getPlanId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(planId -> {
+                    try {
+                        plans.put(planId, planService.getPlanById(planId));
+                    } catch (PlanNotFoundException e) {
+                        log.debug("Plan inconnu dans l'import en masse: {}", planId);
+                    }
+                });
+        return plans;
     }
 
     /**
-     * Génère un QR code pour l'abonnement (simplifié)
-     * TODO: Implémenter la génération réelle de QR code
+     * Détecte les couples (utilisateur, plan) ayant déjà un abonnement actif
+     * Une requête par tranche de IN_CLAUSE_CHUNK utilisateurs au lieu d'une requête par ligne
      */
-    private String generateQrCode(Subscription subscription) {
-        // Format simplifié: SUBSCRIPTION_ID|USER_ID|PLAN_CODE
-        return String.format("%s|%s|%s", 
-                subscription.getSubscriptionId(), 
-                subscription.getUserId(),
-                subscription.getPlan().getPlanCode());
+    private Set<UserPlanKey> findExistingActivePairs(List<CreateSubscriptionRequest> rows) {
+        List<UUID> userIds = rows.stream()
+                .filter(Objects::nonNull)
+                .map(CreateSubscriptionRequest::getUserId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Set<UserPlanKey> existing = new HashSet<>();
+        for (int from = 0; from < userIds.size(); from += IN_CLAUSE_CHUNK) {
+            List<UUID> chunk = userIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK, userIds.size()));
+            subscriptionRepository.findUserPlanPairs(SubscriptionStatus.ACTIVE, chunk)
+                    .forEach(pair -> existing.add(new UserPlanKey(pair.getUserId(), pair.getPlanId())));
+        }
+        return existing;
+    }
+
+    /**
+     * Valide une ligne de l'import en masse
+     * @return Message d'erreur, ou null si la ligne est valide
+     */
+    private String validateBulkRow(CreateSubscriptionRequest row, Map<UUID, PlanResponse> plans,
+                                   Set<UserPlanKey> existingPairs, Set<UserPlanKey> seenPairs) {
+        if (row == null) {
+            return "Row is empty";
+        }
+        if (row.getUserId() == null) {
+            return "User ID is required";
+        }
+        if (row.getPlanId() == null) {
+            return "Plan ID is required";
+        }
+        PlanResponse plan = plans.get(row.getPlanId());
+        if (plan == null) {
+            return "Plan not found with id: " + row.getPlanId();
+        }
+        if (!Boolean.TRUE.equals(plan.getIsActive())) {
+            return "Cannot create subscription with inactive plan";
+        }
+        UserPlanKey key = new UserPlanKey(row.getUserId(), row.getPlanId());
+        if (existingPairs.contains(key)) {
+            return "User already has an active subscription for this plan";
+        }
+        if (!seenPairs.add(key)) {
+            return "Duplicate user/plan pair in request";
+        }
+        return null;
     }
+
+    /**
+     * Insère un batch de lignes validées (abonnements + historique) dans la transaction courante
+     * Les INSERT sont regroupés par Hibernate en batchs JDBC de taille bulkBatchSize
+     */
+    private List<UUID> insertBulkChunk(List<CreateSubscriptionRequest> rows, List<Integer> chunk,
+                                       Map<UUID, PlanResponse> plans, LocalDate startDate) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(bulkBatchSize);
+
+        List<UUID> ids = new ArrayList<>(chunk.size());
+        for (int index : chunk) {
+            CreateSubscriptionRequest row = rows.get(index);
+            PlanResponse plan = plans.get(row.getPlanId());
+
+            // Référence sans SELECT : seul l'ID du plan est nécessaire pour la clé étrangère
+            Subscription subscription = subscriptionMapper.toEntity(
+                    row, entityManager.getReference(Plan.class, plan.getPlanId()));
+            LocalDate endDate = dateCalculator.calculateEndDate(startDate, plan.getDurationDays());
+            subscription.setStartDate(startDate);
+            subscription.setEndDate(endDate);
+            subscription.setNextBillingDate(endDate);
+            subscription.setStatus(SubscriptionStatus.PENDING);
+            subscription.setQrCodeData(QrCodeGenerator.generate(
+                    subscription.getSubscriptionId(), subscription.getUserId(), plan.getPlanCode()));
+
+            subscription = subscriptionRepository.save(subscription);
+            recordHistory(subscription, null, SubscriptionStatus.PENDING, "SUBSCRIPTION_CREATED",
+                    "Subscription created with plan: " + plan.getPlanCode() + " (bulk import)");
+            ids.add(subscription.getSubscriptionId());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+
+    private BulkSubscriptionResponse.RowResult rowResult(int index, CreateSubscriptionRequest row,
+                                                         BulkSubscriptionResponse.RowStatus status,
+                                                         UUID subscriptionId, String error) {
+        return BulkSubscriptionResponse.RowResult.builder()
+                .index(index)
+                .userId(row != null ? row.getUserId() : null)
+                .planId(row != null ? row.getPlanId() : null)
+                .status(status)
+                .subscriptionId(subscriptionId)
+                .error(error)
+                .build();
+    }
+
+    private int countByStatus(List<BulkSubscriptionResponse.RowResult> results,
+                              BulkSubscriptionResponse.RowStatus status) {
+        return (int) results.stream().filter(r -> r.getStatus() == status).count();
+    }
+
+    /**
+     * Clé (utilisateur, plan) de la règle « un seul abonnement actif par plan »
+     */
+    private record UserPlanKey(UUID userId, UUID planId) { }
 }
 
@@ -1,17 +1,23 @@
 package com.transport.subscription.util;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
 import java.time.LocalDate;
 
 /**
  * Utilitaire pour les calculs de dates liés aux abonnements
+ * La date du jour est lue sur l'horloge de l'application (voir ClockConfig)
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class DateCalculator {
 
+    private final Clock clock;
+
     /**
      * Calcule la date de fin d'un abonnement à partir de la date de début et de la durée
      * @param startDate Date de début
@@ -31,7 +37,7 @@ public class DateCalculator {
      * @return true si la date est dans le passé
      */
     public boolean isPast(LocalDate date) {
-        return date.isBefore(LocalDate.now());
+        return date.isBefore(LocalDate.now(clock));
     }
 
     /**
@@ -40,7 +46,7 @@ public class DateCalculator {
      * @return true si la date est dans le futur
      */
     public boolean isFuture(LocalDate date) {
-        return date.isAfter(LocalDate.now());
+        return date.isAfter(LocalDate.now(clock));
     }
 }
 
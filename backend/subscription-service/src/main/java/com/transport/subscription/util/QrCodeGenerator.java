@@ -0,0 +1,24 @@
+package com.transport.subscription.util;
+
+import java.util.UUID;
+
+/**
+ * Génération du contenu du QR code d'un abonnement (format simplifié)
+ * Format : SUBSCRIPTION_ID|USER_ID|PLAN_CODE
+ */
+public final class QrCodeGenerator {
+
+    private QrCodeGenerator() {
+    }
+
+    /**
+     * Génère le contenu du QR code d'un abonnement
+     * @param subscriptionId Identifiant de l'abonnement
+     * @param userId Identifiant de l'utilisateur
+     * @param planCode Code du plan
+     * @return Contenu du QR code
+     */
+    public static String generate(UUID subscriptionId, UUID userId, String planCode) {
+        return String.format("%s|%s|%s", subscriptionId, userId, planCode);
+    }
+}
@@ -0,0 +1,33 @@
+package com.transport.subscription.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fabriques de threads des pools internes (paiements asynchrones, remboursements, relances, passerelle)
+ * En mode threads virtuels (spring.threads.virtual.enabled), les pools conservent leur taille,
+ * qui borne la concurrence vers la passerelle, mais leurs threads sont virtuels.
+ */
+public final class ThreadFactories {
+
+    private ThreadFactories() {
+    }
+
+    /**
+     * Crée une fabrique de threads nommés {@code <prefix>-<n>}
+     * @param namePrefix Préfixe du nom des threads
+     * @param virtual true pour des threads virtuels, false pour des threads plateforme démons
+     * @return Fabrique de threads
+     */
+    public static ThreadFactory named(String namePrefix, boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name(namePrefix + "-", 1).factory();
+        }
+        AtomicInteger threadCounter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
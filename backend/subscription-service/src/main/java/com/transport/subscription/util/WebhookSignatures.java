@@ -0,0 +1,53 @@
+package com.transport.subscription.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Signature des webhooks de paiement : HMAC-SHA256 du payload brut, encodé en hexadécimal
+ * La comparaison se fait en temps constant ; sans secret configuré, aucune signature n'est valide.
+ */
+public final class WebhookSignatures {
+
+    static final String ALGORITHM = "HmacSHA256";
+
+    private WebhookSignatures() {
+    }
+
+    /**
+     * Calcule la signature d'un payload
+     * @param payload Payload brut
+     * @param secret Secret partagé avec la passerelle
+     * @return HMAC-SHA256 du payload, en hexadécimal minuscule
+     */
+    public static String sign(String payload, String secret) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+
+    /**
+     * Vérifie la signature d'un payload
+     * @param payload Payload brut
+     * @param signature Signature reçue (hexadécimal, casse indifférente)
+     * @param secret Secret partagé avec la passerelle
+     * @return true si la signature correspond, false sinon ou si le secret est vide
+     */
+    public static boolean verify(String payload, String signature, String secret) {
+        if (secret == null || secret.isBlank() || payload == null || signature == null) {
+            return false;
+        }
+        byte[] expected = sign(payload, secret).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = signature.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual);
+    }
+}
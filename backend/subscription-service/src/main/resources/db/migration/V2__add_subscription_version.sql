@@ -0,0 +1,5 @@
+-- ===== Verrouillage optimiste sur subscription =====
+-- Incrémenté par Hibernate (@Version) à chaque UPDATE d'entité.
+-- amount_paid est exclu : il est incrémenté atomiquement en SQL (voir incrementAmountPaid).
+ALTER TABLE subscription
+  ADD COLUMN version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,42 @@
+-- ===== Grand livre des revenus (agrégats maintenus incrémentalement) =====
+-- Alimentés à chaque paiement réussi par BillingServiceImpl, vérifiés chaque nuit
+-- par LedgerReconciliationScheduler contre subscription_payment.
+
+-- Total payé par abonnement (lecture O(1) pour getTotalPaidAmount)
+CREATE TABLE subscription_revenue_ledger (
+  subscription_id  uuid PRIMARY KEY REFERENCES subscription(subscription_id) ON DELETE CASCADE,
+  currency         char(3) NOT NULL,
+  total_paid       numeric(14,2) NOT NULL DEFAULT 0,
+  payment_count    bigint NOT NULL DEFAULT 0,
+  updated_at       timestamptz NOT NULL DEFAULT now()
+);
+
+-- Revenu par plan, par jour et par devise (rapports de revenus)
+CREATE TABLE plan_revenue_daily (
+  plan_id          uuid NOT NULL REFERENCES subscription_plan(plan_id) ON DELETE RESTRICT,
+  revenue_date     date NOT NULL,
+  currency         char(3) NOT NULL,
+  total_amount     numeric(14,2) NOT NULL DEFAULT 0,
+  payment_count    bigint NOT NULL DEFAULT 0,
+  updated_at       timestamptz NOT NULL DEFAULT now(),
+  PRIMARY KEY (plan_id, revenue_date, currency)
+);
+
+CREATE INDEX idx_plan_revenue_daily_date ON plan_revenue_daily(revenue_date);
+CREATE INDEX idx_payment_date            ON subscription_payment(payment_date);
+
+-- ===== Reprise de l'existant =====
+INSERT INTO subscription_revenue_ledger (subscription_id, currency, total_paid, payment_count)
+SELECT p.subscription_id, min(p.currency), sum(p.amount), count(*)
+FROM subscription_payment p
+WHERE p.payment_status = 'SUCCEEDED'
+GROUP BY p.subscription_id;
+
+-- Jour calculé dans le fuseau de l'horloge applicative (placeholder fourni par ClockConfig),
+-- comme les paiements enregistrés ensuite par BillingServiceImpl, et non dans le fuseau de la session
+INSERT INTO plan_revenue_daily (plan_id, revenue_date, currency, total_amount, payment_count)
+SELECT s.plan_id, (p.payment_date AT TIME ZONE '${revenue_zone}')::date, p.currency, sum(p.amount), count(*)
+FROM subscription_payment p
+JOIN subscription s ON s.subscription_id = p.subscription_id
+WHERE p.payment_status = 'SUCCEEDED'
+GROUP BY s.plan_id, (p.payment_date AT TIME ZONE '${revenue_zone}')::date, p.currency;
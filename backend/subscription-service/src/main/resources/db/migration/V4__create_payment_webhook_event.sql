@@ -0,0 +1,20 @@
+-- ===== File durable des webhooks de la passerelle de paiement =====
+-- Chaque événement est inséré une seule fois (clé = identifiant fourni par la passerelle),
+-- puis appliqué par lots à subscription_payment par WebhookEventScheduler.
+
+CREATE TABLE payment_webhook_event (
+  event_id         varchar(128) PRIMARY KEY,
+  event_type       varchar(64) NOT NULL,
+  subscription_id  uuid,
+  idempotency_key  varchar(128),
+  external_txn_id  varchar(128),
+  failure_reason   text,
+  payload          text NOT NULL,
+  status           varchar(20) NOT NULL DEFAULT 'RECEIVED',
+  received_at      timestamptz NOT NULL DEFAULT now(),
+  processed_at     timestamptz,
+  processing_note  text
+);
+
+-- Dépilement des événements à appliquer dans l'ordre de réception
+CREATE INDEX idx_webhook_event_pending ON payment_webhook_event(received_at) WHERE status = 'RECEIVED';
@@ -0,0 +1,28 @@
+-- ===== Remboursements en masse =====
+-- Un lot est créé à partir d'un filtre (plan, période, abonnements) ; les paiements ciblés sont
+-- matérialisés dans refund_batch_item à la soumission. Le statut de chaque élément sert de point
+-- de reprise : un lot interrompu reprend sur ses éléments encore PENDING.
+
+CREATE TABLE refund_batch (
+  batch_id          uuid PRIMARY KEY DEFAULT gen_random_uuid(),
+  status            varchar(20) NOT NULL DEFAULT 'RUNNING',
+  plan_id           uuid REFERENCES subscription_plan(plan_id) ON DELETE RESTRICT,
+  from_date         date NOT NULL,
+  to_date           date NOT NULL,
+  subscription_ids  text,
+  reason            text,
+  total_count       integer NOT NULL DEFAULT 0,
+  created_at        timestamptz NOT NULL DEFAULT now(),
+  completed_at      timestamptz
+);
+
+CREATE TABLE refund_batch_item (
+  batch_id          uuid NOT NULL REFERENCES refund_batch(batch_id) ON DELETE CASCADE,
+  payment_id        uuid NOT NULL REFERENCES subscription_payment(payment_id) ON DELETE CASCADE,
+  status            varchar(20) NOT NULL DEFAULT 'PENDING',
+  failure_reason    text,
+  processed_at      timestamptz,
+  PRIMARY KEY (batch_id, payment_id)
+);
+
+CREATE INDEX idx_refund_batch_status ON refund_batch(status, created_at);
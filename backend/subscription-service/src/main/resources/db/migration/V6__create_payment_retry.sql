@@ -0,0 +1,30 @@
+-- ===== Relances des paiements échoués (dunning) =====
+-- File des nouvelles tentatives : une ligne par cycle de relance d'un abonnement, créée au premier
+-- échec. Le scheduler ne lit que les lignes SCHEDULED échues via l'index partiel ci-dessous,
+-- jamais la table subscription_payment.
+
+CREATE TABLE payment_retry (
+  retry_id             uuid PRIMARY KEY DEFAULT gen_random_uuid(),
+  subscription_id      uuid NOT NULL REFERENCES subscription(subscription_id) ON DELETE CASCADE,
+  payment_id           uuid NOT NULL REFERENCES subscription_payment(payment_id) ON DELETE CASCADE,
+  amount               numeric(10,2) NOT NULL CHECK (amount > 0),
+  currency             char(3) NOT NULL,
+  payment_method       varchar(20) NOT NULL,
+  status               varchar(20) NOT NULL DEFAULT 'SCHEDULED',
+  attempt_count        integer NOT NULL DEFAULT 0,
+  next_attempt_at      timestamptz NOT NULL,
+  last_failure_reason  text,
+  subscription_paused  boolean NOT NULL DEFAULT false,
+  created_at           timestamptz NOT NULL DEFAULT now(),
+  updated_at           timestamptz NOT NULL DEFAULT now()
+);
+
+-- Un seul cycle de relance en cours par abonnement (les échecs suivants n'en créent pas d'autre)
+CREATE UNIQUE INDEX uq_payment_retry_scheduled_subscription
+ON payment_retry(subscription_id)
+WHERE status = 'SCHEDULED';
+
+-- Relances échues, dans l'ordre de leur échéance
+CREATE INDEX idx_payment_retry_due
+ON payment_retry(next_attempt_at)
+WHERE status = 'SCHEDULED';
@@ -0,0 +1,15 @@
+-- ===== Détection des cartes expirées avant renouvellement =====
+-- Index partiel sur la date d'expiration de la carte des abonnements renouvelés automatiquement :
+-- le scan quotidien ne parcourt que les cartes expirant avant l'horizon, pas toute la table.
+
+CREATE INDEX idx_subscription_card_expiry
+ON subscription(card_exp_year, card_exp_month)
+WHERE status = 'ACTIVE' AND auto_renew_enabled AND card_token IS NOT NULL AND deleted_at IS NULL;
+
+-- Avis "mettez à jour votre carte" déjà envoyés : un seul par échéance de facturation
+CREATE TABLE card_expiry_notice (
+  subscription_id   uuid NOT NULL REFERENCES subscription(subscription_id) ON DELETE CASCADE,
+  billing_date      date NOT NULL,
+  notified_at       timestamptz NOT NULL DEFAULT now(),
+  PRIMARY KEY (subscription_id, billing_date)
+);
@@ -0,0 +1,7 @@
+-- ===== Paiements en attente sans issue connue =====
+-- Le balayage périodique (PendingPaymentReconciliationService) ne lit que les lignes PENDING
+-- dont la dernière transition est ancienne, via l'index partiel ci-dessous.
+
+CREATE INDEX idx_payment_pending
+ON subscription_payment(payment_date)
+WHERE payment_status = 'PENDING';
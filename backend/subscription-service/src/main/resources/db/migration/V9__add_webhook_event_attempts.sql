@@ -0,0 +1,5 @@
+-- ===== Tentatives d'application des webhooks =====
+-- Un événement dont l'application échoue reste RECEIVED et est repris au lot suivant ;
+-- il ne passe FAILED qu'après payment.webhook.max-attempts tentatives.
+
+ALTER TABLE payment_webhook_event ADD COLUMN attempts integer NOT NULL DEFAULT 0;
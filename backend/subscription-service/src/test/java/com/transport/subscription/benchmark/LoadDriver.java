@@ -0,0 +1,171 @@
+package com.transport.subscription.benchmark;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Générateur de charge HTTP des benchmarks : N clients simultanés (threads virtuels) enchaînent des requêtes
+ * tirées par une {@link Workload} ; les latences sont enregistrées par endpoint après l'échauffement.
+ */
+final class LoadDriver {
+
+    static final String HEADER = String.format("%-9s %-48s %10s %10s %10s %10s %8s",
+            "mode", "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "5xx");
+
+    private LoadDriver() {
+    }
+
+    /**
+     * Requête à envoyer et endpoint auquel rattacher sa latence
+     */
+    record Call(int endpoint, HttpRequest request) {
+    }
+
+    /**
+     * Tirage de la prochaine requête d'un client
+     */
+    @FunctionalInterface
+    interface Workload {
+        Call next(ThreadLocalRandom random);
+    }
+
+    /**
+     * Exécute la charge
+     * @param workload Tirage des requêtes
+     * @param endpointCount Nombre d'endpoints (indices des {@link Call})
+     * @param clients Clients simultanés
+     * @param warmup Durée d'échauffement (non mesurée)
+     * @param measure Durée mesurée
+     * @return Résultats par endpoint
+     */
+    static Result[] run(Workload workload, int endpointCount, int clients, Duration warmup, Duration measure)
+            throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .build()) {
+            long measureStart = System.nanoTime() + warmup.toNanos();
+            long deadline = measureStart + measure.toNanos();
+            List<Future<Samples[]>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() ->
+                        drive(httpClient, workload, endpointCount, measureStart, deadline)));
+            }
+
+            Samples[] merged = newSamples(endpointCount);
+            for (Future<Samples[]> future : futures) {
+                Samples[] samples = future.get();
+                for (int endpoint = 0; endpoint < endpointCount; endpoint++) {
+                    merged[endpoint].addAll(samples[endpoint]);
+                }
+            }
+            return Arrays.stream(merged).map(samples -> samples.toResult(measure)).toArray(Result[]::new);
+        }
+    }
+
+    /**
+     * Boucle d'un client : requêtes enchaînées jusqu'à l'échéance
+     */
+    private static Samples[] drive(HttpClient httpClient, Workload workload, int endpointCount,
+                                   long measureStart, long deadline) {
+        Samples[] samples = newSamples(endpointCount);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Call call = workload.next(random);
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = httpClient.send(call.request(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception e) {
+                status = 599;
+            }
+            if (start >= measureStart) {
+                samples[call.endpoint()].add(System.nanoTime() - start, status >= 500);
+            }
+        }
+        return samples;
+    }
+
+    private static Samples[] newSamples(int endpointCount) {
+        Samples[] samples = new Samples[endpointCount];
+        for (int i = 0; i < endpointCount; i++) {
+            samples[i] = new Samples();
+        }
+        return samples;
+    }
+
+    /**
+     * Latences d'un client pour un endpoint (non thread-safe : un jeu par client)
+     */
+    private static final class Samples {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long serverErrors;
+
+        void add(long latencyNanos, boolean serverError) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (serverError) {
+                serverErrors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, size + other.size));
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            serverErrors += other.serverErrors;
+        }
+
+        Result toResult(Duration measure) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return new Result(sorted, serverErrors, measure);
+        }
+    }
+
+    /**
+     * Résultat d'un endpoint sur la durée mesurée
+     */
+    record Result(long[] sortedLatencies, long serverErrors, Duration measure) {
+
+        long count() {
+            return sortedLatencies.length;
+        }
+
+        double throughput() {
+            return count() / (measure.toMillis() / 1000.0);
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(percentile * sortedLatencies.length) - 1);
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        /**
+         * Ligne du rapport, alignée sur {@link #HEADER}
+         */
+        String format(String mode, String endpoint) {
+            return String.format("%-9s %-48s %10d %10.1f %10.1f %10.1f %8d", mode, endpoint, count(), throughput(),
+                    percentileMillis(0.50), percentileMillis(0.99), serverErrors);
+        }
+    }
+}
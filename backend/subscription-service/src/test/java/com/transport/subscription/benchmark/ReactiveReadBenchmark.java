@@ -0,0 +1,205 @@
+package com.transport.subscription.benchmark;
+
+import com.transport.subscription.SubscriptionServiceApplication;
+import com.transport.subscription.model.Plan;
+import com.transport.subscription.model.Subscription;
+import com.transport.subscription.model.SubscriptionStatus;
+import com.transport.subscription.repository.PlanRepository;
+import com.transport.subscription.repository.SubscriptionRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Banc d'essai comparant les lectures bloquantes (JPA / Hikari) et réactives (R2DBC, profil reactive-read)
+ * sur les mêmes données : abonnements actifs d'un utilisateur et catalogue des plans.
+ * En plus du débit et des latences (p50 / p99), relève le pic de threads de la JVM et le pic de connexions
+ * empruntées à chaque pool pendant la charge.
+ * <p>
+ * Désactivé par défaut ; nécessite une base PostgreSQL dédiée (le pilote R2DBC ne cible pas H2). Lancement :
+ * {@code mvn test -Dtest=ReactiveReadBenchmark -Dbenchmark=true
+ * -Dbenchmark.db-url=jdbc:postgresql://localhost:5432/bench -Dbenchmark.r2dbc-url=r2dbc:postgresql://localhost:5432/bench
+ * [-Dbenchmark.db-username=...] [-Dbenchmark.db-password=...] [-Dbenchmark.clients=500]
+ * [-Dbenchmark.duration-seconds=30] [-Dbenchmark.warmup-seconds=10]}
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@EnabledIfSystemProperty(named = "benchmark.r2dbc-url", matches = ".+")
+@DisplayName("Benchmark lectures bloquantes / réactives")
+class ReactiveReadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 500);
+    private static final int SUBSCRIPTIONS = Integer.getInteger("benchmark.subscriptions", 2000);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("benchmark.warmup-seconds", 10));
+    private static final Duration MEASURE = Duration.ofSeconds(Integer.getInteger("benchmark.duration-seconds", 30));
+    private static final String DB_USERNAME = System.getProperty("benchmark.db-username", "postgres");
+    private static final String DB_PASSWORD = System.getProperty("benchmark.db-password", "");
+
+    private static final int ACTIVE_SUBSCRIPTIONS = 0;
+    private static final int ACTIVE_PLANS = 1;
+    private static final String[] ENDPOINTS = {
+            "GET .../users/{userId}/active",
+            "GET .../plans"
+    };
+
+    @Test
+    @DisplayName("Devrait mesurer débit, p99, threads et connexions des lectures bloquantes et réactives")
+    void compareReadModels() throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add(LoadDriver.HEADER);
+        List<String> resources = new ArrayList<>();
+
+        try (ConfigurableApplicationContext context = start()) {
+            List<UUID> userIds = seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HikariDataSource hikari = context.getBean(DataSource.class).unwrap(HikariDataSource.class);
+            ConnectionPool r2dbcPool = context.getBean(ConnectionPool.class);
+
+            for (boolean reactive : new boolean[]{false, true}) {
+                String mode = reactive ? "reactive" : "blocking";
+                String basePath = "http://localhost:" + port + (reactive ? "/api/reactive/subscriptions" : "/api/subscriptions");
+                IntSupplier borrowedConnections = reactive
+                        ? () -> r2dbcPool.getMetrics().map(metrics -> metrics.acquiredSize()).orElse(0)
+                        : () -> hikari.getHikariPoolMXBean().getActiveConnections();
+
+                try (PeakSampler sampler = new PeakSampler(borrowedConnections)) {
+                    LoadDriver.Result[] results = LoadDriver.run(random -> random.nextInt(4) == 0
+                            ? new LoadDriver.Call(ACTIVE_PLANS, get(basePath + "/plans"))
+                            : new LoadDriver.Call(ACTIVE_SUBSCRIPTIONS, get(basePath + "/users/"
+                                    + userIds.get(random.nextInt(userIds.size())) + "/active")),
+                            ENDPOINTS.length, CLIENTS, WARMUP, MEASURE);
+
+                    for (int endpoint = 0; endpoint < ENDPOINTS.length; endpoint++) {
+                        assertTrue(results[endpoint].count() > 0, "Aucune requête mesurée pour " + ENDPOINTS[endpoint]);
+                        report.add(results[endpoint].format(mode, ENDPOINTS[endpoint]));
+                    }
+                    resources.add(String.format("%-9s pic threads JVM: %d, pic connexions empruntées: %d",
+                            mode, sampler.peakThreads(), sampler.peakConnections()));
+                }
+            }
+        }
+
+        log.info("Benchmark ({} clients, {} s mesurées):\n{}\n{}",
+                CLIENTS, MEASURE.toSeconds(), String.join("\n", report), String.join("\n", resources));
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(SubscriptionServiceApplication.class)
+                .profiles("reactive-read")
+                .properties(
+                        "server.port=0",
+                        "spring.main.keep-alive=false",
+                        "spring.jpa.show-sql=false",
+                        "admission.enabled=false",
+                        "spring.datasource.url=" + System.getProperty("benchmark.db-url"),
+                        "spring.datasource.username=" + DB_USERNAME,
+                        "spring.datasource.password=" + DB_PASSWORD,
+                        "reactive-read.r2dbc.url=" + System.getProperty("benchmark.r2dbc-url"),
+                        "reactive-read.r2dbc.username=" + DB_USERNAME,
+                        "reactive-read.r2dbc.password=" + DB_PASSWORD,
+                        "logging.level.com.transport.subscription=WARN",
+                        "logging.level.org.springframework.web=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+                .run();
+    }
+
+    private static List<UUID> seed(ConfigurableApplicationContext context) {
+        PlanRepository planRepository = context.getBean(PlanRepository.class);
+        SubscriptionRepository subscriptionRepository = context.getBean(SubscriptionRepository.class);
+
+        Plan plan = planRepository.save(Plan.builder()
+                .planCode("BENCH_" + UUID.randomUUID().toString().substring(0, 8))
+                .description("Plan du benchmark")
+                .durationDays(30)
+                .price(new BigDecimal("19.99"))
+                .currency("EUR")
+                .isActive(true)
+                .build());
+
+        List<Subscription> subscriptions = IntStream.range(0, SUBSCRIPTIONS)
+                .mapToObj(i -> Subscription.builder()
+                        .userId(UUID.randomUUID())
+                        .plan(plan)
+                        .status(SubscriptionStatus.ACTIVE)
+                        .startDate(LocalDate.now())
+                        .endDate(LocalDate.now().plusDays(30))
+                        .nextBillingDate(LocalDate.now().plusDays(30))
+                        .amountPaid(BigDecimal.ZERO)
+                        .autoRenewEnabled(true)
+                        .cardToken("tok_benchmark")
+                        .build())
+                .toList();
+        return subscriptionRepository.saveAll(subscriptions).stream()
+                .map(Subscription::getUserId)
+                .toList();
+    }
+
+    /**
+     * Relève toutes les 10 ms le pic de connexions empruntées ; le pic de threads vient du ThreadMXBean
+     */
+    private static final class PeakSampler implements AutoCloseable {
+
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final AtomicBoolean running = new AtomicBoolean(true);
+        private final AtomicInteger peakConnections = new AtomicInteger();
+        private final Thread thread;
+
+        PeakSampler(IntSupplier borrowedConnections) {
+            threads.resetPeakThreadCount();
+            thread = Thread.ofPlatform().name("benchmark-sampler").daemon().start(() -> {
+                while (running.get()) {
+                    peakConnections.accumulateAndGet(borrowedConnections.getAsInt(), Math::max);
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+        }
+
+        int peakThreads() {
+            return threads.getPeakThreadCount();
+        }
+
+        int peakConnections() {
+            return peakConnections.get();
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            running.set(false);
+            thread.join();
+        }
+    }
+}
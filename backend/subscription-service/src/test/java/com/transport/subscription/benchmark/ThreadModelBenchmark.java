@@ -0,0 +1,163 @@
+package com.transport.subscription.benchmark;
+
+import com.transport.subscription.SubscriptionServiceApplication;
+import com.transport.subscription.model.Plan;
+import com.transport.subscription.model.Subscription;
+import com.transport.subscription.model.SubscriptionStatus;
+import com.transport.subscription.repository.PlanRepository;
+import com.transport.subscription.repository.SubscriptionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Banc d'essai comparant le débit et la latence (p50 / p99) des threads plateforme et des threads virtuels
+ * L'application est démarrée deux fois (spring.threads.virtual.enabled=false puis true) avec la passerelle
+ * simulée en scénario "realistic", puis soumise à la même charge : N clients simultanés enchaînant
+ * lectures d'abonnement (GET) et paiements synchrones (POST, connexion tenue pendant l'appel passerelle).
+ * <p>
+ * Désactivé par défaut. Lancement :
+ * {@code mvn test -Dtest=ThreadModelBenchmark -Dbenchmark=true [-Dbenchmark.clients=500]
+ * [-Dbenchmark.duration-seconds=30] [-Dbenchmark.warmup-seconds=10] [-Dbenchmark.payment-ratio=0.2]}
+ * <p>
+ * Par défaut sur H2 en mémoire, dont les verrous épinglent les threads virtuels : pour des chiffres
+ * représentatifs, fournir une base PostgreSQL dédiée ({@code -Dbenchmark.db-url=jdbc:postgresql://...
+ * -Dbenchmark.db-username=... -Dbenchmark.db-password=...}), migrée par Flyway au démarrage.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Benchmark threads plateforme / threads virtuels")
+class ThreadModelBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 500);
+    private static final int SUBSCRIPTIONS = Integer.getInteger("benchmark.subscriptions", 2000);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("benchmark.warmup-seconds", 10));
+    private static final Duration MEASURE = Duration.ofSeconds(Integer.getInteger("benchmark.duration-seconds", 30));
+    private static final double PAYMENT_RATIO = Double.parseDouble(System.getProperty("benchmark.payment-ratio", "0.2"));
+    private static final String DB_URL = System.getProperty("benchmark.db-url");
+
+    private static final int GET_SUBSCRIPTION = 0;
+    private static final int PROCESS_PAYMENT = 1;
+    private static final String[] ENDPOINTS = {
+            "GET /api/subscriptions/{id}",
+            "POST /api/subscriptions/billing/payments"
+    };
+
+    @Test
+    @DisplayName("Devrait mesurer débit et p99 des deux modèles de threads")
+    void compareThreadModels() throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add(LoadDriver.HEADER);
+
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            LoadDriver.Result[] results = run(virtualThreads);
+            for (int endpoint = 0; endpoint < ENDPOINTS.length; endpoint++) {
+                assertTrue(results[endpoint].count() > 0, "Aucune requête mesurée pour " + ENDPOINTS[endpoint]);
+                report.add(results[endpoint].format(virtualThreads ? "virtual" : "platform", ENDPOINTS[endpoint]));
+            }
+        }
+
+        log.info("Benchmark ({} clients, {} s mesurées, {} % de paiements):\n{}",
+                CLIENTS, MEASURE.toSeconds(), Math.round(PAYMENT_RATIO * 100), String.join("\n", report));
+    }
+
+    private LoadDriver.Result[] run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = start(virtualThreads)) {
+            List<UUID> subscriptionIds = seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            return LoadDriver.run(random -> {
+                UUID subscriptionId = subscriptionIds.get(random.nextInt(subscriptionIds.size()));
+                return random.nextDouble() < PAYMENT_RATIO
+                        ? new LoadDriver.Call(PROCESS_PAYMENT, paymentRequest(port, subscriptionId))
+                        : new LoadDriver.Call(GET_SUBSCRIPTION, HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/api/subscriptions/" + subscriptionId))
+                        .GET().build());
+            }, ENDPOINTS.length, CLIENTS, WARMUP, MEASURE);
+        }
+    }
+
+    private static HttpRequest paymentRequest(int port, UUID subscriptionId) {
+        String body = String.format("{\"subscriptionId\":\"%s\",\"amount\":19.99,\"currency\":\"EUR\"," +
+                "\"paymentMethod\":\"CARD\",\"cardToken\":\"tok_benchmark\",\"idempotencyKey\":\"%s\"}",
+                subscriptionId, UUID.randomUUID());
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/subscriptions/billing/payments"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads) {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "spring.main.keep-alive=false",
+                "spring.jpa.show-sql=false",
+                "admission.enabled=false",
+                "payment.gateway.simulator.scenario=realistic",
+                // Le bulkhead refuserait sinon l'essentiel des paiements : on mesure les threads, pas la passerelle
+                "resilience4j.bulkhead.instances.paymentGateway.max-concurrent-calls=100000",
+                "logging.level.com.transport.subscription=WARN",
+                "logging.level.org.springframework.web=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SubscriptionServiceApplication.class);
+        if (DB_URL == null) {
+            builder.profiles("test");
+            properties.add("spring.datasource.url=jdbc:h2:mem:benchmark-" + virtualThreads
+                    + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        } else {
+            properties.add("spring.datasource.url=" + DB_URL);
+            properties.add("spring.datasource.username=" + System.getProperty("benchmark.db-username", "postgres"));
+            properties.add("spring.datasource.password=" + System.getProperty("benchmark.db-password", ""));
+        }
+        return builder.properties(properties.toArray(String[]::new)).run();
+    }
+
+    private static List<UUID> seed(ConfigurableApplicationContext context) {
+        PlanRepository planRepository = context.getBean(PlanRepository.class);
+        SubscriptionRepository subscriptionRepository = context.getBean(SubscriptionRepository.class);
+
+        Plan plan = planRepository.save(Plan.builder()
+                .planCode("BENCH_" + UUID.randomUUID().toString().substring(0, 8))
+                .description("Plan du benchmark")
+                .durationDays(30)
+                .price(new BigDecimal("19.99"))
+                .currency("EUR")
+                .isActive(true)
+                .build());
+
+        List<Subscription> subscriptions = IntStream.range(0, SUBSCRIPTIONS)
+                .mapToObj(i -> Subscription.builder()
+                        .userId(UUID.randomUUID())
+                        .plan(plan)
+                        .status(SubscriptionStatus.ACTIVE)
+                        .startDate(LocalDate.now())
+                        .endDate(LocalDate.now().plusDays(30))
+                        .nextBillingDate(LocalDate.now().plusDays(30))
+                        .amountPaid(BigDecimal.ZERO)
+                        .autoRenewEnabled(true)
+                        .cardToken("tok_benchmark")
+                        .build())
+                .toList();
+        return subscriptionRepository.saveAll(subscriptions).stream()
+                .map(Subscription::getSubscriptionId)
+                .toList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.transport.subscription.config;
+
+import com.transport.subscription.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour AdmissionControl
+ */
+@DisplayName("AdmissionControl Tests")
+class AdmissionControlTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong clock;
+    private AdmissionControl admissionControl;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Horloge volontairement négative : seules les différences de System.nanoTime() ont un sens
+        clock = new AtomicLong(-TimeUnit.HOURS.toNanos(1));
+        admissionControl = new AdmissionControl(
+                new AdmissionControl.Limits(2, 3, 2),
+                new AdmissionControl.Limits(100, 100, 10),
+                1024, meterRegistry, clock::get);
+    }
+
+    @Test
+    @DisplayName("Devrait admettre une rafale puis refuser avec un délai de nouvel essai")
+    void shouldAdmitBurstThenReject() {
+        for (int i = 0; i < 3; i++) {
+            admissionControl.acquire("user-1", "kiosk").release();
+        }
+
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> admissionControl.acquire("user-1", "kiosk"));
+        assertEquals(1, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get(AdmissionControl.REJECTED_COUNTER)
+                .tag("dimension", "user").tag("reason", "rate").counter().count());
+
+        // Un autre utilisateur du même client n'est pas pénalisé
+        admissionControl.acquire("user-2", "kiosk").release();
+
+        // Un jeton toutes les 500 ms
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        admissionControl.acquire("user-1", "kiosk").release();
+        assertThrows(RateLimitExceededException.class, () -> admissionControl.acquire("user-1", "kiosk"));
+    }
+
+    @Test
+    @DisplayName("Devrait limiter les requêtes simultanées et libérer la place en fin de requête")
+    void shouldLimitConcurrentRequests() {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        AdmissionControl.Permit first = admissionControl.acquire("user-1", "kiosk");
+        AdmissionControl.Permit second = admissionControl.acquire("user-1", "kiosk");
+
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> admissionControl.acquire("user-1", "kiosk"));
+        assertEquals(1, ex.getRetryAfterSeconds());
+        assertEquals(2, admissionControl.inFlight(AdmissionControl.Dimension.USER, "user-1"));
+        assertEquals(2, admissionControl.inFlight(AdmissionControl.Dimension.CLIENT, "kiosk"));
+
+        first.release();
+        first.release();
+        assertEquals(1, admissionControl.inFlight(AdmissionControl.Dimension.USER, "user-1"));
+        admissionControl.acquire("user-1", "kiosk").release();
+        second.release();
+
+        assertEquals(0, admissionControl.inFlight(AdmissionControl.Dimension.USER, "user-1"));
+        assertEquals(0, admissionControl.inFlight(AdmissionControl.Dimension.CLIENT, "kiosk"));
+        assertEquals(1.0, meterRegistry.get(AdmissionControl.REJECTED_COUNTER)
+                .tag("dimension", "user").tag("reason", "concurrency").counter().count());
+    }
+
+    @Test
+    @DisplayName("Devrait limiter un client sans identifiant utilisateur et restituer le jeton utilisateur")
+    void shouldRejectOnClientLimit() {
+        AdmissionControl limited = new AdmissionControl(
+                new AdmissionControl.Limits(1, 1, 5),
+                new AdmissionControl.Limits(1, 2, 5),
+                16, meterRegistry, clock::get);
+        limited.acquire(null, "kiosk").release();
+        limited.acquire(null, "kiosk").release();
+
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> limited.acquire("user-1", "kiosk"));
+        assertTrue(ex.getMessage().contains("client"));
+        assertEquals(0, limited.inFlight(AdmissionControl.Dimension.USER, "user-1"));
+
+        // Le jeton utilisateur consommé avant le refus du client a été restitué
+        limited.acquire("user-1", "other-client").release();
+    }
+}
@@ -0,0 +1,87 @@
+package com.transport.subscription.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ConnectionLimitingDataSource
+ */
+@DisplayName("ConnectionLimitingDataSource Tests")
+class ConnectionLimitingDataSourceTest {
+
+    private DataSource target;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Devrait rendre le permis à la fermeture de la connexion, une seule fois")
+    void shouldReleasePermitOnClose() throws SQLException {
+        ConnectionLimitingDataSource dataSource =
+                new ConnectionLimitingDataSource(target, 2, 10, Duration.ofMillis(50));
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertEquals(0, dataSource.availablePermits());
+
+        first.close();
+        first.close();
+        assertEquals(1, dataSource.availablePermits());
+        assertEquals(first, first);
+        assertNotEquals(first, second);
+
+        second.close();
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Devrait refuser après le délai d'attente et compter le refus")
+    void shouldRejectAfterTimeout() throws SQLException {
+        ConnectionLimitingDataSource dataSource =
+                new ConnectionLimitingDataSource(target, 1, 10, Duration.ofMillis(20));
+        dataSource.bindTo(meterRegistry);
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1.0, meterRegistry.get(ConnectionLimitingDataSource.REJECTED_COUNTER).functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Devrait refuser immédiatement lorsque la file d'attente est pleine")
+    void shouldRejectWhenTooManyWaiters() throws SQLException {
+        ConnectionLimitingDataSource dataSource =
+                new ConnectionLimitingDataSource(target, 1, 0, Duration.ofSeconds(30));
+        dataSource.getConnection();
+
+        long start = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000);
+    }
+
+    @Test
+    @DisplayName("Devrait rendre le permis si la source cible échoue")
+    void shouldReleasePermitWhenTargetFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        ConnectionLimitingDataSource dataSource =
+                new ConnectionLimitingDataSource(target, 1, 10, Duration.ofMillis(20));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.availablePermits());
+    }
+}
@@ -0,0 +1,78 @@
+package com.transport.subscription.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour GatewaySimulator
+ */
+@DisplayName("GatewaySimulator Tests")
+class GatewaySimulatorTest {
+
+    @Test
+    @DisplayName("Devrait respecter les percentiles d'une distribution à queue longue")
+    void shouldSampleLongTailPercentiles() {
+        GatewaySimulator.Scenario scenario = GatewaySimulator.Scenario.builder()
+                .name("test").latency(GatewaySimulator.LatencyDistribution.LONG_TAIL)
+                .p50Ms(100).p99Ms(1000).p999Ms(5000).build();
+        Random random = new Random(42);
+
+        long[] samples = new long[100_000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = GatewaySimulator.sampleLatencyMs(scenario, random);
+        }
+        Arrays.sort(samples);
+
+        // Tolérance = pente du segment interpolé × 4 écarts-types du quantile empirique (√(q(1-q)/n))
+        assertEquals(100, samples[50_000], toleranceMs(0.5, 100, 0.99, 1000, samples.length));
+        assertEquals(1000, samples[99_000], toleranceMs(0.99, 1000, 0.999, 5000, samples.length));
+        assertTrue(samples[99_950] > 1000);
+    }
+
+    @Test
+    @DisplayName("Devrait simuler une panne totale")
+    void shouldFailEveryCallDuringOutage() {
+        GatewaySimulator simulator = GatewaySimulator.fromPreset("nominal");
+        simulator.setScenario(GatewaySimulator.preset("outage").toBuilder().fixedMs(0).build());
+
+        assertThrows(GatewaySimulator.SimulatedGatewayException.class, simulator::simulateCall);
+    }
+
+    @Test
+    @DisplayName("Devrait limiter le nombre d'appels par seconde")
+    void shouldRateLimitCalls() {
+        GatewaySimulator simulator = new GatewaySimulator(GatewaySimulator.Scenario.builder()
+                .name("limited").latency(GatewaySimulator.LatencyDistribution.FIXED)
+                .rateLimitPerSecond(1_000_000).build());
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(simulator.simulateCall());
+        }
+
+        simulator.setScenario(simulator.getScenario().toBuilder().rateLimitPerSecond(1).build());
+        assertThrows(GatewaySimulator.SimulatedGatewayException.class, () -> {
+            for (int i = 0; i < 3; i++) {
+                simulator.simulateCall();
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Devrait refuser un scénario inconnu")
+    void shouldRejectUnknownPreset() {
+        assertThrows(IllegalArgumentException.class, () -> GatewaySimulator.fromPreset("unknown"));
+    }
+
+    /**
+     * Écart admissible sur le percentile q d'un segment [q, qNext] de la courbe de latence
+     */
+    private static double toleranceMs(double q, long ms, double qNext, long msNext, int n) {
+        double slope = (msNext - ms) / (qNext - q);
+        return slope * 4 * Math.sqrt(q * (1 - q) / n);
+    }
+}
@@ -0,0 +1,84 @@
+package com.transport.subscription.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour LogSamplingFilter
+ */
+@DisplayName("LogSamplingFilter Tests")
+class LogSamplingFilterTest {
+
+    private AtomicLong clock;
+    private LogSamplingFilter filter;
+    private Logger renewals;
+    private Logger other;
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext context = new LoggerContext();
+        renewals = context.getLogger("renewals");
+        renewals.setLevel(Level.INFO);
+        other = context.getLogger("other");
+        other.setLevel(Level.DEBUG);
+
+        clock = new AtomicLong(1_000_000L);
+        filter = new LogSamplingFilter(clock::get);
+        filter.setMaxPerSecond(2);
+        filter.start();
+    }
+
+    @Test
+    @DisplayName("Devrait limiter les lignes marquées par seconde et par logger")
+    void shouldSampleMarkedLinesPerLogger() {
+        assertEquals(FilterReply.NEUTRAL, info(renewals));
+        assertEquals(FilterReply.NEUTRAL, info(renewals));
+        assertEquals(FilterReply.DENY, info(renewals));
+
+        // Budget indépendant pour un autre logger
+        assertEquals(FilterReply.NEUTRAL, info(other));
+
+        clock.addAndGet(1000);
+        assertEquals(FilterReply.NEUTRAL, info(renewals));
+    }
+
+    @Test
+    @DisplayName("Ne devrait jamais échantillonner les avertissements, les lignes non marquées ni les tests de niveau")
+    void shouldKeepWarningsAndUnmarkedLines() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(LogSamplingFilter.SAMPLED, renewals, Level.WARN,
+                    "Avertissement", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, renewals, Level.INFO, "Ligne", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(LogSamplingFilter.SAMPLED, renewals, Level.INFO,
+                    null, null, null));
+            // Niveau désactivé : ne consomme pas le budget
+            assertEquals(FilterReply.NEUTRAL, filter.decide(LogSamplingFilter.SAMPLED, renewals, Level.DEBUG,
+                    "Détail", null, null));
+        }
+        assertEquals(FilterReply.NEUTRAL, info(renewals));
+    }
+
+    @Test
+    @DisplayName("Devrait échantillonner toutes les lignes des loggers configurés")
+    void shouldSampleConfiguredLoggers() {
+        filter.setLoggers(" other , ");
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, other, Level.DEBUG, "SQL", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, other, Level.DEBUG, "SQL", null, null));
+        assertEquals(FilterReply.DENY, filter.decide(null, other, Level.DEBUG, "SQL", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, renewals, Level.INFO, "Ligne", null, null));
+    }
+
+    private FilterReply info(Logger logger) {
+        return filter.decide(LogSamplingFilter.SAMPLED, logger, Level.INFO, "Abonnement {}", new Object[]{1}, null);
+    }
+}
@@ -0,0 +1,156 @@
+package com.transport.subscription.config;
+
+import com.transport.subscription.exception.PaymentGatewayUnavailableException;
+import com.transport.subscription.model.PaymentMethod;
+import com.transport.subscription.service.PaymentGateway;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ResilientPaymentGateway
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ResilientPaymentGateway Tests")
+class ResilientPaymentGatewayTest {
+
+    @Mock
+    private PaymentGateway delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+    private ResilientPaymentGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = CircuitBreaker.of("test", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .build());
+        gateway = new ResilientPaymentGateway(
+                delegate,
+                circuitBreaker,
+                Bulkhead.ofDefaults("test"),
+                Retry.of("test", RetryConfig.custom().maxAttempts(3).waitDuration(Duration.ofMillis(1)).build()),
+                TimeLimiter.of(TimeLimiterConfig.custom().timeoutDuration(Duration.ofMillis(100)).build()),
+                Executors.newCachedThreadPool(),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gateway.close();
+    }
+
+    @Test
+    @DisplayName("Devrait interrompre un appel trop long et signaler une issue inconnue")
+    void shouldTimeOutSlowCall() {
+        when(delegate.refund(any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(1_000);
+            return new PaymentGateway.RefundResult(true, "r-1", null);
+        });
+
+        PaymentGatewayUnavailableException ex = assertThrows(PaymentGatewayUnavailableException.class,
+                () -> gateway.refund("ext-1", BigDecimal.TEN));
+
+        assertTrue(ex.isOutcomeUnknown());
+        assertEquals(1, meterRegistry.get(ResilientPaymentGateway.TIMER_NAME).tag("outcome", "timeout").timer().count());
+    }
+
+    @Test
+    @DisplayName("Devrait réessayer un débit idempotent mais pas un remboursement")
+    void shouldRetryOnlyIdempotentCalls() {
+        when(delegate.charge(any()))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenReturn(new PaymentGateway.PaymentResult(true, "ext-1", null));
+        when(delegate.refund(any(), any())).thenThrow(new IllegalStateException("connection reset"));
+
+        PaymentGateway.PaymentResult result = gateway.charge(request("idemp-1"));
+
+        assertTrue(result.success());
+        verify(delegate, times(2)).charge(any());
+
+        assertThrows(PaymentGatewayUnavailableException.class, () -> gateway.refund("ext-1", BigDecimal.TEN));
+        verify(delegate, times(1)).refund(any(), any());
+    }
+
+    @Test
+    @DisplayName("Devrait ouvrir le circuit après des échecs répétés")
+    void shouldOpenCircuitAfterFailures() {
+        when(delegate.refund(any(), any())).thenThrow(new IllegalStateException("gateway down"));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(PaymentGatewayUnavailableException.class, () -> gateway.refund("ext-1", BigDecimal.TEN));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        PaymentGatewayUnavailableException ex = assertThrows(PaymentGatewayUnavailableException.class,
+                () -> gateway.refund("ext-1", BigDecimal.TEN));
+        assertFalse(ex.isOutcomeUnknown());
+        verify(delegate, times(4)).refund(any(), any());
+    }
+
+    @Test
+    @DisplayName("Devrait refuser les appels quand des appels bloqués occupent tous les threads")
+    void shouldRejectWhenCallThreadsAreStuck() {
+        gateway.close();
+        gateway = new ResilientPaymentGateway(
+                delegate,
+                circuitBreaker,
+                Bulkhead.ofDefaults("test"),
+                Retry.ofDefaults("test"),
+                TimeLimiter.of(TimeLimiterConfig.custom().timeoutDuration(Duration.ofMillis(100)).build()),
+                PaymentGatewayConfig.paymentGatewayCallExecutor(false, 1),
+                meterRegistry);
+        AtomicBoolean released = new AtomicBoolean();
+        when(delegate.refund(any(), any())).thenAnswer(invocation -> {
+            while (!released.get()) {
+                LockSupport.parkNanos(1_000_000); // ignore l'interruption
+            }
+            return new PaymentGateway.RefundResult(true, "r-1", null);
+        });
+
+        try {
+            // Le premier appel garde le seul thread, le deuxième occupe la file
+            assertThrows(PaymentGatewayUnavailableException.class, () -> gateway.refund("ext-1", BigDecimal.TEN));
+            assertThrows(PaymentGatewayUnavailableException.class, () -> gateway.refund("ext-2", BigDecimal.TEN));
+
+            PaymentGatewayUnavailableException ex = assertThrows(PaymentGatewayUnavailableException.class,
+                    () -> gateway.refund("ext-3", BigDecimal.TEN));
+            assertFalse(ex.isOutcomeUnknown());
+            assertEquals(1, meterRegistry.get(ResilientPaymentGateway.TIMER_NAME).tag("outcome", "rejected").timer().count());
+        } finally {
+            released.set(true);
+        }
+    }
+
+    private PaymentGateway.PaymentRequest request(String idempotencyKey) {
+        return new PaymentGateway.PaymentRequest(UUID.randomUUID(), UUID.randomUUID(), BigDecimal.TEN,
+                "EUR", PaymentMethod.CARD, "tok", idempotencyKey);
+    }
+}
@@ -0,0 +1,176 @@
+package com.transport.subscription.config;
+
+import com.transport.subscription.dto.request.RenewSubscriptionRequest;
+import com.transport.subscription.dto.response.SubscriptionResponse;
+import com.transport.subscription.model.Plan;
+import com.transport.subscription.model.Subscription;
+import com.transport.subscription.model.SubscriptionStatus;
+import com.transport.subscription.repository.PlanRepository;
+import com.transport.subscription.repository.SubscriptionRepository;
+import com.transport.subscription.service.SubscriptionService;
+import com.transport.subscription.support.DatabaseCleaner;
+import com.transport.subscription.util.DateCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration de {@link RetryOnVersionConflict}
+ * Un écrivain concurrent incrémente la version de l'abonnement, dans sa propre transaction validée,
+ * entre la lecture et l'écriture du renouvellement : le conflit @Version est réel et la transaction rejouée.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:version-conflict;MODE=PostgreSQL",
+        "spring.jpa.show-sql=false",
+        "subscription.concurrency.max-attempts=3",
+        "subscription.concurrency.backoff-delay-ms=1",
+        "refund.batch.interval-ms=3600000",
+        "dunning.interval-ms=3600000",
+        "payment.webhook.apply-interval-ms=3600000",
+        "payment.pending.interval-ms=3600000"
+})
+@ActiveProfiles("test")
+@Import({DatabaseCleaner.class, RetryOnVersionConflictIntegrationTest.ConcurrentWriterConfig.class})
+@DisplayName("RetryOnVersionConflict Integration Tests")
+class RetryOnVersionConflictIntegrationTest {
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private PlanRepository planRepository;
+
+    @Autowired
+    private DatabaseCleaner databaseCleaner;
+
+    @Autowired
+    private ConcurrentWriterDateCalculator concurrentWriter;
+
+    private UUID subscriptionId;
+
+    @BeforeEach
+    void setUp() {
+        databaseCleaner.clean();
+        Plan plan = planRepository.save(Plan.builder()
+                .planCode("CONFLICT_MONTHLY")
+                .description("Plan de test des conflits de version")
+                .durationDays(30)
+                .price(new BigDecimal("29.99"))
+                .currency("EUR")
+                .isActive(true)
+                .build());
+        subscriptionId = subscriptionRepository.save(Subscription.builder()
+                .userId(UUID.randomUUID())
+                .plan(plan)
+                .status(SubscriptionStatus.ACTIVE)
+                .startDate(LocalDate.now())
+                .amountPaid(BigDecimal.ZERO)
+                .autoRenewEnabled(true)
+                .build()).getSubscriptionId();
+    }
+
+    @Test
+    @DisplayName("Devrait rejouer le renouvellement après un conflit de version")
+    void shouldRetryAfterVersionConflict() {
+        long initialVersion = currentVersion();
+        concurrentWriter.conflictOnNextCalls(1);
+
+        SubscriptionResponse response = subscriptionService.renewSubscription(subscriptionId,
+                RenewSubscriptionRequest.builder().build());
+
+        assertEquals(SubscriptionStatus.ACTIVE, response.getStatus());
+        assertEquals(2, concurrentWriter.attempts(), "une tentative en conflit puis une tentative validée");
+        // Écriture concurrente + renouvellement rejoué
+        assertEquals(initialVersion + 2, currentVersion());
+    }
+
+    @Test
+    @DisplayName("Devrait propager le conflit une fois le nombre max de tentatives atteint")
+    void shouldGiveUpAfterMaxAttempts() {
+        long initialVersion = currentVersion();
+        concurrentWriter.conflictOnNextCalls(3);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> subscriptionService.renewSubscription(
+                subscriptionId, RenewSubscriptionRequest.builder().build()));
+
+        assertEquals(3, concurrentWriter.attempts());
+        assertEquals(initialVersion + 3, currentVersion());
+    }
+
+    private long currentVersion() {
+        return subscriptionRepository.findById(subscriptionId).orElseThrow().getVersion();
+    }
+
+    /**
+     * Calcul de dates appelé par le renouvellement après la lecture de l'abonnement : point d'injection
+     * de l'écriture concurrente
+     */
+    static class ConcurrentWriterDateCalculator extends DateCalculator {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate requiresNew;
+        private final AtomicInteger remainingConflicts = new AtomicInteger();
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        ConcurrentWriterDateCalculator(Clock clock, JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager) {
+            super(clock);
+            this.jdbcTemplate = jdbcTemplate;
+            this.requiresNew = new TransactionTemplate(transactionManager);
+            this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+
+        void conflictOnNextCalls(int conflicts) {
+            remainingConflicts.set(conflicts);
+            attempts.set(0);
+        }
+
+        int attempts() {
+            return attempts.get();
+        }
+
+        @Override
+        public LocalDate calculateEndDate(LocalDate startDate, Integer durationDays) {
+            attempts.incrementAndGet();
+            if (remainingConflicts.getAndDecrement() > 0) {
+                requiresNew.executeWithoutResult(status ->
+                        jdbcTemplate.update("UPDATE subscription SET version = version + 1"));
+            }
+            return super.calculateEndDate(startDate, durationDays);
+        }
+    }
+
+    @TestConfiguration
+    static class ConcurrentWriterConfig {
+
+        @Bean
+        @Primary
+        ConcurrentWriterDateCalculator concurrentWriterDateCalculator(Clock clock, JdbcTemplate jdbcTemplate,
+                                                                      PlatformTransactionManager transactionManager) {
+            return new ConcurrentWriterDateCalculator(clock, jdbcTemplate, transactionManager);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.transport.subscription.config;
+
+import com.transport.subscription.dto.response.PlanResponse;
+import com.transport.subscription.exception.PlanNotFoundException;
+import com.transport.subscription.service.PlanService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour ServiceMetricsAspect
+ */
+@DisplayName("ServiceMetricsAspect Tests")
+class ServiceMetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PlanService planService;
+    private PlanService proxy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        planService = mock(PlanService.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(planService);
+        factory.addInterface(PlanService.class);
+        factory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Devrait chronométrer un appel réussi")
+    void shouldTimeSuccessfulCall() {
+        when(planService.getAllActivePlans()).thenReturn(List.of());
+
+        proxy.getAllActivePlans();
+        proxy.getAllActivePlans();
+
+        Timer timer = meterRegistry.get(ServiceMetricsAspect.TIMER_NAME)
+                .tag("service", "PlanService")
+                .tag("method", "getAllActivePlans")
+                .tag("outcome", "success")
+                .tag("exception", "none")
+                .timer();
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    @DisplayName("Devrait chronométrer un appel en erreur avec le type d'exception")
+    void shouldTimeFailedCallWithExceptionTag() {
+        UUID planId = UUID.randomUUID();
+        when(planService.getPlanById(planId)).thenThrow(new PlanNotFoundException("Plan not found with ID: " + planId));
+
+        assertThrows(PlanNotFoundException.class, () -> proxy.getPlanById(planId));
+
+        Timer timer = meterRegistry.get(ServiceMetricsAspect.TIMER_NAME)
+                .tag("method", "getPlanById")
+                .tag("outcome", "error")
+                .tag("exception", "PlanNotFoundException")
+                .timer();
+        assertEquals(1, timer.count());
+        assertNull(meterRegistry.find(ServiceMetricsAspect.TIMER_NAME).tag("outcome", "success").timer());
+    }
+
+    @Test
+    @DisplayName("Devrait retourner le résultat du service sans le modifier")
+    void shouldReturnServiceResult() {
+        PlanResponse response = PlanResponse.builder().planCode("MONTHLY").build();
+        when(planService.getPlanByCode("MONTHLY")).thenReturn(response);
+
+        assertSame(response, proxy.getPlanByCode("MONTHLY"));
+    }
+}
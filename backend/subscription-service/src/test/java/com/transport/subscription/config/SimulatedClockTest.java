@@ -0,0 +1,68 @@
+package com.transport.subscription.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour SimulatedClock
+ */
+@DisplayName("SimulatedClock Tests")
+class SimulatedClockTest {
+
+    private static final Instant START = Instant.parse("2030-01-01T00:00:00Z");
+
+    private AtomicLong nanoTime;
+    private SimulatedClock clock;
+
+    @BeforeEach
+    void setUp() {
+        nanoTime = new AtomicLong(-TimeUnit.HOURS.toNanos(1));
+        clock = new SimulatedClock(START, ZoneOffset.UTC, nanoTime::get);
+    }
+
+    @Test
+    @DisplayName("Devrait laisser s'écouler le temps réel à partir de l'instant simulé")
+    void shouldFlowFromSimulatedInstant() {
+        assertEquals(START, clock.instant());
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+        assertEquals(START.plusSeconds(5), clock.instant());
+    }
+
+    @Test
+    @DisplayName("Devrait avancer jusqu'à l'instant demandé sans jamais reculer")
+    void shouldAdvanceForwardOnly() {
+        Instant nextDay = START.plusSeconds(TimeUnit.DAYS.toSeconds(1));
+
+        assertEquals(nextDay, clock.advanceTo(nextDay));
+        assertEquals(LocalDate.of(2030, 1, 2), LocalDate.now(clock));
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(nextDay.plusSeconds(10), clock.advanceTo(START));
+        assertEquals(nextDay.plusSeconds(10), clock.instant());
+    }
+
+    @Test
+    @DisplayName("Devrait partager l'instant simulé entre les fuseaux")
+    void shouldShareInstantAcrossZones() {
+        Clock paris = clock.withZone(ZoneId.of("Europe/Paris"));
+
+        clock.advanceTo(START.plusSeconds(3600));
+
+        assertEquals(START.plusSeconds(3600), paris.instant());
+        assertEquals(ZoneId.of("Europe/Paris"), paris.getZone());
+        assertSame(clock, clock.withZone(ZoneOffset.UTC));
+    }
+}
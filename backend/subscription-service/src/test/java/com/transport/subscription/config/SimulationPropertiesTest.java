@@ -0,0 +1,44 @@
+package com.transport.subscription.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NestedExceptionUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour SimulationProperties
+ */
+@DisplayName("SimulationProperties Tests")
+class SimulationPropertiesTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(PropertiesConfiguration.class);
+
+    @Test
+    @DisplayName("Devrait relancer toutes les heures par défaut")
+    void shouldDefaultToHourlyDunning() {
+        contextRunner.run(context ->
+                assertEquals(1, context.getBean(SimulationProperties.class).dunningIntervalHours()));
+    }
+
+    @Test
+    @DisplayName("Devrait refuser de démarrer avec un intervalle de relance hors de 1 à 24 heures")
+    void shouldRejectOutOfRangeDunningInterval() {
+        for (String hours : new String[]{"0", "25"}) {
+            contextRunner.withPropertyValues("simulation.dunning-interval-hours=" + hours)
+                    .run(context -> assertTrue(NestedExceptionUtils.getMostSpecificCause(context.getStartupFailure())
+                            .getMessage().contains("simulation.dunning-interval-hours must be between 1 and 24")));
+        }
+        contextRunner.withPropertyValues("simulation.dunning-interval-hours=24")
+                .run(context -> assertNull(context.getStartupFailure()));
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(SimulationProperties.class)
+    static class PropertiesConfiguration {
+    }
+}
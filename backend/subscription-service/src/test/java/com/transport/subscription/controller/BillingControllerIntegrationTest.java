@@ -18,13 +18,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -124,6 +128,37 @@ class BillingControllerIntegrationTest {
                 .andExpect(content().string(plan.getPrice().toString()));
     }
 
+    @Test
+    @DisplayName("GET /api/subscriptions/billing/payments/export - Devrait diffuser l'export CSV")
+    void shouldStreamCsvExport() throws Exception {
+        LocalDate today = LocalDate.now();
+
+        MvcResult result = mockMvc.perform(get("/api/subscriptions/billing/payments/export")
+                        .param("from", today.toString())
+                        .param("to", today.toString())
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", containsString("payments-" + today)))
+                .andExpect(content().string(startsWith("paymentId,subscriptionId,amount,currency")));
+    }
+
+    @Test
+    @DisplayName("GET /api/subscriptions/billing/payments/export - Devrait refuser un format inconnu")
+    void shouldRejectUnknownExportFormat() throws Exception {
+        mockMvc.perform(get("/api/subscriptions/billing/payments/export")
+                        .param("from", LocalDate.now().toString())
+                        .param("to", LocalDate.now().toString())
+                        .param("format", "xml"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
     private void performPayment() throws Exception {
         ProcessPaymentRequest request = ProcessPaymentRequest.builder()
                 .subscriptionId(subscription.getSubscriptionId())
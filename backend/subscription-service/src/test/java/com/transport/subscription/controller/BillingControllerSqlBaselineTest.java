@@ -0,0 +1,316 @@
+package com.transport.subscription.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transport.subscription.dto.request.ProcessPaymentRequest;
+import com.transport.subscription.dto.request.RefundBatchRequest;
+import com.transport.subscription.model.PaymentMethod;
+import com.transport.subscription.model.PaymentStatus;
+import com.transport.subscription.model.PaymentType;
+import com.transport.subscription.model.Plan;
+import com.transport.subscription.model.Subscription;
+import com.transport.subscription.model.SubscriptionPayment;
+import com.transport.subscription.model.SubscriptionStatus;
+import com.transport.subscription.repository.BillingHistoryRepository;
+import com.transport.subscription.repository.PlanRepository;
+import com.transport.subscription.repository.SubscriptionRepository;
+import com.transport.subscription.support.DatabaseCleaner;
+import com.transport.subscription.support.SqlBaselineTest;
+import com.transport.subscription.support.SqlRecorder;
+import com.transport.subscription.support.SqlRecording;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Nombre de requêtes SQL de référence des endpoints de BillingController
+ * Un abonnement actif avec un paiement réussi du jour ; le grand livre est vide au départ
+ * (chaque cumul passe donc par UPDATE, INSERT ... ON CONFLICT DO NOTHING, UPDATE).
+ */
+@SqlBaselineTest
+@DisplayName("BillingController SQL Baseline Tests")
+class BillingControllerSqlBaselineTest {
+
+    private static final Path SETTLEMENT_INBOX = Path.of("target/sql-baseline/settlements/inbox");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DatabaseCleaner databaseCleaner;
+
+    @Autowired
+    private PlanRepository planRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private BillingHistoryRepository billingHistoryRepository;
+
+    private Plan plan;
+    private Subscription subscription;
+    private SubscriptionPayment payment;
+
+    @BeforeEach
+    void setUp() {
+        databaseCleaner.clean();
+
+        plan = planRepository.save(Plan.builder()
+                .planCode("MONTHLY_SQL")
+                .description("Plan mensuel")
+                .durationDays(30)
+                .price(new BigDecimal("19.99"))
+                .currency("EUR")
+                .isActive(true)
+                .build());
+        subscription = subscriptionRepository.save(Subscription.builder()
+                .userId(UUID.randomUUID())
+                .plan(plan)
+                .status(SubscriptionStatus.ACTIVE)
+                .startDate(LocalDate.now())
+                .endDate(LocalDate.now().plusDays(30))
+                .nextBillingDate(LocalDate.now().plusDays(30))
+                .amountPaid(BigDecimal.ZERO)
+                .autoRenewEnabled(true)
+                .cardToken("tok_sql_baseline")
+                .build());
+        payment = billingHistoryRepository.save(succeededPayment("txn-sql-1"));
+    }
+
+    @Test
+    @DisplayName("POST /payments - abonnement, idempotence, paiement, montant payé et grand livre")
+    void processPayment() throws Exception {
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(post("/api/subscriptions/billing/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(paymentRequest("idemp-sql-sync"))))
+                .andExpect(status().isCreated()));
+
+        sql.assertCounts(2, 3, 5, 0);
+    }
+
+    @Test
+    @DisplayName("POST /payments/async - partie synchrone : idempotence, abonnement, paiement PENDING")
+    void submitPayment() throws Exception {
+        AtomicReference<MvcResult> result = new AtomicReference<>();
+        SqlRecording sql = SqlRecorder.record(() -> result.set(mockMvc.perform(
+                        post("/api/subscriptions/billing/payments/async")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(paymentRequest("idemp-sql-async"))))
+                .andExpect(status().isAccepted())
+                .andReturn()));
+
+        // findPaymentByIdempotencyKey, findById (hors transaction) puis findById dans recordPendingPayment
+        sql.assertCounts(3, 1, 0, 0);
+        awaitProcessed(UUID.fromString(objectMapper.readTree(result.get().getResponse().getContentAsString())
+                .get("paymentId").asText()));
+    }
+
+    @Test
+    @DisplayName("GET /subscriptions/{id} - 2 SELECT quel que soit le nombre de paiements")
+    void getBillingHistory() throws Exception {
+        billingHistoryRepository.save(succeededPayment("txn-sql-2"));
+        billingHistoryRepository.save(succeededPayment("txn-sql-3"));
+
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(
+                        get("/api/subscriptions/billing/subscriptions/{id}", subscription.getSubscriptionId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3))));
+
+        sql.assertCounts(2, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("GET /payments/{id} - 1 SELECT, l'abonnement LAZY n'est pas chargé")
+    void getPaymentById() throws Exception {
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(
+                        get("/api/subscriptions/billing/payments/{id}", payment.getPaymentId()))
+                .andExpect(status().isOk()));
+
+        sql.assertCounts(1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("GET /subscriptions/{id}/total - 1 SELECT sur le grand livre")
+    void getTotalPaidAmount() throws Exception {
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(
+                        get("/api/subscriptions/billing/subscriptions/{id}/total", subscription.getSubscriptionId()))
+                .andExpect(status().isOk()));
+
+        sql.assertCounts(1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("GET /plans/{id}/revenue - 1 SELECT sur les cumuls journaliers")
+    void getPlanRevenue() throws Exception {
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(
+                        get("/api/subscriptions/billing/plans/{id}/revenue", plan.getPlanId())
+                                .param("from", LocalDate.now().minusDays(7).toString())
+                                .param("to", LocalDate.now().toString()))
+                .andExpect(status().isOk()));
+
+        sql.assertCounts(1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("GET /payments/export - 1 SELECT en flux, sur le thread de la réponse asynchrone")
+    void exportPayments() throws Exception {
+        SqlRecording sql = SqlRecorder.recordIncludingThreads("task-", () -> {
+            MvcResult result = mockMvc.perform(get("/api/subscriptions/billing/payments/export")
+                            .param("from", LocalDate.now().toString())
+                            .param("to", LocalDate.now().toString()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        });
+
+        sql.assertCounts(1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("POST /payments/{id}/refund - réservation, finalisation, montant payé et grand livre")
+    void refundPayment() throws Exception {
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(
+                        post("/api/subscriptions/billing/payments/{id}/refund", payment.getPaymentId()))
+                .andExpect(status().isOk()));
+
+        // SELECT : paiement, puis (réservation) paiement + clé de remboursement,
+        // puis (finalisation) remboursement + paiement d'origine + abonnement LAZY pour le plan
+        sql.assertCounts(6, 3, 7, 0);
+    }
+
+    @Test
+    @DisplayName("POST /refund-batches - candidats en une page, lignes du lot, relecture du lot détaché")
+    void submitRefundBatch() throws Exception {
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(post("/api/subscriptions/billing/refund-batches")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refundBatchRequest())))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.total").value(1)));
+
+        // Le lot est détaché par le clear() de la matérialisation : save() le relit (merge) avant l'UPDATE
+        sql.assertCounts(2, 2, 1, 0);
+    }
+
+    @Test
+    @DisplayName("GET /refund-batches/{id} - lot et comptage des lignes par statut")
+    void getRefundBatch() throws Exception {
+        UUID batchId = submitBatch();
+
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(
+                        get("/api/subscriptions/billing/refund-batches/{id}", batchId))
+                .andExpect(status().isOk()));
+
+        sql.assertCounts(2, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("POST /refund-batches/{id}/cancel - lot, comptage des lignes et UPDATE du statut")
+    void cancelRefundBatch() throws Exception {
+        UUID batchId = submitBatch();
+
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(
+                        post("/api/subscriptions/billing/refund-batches/{id}/cancel", batchId))
+                .andExpect(status().isOk()));
+
+        sql.assertCounts(2, 0, 1, 0);
+    }
+
+    @Test
+    @DisplayName("POST /settlements/{date}/reconcile - 1 SELECT pour tous les paiements de la journée")
+    void reconcileSettlement() throws Exception {
+        LocalDate today = LocalDate.now();
+        Files.createDirectories(SETTLEMENT_INBOX);
+        Files.writeString(SETTLEMENT_INBOX.resolve("settlement-" + today + ".csv"),
+                "external_txn_id,amount\ntxn-sql-1,19.99\n");
+
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(
+                        post("/api/subscriptions/billing/settlements/{date}/reconcile", today))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(1)));
+
+        sql.assertCounts(1, 0, 0, 0);
+    }
+
+    private ProcessPaymentRequest paymentRequest(String idempotencyKey) {
+        return ProcessPaymentRequest.builder()
+                .subscriptionId(subscription.getSubscriptionId())
+                .amount(plan.getPrice())
+                .currency(plan.getCurrency())
+                .paymentMethod(PaymentMethod.CARD)
+                .cardToken("tok_sql_baseline")
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+
+    private RefundBatchRequest refundBatchRequest() {
+        return RefundBatchRequest.builder()
+                .from(LocalDate.now())
+                .to(LocalDate.now())
+                .reason("Baseline SQL")
+                .build();
+    }
+
+    private SubscriptionPayment succeededPayment(String externalTxnId) {
+        return SubscriptionPayment.builder()
+                .subscription(subscription)
+                .amount(plan.getPrice())
+                .currency(plan.getCurrency())
+                .paymentDate(OffsetDateTime.now())
+                .paymentStatus(PaymentStatus.SUCCEEDED)
+                .paymentMethod(PaymentMethod.CARD)
+                .paymentType(PaymentType.INITIAL)
+                .externalTxnId(externalTxnId)
+                .idempotencyKey("idemp-" + externalTxnId)
+                .build();
+    }
+
+    private UUID submitBatch() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/subscriptions/billing/refund-batches")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refundBatchRequest())))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        return UUID.fromString(objectMapper.readTree(result.getResponse().getContentAsString())
+                .get("batchId").asText());
+    }
+
+    /**
+     * Attend la fin du traitement asynchrone pour qu'il ne modifie pas la base pendant le test suivant
+     */
+    private void awaitProcessed(UUID paymentId) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            if (billingHistoryRepository.findById(paymentId)
+                    .map(p -> p.getPaymentStatus() != PaymentStatus.PENDING)
+                    .orElse(false)) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        fail("Le paiement asynchrone " + paymentId + " n'a pas été traité");
+    }
+}
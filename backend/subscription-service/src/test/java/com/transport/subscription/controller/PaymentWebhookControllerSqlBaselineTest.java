@@ -0,0 +1,62 @@
+package com.transport.subscription.controller;
+
+import com.transport.subscription.support.DatabaseCleaner;
+import com.transport.subscription.support.SqlBaselineTest;
+import com.transport.subscription.support.SqlRecorder;
+import com.transport.subscription.support.SqlRecording;
+import com.transport.subscription.util.WebhookSignatures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Nombre de requêtes SQL de référence de la réception des webhooks de paiement
+ */
+@SqlBaselineTest
+@DisplayName("PaymentWebhookController SQL Baseline Tests")
+class PaymentWebhookControllerSqlBaselineTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DatabaseCleaner databaseCleaner;
+
+    @Value("${payment.gateway.webhook-secret}")
+    private String webhookSecret;
+
+    @BeforeEach
+    void setUp() {
+        databaseCleaner.clean();
+    }
+
+    @Test
+    @DisplayName("POST /webhooks/payments - 1 INSERT, puis aucune requête pour un renvoi déjà connu")
+    void receivePaymentWebhook() throws Exception {
+        String payload = String.format("{\"id\":\"evt-%s\",\"type\":\"payment.succeeded\"," +
+                "\"data\":{\"externalTxnId\":\"txn-sql-webhook\"}}", UUID.randomUUID());
+
+        SqlRecording first = SqlRecorder.record(() -> mockMvc.perform(webhook(payload)).andExpect(status().isOk()));
+        SqlRecording redelivery = SqlRecorder.record(() -> mockMvc.perform(webhook(payload)).andExpect(status().isOk()));
+
+        first.assertCounts(0, 1, 0, 0);
+        redelivery.assertCounts(0, 0, 0, 0);
+    }
+
+    private MockHttpServletRequestBuilder webhook(String payload) {
+        return post("/api/subscriptions/billing/webhooks/payments")
+                .header("X-Webhook-Signature", WebhookSignatures.sign(payload, webhookSecret))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payload);
+    }
+}
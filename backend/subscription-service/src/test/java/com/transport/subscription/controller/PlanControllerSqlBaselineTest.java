@@ -0,0 +1,96 @@
+package com.transport.subscription.controller;
+
+import com.transport.subscription.model.Plan;
+import com.transport.subscription.repository.PlanRepository;
+import com.transport.subscription.support.DatabaseCleaner;
+import com.transport.subscription.support.SqlBaselineTest;
+import com.transport.subscription.support.SqlRecorder;
+import com.transport.subscription.support.SqlRecording;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Nombre de requêtes SQL de référence des endpoints de PlanController
+ */
+@SqlBaselineTest
+@DisplayName("PlanController SQL Baseline Tests")
+class PlanControllerSqlBaselineTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DatabaseCleaner databaseCleaner;
+
+    @Autowired
+    private PlanRepository planRepository;
+
+    private Plan plan;
+
+    @BeforeEach
+    void setUp() {
+        databaseCleaner.clean();
+
+        plan = planRepository.save(plan("MONTHLY_SQL", true));
+        planRepository.save(plan("WEEKLY_SQL", true));
+        planRepository.save(plan("LEGACY_SQL", false));
+    }
+
+    @Test
+    @DisplayName("GET /api/subscriptions/plans - 1 SELECT quel que soit le nombre de plans")
+    void getAllActivePlans() throws Exception {
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(get("/api/subscriptions/plans"))
+                .andExpect(status().isOk()));
+
+        sql.assertCounts(1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("GET /api/subscriptions/plans/all - 1 SELECT quel que soit le nombre de plans")
+    void getAllPlans() throws Exception {
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(get("/api/subscriptions/plans/all"))
+                .andExpect(status().isOk()));
+
+        sql.assertCounts(1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("GET /api/subscriptions/plans/{id} - 1 SELECT, puis servi par le cache")
+    void getPlanById() throws Exception {
+        SqlRecording first = SqlRecorder.record(() -> mockMvc.perform(
+                get("/api/subscriptions/plans/{id}", plan.getPlanId())).andExpect(status().isOk()));
+        SqlRecording cached = SqlRecorder.record(() -> mockMvc.perform(
+                get("/api/subscriptions/plans/{id}", plan.getPlanId())).andExpect(status().isOk()));
+
+        first.assertCounts(1, 0, 0, 0);
+        cached.assertCounts(0, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("GET /api/subscriptions/plans/code/{code} - 1 SELECT")
+    void getPlanByCode() throws Exception {
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(
+                get("/api/subscriptions/plans/code/{code}", "MONTHLY_SQL")).andExpect(status().isOk()));
+
+        sql.assertCounts(1, 0, 0, 0);
+    }
+
+    private static Plan plan(String planCode, boolean active) {
+        return Plan.builder()
+                .planCode(planCode)
+                .description("Plan " + planCode)
+                .durationDays(30)
+                .price(new BigDecimal("19.99"))
+                .currency("EUR")
+                .isActive(active)
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.transport.subscription.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transport.subscription.dto.request.BatchLookupRequest;
 import com.transport.subscription.dto.request.CreateSubscriptionRequest;
 import com.transport.subscription.dto.response.PlanResponse;
 import com.transport.subscription.dto.response.SubscriptionResponse;
@@ -22,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
@@ -219,5 +221,47 @@ class SubscriptionControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("ACTIVE"));
     }
-}
 
+    @Test
+    @DisplayName("POST /api/subscriptions/lookup - Devrait retourner les abonnements trouvés indexés par ID")
+    void shouldLookupSubscriptionsByIds() throws Exception {
+        // Given
+        Subscription subscription = Subscription.builder()
+                .userId(userId)
+                .plan(testPlan)
+                .status(SubscriptionStatus.ACTIVE)
+                .startDate(LocalDate.now())
+                .amountPaid(BigDecimal.ZERO)
+                .autoRenewEnabled(true)
+                .build();
+        subscription = subscriptionRepository.save(subscription);
+        UUID unknownId = UUID.randomUUID();
+
+        BatchLookupRequest request = BatchLookupRequest.builder()
+                .ids(List.of(subscription.getSubscriptionId(), unknownId))
+                .build();
+
+        // When & Then
+        mockMvc.perform(post("/api/subscriptions/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.*", hasSize(1)))
+                .andExpect(jsonPath("$['" + subscription.getSubscriptionId() + "'].planCode")
+                        .value(testPlan.getPlanCode()))
+                .andExpect(jsonPath("$['" + unknownId + "']").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("POST /api/subscriptions/lookup - Devrait rejeter un ID null avec 400")
+    void shouldRejectNullIdInLookup() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/subscriptions/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + UUID.randomUUID() + "\",null]}"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validationErrors['ids[1]']").value("Subscription ID must not be null"));
+    }
+}
@@ -0,0 +1,236 @@
+package com.transport.subscription.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transport.subscription.dto.request.BatchLookupRequest;
+import com.transport.subscription.dto.request.BulkCreateSubscriptionRequest;
+import com.transport.subscription.dto.request.CreateSubscriptionRequest;
+import com.transport.subscription.dto.request.UpdateSubscriptionRequest;
+import com.transport.subscription.model.Plan;
+import com.transport.subscription.model.Subscription;
+import com.transport.subscription.model.SubscriptionStatus;
+import com.transport.subscription.repository.PlanRepository;
+import com.transport.subscription.repository.SubscriptionRepository;
+import com.transport.subscription.support.DatabaseCleaner;
+import com.transport.subscription.support.SqlBaselineTest;
+import com.transport.subscription.support.SqlRecorder;
+import com.transport.subscription.support.SqlRecording;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Nombre de requêtes SQL de référence des endpoints de SubscriptionController
+ * Un utilisateur possède trois abonnements sur trois plans différents (deux actifs, un en attente).
+ */
+@SqlBaselineTest
+@DisplayName("SubscriptionController SQL Baseline Tests")
+class SubscriptionControllerSqlBaselineTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DatabaseCleaner databaseCleaner;
+
+    @Autowired
+    private PlanRepository planRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    private Plan monthlyPlan;
+    private UUID userId;
+    private Subscription activeSubscription;
+    private Subscription secondActiveSubscription;
+    private Subscription pendingSubscription;
+
+    @BeforeEach
+    void setUp() {
+        databaseCleaner.clean();
+
+        monthlyPlan = planRepository.save(plan("MONTHLY_SQL"));
+        Plan weeklyPlan = planRepository.save(plan("WEEKLY_SQL"));
+        Plan yearlyPlan = planRepository.save(plan("YEARLY_SQL"));
+
+        userId = UUID.randomUUID();
+        activeSubscription = subscriptionRepository.save(subscription(monthlyPlan, SubscriptionStatus.ACTIVE));
+        secondActiveSubscription = subscriptionRepository.save(subscription(weeklyPlan, SubscriptionStatus.ACTIVE));
+        pendingSubscription = subscriptionRepository.save(subscription(yearlyPlan, SubscriptionStatus.PENDING));
+    }
+
+    @Test
+    @DisplayName("POST /api/subscriptions - plan, contrôle d'unicité, abonnement et historique")
+    void createSubscription() throws Exception {
+        CreateSubscriptionRequest request = CreateSubscriptionRequest.builder()
+                .userId(UUID.randomUUID())
+                .planId(monthlyPlan.getPlanId())
+                .cardToken("tok_sql_baseline")
+                .build();
+
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(post("/api/subscriptions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated()));
+
+        sql.assertCounts(2, 2, 0, 0);
+    }
+
+    @Test
+    @DisplayName("POST /api/subscriptions/bulk - SELECT ensemblistes puis INSERT groupés, sans requête par ligne")
+    void createSubscriptionsBulk() throws Exception {
+        List<CreateSubscriptionRequest> rows = IntStream.range(0, 3)
+                .mapToObj(i -> CreateSubscriptionRequest.builder()
+                        .userId(UUID.randomUUID())
+                        .planId(monthlyPlan.getPlanId())
+                        .build())
+                .toList();
+        BulkCreateSubscriptionRequest request = BulkCreateSubscriptionRequest.builder().subscriptions(rows).build();
+
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(post("/api/subscriptions/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(3)));
+
+        // Plan (via le cache des plans) + couples existants ; abonnement + historique par ligne
+        sql.assertCounts(2, 6, 0, 0);
+    }
+
+    @Test
+    @DisplayName("POST /api/subscriptions/lookup - 1 SELECT avec le plan pour tous les IDs")
+    void getSubscriptionsByIds() throws Exception {
+        BatchLookupRequest request = BatchLookupRequest.builder()
+                .ids(List.of(activeSubscription.getSubscriptionId(), secondActiveSubscription.getSubscriptionId(),
+                        pendingSubscription.getSubscriptionId()))
+                .build();
+
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(post("/api/subscriptions/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk()));
+
+        sql.assertCounts(1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("GET /api/subscriptions/{id} - abonnement puis plan LAZY, puis servi par le cache")
+    void getSubscriptionById() throws Exception {
+        SqlRecording first = SqlRecorder.record(() -> mockMvc.perform(
+                get("/api/subscriptions/{id}", activeSubscription.getSubscriptionId())).andExpect(status().isOk()));
+        SqlRecording cached = SqlRecorder.record(() -> mockMvc.perform(
+                get("/api/subscriptions/{id}", activeSubscription.getSubscriptionId())).andExpect(status().isOk()));
+
+        first.assertCounts(2, 0, 0, 0);
+        cached.assertCounts(0, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("GET /api/subscriptions/users/{id} - N+1 connu : 1 SELECT + 1 par plan distinct")
+    void getUserSubscriptions() throws Exception {
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(get("/api/subscriptions/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3))));
+
+        sql.assertCounts(4, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("GET /api/subscriptions/users/{id}/active - N+1 connu : 1 SELECT + 1 par plan distinct")
+    void getActiveUserSubscriptions() throws Exception {
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(
+                        get("/api/subscriptions/users/{id}/active", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2))));
+
+        sql.assertCounts(3, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("PUT /api/subscriptions/{id} - lecture, plan, UPDATE versionné et historique")
+    void updateSubscription() throws Exception {
+        UpdateSubscriptionRequest request = UpdateSubscriptionRequest.builder().autoRenewEnabled(false).build();
+
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(
+                        put("/api/subscriptions/{id}", activeSubscription.getSubscriptionId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk()));
+
+        sql.assertCounts(2, 1, 1, 0);
+    }
+
+    @Test
+    @DisplayName("POST /api/subscriptions/{id}/cancel - lecture, plan, UPDATE versionné et historique")
+    void cancelSubscription() throws Exception {
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(
+                        post("/api/subscriptions/{id}/cancel", activeSubscription.getSubscriptionId()))
+                .andExpect(status().isOk()));
+
+        sql.assertCounts(2, 1, 1, 0);
+    }
+
+    @Test
+    @DisplayName("POST /api/subscriptions/{id}/renew - lecture, plan et historique, sans UPDATE le jour du début")
+    void renewSubscription() throws Exception {
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(
+                        post("/api/subscriptions/{id}/renew", activeSubscription.getSubscriptionId()))
+                .andExpect(status().isOk()));
+
+        // Renouvelé le jour de son début, l'abonnement garde ses dates et son statut : rien à écrire
+        sql.assertCounts(2, 1, 0, 0);
+    }
+
+    @Test
+    @DisplayName("POST /api/subscriptions/{id}/activate - lecture, plan, UPDATE versionné et historique")
+    void activateSubscription() throws Exception {
+        SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(
+                        post("/api/subscriptions/{id}/activate", pendingSubscription.getSubscriptionId()))
+                .andExpect(status().isOk()));
+
+        sql.assertCounts(2, 1, 1, 0);
+    }
+
+    private static Plan plan(String planCode) {
+        return Plan.builder()
+                .planCode(planCode)
+                .description("Plan " + planCode)
+                .durationDays(30)
+                .price(new BigDecimal("19.99"))
+                .currency("EUR")
+                .isActive(true)
+                .build();
+    }
+
+    private Subscription subscription(Plan plan, SubscriptionStatus status) {
+        return Subscription.builder()
+                .userId(userId)
+                .plan(plan)
+                .status(status)
+                .startDate(LocalDate.now())
+                .endDate(LocalDate.now().plusDays(30))
+                .nextBillingDate(LocalDate.now().plusDays(30))
+                .amountPaid(BigDecimal.ZERO)
+                .autoRenewEnabled(true)
+                .cardToken("tok_sql_baseline")
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.model.PaymentMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour AsyncPaymentProcessor
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AsyncPaymentProcessor Tests")
+class AsyncPaymentProcessorTest {
+
+    @Mock
+    private PaymentGateway paymentGateway;
+
+    @Mock
+    private BillingService billingService;
+
+    private AsyncPaymentProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new AsyncPaymentProcessor(paymentGateway, billingService, 1, 10,
+                Duration.ofMillis(100), false);
+    }
+
+    @Test
+    @DisplayName("Devrait marquer en échec les paiements encore en file à l'arrêt")
+    void shouldFailQueuedPaymentsOnShutdown() throws Exception {
+        CountDownLatch charging = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(paymentGateway.charge(any())).thenAnswer(invocation -> {
+            charging.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new PaymentGateway.PaymentResult(true, "ext-1", null);
+        });
+
+        UUID running = UUID.randomUUID();
+        UUID queued = UUID.randomUUID();
+        processor.submit(running, request());
+        assertTrue(charging.await(5, TimeUnit.SECONDS));
+        processor.submit(queued, request());
+        assertTrue(processor.isInFlight(queued));
+
+        processor.shutdown();
+
+        verify(billingService).failPendingPayment(queued, "Service shutdown before gateway call");
+        verify(billingService, never()).failPendingPayment(eq(running), anyString());
+        verify(paymentGateway, times(1)).charge(any());
+    }
+
+    @Test
+    @DisplayName("Devrait oublier un paiement une fois son issue enregistrée")
+    void shouldClearInFlightAfterProcessing() throws Exception {
+        when(paymentGateway.charge(any())).thenReturn(new PaymentGateway.PaymentResult(true, "ext-1", null));
+        UUID paymentId = UUID.randomUUID();
+
+        processor.submit(paymentId, request());
+        processor.shutdown();
+
+        verify(billingService).completePendingPayment(paymentId, "ext-1");
+        assertFalse(processor.isInFlight(paymentId));
+    }
+
+    private PaymentGateway.PaymentRequest request() {
+        return new PaymentGateway.PaymentRequest(UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("19.99"),
+                "EUR", PaymentMethod.CARD, "tok_test", "idemp-" + UUID.randomUUID());
+    }
+}
@@ -1,23 +1,38 @@
 package com.transport.subscription.service;
 
 import com.transport.subscription.dto.mapper.PaymentMapper;
+import com.transport.subscription.dto.mapper.PlanRevenueMapper;
 import com.transport.subscription.dto.response.PaymentResponse;
+import com.transport.subscription.exception.InvalidSubscriptionException;
 import com.transport.subscription.exception.SubscriptionNotFoundException;
 import com.transport.subscription.model.PaymentMethod;
 import com.transport.subscription.model.PaymentStatus;
+import com.transport.subscription.model.Plan;
 import com.transport.subscription.model.Subscription;
 import com.transport.subscription.model.SubscriptionPayment;
+import com.transport.subscription.model.SubscriptionRevenueLedger;
+import com.transport.subscription.model.SubscriptionStatus;
 import com.transport.subscription.repository.BillingHistoryRepository;
+import com.transport.subscription.repository.PaymentRetryRepository;
+import com.transport.subscription.repository.PlanRevenueDailyRepository;
 import com.transport.subscription.repository.SubscriptionRepository;
+import com.transport.subscription.repository.SubscriptionRevenueLedgerRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +40,8 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -40,9 +57,27 @@ class BillingServiceTest {
     @Mock
     private SubscriptionRepository subscriptionRepository;
 
+    @Mock
+    private SubscriptionRevenueLedgerRepository revenueLedgerRepository;
+
+    @Mock
+    private PlanRevenueDailyRepository planRevenueDailyRepository;
+
     @Mock
     private PaymentMapper paymentMapper;
 
+    @Mock
+    private PlanRevenueMapper planRevenueMapper;
+
+    @Mock
+    private PaymentRetryRepository paymentRetryRepository;
+
+    @Mock
+    private DunningPolicy dunningPolicy;
+
+    @Mock
+    private Clock clock;
+
     @InjectMocks
     private BillingServiceImpl billingService;
 
@@ -53,11 +88,14 @@ class BillingServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(clock.instant()).thenAnswer(invocation -> Instant.now());
+        lenient().when(clock.getZone()).thenReturn(ZoneId.systemDefault());
         subscriptionId = UUID.randomUUID();
         paymentId = UUID.randomUUID();
 
         testSubscription = Subscription.builder()
                 .subscriptionId(subscriptionId)
+                .plan(Plan.builder().planId(UUID.randomUUID()).build())
                 .amountPaid(BigDecimal.ZERO)
                 .build();
 
@@ -85,7 +123,7 @@ class BillingServiceTest {
 
         when(subscriptionRepository.findById(subscriptionId))
                 .thenReturn(Optional.of(testSubscription));
-        when(billingHistoryRepository.findBySubscriptionIdOrderByPaymentDateDesc(subscriptionId))
+        when(billingHistoryRepository.findBySubscription_SubscriptionIdOrderByPaymentDateDesc(subscriptionId))
                 .thenReturn(payments);
         when(paymentMapper.toResponseList(payments)).thenReturn(expectedResponses);
 
@@ -96,7 +134,7 @@ class BillingServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         verify(subscriptionRepository).findById(subscriptionId);
-        verify(billingHistoryRepository).findBySubscriptionIdOrderByPaymentDateDesc(subscriptionId);
+        verify(billingHistoryRepository).findBySubscription_SubscriptionIdOrderByPaymentDateDesc(subscriptionId);
     }
 
     @Test
@@ -124,8 +162,6 @@ class BillingServiceTest {
                 .thenReturn(false);
         when(billingHistoryRepository.save(any(SubscriptionPayment.class)))
                 .thenReturn(testPayment);
-        when(subscriptionRepository.save(any(Subscription.class)))
-                .thenReturn(testSubscription);
         when(paymentMapper.toResponse(testPayment)).thenReturn(
                 PaymentResponse.builder()
                         .paymentId(paymentId)
@@ -143,7 +179,10 @@ class BillingServiceTest {
         assertEquals(paymentId, result.getPaymentId());
         assertEquals(PaymentStatus.SUCCEEDED, result.getPaymentStatus());
         verify(billingHistoryRepository).save(any(SubscriptionPayment.class));
-        verify(subscriptionRepository).save(any(Subscription.class));
+        verify(subscriptionRepository).incrementAmountPaid(subscriptionId, amount);
+        verify(subscriptionRepository, never()).save(any(Subscription.class));
+        verify(revenueLedgerRepository).insertIfAbsent(eq(subscriptionId), eq(currency), any());
+        verify(revenueLedgerRepository, times(2)).addToTotal(eq(subscriptionId), eq(amount), eq(1L), any());
     }
 
     @Test
@@ -173,21 +212,131 @@ class BillingServiceTest {
     }
 
     @Test
-    @DisplayName("Devrait calculer le montant total payé")
-    void shouldCalculateTotalPaidAmount() {
+    @DisplayName("Devrait lire le montant total payé dans le grand livre")
+    void shouldReadTotalPaidAmountFromLedger() {
         // Given
-        Double total = 59.98;
-        when(billingHistoryRepository.calculateTotalPaidAmount(
-                subscriptionId, PaymentStatus.SUCCEEDED)).thenReturn(total);
+        when(revenueLedgerRepository.findById(subscriptionId)).thenReturn(Optional.of(
+                SubscriptionRevenueLedger.builder()
+                        .subscriptionId(subscriptionId)
+                        .currency("EUR")
+                        .totalPaid(new BigDecimal("59.98"))
+                        .paymentCount(2L)
+                        .build()));
 
         // When
         BigDecimal result = billingService.getTotalPaidAmount(subscriptionId);
 
         // Then
-        assertNotNull(result);
         assertEquals(new BigDecimal("59.98"), result);
-        verify(billingHistoryRepository).calculateTotalPaidAmount(
-                subscriptionId, PaymentStatus.SUCCEEDED);
+        verify(billingHistoryRepository, never()).calculateTotalPaidAmount(any(), any());
     }
-}
 
+    @Test
+    @DisplayName("Devrait retourner zéro si aucun paiement n'est enregistré")
+    void shouldReturnZeroWhenLedgerIsEmpty() {
+        when(revenueLedgerRepository.findById(subscriptionId)).thenReturn(Optional.empty());
+
+        assertEquals(BigDecimal.ZERO, billingService.getTotalPaidAmount(subscriptionId));
+    }
+
+    @Test
+    @DisplayName("Devrait planifier une relance pour un paiement échoué d'un abonnement actif")
+    void shouldScheduleDunningForFailedPayment() {
+        // Given
+        testSubscription.setStatus(SubscriptionStatus.ACTIVE);
+        when(subscriptionRepository.findById(subscriptionId)).thenReturn(Optional.of(testSubscription));
+        when(billingHistoryRepository.save(any(SubscriptionPayment.class))).thenAnswer(invocation -> {
+            SubscriptionPayment saved = invocation.getArgument(0);
+            saved.setPaymentId(paymentId);
+            return saved;
+        });
+
+        // When
+        billingService.recordFailedPayment(subscriptionId, new BigDecimal("29.99"), "EUR",
+                "Insufficient funds", "idemp-456", PaymentMethod.CARD);
+
+        // Then
+        verify(paymentRetryRepository).insertIfAbsent(any(), eq(subscriptionId), eq(paymentId),
+                eq(new BigDecimal("29.99")), eq("EUR"), eq("CARD"), any(), eq("Insufficient funds"), any());
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas planifier de relance pour l'échec d'une relance")
+    void shouldNotScheduleDunningForDunningAttempt() {
+        testSubscription.setStatus(SubscriptionStatus.ACTIVE);
+        when(subscriptionRepository.findById(subscriptionId)).thenReturn(Optional.of(testSubscription));
+        when(billingHistoryRepository.save(any(SubscriptionPayment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        billingService.recordFailedPayment(subscriptionId, new BigDecimal("29.99"), "EUR",
+                "Insufficient funds", BillingServiceImpl.DUNNING_KEY_PREFIX + UUID.randomUUID() + "-1", PaymentMethod.CARD);
+
+        verifyNoInteractions(paymentRetryRepository);
+    }
+
+    @Test
+    @DisplayName("Devrait dater les paiements en attente et échoués avec l'horloge du service")
+    void shouldDatePendingAndFailedPaymentsWithServiceClock() {
+        Instant now = Instant.parse("2030-01-15T10:00:00Z");
+        when(clock.instant()).thenReturn(now);
+        when(subscriptionRepository.findById(subscriptionId)).thenReturn(Optional.of(testSubscription));
+        when(billingHistoryRepository.saveAndFlush(any(SubscriptionPayment.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(billingHistoryRepository.save(any(SubscriptionPayment.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        billingService.recordPendingPayment(subscriptionId, new BigDecimal("29.99"), "EUR",
+                "idemp-pending", PaymentMethod.CARD);
+        billingService.recordFailedPayment(subscriptionId, new BigDecimal("29.99"), "EUR",
+                "Insufficient funds", BillingServiceImpl.DUNNING_KEY_PREFIX + UUID.randomUUID() + "-1",
+                PaymentMethod.CARD);
+
+        ArgumentCaptor<SubscriptionPayment> pending = ArgumentCaptor.forClass(SubscriptionPayment.class);
+        verify(billingHistoryRepository).saveAndFlush(pending.capture());
+        assertEquals(now, pending.getValue().getPaymentDate().toInstant());
+        ArgumentCaptor<SubscriptionPayment> failed = ArgumentCaptor.forClass(SubscriptionPayment.class);
+        verify(billingHistoryRepository).save(failed.capture());
+        assertEquals(now, failed.getValue().getPaymentDate().toInstant());
+    }
+
+    @Test
+    @DisplayName("Devrait retirer un remboursement du revenu du jour d'origine, dans le fuseau de l'horloge")
+    void shouldBucketRefundOnOriginalDayInClockZone() {
+        when(clock.getZone()).thenReturn(ZoneId.of("Europe/Paris"));
+        // 23h30 UTC le 15 : déjà le 16 à Paris
+        testPayment.setPaymentDate(OffsetDateTime.parse("2030-01-15T23:30:00Z"));
+        UUID refundId = UUID.randomUUID();
+        SubscriptionPayment refund = SubscriptionPayment.builder()
+                .paymentId(refundId)
+                .subscription(testSubscription)
+                .paymentStatus(PaymentStatus.REFUNDED)
+                .idempotencyKey(BillingServiceImpl.REFUND_KEY_PREFIX + paymentId)
+                .build();
+        when(billingHistoryRepository.transitionStatus(eq(refundId), any(), any(), any(), any(), any())).thenReturn(1);
+        when(billingHistoryRepository.findById(refundId)).thenReturn(Optional.of(refund));
+        when(billingHistoryRepository.findById(paymentId)).thenReturn(Optional.of(testPayment));
+        when(billingHistoryRepository.markRefunded(paymentId, PaymentStatus.SUCCEEDED, PaymentStatus.REFUNDED))
+                .thenReturn(1);
+        when(revenueLedgerRepository.addToTotal(any(), any(), anyLong(), any())).thenReturn(1);
+        when(planRevenueDailyRepository.addToTotal(any(), any(), any(), any(), anyLong(), any())).thenReturn(1);
+
+        billingService.completeRefund(refundId, "ext-1-refund");
+
+        verify(planRevenueDailyRepository).addToTotal(eq(testSubscription.getPlan().getPlanId()),
+                eq(LocalDate.of(2030, 1, 16)), eq("EUR"), eq(new BigDecimal("-29.99")), eq(-1L), any());
+    }
+
+    @Test
+    @DisplayName("Devrait signaler un remboursement en cours si une réservation concurrente a créé la ligne")
+    void shouldMapConcurrentRefundClaimToInProgress() {
+        testPayment.setExternalTxnId("ext-1");
+        when(billingHistoryRepository.findById(paymentId)).thenReturn(Optional.of(testPayment));
+        when(billingHistoryRepository.findByIdempotencyKey(BillingServiceImpl.REFUND_KEY_PREFIX + paymentId))
+                .thenReturn(Optional.empty());
+        when(billingHistoryRepository.saveAndFlush(any(SubscriptionPayment.class)))
+                .thenThrow(new DataIntegrityViolationException("subscription_payment_idempotency_key_key"));
+
+        InvalidSubscriptionException exception = assertThrows(InvalidSubscriptionException.class,
+                () -> billingService.claimRefund(paymentId));
+        assertEquals("Refund already in progress for payment: " + paymentId, exception.getMessage());
+    }
+}
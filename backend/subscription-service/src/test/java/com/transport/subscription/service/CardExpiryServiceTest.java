@@ -0,0 +1,129 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.repository.CardExpiryNoticeRepository;
+import com.transport.subscription.repository.SubscriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour CardExpiryService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CardExpiryService Tests")
+class CardExpiryServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 15);
+    private static final LocalDate HORIZON = TODAY.plusDays(30);
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private CardExpiryNoticeRepository cardExpiryNoticeRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private RecordingCardExpiryNotifier notifier;
+    private CardExpiryServiceImpl cardExpiryService;
+
+    @BeforeEach
+    void setUp() {
+        notifier = new RecordingCardExpiryNotifier();
+        cardExpiryService = new CardExpiryServiceImpl(subscriptionRepository, cardExpiryNoticeRepository,
+                notifier, transactionTemplate, Clock.systemDefaultZone(), 30, 2);
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Devrait notifier par lots et reprendre après le dernier ID de chaque page")
+    void shouldNotifyPageByPage() {
+        ExpiringCard first = new ExpiringCard(new UUID(0, 1), LocalDate.of(2025, 2, 1));
+        ExpiringCard second = new ExpiringCard(new UUID(0, 2), LocalDate.of(2025, 2, 3));
+        ExpiringCard third = new ExpiringCard(new UUID(0, 3), LocalDate.of(2025, 2, 10));
+        when(subscriptionRepository.findCardsExpiringBeforeBilling(eq(TODAY), eq(HORIZON), eq(2025), eq(2),
+                eq(new UUID(0, 0)), any())).thenReturn(List.of(first, second));
+        when(subscriptionRepository.findCardsExpiringBeforeBilling(eq(TODAY), eq(HORIZON), eq(2025), eq(2),
+                eq(second.getSubscriptionId()), any())).thenReturn(List.of(third));
+
+        int notified = cardExpiryService.notifyExpiringCards(TODAY);
+
+        assertEquals(3, notified);
+        assertEquals(2, notifier.batches().size());
+        assertEquals(third.getSubscriptionId(), notifier.batches().get(1).get(0).subscriptionId());
+        assertEquals(12, notifier.batches().get(0).get(0).cardExpMonth());
+        verify(cardExpiryNoticeRepository).insertIfAbsent(eq(first.getSubscriptionId()),
+                eq(LocalDate.of(2025, 2, 1)), any());
+        verify(cardExpiryNoticeRepository, times(3)).insertIfAbsent(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas marquer un lot comme notifié si l'envoi échoue")
+    void shouldNotRecordNoticesWhenNotifierFails() {
+        when(subscriptionRepository.findCardsExpiringBeforeBilling(any(), any(), anyInt(), anyInt(), any(), any()))
+                .thenReturn(List.of(new ExpiringCard(UUID.randomUUID(), LocalDate.of(2025, 2, 1))));
+        notifier.failWith(new IllegalStateException("mail server down"));
+
+        assertThrows(IllegalStateException.class, () -> cardExpiryService.notifyExpiringCards(TODAY));
+        verifyNoInteractions(cardExpiryNoticeRepository);
+    }
+
+    /**
+     * Carte expirée fin décembre 2024
+     */
+    private static final class ExpiringCard implements SubscriptionRepository.ExpiringCard {
+
+        private final UUID subscriptionId;
+        private final LocalDate nextBillingDate;
+
+        private ExpiringCard(UUID subscriptionId, LocalDate nextBillingDate) {
+            this.subscriptionId = subscriptionId;
+            this.nextBillingDate = nextBillingDate;
+        }
+
+        @Override
+        public UUID getSubscriptionId() {
+            return subscriptionId;
+        }
+
+        @Override
+        public UUID getUserId() {
+            return new UUID(1, subscriptionId.getLeastSignificantBits());
+        }
+
+        @Override
+        public LocalDate getNextBillingDate() {
+            return nextBillingDate;
+        }
+
+        @Override
+        public Integer getCardExpMonth() {
+            return 12;
+        }
+
+        @Override
+        public Integer getCardExpYear() {
+            return 2024;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.exception.PaymentGatewayUnavailableException;
+import com.transport.subscription.model.PaymentMethod;
+import com.transport.subscription.model.PaymentRetry;
+import com.transport.subscription.model.PaymentRetryStatus;
+import com.transport.subscription.model.Subscription;
+import com.transport.subscription.model.SubscriptionStatus;
+import com.transport.subscription.repository.PaymentRetryRepository;
+import com.transport.subscription.repository.SubscriptionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour DunningService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DunningService Tests")
+class DunningServiceTest {
+
+    @Mock
+    private PaymentRetryRepository paymentRetryRepository;
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private SubscriptionService subscriptionService;
+
+    @Mock
+    private BillingService billingService;
+
+    @Mock
+    private PaymentGateway paymentGateway;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private DunningServiceImpl dunningService;
+    private UUID subscriptionId;
+    private PaymentRetry retry;
+
+    @BeforeEach
+    void setUp() {
+        // Suspension après 2 relances refusées, abandon après 3
+        DunningPolicy policy = new DunningPolicy(Duration.ofHours(1), 2, Duration.ofDays(1), 2, 3);
+        dunningService = new DunningServiceImpl(paymentRetryRepository, subscriptionRepository, subscriptionService,
+                billingService, paymentGateway, policy, transactionTemplate, Clock.systemDefaultZone(), 2, 100, 1,
+                Duration.ofMinutes(10), Duration.ofMinutes(5), false);
+
+        subscriptionId = UUID.randomUUID();
+        retry = PaymentRetry.builder()
+                .retryId(UUID.randomUUID())
+                .subscriptionId(subscriptionId)
+                .paymentId(UUID.randomUUID())
+                .amount(new BigDecimal("29.99"))
+                .currency("EUR")
+                .paymentMethod(PaymentMethod.CARD)
+                .nextAttemptAt(OffsetDateTime.now().minusMinutes(1))
+                .build();
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> action = invocation.getArgument(0);
+            return action.doInTransaction(null);
+        });
+        when(paymentRetryRepository.findDue(any(), any())).thenReturn(List.of(retry));
+        when(paymentRetryRepository.claim(eq(retry.getRetryId()), any(), any())).thenReturn(1);
+        when(paymentRetryRepository.release(eq(retry.getRetryId()), any(), any(), anyInt(), any(), any(),
+                anyBoolean(), any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dunningService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Devrait recouvrer le paiement et réactiver l'abonnement suspendu")
+    void shouldRecoverPaymentAndResumeSubscription() {
+        retry.setAttemptCount(2);
+        retry.setSubscriptionPaused(true);
+        givenSubscription(SubscriptionStatus.PAUSED);
+        when(paymentGateway.charge(any())).thenReturn(new PaymentGateway.PaymentResult(true, "ext-1", null));
+
+        assertEquals(1, dunningService.processDueRetries());
+
+        String expectedKey = "dunning-" + retry.getRetryId() + "-3";
+        verify(billingService).recordSuccessfulPayment(subscriptionId, retry.getAmount(), "EUR", "ext-1",
+                expectedKey, PaymentMethod.CARD);
+        verify(subscriptionService).resumeSubscription(subscriptionId);
+        assertEquals(PaymentRetryStatus.RECOVERED, retry.getStatus());
+    }
+
+    @Test
+    @DisplayName("Devrait suspendre l'abonnement à la fin de la période de grâce")
+    void shouldPauseSubscriptionAfterGraceAttempts() {
+        retry.setAttemptCount(1);
+        givenSubscription(SubscriptionStatus.ACTIVE);
+        when(paymentGateway.charge(any())).thenReturn(new PaymentGateway.PaymentResult(false, null, "Insufficient funds"));
+        when(billingService.findPaymentByIdempotencyKey(any())).thenReturn(Optional.empty());
+
+        OffsetDateTime before = OffsetDateTime.now();
+        dunningService.processDueRetries();
+
+        verify(billingService).recordFailedPayment(eq(subscriptionId), any(), eq("EUR"), eq("Insufficient funds"),
+                eq("dunning-" + retry.getRetryId() + "-2"), eq(PaymentMethod.CARD));
+        verify(subscriptionService).pauseSubscription(eq(subscriptionId), anyString());
+        assertEquals(PaymentRetryStatus.SCHEDULED, retry.getStatus());
+        assertEquals(2, retry.getAttemptCount());
+        assertTrue(retry.getSubscriptionPaused());
+        // 1h × 2² = 4h, à ±10 % près
+        assertTrue(retry.getNextAttemptAt().isAfter(before.plusHours(3)));
+    }
+
+    @Test
+    @DisplayName("Devrait abandonner le cycle après le nombre max de relances")
+    void shouldExhaustAfterMaxAttempts() {
+        retry.setAttemptCount(2);
+        retry.setSubscriptionPaused(true);
+        givenSubscription(SubscriptionStatus.PAUSED);
+        when(paymentGateway.charge(any())).thenReturn(new PaymentGateway.PaymentResult(false, null, null));
+        when(billingService.findPaymentByIdempotencyKey(any())).thenReturn(Optional.empty());
+
+        dunningService.processDueRetries();
+
+        assertEquals(PaymentRetryStatus.EXHAUSTED, retry.getStatus());
+        verify(subscriptionService, never()).pauseSubscription(any(), any());
+        verify(paymentRetryRepository).release(eq(retry.getRetryId()), any(), eq(PaymentRetryStatus.EXHAUSTED),
+                eq(3), any(), any(), eq(true), any());
+        verify(paymentRetryRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Devrait reporter la relance sans la compter si la passerelle est indisponible")
+    void shouldDeferWhenGatewayUnavailable() {
+        givenSubscription(SubscriptionStatus.ACTIVE);
+        when(paymentGateway.charge(any())).thenThrow(
+                new PaymentGatewayUnavailableException("Payment gateway circuit is open", false, null));
+
+        assertEquals(0, dunningService.processDueRetries());
+
+        assertEquals(0, retry.getAttemptCount());
+        assertEquals(PaymentRetryStatus.SCHEDULED, retry.getStatus());
+        verifyNoInteractions(billingService);
+    }
+
+    @Test
+    @DisplayName("Devrait clôturer la relance d'un abonnement annulé sans appeler la passerelle")
+    void shouldCancelRetryForCancelledSubscription() {
+        givenSubscription(SubscriptionStatus.CANCELLED);
+
+        dunningService.processDueRetries();
+
+        assertEquals(PaymentRetryStatus.CANCELLED, retry.getStatus());
+        verifyNoInteractions(paymentGateway);
+    }
+
+    @Test
+    @DisplayName("Devrait enregistrer l'issue sous le bail posé lors de la réservation")
+    void shouldReleaseUnderClaimedLease() {
+        givenSubscription(SubscriptionStatus.CANCELLED);
+
+        dunningService.processDueRetries();
+
+        ArgumentCaptor<OffsetDateTime> claimedLease = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(paymentRetryRepository).claim(eq(retry.getRetryId()), any(), claimedLease.capture());
+        verify(paymentRetryRepository).release(eq(retry.getRetryId()), eq(claimedLease.getValue()),
+                eq(PaymentRetryStatus.CANCELLED), eq(0), any(), any(), eq(false), any());
+    }
+
+    @Test
+    @DisplayName("Devrait traiter les autres relances du lot quand l'une d'elles échoue")
+    void shouldKeepProcessingBatchWhenOneRetryFails() {
+        PaymentRetry failing = PaymentRetry.builder()
+                .retryId(UUID.randomUUID())
+                .subscriptionId(UUID.randomUUID())
+                .paymentId(UUID.randomUUID())
+                .amount(new BigDecimal("29.99"))
+                .currency("EUR")
+                .paymentMethod(PaymentMethod.CARD)
+                .nextAttemptAt(OffsetDateTime.now().minusMinutes(2))
+                .build();
+        when(paymentRetryRepository.findDue(any(), any())).thenReturn(List.of(failing, retry));
+        when(paymentRetryRepository.claim(eq(failing.getRetryId()), any(), any())).thenReturn(1);
+        when(subscriptionRepository.findById(failing.getSubscriptionId()))
+                .thenThrow(new IllegalStateException("Connection reset"));
+        givenSubscription(SubscriptionStatus.ACTIVE);
+        when(paymentGateway.charge(any())).thenReturn(new PaymentGateway.PaymentResult(true, "ext-1", null));
+
+        assertEquals(1, dunningService.processDueRetries());
+
+        assertEquals(PaymentRetryStatus.RECOVERED, retry.getStatus());
+        verify(paymentRetryRepository, never()).release(eq(failing.getRetryId()), any(), any(), anyInt(), any(),
+                any(), anyBoolean(), any());
+    }
+
+    private void givenSubscription(SubscriptionStatus status) {
+        when(subscriptionRepository.findById(subscriptionId)).thenReturn(Optional.of(Subscription.builder()
+                .subscriptionId(subscriptionId)
+                .userId(UUID.randomUUID())
+                .status(status)
+                .cardToken("tok_visa")
+                .build()));
+    }
+}
@@ -6,6 +6,7 @@ import com.transport.subscription.exception.InvalidSubscriptionException;
 import com.transport.subscription.exception.PaymentFailedException;
 import com.transport.subscription.exception.SubscriptionNotFoundException;
 import com.transport.subscription.model.PaymentMethod;
+import com.transport.subscription.model.PaymentStatus;
 import com.transport.subscription.model.Subscription;
 import com.transport.subscription.repository.SubscriptionRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -40,6 +42,9 @@ class PaymentServiceTest {
     @Mock
     private SubscriptionRepository subscriptionRepository;
 
+    @Mock
+    private AsyncPaymentProcessor asyncPaymentProcessor;
+
     @InjectMocks
     private PaymentServiceImpl paymentService;
 
@@ -126,4 +131,104 @@ class PaymentServiceTest {
                 eq(request.getPaymentMethod())
         );
     }
+
+    @Test
+    @DisplayName("Devrait enregistrer un paiement en attente et planifier l'appel passerelle")
+    void shouldSubmitPaymentAsynchronously() {
+        UUID paymentId = UUID.randomUUID();
+        when(billingService.findPaymentByIdempotencyKey("idemp-123")).thenReturn(Optional.empty());
+        when(subscriptionRepository.findById(subscriptionId)).thenReturn(Optional.of(subscription));
+        when(billingService.recordPendingPayment(subscriptionId, request.getAmount(), request.getCurrency(),
+                request.getIdempotencyKey(), request.getPaymentMethod()))
+                .thenReturn(PaymentResponse.builder()
+                        .paymentId(paymentId)
+                        .paymentStatus(PaymentStatus.PENDING)
+                        .build());
+
+        PaymentResponse response = paymentService.submitPayment(request);
+
+        assertEquals(PaymentStatus.PENDING, response.getPaymentStatus());
+        verify(asyncPaymentProcessor).submit(eq(paymentId), any(PaymentGateway.PaymentRequest.class));
+        verify(paymentGateway, never()).charge(any());
+    }
+
+    @Test
+    @DisplayName("Devrait retourner le paiement existant sans le resoumettre")
+    void shouldReturnExistingPaymentForSameIdempotencyKey() {
+        PaymentResponse existing = PaymentResponse.builder()
+                .paymentId(UUID.randomUUID())
+                .paymentStatus(PaymentStatus.SUCCEEDED)
+                .build();
+        when(billingService.findPaymentByIdempotencyKey("idemp-123")).thenReturn(Optional.of(existing));
+
+        PaymentResponse response = paymentService.submitPayment(request);
+
+        assertSame(existing, response);
+        verify(billingService, never()).recordPendingPayment(any(), any(), any(), any(), any());
+        verifyNoInteractions(asyncPaymentProcessor);
+    }
+
+    @Test
+    @DisplayName("Devrait retourner le paiement concurrent si la clé d'idempotence vient d'être prise")
+    void shouldReturnConcurrentPaymentOnIdempotencyKeyConflict() {
+        PaymentResponse concurrent = PaymentResponse.builder()
+                .paymentId(UUID.randomUUID())
+                .paymentStatus(PaymentStatus.PENDING)
+                .build();
+        when(billingService.findPaymentByIdempotencyKey("idemp-123"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(concurrent));
+        when(subscriptionRepository.findById(subscriptionId)).thenReturn(Optional.of(subscription));
+        when(billingService.recordPendingPayment(any(), any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("uq_payment_idempotency_key"));
+
+        PaymentResponse response = paymentService.submitPayment(request);
+
+        assertSame(concurrent, response);
+        verifyNoInteractions(asyncPaymentProcessor);
+    }
+
+    @Test
+    @DisplayName("Devrait rembourser un paiement réussi")
+    void shouldRefundPayment() {
+        UUID paymentId = UUID.randomUUID();
+        UUID refundId = UUID.randomUUID();
+        when(billingService.getPaymentById(paymentId)).thenReturn(PaymentResponse.builder()
+                .paymentId(paymentId)
+                .amount(new BigDecimal("19.99"))
+                .externalTxnId("ext-1")
+                .paymentStatus(PaymentStatus.SUCCEEDED)
+                .build());
+        when(billingService.claimRefund(paymentId)).thenReturn(PaymentResponse.builder().paymentId(refundId).build());
+        when(paymentGateway.refund("ext-1", new BigDecimal("19.99")))
+                .thenReturn(new PaymentGateway.RefundResult(true, "ext-1-refund", null));
+        PaymentResponse refunded = PaymentResponse.builder()
+                .paymentId(refundId)
+                .paymentStatus(PaymentStatus.REFUNDED)
+                .build();
+        when(billingService.completeRefund(refundId, "ext-1-refund")).thenReturn(refunded);
+
+        PaymentResponse response = paymentService.refundPayment(paymentId);
+
+        assertSame(refunded, response);
+    }
+
+    @Test
+    @DisplayName("Devrait marquer le remboursement échoué si la passerelle refuse")
+    void shouldFailRefundWhenGatewayDeclines() {
+        UUID paymentId = UUID.randomUUID();
+        UUID refundId = UUID.randomUUID();
+        when(billingService.getPaymentById(paymentId)).thenReturn(PaymentResponse.builder()
+                .paymentId(paymentId)
+                .amount(new BigDecimal("19.99"))
+                .externalTxnId("ext-1")
+                .build());
+        when(billingService.claimRefund(paymentId)).thenReturn(PaymentResponse.builder().paymentId(refundId).build());
+        when(paymentGateway.refund(any(), any()))
+                .thenReturn(new PaymentGateway.RefundResult(false, null, "Refund window expired"));
+
+        assertThrows(PaymentFailedException.class, () -> paymentService.refundPayment(paymentId));
+        verify(billingService).failPendingPayment(refundId, "Refund window expired");
+        verify(billingService, never()).completeRefund(any(), any());
+    }
 }
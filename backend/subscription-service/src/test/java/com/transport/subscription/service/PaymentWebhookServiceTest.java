@@ -0,0 +1,172 @@
+package com.transport.subscription.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transport.subscription.dto.response.PaymentResponse;
+import com.transport.subscription.exception.InvalidWebhookSignatureException;
+import com.transport.subscription.model.PaymentWebhookEvent;
+import com.transport.subscription.model.WebhookEventStatus;
+import com.transport.subscription.repository.PaymentWebhookEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour PaymentWebhookService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PaymentWebhookService Tests")
+class PaymentWebhookServiceTest {
+
+    private static final String PAYLOAD = """
+            {"id":"evt_1","type":"payment.succeeded",
+             "data":{"subscriptionId":"%s","idempotencyKey":"idemp-1","externalTxnId":"ext-1"}}
+            """;
+
+    @Mock
+    private PaymentGateway paymentGateway;
+
+    @Mock
+    private BillingService billingService;
+
+    @Mock
+    private PaymentWebhookEventRepository webhookEventRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PaymentWebhookServiceImpl webhookService;
+    private UUID subscriptionId;
+
+    @BeforeEach
+    void setUp() {
+        webhookService = new PaymentWebhookServiceImpl(paymentGateway, billingService, webhookEventRepository,
+                transactionTemplate, Clock.systemDefaultZone(), new ObjectMapper(), "maximumSize=100", 200, 3);
+        subscriptionId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Devrait rejeter un webhook dont la signature est invalide")
+    void shouldRejectInvalidSignature() {
+        String payload = PAYLOAD.formatted(subscriptionId);
+        when(paymentGateway.verifyWebhookSignature(payload, "bad")).thenReturn(false);
+
+        assertThrows(InvalidWebhookSignatureException.class, () -> webhookService.receive(payload, "bad"));
+        verifyNoInteractions(webhookEventRepository);
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer un événement déjà reçu sans retourner en base")
+    void shouldDeduplicateRepeatedEvent() {
+        String payload = PAYLOAD.formatted(subscriptionId);
+        when(paymentGateway.verifyWebhookSignature(payload, "sig")).thenReturn(true);
+        when(webhookEventRepository.insertIfAbsent(eq("evt_1"), eq("payment.succeeded"), eq(subscriptionId),
+                eq("idemp-1"), eq("ext-1"), isNull(), eq(payload), any(OffsetDateTime.class))).thenReturn(1);
+
+        assertTrue(webhookService.receive(payload, "sig"));
+        assertFalse(webhookService.receive(payload, "sig"));
+
+        verify(webhookEventRepository, times(1)).insertIfAbsent(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Devrait appliquer les événements d'un abonnement dans l'ordre de réception")
+    void shouldApplyEventsInOrder() {
+        UUID paymentId = UUID.randomUUID();
+        PaymentWebhookEvent succeeded = event("evt_1", "payment.succeeded");
+        PaymentWebhookEvent failed = event("evt_2", "payment.failed");
+        when(webhookEventRepository.findBatchByStatus(eq(WebhookEventStatus.RECEIVED), any()))
+                .thenReturn(List.of(succeeded, failed));
+        when(billingService.findPaymentByIdempotencyKey("idemp-1"))
+                .thenReturn(Optional.of(PaymentResponse.builder().paymentId(paymentId).build()));
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        int processed = webhookService.applyPendingEvents();
+
+        assertEquals(2, processed);
+        InOrder inOrder = inOrder(billingService);
+        inOrder.verify(billingService).completePendingPayment(paymentId, "ext-1");
+        inOrder.verify(billingService).failPendingPayment(paymentId, "Payment failed");
+        verify(transactionTemplate, times(1)).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Devrait remettre en file seul l'événement en échec et garder ses voisins appliqués")
+    void shouldRequeueOnlyFailingEvent() {
+        UUID paymentId = UUID.randomUUID();
+        PaymentWebhookEvent succeeded = event("evt_1", "payment.succeeded");
+        PaymentWebhookEvent failed = event("evt_2", "payment.failed");
+        PaymentWebhookEvent next = event("evt_3", "payment.succeeded");
+        when(webhookEventRepository.findBatchByStatus(eq(WebhookEventStatus.RECEIVED), any()))
+                .thenReturn(List.of(succeeded, failed, next));
+        when(billingService.findPaymentByIdempotencyKey("idemp-1"))
+                .thenReturn(Optional.of(PaymentResponse.builder().paymentId(paymentId).build()));
+        doThrow(new IllegalStateException("boom")).when(billingService).failPendingPayment(paymentId, "Payment failed");
+        executeTransactions();
+
+        webhookService.applyPendingEvents();
+
+        verify(webhookEventRepository, times(2)).markProcessed(eq(List.of("evt_1")), eq(WebhookEventStatus.APPLIED),
+                isNull(), any());
+        verify(webhookEventRepository).recordFailedAttempt("evt_2", 1, WebhookEventStatus.RECEIVED, "boom", null);
+        verify(webhookEventRepository, never()).markProcessed(eq(List.of("evt_3")), any(), any(), any());
+        verify(webhookEventRepository, never()).recordFailedAttempt(eq("evt_3"), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Devrait marquer l'événement FAILED une fois les tentatives épuisées")
+    void shouldFailEventAfterMaxAttempts() {
+        PaymentWebhookEvent failing = event("evt_1", "payment.succeeded");
+        failing.setAttempts(2);
+        when(webhookEventRepository.findBatchByStatus(eq(WebhookEventStatus.RECEIVED), any()))
+                .thenReturn(List.of(failing));
+        when(billingService.findPaymentByIdempotencyKey("idemp-1")).thenThrow(new IllegalStateException("boom"));
+        executeTransactions();
+
+        webhookService.applyPendingEvents();
+
+        verify(webhookEventRepository).recordFailedAttempt(eq("evt_1"), eq(3), eq(WebhookEventStatus.FAILED),
+                eq("boom"), any(OffsetDateTime.class));
+        verify(webhookEventRepository, never()).markProcessed(any(), any(), any(), any());
+    }
+
+    private void executeTransactions() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private PaymentWebhookEvent event(String eventId, String type) {
+        return PaymentWebhookEvent.builder()
+                .eventId(eventId)
+                .eventType(type)
+                .subscriptionId(subscriptionId)
+                .idempotencyKey("idemp-1")
+                .externalTxnId("ext-1")
+                .payload("{}")
+                .receivedAt(OffsetDateTime.now())
+                .build();
+    }
+}
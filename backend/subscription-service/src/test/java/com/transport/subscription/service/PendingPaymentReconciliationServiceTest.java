@@ -0,0 +1,130 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.dto.response.PaymentResponse;
+import com.transport.subscription.exception.PaymentGatewayUnavailableException;
+import com.transport.subscription.model.PaymentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour PendingPaymentReconciliationService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PendingPaymentReconciliationService Tests")
+class PendingPaymentReconciliationServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T10:00:00Z");
+
+    @Mock
+    private PaymentGateway paymentGateway;
+
+    @Mock
+    private BillingService billingService;
+
+    @Mock
+    private AsyncPaymentProcessor asyncPaymentProcessor;
+
+    private PendingPaymentReconciliationServiceImpl reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        reconciliationService = new PendingPaymentReconciliationServiceImpl(paymentGateway, billingService,
+                asyncPaymentProcessor, Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofMinutes(30), 100);
+    }
+
+    @Test
+    @DisplayName("Devrait solder les paiements en attente d'après la passerelle")
+    void shouldApplyGatewayOutcome() {
+        PaymentResponse accepted = pending("key-accepted");
+        PaymentResponse declined = pending("key-declined");
+        PaymentResponse unknown = pending("key-unknown");
+        when(billingService.findStalePendingPayments(OffsetDateTime.parse("2026-03-01T09:30:00Z"), 100))
+                .thenReturn(List.of(accepted, declined, unknown));
+        when(paymentGateway.findCharge("key-accepted"))
+                .thenReturn(Optional.of(new PaymentGateway.PaymentResult(true, "ext-1", null)));
+        when(paymentGateway.findCharge("key-declined"))
+                .thenReturn(Optional.of(new PaymentGateway.PaymentResult(false, null, "Insufficient funds")));
+        when(paymentGateway.findCharge("key-unknown")).thenReturn(Optional.empty());
+
+        int resolved = reconciliationService.reconcileStalePayments();
+
+        assertEquals(3, resolved);
+        verify(billingService).completePendingPayment(accepted.getPaymentId(), "ext-1");
+        verify(billingService).failPendingPayment(declined.getPaymentId(), "Insufficient funds");
+        verify(billingService).failPendingPayment(unknown.getPaymentId(),
+                PendingPaymentReconciliationServiceImpl.UNKNOWN_TO_GATEWAY);
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer les paiements encore en cours de traitement sur cette instance")
+    void shouldSkipPaymentsStillInFlight() {
+        PaymentResponse queued = pending("key-queued");
+        when(billingService.findStalePendingPayments(any(), anyInt())).thenReturn(List.of(queued));
+        when(asyncPaymentProcessor.isInFlight(queued.getPaymentId())).thenReturn(true);
+
+        assertEquals(0, reconciliationService.reconcileStalePayments());
+        verifyNoInteractions(paymentGateway);
+        verify(billingService, never()).failPendingPayment(any(), any());
+    }
+
+    @Test
+    @DisplayName("Devrait reporter la réconciliation si la passerelle est indisponible")
+    void shouldStopWhenGatewayUnavailable() {
+        PaymentResponse first = pending("key-1");
+        PaymentResponse second = pending("key-2");
+        when(billingService.findStalePendingPayments(any(), anyInt())).thenReturn(List.of(first, second));
+        when(paymentGateway.findCharge("key-1"))
+                .thenThrow(new PaymentGatewayUnavailableException("Payment gateway circuit is open", false, null));
+
+        assertEquals(0, reconciliationService.reconcileStalePayments());
+        verify(paymentGateway, never()).findCharge("key-2");
+        verify(billingService, never()).failPendingPayment(any(), any());
+    }
+
+    @Test
+    @DisplayName("Devrait enregistrer un remboursement accepté et libérer un remboursement inconnu de la passerelle")
+    void shouldReconcileStaleRefunds() {
+        UUID acceptedOriginal = UUID.randomUUID();
+        UUID unknownOriginal = UUID.randomUUID();
+        PaymentResponse accepted = pending(BillingServiceImpl.REFUND_KEY_PREFIX + acceptedOriginal);
+        PaymentResponse unknown = pending(BillingServiceImpl.REFUND_KEY_PREFIX + unknownOriginal);
+        when(billingService.findStalePendingRefunds(any(), anyInt())).thenReturn(List.of(accepted, unknown));
+        when(billingService.getPaymentById(acceptedOriginal))
+                .thenReturn(PaymentResponse.builder().paymentId(acceptedOriginal).externalTxnId("ext-1").build());
+        when(billingService.getPaymentById(unknownOriginal))
+                .thenReturn(PaymentResponse.builder().paymentId(unknownOriginal).externalTxnId("ext-2").build());
+        when(paymentGateway.findRefund("ext-1"))
+                .thenReturn(Optional.of(new PaymentGateway.RefundResult(true, "ext-1-refund", null)));
+        when(paymentGateway.findRefund("ext-2")).thenReturn(Optional.empty());
+
+        assertEquals(2, reconciliationService.reconcileStaleRefunds());
+        verify(billingService).completeRefund(accepted.getPaymentId(), "ext-1-refund");
+        verify(billingService).failPendingPayment(unknown.getPaymentId(),
+                PendingPaymentReconciliationServiceImpl.REFUND_UNKNOWN_TO_GATEWAY);
+    }
+
+    private PaymentResponse pending(String idempotencyKey) {
+        return PaymentResponse.builder()
+                .paymentId(UUID.randomUUID())
+                .paymentStatus(PaymentStatus.PENDING)
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+}
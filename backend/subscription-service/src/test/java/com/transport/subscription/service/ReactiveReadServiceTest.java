@@ -0,0 +1,102 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.dto.mapper.SubscriptionMapper;
+import com.transport.subscription.dto.response.PlanResponse;
+import com.transport.subscription.dto.response.SubscriptionResponse;
+import com.transport.subscription.model.SubscriptionStatus;
+import io.r2dbc.spi.Readable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests unitaires pour ReactiveReadService (conversion des lignes R2DBC)
+ */
+@DisplayName("ReactiveReadService Tests")
+class ReactiveReadServiceTest {
+
+    private ReactiveReadServiceImpl reactiveReadService;
+
+    @BeforeEach
+    void setUp() {
+        SubscriptionMapper subscriptionMapper = mock(SubscriptionMapper.class, Mockito.CALLS_REAL_METHODS);
+        reactiveReadService = new ReactiveReadServiceImpl(mock(DatabaseClient.class), subscriptionMapper);
+    }
+
+    @Test
+    @DisplayName("Devrait convertir une ligne d'abonnement en masquant la carte")
+    void shouldMapSubscriptionRow() {
+        UUID subscriptionId = UUID.randomUUID();
+        OffsetDateTime now = OffsetDateTime.now();
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("subscription_id", subscriptionId);
+        columns.put("user_id", UUID.randomUUID());
+        columns.put("plan_id", UUID.randomUUID());
+        columns.put("plan_code", "MONTHLY");
+        columns.put("status", "ACTIVE");
+        columns.put("start_date", LocalDate.of(2025, 1, 1));
+        columns.put("end_date", LocalDate.of(2025, 1, 31));
+        columns.put("next_billing_date", LocalDate.of(2025, 1, 31));
+        columns.put("amount_paid", new BigDecimal("19.99"));
+        columns.put("auto_renew_enabled", true);
+        columns.put("card_token", "tok_visa_4242");
+        columns.put("card_exp_month", 12);
+        columns.put("card_exp_year", 2027);
+        columns.put("created_at", now);
+        columns.put("updated_at", now);
+
+        SubscriptionResponse response = reactiveReadService.toSubscriptionResponse(row(columns));
+
+        assertEquals(subscriptionId, response.getSubscriptionId());
+        assertEquals(SubscriptionStatus.ACTIVE, response.getStatus());
+        assertEquals("4242", response.getCardLastFour());
+        assertEquals("MONTHLY", response.getPlanCode());
+        assertNull(response.getQrCodeData());
+        assertEquals(now, response.getUpdatedAt());
+    }
+
+    @Test
+    @DisplayName("Devrait convertir une ligne de plan")
+    void shouldMapPlanRow() {
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("plan_id", UUID.randomUUID());
+        columns.put("plan_code", "YEARLY");
+        columns.put("duration_days", 365);
+        columns.put("price", new BigDecimal("199.00"));
+        columns.put("currency", "EUR");
+        columns.put("is_active", true);
+
+        PlanResponse response = ReactiveReadServiceImpl.toPlanResponse(row(columns));
+
+        assertEquals("YEARLY", response.getPlanCode());
+        assertEquals(365, response.getDurationDays());
+        assertEquals(new BigDecimal("199.00"), response.getPrice());
+        assertTrue(response.getIsActive());
+    }
+
+    private static Readable row(Map<String, Object> columns) {
+        return new Readable() {
+            @Override
+            public <T> T get(int index, Class<T> type) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public <T> T get(String name, Class<T> type) {
+                return type.cast(columns.get(name));
+            }
+        };
+    }
+}
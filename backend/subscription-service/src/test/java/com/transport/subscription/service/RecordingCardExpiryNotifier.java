@@ -0,0 +1,32 @@
+package com.transport.subscription.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Canal de notification local pour les tests : conserve les lots reçus
+ */
+class RecordingCardExpiryNotifier implements CardExpiryNotifier {
+
+    private final List<List<CardExpiryEvent>> batches = new ArrayList<>();
+    private RuntimeException failure;
+
+    @Override
+    public void notify(List<CardExpiryEvent> events) {
+        if (failure != null) {
+            throw failure;
+        }
+        batches.add(List.copyOf(events));
+    }
+
+    /**
+     * Fait échouer les envois suivants
+     */
+    void failWith(RuntimeException failure) {
+        this.failure = failure;
+    }
+
+    List<List<CardExpiryEvent>> batches() {
+        return batches;
+    }
+}
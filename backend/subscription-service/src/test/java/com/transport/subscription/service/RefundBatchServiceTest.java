@@ -0,0 +1,120 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.dto.response.PaymentResponse;
+import com.transport.subscription.exception.InvalidSubscriptionException;
+import com.transport.subscription.exception.PaymentGatewayUnavailableException;
+import com.transport.subscription.model.RefundBatch;
+import com.transport.subscription.model.RefundBatchStatus;
+import com.transport.subscription.model.RefundItemStatus;
+import com.transport.subscription.repository.BillingHistoryRepository;
+import com.transport.subscription.repository.RefundBatchItemRepository;
+import com.transport.subscription.repository.RefundBatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour RefundBatchService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefundBatchService Tests")
+class RefundBatchServiceTest {
+
+    @Mock
+    private RefundBatchRepository refundBatchRepository;
+
+    @Mock
+    private RefundBatchItemRepository refundBatchItemRepository;
+
+    @Mock
+    private BillingHistoryRepository billingHistoryRepository;
+
+    @Mock
+    private PlanService planService;
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private RefundBatchServiceImpl refundBatchService;
+    private UUID batchId;
+
+    @BeforeEach
+    void setUp() {
+        refundBatchService = new RefundBatchServiceImpl(refundBatchRepository, refundBatchItemRepository,
+                billingHistoryRepository, planService, paymentService, transactionTemplate, Clock.systemDefaultZone(), 2, 100, false);
+        batchId = UUID.randomUUID();
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        refundBatchService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Devrait enregistrer l'issue de chaque remboursement de la tranche")
+    void shouldRecordOutcomePerItem() {
+        UUID refundable = UUID.randomUUID();
+        UUID alreadyRefunded = UUID.randomUUID();
+        UUID deferred = UUID.randomUUID();
+        when(refundBatchRepository.findFirstByStatusOrderByCreatedAtAsc(RefundBatchStatus.RUNNING))
+                .thenReturn(Optional.of(RefundBatch.builder().batchId(batchId).build()));
+        when(refundBatchItemRepository.findPaymentIdsByStatus(eq(batchId), eq(RefundItemStatus.PENDING), any()))
+                .thenReturn(List.of(refundable, alreadyRefunded, deferred));
+        when(paymentService.refundPayment(refundable))
+                .thenReturn(PaymentResponse.builder().paymentId(refundable).build());
+        when(paymentService.refundPayment(alreadyRefunded))
+                .thenThrow(new InvalidSubscriptionException("Refund already completed"));
+        when(paymentService.refundPayment(deferred))
+                .thenThrow(new PaymentGatewayUnavailableException("Payment gateway circuit is open", false, null));
+
+        int processed = refundBatchService.processNextChunk();
+
+        assertEquals(2, processed);
+        verify(refundBatchItemRepository).updateStatus(eq(batchId), eq(refundable),
+                eq(RefundItemStatus.REFUNDED), isNull(), any());
+        verify(refundBatchItemRepository).updateStatus(eq(batchId), eq(alreadyRefunded),
+                eq(RefundItemStatus.SKIPPED), eq("Refund already completed"), any());
+        verify(refundBatchItemRepository, never()).updateStatus(eq(batchId), eq(deferred), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Devrait terminer le lot quand il ne reste plus de paiement à traiter")
+    void shouldCompleteBatchWhenNoPendingItems() {
+        RefundBatch batch = RefundBatch.builder().batchId(batchId).fromDate(LocalDate.now()).toDate(LocalDate.now()).build();
+        when(refundBatchRepository.findFirstByStatusOrderByCreatedAtAsc(RefundBatchStatus.RUNNING))
+                .thenReturn(Optional.of(batch));
+        when(refundBatchItemRepository.findPaymentIdsByStatus(eq(batchId), eq(RefundItemStatus.PENDING), any()))
+                .thenReturn(List.of());
+        when(refundBatchRepository.findById(batchId)).thenReturn(Optional.of(batch));
+
+        assertEquals(0, refundBatchService.processNextChunk());
+        assertEquals(RefundBatchStatus.COMPLETED, batch.getStatus());
+        assertNotNull(batch.getCompletedAt());
+        verify(refundBatchRepository).save(batch);
+    }
+}
@@ -0,0 +1,80 @@
+package com.transport.subscription.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour RenewalProgress
+ */
+@DisplayName("RenewalProgress Tests")
+class RenewalProgressTest {
+
+    private static final Instant START = Instant.parse("2025-01-15T02:00:00Z");
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 15);
+
+    private AtomicLong nanoTime;
+    private RenewalProgress progress;
+
+    @BeforeEach
+    void setUp() {
+        nanoTime = new AtomicLong(-TimeUnit.HOURS.toNanos(1));
+        progress = new RenewalProgress(2, Clock.fixed(START, ZoneOffset.UTC), nanoTime::get);
+    }
+
+    @Test
+    @DisplayName("Devrait calculer le débit et la fin estimée de l'exécution en cours")
+    void shouldReportRunningProgress() {
+        RenewalProgress.Run run = progress.start(RenewalProgress.Job.RENEWAL, TODAY, 1000);
+        for (int i = 0; i < 250; i++) {
+            run.succeeded();
+        }
+        run.failed();
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        RenewalProgress.Snapshot snapshot = progress.report().running().get(0);
+
+        assertTrue(snapshot.running());
+        assertEquals(START, snapshot.startedAt());
+        assertEquals(1000, snapshot.due());
+        assertEquals(251, snapshot.processed());
+        assertEquals(1, snapshot.failed());
+        assertEquals(10_000, snapshot.elapsedMillis());
+        assertEquals(25.1, snapshot.rowsPerSecond(), 1e-9);
+        assertEquals(30, snapshot.etaSeconds());
+        assertEquals(START.plusSeconds(30), snapshot.estimatedCompletion());
+        assertTrue(progress.report().history().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Devrait archiver les exécutions terminées en ne gardant que les plus récentes")
+    void shouldKeepLatestFinishedRuns() {
+        for (int day = 0; day < 3; day++) {
+            RenewalProgress.Run run = progress.start(RenewalProgress.Job.EXPIRATION, TODAY.plusDays(day), 1);
+            run.succeeded();
+            nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(2));
+            progress.finish(run);
+        }
+
+        RenewalProgress.Report report = progress.report();
+
+        assertTrue(report.running().isEmpty());
+        assertEquals(2, report.history().size());
+        RenewalProgress.Snapshot latest = report.history().get(0);
+        assertEquals(TODAY.plusDays(2), latest.day());
+        assertFalse(latest.running());
+        assertEquals(START.plusSeconds(2), latest.finishedAt());
+        assertEquals(0.5, latest.rowsPerSecond(), 1e-9);
+        assertNull(latest.etaSeconds());
+        assertEquals(TODAY.plusDays(1), report.history().get(1).day());
+    }
+}
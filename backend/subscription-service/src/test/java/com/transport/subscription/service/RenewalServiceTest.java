@@ -0,0 +1,164 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.exception.SubscriptionExpiredException;
+import com.transport.subscription.jfr.RenewalChunkEvent;
+import com.transport.subscription.jfr.RenewalEvent;
+import com.transport.subscription.model.Subscription;
+import com.transport.subscription.model.SubscriptionStatus;
+import com.transport.subscription.repository.SubscriptionRepository;
+import com.transport.subscription.util.DateCalculator;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour RenewalService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RenewalService Tests")
+class RenewalServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 15);
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private SubscriptionService subscriptionService;
+
+    @Mock
+    private DateCalculator dateCalculator;
+
+    @Spy
+    private RenewalProgress renewalProgress = new RenewalProgress(5);
+
+    @InjectMocks
+    private RenewalServiceImpl renewalService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(renewalService, "chunkSize", 2);
+    }
+
+    @Test
+    @DisplayName("Devrait renouveler les abonnements échus et ignorer ceux à échéance future")
+    void shouldRenewDueSubscriptionsOnly() {
+        Subscription due = subscription(1, TODAY);
+        Subscription future = subscription(2, TODAY.plusDays(1));
+        when(subscriptionRepository.findByStatusAndAutoRenewEnabled(SubscriptionStatus.ACTIVE, true))
+                .thenReturn(List.of(due, future));
+
+        int renewed = renewalService.processAutomaticRenewals(TODAY);
+
+        assertEquals(1, renewed);
+        verify(subscriptionService).renewSubscription(eq(due.getSubscriptionId()), any());
+        verify(subscriptionService, never()).renewSubscription(eq(future.getSubscriptionId()), any());
+
+        RenewalProgress.Report report = renewalProgress.report();
+        assertTrue(report.running().isEmpty());
+        RenewalProgress.Snapshot run = report.history().get(0);
+        assertEquals(RenewalProgress.Job.RENEWAL, run.job());
+        assertEquals(1, run.due());
+        assertEquals(1, run.processed());
+    }
+
+    @Test
+    @DisplayName("Devrait émettre un événement JFR par abonnement et par tranche, échecs compris")
+    void shouldEmitFlightRecorderEvents() throws Exception {
+        Subscription first = subscription(1, TODAY);
+        Subscription failing = subscription(2, TODAY.minusDays(1));
+        Subscription third = subscription(3, TODAY);
+        when(subscriptionRepository.findByStatusAndAutoRenewEnabled(SubscriptionStatus.ACTIVE, true))
+                .thenReturn(List.of(first, failing, third));
+        // Chaque identifiant renouvelé est bouchonné : les stubs stricts rejettent tout argument inattendu
+        when(subscriptionService.renewSubscription(eq(first.getSubscriptionId()), any())).thenReturn(null);
+        when(subscriptionService.renewSubscription(eq(third.getSubscriptionId()), any())).thenReturn(null);
+        when(subscriptionService.renewSubscription(eq(failing.getSubscriptionId()), any()))
+                .thenThrow(new SubscriptionExpiredException("Cannot renew an expired subscription"));
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(RenewalEvent.NAME);
+            recording.enable(RenewalChunkEvent.NAME);
+            recording.start();
+
+            assertEquals(2, renewalService.processAutomaticRenewals(TODAY));
+
+            recording.stop();
+            Path file = Files.createTempFile("renewal", ".jfr");
+            try {
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        List<RecordedEvent> renewals = ofType(events, RenewalEvent.NAME);
+        assertEquals(3, renewals.size());
+        RecordedEvent failed = renewals.stream()
+                .filter(event -> failing.getSubscriptionId().toString().equals(event.getString("subscriptionId")))
+                .findFirst().orElseThrow();
+        assertEquals("error", failed.getString("outcome"));
+        assertEquals("SubscriptionExpiredException", failed.getString("failure"));
+
+        List<RecordedEvent> chunks = ofType(events, RenewalChunkEvent.NAME);
+        assertEquals(2, chunks.size());
+        assertEquals(3, chunks.stream().mapToInt(event -> event.getInt("processed")).sum());
+        assertEquals(1, chunks.stream().mapToInt(event -> event.getInt("failed")).sum());
+        assertTrue(chunks.stream().allMatch(event -> TODAY.toString().equals(event.getString("day"))
+                && RenewalChunkEvent.RENEWAL.equals(event.getString("job"))));
+    }
+
+    @Test
+    @DisplayName("Devrait poursuivre les expirations malgré un échec")
+    void shouldContinueExpirationsAfterFailure() {
+        Subscription failing = subscription(1, TODAY.minusDays(1));
+        Subscription expired = subscription(2, TODAY.minusDays(1));
+        when(subscriptionRepository.findExpiredSubscriptions(SubscriptionStatus.ACTIVE, TODAY))
+                .thenReturn(List.of(failing, expired));
+        when(subscriptionService.expireSubscription(failing.getSubscriptionId()))
+                .thenThrow(new IllegalStateException("boom"));
+
+        assertEquals(1, renewalService.expireSubscriptions(TODAY));
+        verify(subscriptionService).expireSubscription(expired.getSubscriptionId());
+
+        RenewalProgress.Snapshot run = renewalProgress.report().history().get(0);
+        assertEquals(RenewalProgress.Job.EXPIRATION, run.job());
+        assertEquals(2, run.processed());
+        assertEquals(1, run.failed());
+    }
+
+    private static Subscription subscription(long index, LocalDate nextBillingDate) {
+        return Subscription.builder()
+                .subscriptionId(new UUID(0, index))
+                .status(SubscriptionStatus.ACTIVE)
+                .autoRenewEnabled(true)
+                .nextBillingDate(nextBillingDate)
+                .build();
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+    }
+}
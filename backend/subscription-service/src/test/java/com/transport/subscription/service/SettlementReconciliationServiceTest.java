@@ -0,0 +1,123 @@
+package com.transport.subscription.service;
+
+import com.transport.subscription.exception.SettlementFileNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests unitaires pour SettlementReconciliationService
+ */
+@DisplayName("SettlementReconciliationService Tests")
+class SettlementReconciliationServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 3, 1);
+
+    @TempDir
+    Path tempDir;
+
+    private SettlementReconciliationServiceImpl service;
+    private SettlementTxnIndex index;
+    private UUID paymentA;
+    private UUID paymentB;
+    private UUID paymentC;
+
+    @BeforeEach
+    void setUp() {
+        // Fenêtres de 16 octets : les lignes chevauchent les limites de mappage
+        service = new SettlementReconciliationServiceImpl(mock(DataSource.class),
+                mock(PlatformTransactionManager.class),
+                100, tempDir, tempDir, "settlement-%s.csv", 16, Clock.system(ZoneOffset.UTC));
+
+        paymentA = UUID.randomUUID();
+        paymentB = UUID.randomUUID();
+        paymentC = UUID.randomUUID();
+        index = new SettlementTxnIndex(2);
+        index.put("txn-a", 2999, paymentA);
+        index.put("txn-b", 1000, paymentB);
+        index.put("txn-c", -500, paymentC);
+    }
+
+    @Test
+    @DisplayName("Devrait rapprocher, signaler les absents et les écarts de montant")
+    void shouldEmitMatchedMissingAndMismatchReports() throws Exception {
+        Path file = tempDir.resolve("settlement.csv");
+        Files.writeString(file, "txn_id,amount\r\ntxn-a,29.99\r\ntxn-b,10.5\r\ntxn-x,1\r\ntxn-a,29.99\r\nbad\r\n");
+
+        ByteArrayOutputStream matched = new ByteArrayOutputStream();
+        ByteArrayOutputStream missing = new ByteArrayOutputStream();
+        ByteArrayOutputStream mismatches = new ByteArrayOutputStream();
+
+        SettlementReconciliationService.SettlementReport report =
+                service.reconcile(file, DATE, index, matched, missing, mismatches);
+
+        assertEquals(4, report.settlementLines());
+        assertEquals(1, report.matched());
+        assertEquals(1, report.amountMismatches());
+        assertEquals(1, report.duplicates());
+        assertEquals(1, report.notInDatabase());
+        assertEquals(1, report.notInSettlement());
+        assertEquals(1, report.malformedLines());
+        assertFalse(report.isConsistent());
+
+        assertEquals("external_txn_id,payment_id,amount\ntxn-a," + paymentA + ",29.99\n", matched.toString());
+        assertEquals("external_txn_id,payment_id,amount,side\n" +
+                "txn-x,,1.00,NOT_IN_DATABASE\n" +
+                "txn-c," + paymentC + ",-5.00,NOT_IN_SETTLEMENT\n", missing.toString());
+        assertEquals("external_txn_id,payment_id,expected_amount,settled_amount,reason\n" +
+                "txn-b," + paymentB + ",10.00,10.50,AMOUNT\n" +
+                "txn-a," + paymentA + ",29.99,29.99,DUPLICATE\n", mismatches.toString());
+    }
+
+    @Test
+    @DisplayName("Devrait traiter une dernière ligne sans saut de ligne")
+    void shouldHandleLastLineWithoutNewline() throws Exception {
+        Path file = tempDir.resolve("settlement.csv");
+        Files.writeString(file, "txn-a,29.99\ntxn-b,10\ntxn-c,-5");
+
+        SettlementReconciliationService.SettlementReport report = service.reconcile(file, DATE, index,
+                new ByteArrayOutputStream(), new ByteArrayOutputStream(), new ByteArrayOutputStream());
+
+        assertEquals(3, report.matched());
+        assertTrue(report.isConsistent());
+    }
+
+    @Test
+    @DisplayName("Devrait signaler l'absence du fichier de règlement de la journée")
+    void shouldThrowWhenSettlementFileIsMissing() {
+        assertThrows(SettlementFileNotFoundException.class, () -> service.reconcile(DATE));
+    }
+
+    @Test
+    @DisplayName("Devrait convertir les montants en centimes")
+    void shouldParseCents() {
+        assertEquals(2999, parse("29.99"));
+        assertEquals(1050, parse("10.5"));
+        assertEquals(-500, parse("-5"));
+        assertEquals(50, parse(".5"));
+        assertEquals(Long.MIN_VALUE, parse("1.234"));
+        assertEquals(Long.MIN_VALUE, parse("amount"));
+        assertEquals(Long.MIN_VALUE, parse(""));
+    }
+
+    private long parse(String value) {
+        ByteBuffer buffer = ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII));
+        return SettlementReconciliationServiceImpl.parseCents(buffer, 0, buffer.limit());
+    }
+}
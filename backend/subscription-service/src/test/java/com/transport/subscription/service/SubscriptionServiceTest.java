@@ -1,7 +1,10 @@
 package com.transport.subscription.service;
 
 import com.transport.subscription.dto.mapper.SubscriptionMapper;
+import com.transport.subscription.dto.request.BulkCreateSubscriptionRequest;
 import com.transport.subscription.dto.request.CreateSubscriptionRequest;
+import com.transport.subscription.dto.response.BulkSubscriptionResponse;
+import com.transport.subscription.dto.response.PlanResponse;
 import com.transport.subscription.dto.response.SubscriptionResponse;
 import com.transport.subscription.exception.InvalidSubscriptionException;
 import com.transport.subscription.exception.PlanNotFoundException;
@@ -21,14 +24,22 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -53,6 +64,15 @@ class SubscriptionServiceTest {
     @Mock
     private DateCalculator dateCalculator;
 
+    @Mock
+    private PlanService planService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private Clock clock;
+
     @InjectMocks
     private SubscriptionServiceImpl subscriptionService;
 
@@ -65,6 +85,8 @@ class SubscriptionServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(clock.instant()).thenAnswer(invocation -> Instant.now());
+        lenient().when(clock.getZone()).thenReturn(ZoneId.systemDefault());
         userId = UUID.randomUUID();
         planId = UUID.randomUUID();
         subscriptionId = UUID.randomUUID();
@@ -104,7 +126,7 @@ class SubscriptionServiceTest {
         LocalDate endDate = today.plusDays(30);
         
         when(planRepository.findById(planId)).thenReturn(Optional.of(testPlan));
-        when(subscriptionRepository.existsByUserIdAndPlanIdAndStatus(
+        when(subscriptionRepository.existsByUserIdAndPlan_PlanIdAndStatus(
                 userId, planId, SubscriptionStatus.ACTIVE)).thenReturn(false);
         when(dateCalculator.calculateEndDate(today, 30)).thenReturn(endDate);
         when(subscriptionMapper.toEntity(createRequest, testPlan)).thenReturn(testSubscription);
@@ -124,7 +146,7 @@ class SubscriptionServiceTest {
         assertNotNull(result);
         assertEquals(subscriptionId, result.getSubscriptionId());
         verify(planRepository).findById(planId);
-        verify(subscriptionRepository).existsByUserIdAndPlanIdAndStatus(
+        verify(subscriptionRepository).existsByUserIdAndPlan_PlanIdAndStatus(
                 userId, planId, SubscriptionStatus.ACTIVE);
         verify(subscriptionRepository).save(any(Subscription.class));
         verify(historyRepository).save(any());
@@ -165,7 +187,7 @@ class SubscriptionServiceTest {
     void shouldThrowExceptionWhenUserHasActiveSubscription() {
         // Given
         when(planRepository.findById(planId)).thenReturn(Optional.of(testPlan));
-        when(subscriptionRepository.existsByUserIdAndPlanIdAndStatus(
+        when(subscriptionRepository.existsByUserIdAndPlan_PlanIdAndStatus(
                 userId, planId, SubscriptionStatus.ACTIVE)).thenReturn(true);
 
         // When & Then
@@ -236,5 +258,48 @@ class SubscriptionServiceTest {
         verify(subscriptionRepository).save(captor.capture());
         assertEquals(SubscriptionStatus.ACTIVE, captor.getValue().getStatus());
     }
-}
 
+    @Test
+    @DisplayName("Devrait rejeter les lignes invalides d'un import en masse sans insertion")
+    void shouldRejectInvalidBulkRowsWithoutInsert() {
+        // Given
+        ReflectionTestUtils.setField(subscriptionService, "bulkMaxRows", 100);
+        ReflectionTestUtils.setField(subscriptionService, "bulkBatchSize", 10);
+        UUID unknownPlanId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+
+        when(planService.getPlanById(planId)).thenReturn(PlanResponse.builder()
+                .planId(planId).planCode("MONTHLY_BASIC").durationDays(30).isActive(true).build());
+        when(planService.getPlanById(unknownPlanId))
+                .thenThrow(new PlanNotFoundException("Plan not found with id: " + unknownPlanId));
+        SubscriptionRepository.UserPlanPair existing = mock(SubscriptionRepository.UserPlanPair.class);
+        when(existing.getUserId()).thenReturn(userId);
+        when(existing.getPlanId()).thenReturn(planId);
+        when(subscriptionRepository.findUserPlanPairs(eq(SubscriptionStatus.ACTIVE), any()))
+                .thenReturn(List.of(existing));
+
+        BulkCreateSubscriptionRequest request = BulkCreateSubscriptionRequest.builder()
+                .subscriptions(Arrays.asList(
+                        createRequest,                                                  // déjà actif
+                        CreateSubscriptionRequest.builder().userId(otherUserId).planId(unknownPlanId).build(),
+                        CreateSubscriptionRequest.builder().planId(planId).build(),    // utilisateur manquant
+                        null                                                            // ligne vide
+                ))
+                .build();
+
+        // When
+        BulkSubscriptionResponse result = subscriptionService.createSubscriptionsBulk(request);
+
+        // Then
+        assertEquals(4, result.getTotal());
+        assertEquals(0, result.getCreated());
+        assertEquals(4, result.getRejected());
+        assertEquals("User already has an active subscription for this plan", result.getResults().get(0).getError());
+        assertEquals(BulkSubscriptionResponse.RowStatus.REJECTED, result.getResults().get(1).getStatus());
+        assertEquals("User ID is required", result.getResults().get(2).getError());
+        assertEquals("Row is empty", result.getResults().get(3).getError());
+        verify(subscriptionRepository, times(1)).findUserPlanPairs(eq(SubscriptionStatus.ACTIVE), any());
+        verify(transactionTemplate, never()).execute(any());
+        verify(subscriptionRepository, never()).save(any());
+    }
+}
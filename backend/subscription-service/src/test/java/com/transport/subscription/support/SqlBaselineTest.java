@@ -0,0 +1,35 @@
+package com.transport.subscription.support;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Contexte des tests de référence du nombre de requêtes SQL par endpoint
+ * Base H2 dédiée, non transactionnelle (les écritures sont réellement validées et donc comptées) ;
+ * les tâches planifiées à intervalle court sont espacées pour ne pas modifier les données pendant un test.
+ * Les classes annotées nettoient la base et les caches avant chaque test ({@link DatabaseCleaner}).
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sql-baseline;MODE=PostgreSQL",
+        "spring.jpa.show-sql=false",
+        "refund.batch.interval-ms=3600000",
+        "dunning.interval-ms=3600000",
+        "payment.webhook.apply-interval-ms=3600000",
+        "payment.pending.interval-ms=3600000",
+        "settlement.reconciliation.inbox-dir=target/sql-baseline/settlements/inbox",
+        "settlement.reconciliation.report-dir=target/sql-baseline/settlements/reports"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import({SqlRecordingConfig.class, DatabaseCleaner.class})
+public @interface SqlBaselineTest {
+}
@@ -0,0 +1,109 @@
+package com.transport.subscription.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Enregistre les requêtes SQL exécutées pendant une action de test (voir {@link SqlRecordingDataSource})
+ * Seules les requêtes du thread appelant sont comptées : les tâches planifiées et les exécuteurs internes
+ * qui tournent en parallèle ne faussent pas les comptes. Les requêtes d'un batch JDBC sont comptées une à une.
+ * <pre>{@code
+ * SqlRecording sql = SqlRecorder.record(() -> mockMvc.perform(get("/api/subscriptions/{id}", id)));
+ * sql.assertCounts(2, 0, 0, 0);
+ * }</pre>
+ */
+public final class SqlRecorder {
+
+    private static volatile Session current;
+
+    private SqlRecorder() {
+    }
+
+    /**
+     * Action enregistrée
+     */
+    @FunctionalInterface
+    public interface SqlAction {
+        void run() throws Exception;
+    }
+
+    /**
+     * Exécute l'action et compte les requêtes émises par le thread courant
+     */
+    public static SqlRecording record(SqlAction action) throws Exception {
+        Thread owner = Thread.currentThread();
+        return record(thread -> thread == owner, action);
+    }
+
+    /**
+     * Exécute l'action et compte les requêtes émises par le thread courant et par les threads dont le nom
+     * commence par le préfixe donné (ex. "task-" pour l'exécuteur des réponses asynchrones de Spring MVC)
+     */
+    public static SqlRecording recordIncludingThreads(String threadNamePrefix, SqlAction action) throws Exception {
+        Thread owner = Thread.currentThread();
+        return record(thread -> thread == owner || thread.getName().startsWith(threadNamePrefix), action);
+    }
+
+    private static synchronized SqlRecording record(Predicate<Thread> threads, SqlAction action) throws Exception {
+        Session session = new Session(threads);
+        current = session;
+        try {
+            action.run();
+        } finally {
+            current = null;
+        }
+        return session.toRecording();
+    }
+
+    /**
+     * Appelé par la source de données à chaque exécution de requête
+     */
+    static void onStatement(String sql) {
+        Session session = current;
+        if (session != null && session.threads.test(Thread.currentThread())) {
+            session.add(sql);
+        }
+    }
+
+    /**
+     * Type d'une requête d'après son premier mot-clé (commentaires de tête ignorés)
+     */
+    static SqlRecording.Kind classify(String sql) {
+        String statement = sql.strip();
+        while (statement.startsWith("/*") || statement.startsWith("--")) {
+            int end = statement.startsWith("/*") ? statement.indexOf("*/") + 2 : statement.indexOf('\n') + 1;
+            if (end <= 1) {
+                return SqlRecording.Kind.OTHER;
+            }
+            statement = statement.substring(end).strip();
+        }
+        String keyword = statement.split("[\\s(]", 2)[0].toLowerCase(Locale.ROOT);
+        return switch (keyword) {
+            case "select", "with" -> SqlRecording.Kind.SELECT;
+            case "insert" -> SqlRecording.Kind.INSERT;
+            case "update" -> SqlRecording.Kind.UPDATE;
+            case "delete" -> SqlRecording.Kind.DELETE;
+            default -> SqlRecording.Kind.OTHER;
+        };
+    }
+
+    private static final class Session {
+
+        private final Predicate<Thread> threads;
+        private final List<String> statements = new ArrayList<>();
+
+        Session(Predicate<Thread> threads) {
+            this.threads = threads;
+        }
+
+        synchronized void add(String sql) {
+            statements.add(sql);
+        }
+
+        synchronized SqlRecording toRecording() {
+            return new SqlRecording(List.copyOf(statements));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.transport.subscription.support;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Requêtes SQL enregistrées par {@link SqlRecorder}
+ */
+public record SqlRecording(List<String> statements) {
+
+    /**
+     * Type de requête
+     */
+    public enum Kind {
+        SELECT, INSERT, UPDATE, DELETE, OTHER
+    }
+
+    public long count(Kind kind) {
+        return statements.stream().filter(sql -> SqlRecorder.classify(sql) == kind).count();
+    }
+
+    public long selects() {
+        return count(Kind.SELECT);
+    }
+
+    public long inserts() {
+        return count(Kind.INSERT);
+    }
+
+    public long updates() {
+        return count(Kind.UPDATE);
+    }
+
+    public long deletes() {
+        return count(Kind.DELETE);
+    }
+
+    /**
+     * Vérifie le nombre exact de requêtes de chaque type (et l'absence de toute autre requête)
+     * En cas d'écart, le message liste les requêtes exécutées.
+     */
+    public void assertCounts(long selects, long inserts, long updates, long deletes) {
+        String expected = format(selects, inserts, updates, deletes, 0);
+        String actual = format(selects(), inserts(), updates(), deletes(), count(Kind.OTHER));
+        assertEquals(expected, actual, () -> "Requêtes exécutées:\n  " + String.join("\n  ", statements));
+    }
+
+    private static String format(long selects, long inserts, long updates, long deletes, long others) {
+        return String.format("select=%d, insert=%d, update=%d, delete=%d, autre=%d",
+                selects, inserts, updates, deletes, others);
+    }
+}
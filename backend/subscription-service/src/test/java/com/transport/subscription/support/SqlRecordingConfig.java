@@ -0,0 +1,28 @@
+package com.transport.subscription.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Enveloppe la source de données de l'application dans une {@link SqlRecordingDataSource}
+ * Statique : un BeanPostProcessor est instancié avant les beans qu'il traite.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlRecordingConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlRecordingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlRecordingDataSource)) {
+                    return new SqlRecordingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.transport.subscription.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour WebhookSignatures
+ */
+@DisplayName("WebhookSignatures Tests")
+class WebhookSignaturesTest {
+
+    private static final String PAYLOAD = "{\"id\":\"evt-1\",\"type\":\"payment.succeeded\"}";
+
+    @Test
+    @DisplayName("Devrait calculer le HMAC-SHA256 hexadécimal du payload")
+    void shouldSignWithHmacSha256() {
+        // Vecteur de référence RFC 4231, cas n°2
+        assertEquals("5bdcc146bf60754e6a042426089575c75a003f089d2739839dec58b964ec3843",
+                WebhookSignatures.sign("what do ya want for nothing?", "Jefe"));
+    }
+
+    @Test
+    @DisplayName("Devrait accepter une signature valide, quelle que soit sa casse")
+    void shouldVerifyValidSignature() {
+        String signature = WebhookSignatures.sign(PAYLOAD, "secret");
+
+        assertTrue(WebhookSignatures.verify(PAYLOAD, signature, "secret"));
+        assertTrue(WebhookSignatures.verify(PAYLOAD, signature.toUpperCase(), "secret"));
+    }
+
+    @Test
+    @DisplayName("Devrait rejeter un payload modifié ou signé avec un autre secret")
+    void shouldRejectForgedSignature() {
+        String signature = WebhookSignatures.sign(PAYLOAD, "secret");
+
+        assertFalse(WebhookSignatures.verify(PAYLOAD.replace("succeeded", "failed"), signature, "secret"));
+        assertFalse(WebhookSignatures.verify(PAYLOAD, WebhookSignatures.sign(PAYLOAD, "other"), "secret"));
+        assertFalse(WebhookSignatures.verify(PAYLOAD, null, "secret"));
+    }
+
+    @Test
+    @DisplayName("Devrait rejeter tout webhook lorsque le secret n'est pas configuré")
+    void shouldRejectEverythingWithoutSecret() {
+        assertFalse(WebhookSignatures.verify(PAYLOAD, WebhookSignatures.sign(PAYLOAD, " "), " "));
+        assertFalse(WebhookSignatures.verify(PAYLOAD, "anything", ""));
+        assertFalse(WebhookSignatures.verify(PAYLOAD, "anything", null));
+    }
+}